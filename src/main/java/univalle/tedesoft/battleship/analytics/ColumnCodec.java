@@ -0,0 +1,362 @@
+package univalle.tedesoft.battleship.analytics;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Codificación de un bloque de enteros de una columna.
+ * Para cada bloque se calcula el tamaño de todas las codificaciones y se usa la más pequeña:
+ * <ul>
+ *     <li>{@link #PLAIN}: cada valor como varint en zigzag.</li>
+ *     <li>{@link #RUN_LENGTH}: pares (valor, repeticiones); ideal para tiradores y resultados.</li>
+ *     <li>{@link #DELTA_RUN_LENGTH}: pares sobre las diferencias entre valores consecutivos;
+ *     ideal para identificadores y turnos, que crecen de a uno.</li>
+ *     <li>{@link #DICTIONARY}: hasta 256 valores distintos y un byte por fila; ideal para celdas.</li>
+ *     <li>{@link #DICTIONARY_RUN_LENGTH}: diccionario y pares (índice, repeticiones).</li>
+ * </ul>
+ * La decodificación recorre un arreglo de bytes sin crear objetos por valor.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+final class ColumnCodec {
+    static final byte PLAIN = 0;
+    static final byte RUN_LENGTH = 1;
+    static final byte DELTA_RUN_LENGTH = 2;
+    static final byte DICTIONARY = 3;
+    static final byte DICTIONARY_RUN_LENGTH = 4;
+
+    /** Máximo de valores distintos para usar diccionario (un byte por índice). */
+    private static final int MAX_DICTIONARY = 256;
+    /** Capacidad de la tabla hash usada para construir el diccionario. */
+    private static final int DICTIONARY_TABLE = 1024;
+
+    /** Tabla hash reutilizable: valor y posición en el diccionario (+1; 0 es vacío). */
+    private final int[] tableValues = new int[DICTIONARY_TABLE];
+    private final int[] tableSlots = new int[DICTIONARY_TABLE];
+    /** Diccionario del último bloque analizado. */
+    private final int[] dictionary = new int[MAX_DICTIONARY];
+    private int dictionarySize;
+
+    /** Bytes codificados del último bloque. */
+    private byte[] output = new byte[4096];
+    private int outputSize;
+
+    /**
+     * Codifica un bloque con la codificación más compacta.
+     * @param values Valores de la columna.
+     * @param count Cantidad de valores válidos.
+     * @return La codificación usada; los bytes quedan en {@link #getOutput()}.
+     */
+    byte encode(int[] values, int count) {
+        long plainSize = 0;
+        long runSize = 0;
+        long deltaSize = 0;
+        int runs = 0;
+        for (int i = 0; i < count; i++) {
+            plainSize += varintSize(zigzag(values[i]));
+            if (i == 0 || values[i] != values[i - 1]) {
+                runs++;
+            }
+        }
+        // Tamaños exactos de las codificaciones por repetición, directa y sobre diferencias.
+        int previous = 0;
+        int previousDelta = 0;
+        int runLength = 0;
+        int deltaRunLength = 0;
+        for (int i = 0; i < count; i++) {
+            if (i > 0 && values[i] == values[i - 1]) {
+                runLength++;
+            } else {
+                if (i > 0) {
+                    runSize += varintSize(zigzag(values[i - 1])) + varintSize(runLength);
+                }
+                runLength = 1;
+            }
+            int delta = values[i] - previous;
+            previous = values[i];
+            if (i > 0 && delta == previousDelta) {
+                deltaRunLength++;
+            } else {
+                if (i > 0) {
+                    deltaSize += varintSize(zigzag(previousDelta)) + varintSize(deltaRunLength);
+                }
+                deltaRunLength = 1;
+                previousDelta = delta;
+            }
+        }
+        if (count > 0) {
+            runSize += varintSize(zigzag(values[count - 1])) + varintSize(runLength);
+            deltaSize += varintSize(zigzag(previousDelta)) + varintSize(deltaRunLength);
+        }
+
+        long dictionarySizeBytes = Long.MAX_VALUE;
+        long dictionaryRunBytes = Long.MAX_VALUE;
+        if (this.buildDictionary(values, count)) {
+            long header = varintSize(this.dictionarySize);
+            for (int i = 0; i < this.dictionarySize; i++) {
+                header += varintSize(zigzag(this.dictionary[i]));
+            }
+            dictionarySizeBytes = header + count;
+            // Cada tramo ocupa un byte de índice y la longitud; se estima con la media de los tramos.
+            dictionaryRunBytes = header + runs + (runs == 0 ? 0 : (long) runs * varintSize(Math.max(1, count / runs)));
+        }
+
+        long best = Math.min(Math.min(plainSize, runSize), Math.min(deltaSize, Math.min(dictionarySizeBytes, dictionaryRunBytes)));
+        this.outputSize = 0;
+        if (best == dictionarySizeBytes) {
+            this.writeDictionary();
+            this.ensureCapacity(count);
+            for (int i = 0; i < count; i++) {
+                this.output[this.outputSize++] = (byte) this.lookup(values[i]);
+            }
+            return DICTIONARY;
+        }
+        if (best == dictionaryRunBytes) {
+            this.writeDictionary();
+            int start = 0;
+            for (int i = 1; i <= count; i++) {
+                if (i == count || values[i] != values[start]) {
+                    this.ensureCapacity(6);
+                    this.output[this.outputSize++] = (byte) this.lookup(values[start]);
+                    this.writeVarint(i - start);
+                    start = i;
+                }
+            }
+            return DICTIONARY_RUN_LENGTH;
+        }
+        if (best == runSize) {
+            int start = 0;
+            for (int i = 1; i <= count; i++) {
+                if (i == count || values[i] != values[start]) {
+                    this.writeVarint(zigzag(values[start]));
+                    this.writeVarint(i - start);
+                    start = i;
+                }
+            }
+            return RUN_LENGTH;
+        }
+        if (best == deltaSize) {
+            previous = 0;
+            int runDelta = 0;
+            int run = 0;
+            for (int i = 0; i < count; i++) {
+                int delta = values[i] - previous;
+                previous = values[i];
+                if (run > 0 && delta == runDelta) {
+                    run++;
+                } else {
+                    if (run > 0) {
+                        this.writeVarint(zigzag(runDelta));
+                        this.writeVarint(run);
+                    }
+                    runDelta = delta;
+                    run = 1;
+                }
+            }
+            if (run > 0) {
+                this.writeVarint(zigzag(runDelta));
+                this.writeVarint(run);
+            }
+            return DELTA_RUN_LENGTH;
+        }
+        for (int i = 0; i < count; i++) {
+            this.writeVarint(zigzag(values[i]));
+        }
+        return PLAIN;
+    }
+
+    /** @return Bytes codificados del último bloque; válidos hasta el siguiente encode. */
+    byte[] getOutput() {
+        return this.output;
+    }
+
+    /** @return Cantidad de bytes válidos en {@link #getOutput()}. */
+    int getOutputSize() {
+        return this.outputSize;
+    }
+
+    /**
+     * Decodifica un bloque.
+     * @param encoding Codificación del bloque.
+     * @param data Bytes codificados.
+     * @param offset Posición inicial en data.
+     * @param length Cantidad de bytes codificados.
+     * @param count Cantidad de valores del bloque.
+     * @param target Destino de los valores; debe tener al menos count posiciones.
+     * @throws IOException Si los datos están corruptos.
+     */
+    static void decode(byte encoding, byte[] data, int offset, int length, int count, int[] target) throws IOException {
+        Cursor cursor = new Cursor(data, offset, offset + length);
+        switch (encoding) {
+            case PLAIN:
+                for (int i = 0; i < count; i++) {
+                    target[i] = unzigzag(cursor.readVarint());
+                }
+                break;
+            case RUN_LENGTH:
+                for (int i = 0; i < count; ) {
+                    int value = unzigzag(cursor.readVarint());
+                    int run = checkRun(cursor.readVarint(), i, count);
+                    Arrays.fill(target, i, i + run, value);
+                    i += run;
+                }
+                break;
+            case DELTA_RUN_LENGTH:
+                int value = 0;
+                for (int i = 0; i < count; ) {
+                    int delta = unzigzag(cursor.readVarint());
+                    int run = checkRun(cursor.readVarint(), i, count);
+                    for (int end = i + run; i < end; i++) {
+                        value += delta;
+                        target[i] = value;
+                    }
+                }
+                break;
+            case DICTIONARY:
+            case DICTIONARY_RUN_LENGTH:
+                int[] dictionary = new int[cursor.readVarint()];
+                for (int d = 0; d < dictionary.length; d++) {
+                    dictionary[d] = unzigzag(cursor.readVarint());
+                }
+                if (encoding == DICTIONARY) {
+                    for (int i = 0; i < count; i++) {
+                        target[i] = dictionary[checkIndex(cursor.readByte(), dictionary.length)];
+                    }
+                } else {
+                    for (int i = 0; i < count; ) {
+                        int entry = dictionary[checkIndex(cursor.readByte(), dictionary.length)];
+                        int run = checkRun(cursor.readVarint(), i, count);
+                        Arrays.fill(target, i, i + run, entry);
+                        i += run;
+                    }
+                }
+                break;
+            default:
+                throw new IOException("Codificación de columna desconocida: " + encoding);
+        }
+    }
+
+    // --- Métodos Privados Auxiliares ---
+
+    /**
+     * Construye el diccionario del bloque con una tabla hash de direccionamiento abierto.
+     * @return false si el bloque tiene más de 256 valores distintos.
+     */
+    private boolean buildDictionary(int[] values, int count) {
+        Arrays.fill(this.tableSlots, 0);
+        this.dictionarySize = 0;
+        for (int i = 0; i < count; i++) {
+            if (i > 0 && values[i] == values[i - 1]) {
+                continue;
+            }
+            int value = values[i];
+            int slot = hash(value);
+            while (this.tableSlots[slot] != 0 && this.tableValues[slot] != value) {
+                slot = (slot + 1) & (DICTIONARY_TABLE - 1);
+            }
+            if (this.tableSlots[slot] == 0) {
+                if (this.dictionarySize == MAX_DICTIONARY) {
+                    return false;
+                }
+                this.dictionary[this.dictionarySize++] = value;
+                this.tableValues[slot] = value;
+                this.tableSlots[slot] = this.dictionarySize;
+            }
+        }
+        return true;
+    }
+
+    private int lookup(int value) {
+        int slot = hash(value);
+        while (this.tableValues[slot] != value) {
+            slot = (slot + 1) & (DICTIONARY_TABLE - 1);
+        }
+        return this.tableSlots[slot] - 1;
+    }
+
+    private void writeDictionary() {
+        this.writeVarint(this.dictionarySize);
+        for (int i = 0; i < this.dictionarySize; i++) {
+            this.writeVarint(zigzag(this.dictionary[i]));
+        }
+    }
+
+    private void writeVarint(int value) {
+        this.ensureCapacity(5);
+        while ((value & ~0x7F) != 0) {
+            this.output[this.outputSize++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        this.output[this.outputSize++] = (byte) value;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (this.outputSize + extra > this.output.length) {
+            this.output = Arrays.copyOf(this.output, Math.max(this.output.length * 2, this.outputSize + extra));
+        }
+    }
+
+    private static int checkRun(int run, int position, int count) throws IOException {
+        if (run <= 0 || run > count - position) {
+            throw new IOException("Tramo de columna inválido: " + run);
+        }
+        return run;
+    }
+
+    private static int checkIndex(int index, int dictionarySize) throws IOException {
+        if (index >= dictionarySize) {
+            throw new IOException("Índice de diccionario inválido: " + index);
+        }
+        return index;
+    }
+
+    private static int hash(int value) {
+        return (value * 0x9E3779B9 >>> 22) & (DICTIONARY_TABLE - 1);
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int varintSize(int value) {
+        return (value & ~0x7F) == 0 ? 1 : (value & ~0x3FFF) == 0 ? 2 : (value & ~0x1FFFFF) == 0 ? 3 : (value & ~0xFFFFFFF) == 0 ? 4 : 5;
+    }
+
+    /** Lector secuencial de bytes con comprobación de límites. */
+    private static final class Cursor {
+        private final byte[] data;
+        private final int end;
+        private int position;
+
+        private Cursor(byte[] data, int position, int end) {
+            this.data = data;
+            this.position = position;
+            this.end = end;
+        }
+
+        private int readByte() throws IOException {
+            if (this.position >= this.end) {
+                throw new IOException("Columna truncada");
+            }
+            return this.data[this.position++] & 0xFF;
+        }
+
+        private int readVarint() throws IOException {
+            int result = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int current = this.readByte();
+                result |= (current & 0x7F) << shift;
+                if ((current & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IOException("Varint inválido en la columna");
+        }
+    }
+}
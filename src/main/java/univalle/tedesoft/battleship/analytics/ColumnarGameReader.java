@@ -0,0 +1,171 @@
+package univalle.tedesoft.battleship.analytics;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Lee un archivo escrito por {@link ColumnarGameWriter} grupo de filas por grupo de filas,
+ * decodificando solo las columnas que se piden (proyección). Las columnas no pedidas no se
+ * leen del disco: el lector conoce su posición por la cabecera del grupo y las salta.
+ * <pre>
+ * try (ColumnarGameReader reader = new ColumnarGameReader(path)) {
+ *     while (reader.nextRowGroup()) {
+ *         int[] results = reader.readColumn(GameColumn.SHOT_RESULT);
+ *         for (int i = 0; i &lt; reader.getRowCount(GameColumn.Table.SHOTS); i++) { ... }
+ *     }
+ * }
+ * </pre>
+ * Los arreglos devueltos se reutilizan entre grupos y entre llamadas; solo son válidos hasta
+ * el siguiente {@link #nextRowGroup()}.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class ColumnarGameReader implements Closeable {
+    private static final GameColumn[] COLUMNS = GameColumn.values();
+    /** Tamaño fijo de la cabecera de un grupo sin la descripción de columnas. */
+    private static final int ROW_GROUP_HEADER = 17;
+    /** Tamaño de la descripción de cada columna en la cabecera. */
+    private static final int COLUMN_HEADER = 6;
+
+    private final FileChannel channel;
+    /** Posición del siguiente grupo de filas en el archivo. */
+    private long nextGroupPosition;
+
+    private final int[] rowCounts = new int[GameColumn.Table.values().length];
+    private final long[] columnPositions = new long[COLUMNS.length];
+    private final int[] columnLengths = new int[COLUMNS.length];
+    private final byte[] columnEncodings = new byte[COLUMNS.length];
+    private final boolean[] columnPresent = new boolean[COLUMNS.length];
+    private final boolean[] columnDecoded = new boolean[COLUMNS.length];
+    private final int[][] decoded = new int[COLUMNS.length][];
+    private ByteBuffer readBuffer = ByteBuffer.allocate(1 << 16);
+
+    /**
+     * Abre un archivo columnar.
+     * @param path Ruta del archivo.
+     * @throws IOException Si no existe o no es un archivo columnar de partidas.
+     */
+    public ColumnarGameReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = this.read(0, ColumnarGameWriter.MAGIC.length + 1);
+            for (byte expected : ColumnarGameWriter.MAGIC) {
+                if (header.get() != expected) {
+                    throw new IOException("No es un archivo columnar de partidas: " + path);
+                }
+            }
+            int version = header.get();
+            if (version > ColumnarGameWriter.VERSION) {
+                throw new IOException("Versión de archivo columnar no soportada: " + version);
+            }
+            this.nextGroupPosition = ColumnarGameWriter.MAGIC.length + 1;
+        } catch (IOException e) {
+            this.channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Avanza al siguiente grupo de filas leyendo solo su cabecera.
+     * @return false si no quedan grupos.
+     * @throws IOException Si el archivo está truncado o corrupto.
+     */
+    public boolean nextRowGroup() throws IOException {
+        if (this.nextGroupPosition >= this.channel.size()) {
+            return false;
+        }
+        ByteBuffer header = this.read(this.nextGroupPosition, ROW_GROUP_HEADER);
+        if (header.getInt() != ColumnarGameWriter.ROW_GROUP_MAGIC) {
+            throw new IOException("Grupo de filas corrupto en la posición " + this.nextGroupPosition);
+        }
+        this.rowCounts[GameColumn.Table.GAMES.ordinal()] = header.getInt();
+        this.rowCounts[GameColumn.Table.SHIPS.ordinal()] = header.getInt();
+        this.rowCounts[GameColumn.Table.SHOTS.ordinal()] = header.getInt();
+        int columnCount = header.get() & 0xFF;
+
+        ByteBuffer columnHeader = this.read(this.nextGroupPosition + ROW_GROUP_HEADER, columnCount * COLUMN_HEADER);
+        Arrays.fill(this.columnPresent, false);
+        Arrays.fill(this.columnDecoded, false);
+        long position = this.nextGroupPosition + ROW_GROUP_HEADER + (long) columnCount * COLUMN_HEADER;
+        for (int i = 0; i < columnCount; i++) {
+            int id = columnHeader.get() & 0xFF;
+            byte encoding = columnHeader.get();
+            int length = columnHeader.getInt();
+            // Columnas de versiones posteriores que este lector no conoce se saltan.
+            if (id < COLUMNS.length) {
+                this.columnPresent[id] = true;
+                this.columnEncodings[id] = encoding;
+                this.columnLengths[id] = length;
+                this.columnPositions[id] = position;
+            }
+            position += length;
+        }
+        this.nextGroupPosition = position;
+        return true;
+    }
+
+    /**
+     * Cantidad de filas de una tabla en el grupo actual.
+     * @param table La tabla.
+     * @return Filas del grupo.
+     */
+    public int getRowCount(GameColumn.Table table) {
+        return this.rowCounts[table.ordinal()];
+    }
+
+    /**
+     * Lee y decodifica una columna del grupo actual. Leer la misma columna dos veces en un grupo
+     * no repite el trabajo.
+     * @param column La columna.
+     * @return Los valores; solo las primeras getRowCount(column.getTable()) posiciones son válidas.
+     * @throws IOException Si la columna está corrupta o no existe en el archivo.
+     */
+    public int[] readColumn(GameColumn column) throws IOException {
+        int id = column.ordinal();
+        if (this.columnDecoded[id]) {
+            return this.decoded[id];
+        }
+        if (!this.columnPresent[id]) {
+            throw new IOException("El archivo no tiene la columna " + column);
+        }
+        int rows = this.getRowCount(column.getTable());
+        if (this.decoded[id] == null || this.decoded[id].length < rows) {
+            this.decoded[id] = new int[Math.max(rows, 1024)];
+        }
+        ByteBuffer data = this.read(this.columnPositions[id], this.columnLengths[id]);
+        ColumnCodec.decode(this.columnEncodings[id], data.array(), 0, this.columnLengths[id], rows, this.decoded[id]);
+        this.columnDecoded[id] = true;
+        return this.decoded[id];
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    /**
+     * Lee un rango del archivo en el buffer reutilizable.
+     */
+    private ByteBuffer read(long position, int length) throws IOException {
+        if (this.readBuffer.capacity() < length) {
+            this.readBuffer = ByteBuffer.allocate(Math.max(length, this.readBuffer.capacity() * 2));
+        }
+        ByteBuffer buffer = this.readBuffer;
+        buffer.clear().limit(length);
+        while (buffer.hasRemaining()) {
+            if (this.channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Archivo columnar truncado");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+}
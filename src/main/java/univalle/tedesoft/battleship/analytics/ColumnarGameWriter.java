@@ -0,0 +1,215 @@
+package univalle.tedesoft.battleship.analytics;
+
+import univalle.tedesoft.battleship.models.enums.GamePhase;
+import univalle.tedesoft.battleship.models.state.GameState;
+import univalle.tedesoft.battleship.simulation.GameArena;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Escribe partidas terminadas en un archivo columnar compacto para análisis fuera de línea.
+ * <p>
+ * Las partidas se acumulan en memoria por grupos de filas; al completarse un grupo, cada
+ * columna se codifica por separado con {@link ColumnCodec} (diccionario, repeticiones o
+ * diferencias, la que resulte más pequeña) y se escribe seguida. Cada grupo empieza con una
+ * cabecera de tamaño fijo con la longitud de cada columna, de modo que
+ * {@link ColumnarGameReader} puede saltar las columnas que no se piden sin leerlas del disco.
+ * <p>
+ * Estructura del archivo: la firma {@code BSCOL} y un byte de versión; luego los grupos de filas,
+ * cada uno con {@code RGRP}, las filas de partidas, barcos y disparos (int), la cantidad de
+ * columnas (byte), por columna su identificador (byte), codificación (byte) y longitud (int),
+ * y por último los datos de las columnas en ese orden.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class ColumnarGameWriter implements Closeable {
+    /** Firma del archivo. */
+    static final byte[] MAGIC = {'B', 'S', 'C', 'O', 'L'};
+    /** Versión del formato. */
+    static final int VERSION = 1;
+    /** Firma de cada grupo de filas. */
+    static final int ROW_GROUP_MAGIC = 0x52475250;
+    /** Disparos por grupo de filas; acota la memoria del escritor y del lector. */
+    private static final int ROW_GROUP_SHOTS = 1 << 20;
+    /** Partidas máximas por grupo de filas. */
+    private static final int ROW_GROUP_GAMES = 1 << 16;
+
+    private static final GameColumn[] COLUMNS = GameColumn.values();
+
+    private final DataOutputStream output;
+    private final ColumnCodec codec = new ColumnCodec();
+    /** Valores pendientes de cada columna, indexados por ordinal. */
+    private final int[][] columns = new int[COLUMNS.length][];
+    private int gameRows;
+    private int shipRows;
+    private int shotRows;
+    private int nextGameId;
+    private boolean closed;
+
+    /**
+     * Crea el archivo columnar, reemplazando uno existente.
+     * @param path Ruta del archivo.
+     * @throws IOException Si no se puede crear.
+     */
+    public ColumnarGameWriter(Path path) throws IOException {
+        this.output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16));
+        this.output.write(MAGIC);
+        this.output.writeByte(VERSION);
+        for (GameColumn column : COLUMNS) {
+            this.columns[column.ordinal()] = new int[column.getTable() == GameColumn.Table.GAMES ? 1024 : 8192];
+        }
+    }
+
+    /**
+     * Agrega una partida al archivo. Los datos se copian, por lo que el registro se puede reutilizar.
+     * @param record La partida.
+     * @throws IOException Si falla la escritura de un grupo de filas completo.
+     */
+    public void write(GameRecord record) throws IOException {
+        this.ensureCapacity(GameColumn.Table.GAMES, this.gameRows + 1);
+        this.ensureCapacity(GameColumn.Table.SHIPS, this.shipRows + record.getShipCount());
+        this.ensureCapacity(GameColumn.Table.SHOTS, this.shotRows + record.getShotCount());
+
+        this.columns[GameColumn.GAME_ID.ordinal()][this.gameRows] = this.nextGameId++;
+        this.columns[GameColumn.GAME_WINNER.ordinal()][this.gameRows] = record.getWinner();
+        this.columns[GameColumn.GAME_BOARD_SIZE.ordinal()][this.gameRows] = record.getBoardSize();
+        this.columns[GameColumn.GAME_SHIP_COUNT.ordinal()][this.gameRows] = record.getShipCount();
+        this.columns[GameColumn.GAME_SHOT_COUNT.ordinal()][this.gameRows] = record.getShotCount();
+        this.columns[GameColumn.GAME_INITIAL_SHOT_COUNT.ordinal()][this.gameRows] = record.getInitialShotCount();
+        this.gameRows++;
+        for (GameColumn column : COLUMNS) {
+            if (column.getTable() == GameColumn.Table.SHIPS) {
+                record.copyColumn(column, this.columns[column.ordinal()], this.shipRows);
+            } else if (column.getTable() == GameColumn.Table.SHOTS) {
+                record.copyColumn(column, this.columns[column.ordinal()], this.shotRows);
+            }
+        }
+        this.shipRows += record.getShipCount();
+        this.shotRows += record.getShotCount();
+
+        if (this.shotRows >= ROW_GROUP_SHOTS || this.gameRows >= ROW_GROUP_GAMES) {
+            this.flushRowGroup();
+        }
+    }
+
+    /**
+     * Agrega la partida de un GameState (flotas, historial de disparos y ganador). En una partida
+     * cargada, los disparos previos a la carga se escriben primero como disparos iniciales, como en
+     * {@link GameRecord#loadFrom}.
+     * @param gameState La partida.
+     * @throws IOException Si falla la escritura.
+     */
+    public void write(GameState gameState) throws IOException {
+        GameRecord record = new GameRecord();
+        record.loadFrom(gameState);
+        this.write(record);
+    }
+
+    /**
+     * Juega hasta el final las partidas recién inicializadas de una arena y escribe cada una
+     * con todos sus disparos. Las partidas se juegan de a una para registrar sus disparos en orden;
+     * las que ya tenían disparos o no pudieron colocar su flota se omiten.
+     * @param arena La arena de partidas.
+     * @param maxRounds Máximo de disparos por partida.
+     * @return Cantidad de partidas escritas.
+     * @throws IOException Si falla la escritura.
+     */
+    public int writeArenaGames(GameArena arena, int maxRounds) throws IOException {
+        GameRecord record = new GameRecord();
+        int[] fleet = arena.getFleet();
+        GameArena.ShotListener listener = (game, shooter, cell, result) -> record.addShot(shooter, cell, result);
+        int written = 0;
+        for (int game = 0; game < arena.size(); game++) {
+            if (arena.getPhase(game) != GamePhase.FIRING
+                    || arena.getShotsFired(game, 0) != 0 || arena.getShotsFired(game, 1) != 0) {
+                continue;
+            }
+            record.reset(GameArena.BOARD_SIZE);
+            for (int player = 0; player < 2; player++) {
+                for (int ship = 0; ship < fleet.length; ship++) {
+                    record.addShip(player, fleet[ship], arena.getShipStartCell(game, player, ship),
+                            arena.isShipVertical(game, player, ship));
+                }
+            }
+            arena.runToCompletion(game, game + 1, maxRounds, listener);
+            record.setWinner(arena.getWinner(game));
+            this.write(record);
+            written++;
+        }
+        return written;
+    }
+
+    /**
+     * Escribe el grupo de filas pendiente y cierra el archivo.
+     * @throws IOException Si falla la escritura.
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        try {
+            this.flushRowGroup();
+        } finally {
+            this.output.close();
+        }
+    }
+
+    // --- Métodos Privados Auxiliares ---
+
+    private void flushRowGroup() throws IOException {
+        if (this.gameRows == 0) {
+            return;
+        }
+        // Se codifican todas las columnas antes de escribir la cabecera con sus longitudes.
+        byte[][] encoded = new byte[COLUMNS.length][];
+        byte[] encodings = new byte[COLUMNS.length];
+        for (GameColumn column : COLUMNS) {
+            int rows = this.rowCount(column.getTable());
+            encodings[column.ordinal()] = this.codec.encode(this.columns[column.ordinal()], rows);
+            encoded[column.ordinal()] = Arrays.copyOf(this.codec.getOutput(), this.codec.getOutputSize());
+        }
+        this.output.writeInt(ROW_GROUP_MAGIC);
+        this.output.writeInt(this.gameRows);
+        this.output.writeInt(this.shipRows);
+        this.output.writeInt(this.shotRows);
+        this.output.writeByte(COLUMNS.length);
+        for (GameColumn column : COLUMNS) {
+            this.output.writeByte(column.ordinal());
+            this.output.writeByte(encodings[column.ordinal()]);
+            this.output.writeInt(encoded[column.ordinal()].length);
+        }
+        for (byte[] data : encoded) {
+            this.output.write(data);
+        }
+        this.gameRows = 0;
+        this.shipRows = 0;
+        this.shotRows = 0;
+    }
+
+    private int rowCount(GameColumn.Table table) {
+        switch (table) {
+            case GAMES: return this.gameRows;
+            case SHIPS: return this.shipRows;
+            default: return this.shotRows;
+        }
+    }
+
+    private void ensureCapacity(GameColumn.Table table, int rows) {
+        for (GameColumn column : COLUMNS) {
+            int[] values = this.columns[column.ordinal()];
+            if (column.getTable() == table && values.length < rows) {
+                this.columns[column.ordinal()] = Arrays.copyOf(values, Math.max(rows, values.length * 2));
+            }
+        }
+    }
+}
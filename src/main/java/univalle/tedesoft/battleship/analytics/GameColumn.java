@@ -0,0 +1,62 @@
+package univalle.tedesoft.battleship.analytics;
+
+/**
+ * Columnas del archivo columnar de partidas terminadas.
+ * Cada columna pertenece a una de tres tablas: una fila por partida, una fila por barco colocado
+ * y una fila por disparo. Las filas de barcos y disparos aparecen en el mismo orden que las partidas;
+ * {@link #GAME_SHIP_COUNT} y {@link #GAME_SHOT_COUNT} indican cuántas filas corresponden a cada una.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public enum GameColumn {
+    /** Identificador secuencial de la partida dentro del archivo. */
+    GAME_ID(Table.GAMES),
+    /** Ganador: 0 el primer jugador (humano), 1 el segundo (máquina), -1 sin terminar. */
+    GAME_WINNER(Table.GAMES),
+    /** Tamaño del tablero (filas = columnas). */
+    GAME_BOARD_SIZE(Table.GAMES),
+    /** Cantidad de filas de barcos de la partida. */
+    GAME_SHIP_COUNT(Table.GAMES),
+    /** Cantidad de filas de disparos de la partida. */
+    GAME_SHOT_COUNT(Table.GAMES),
+    /** Dueño del barco (0 o 1). */
+    SHIP_PLAYER(Table.SHIPS),
+    /** Longitud del barco. */
+    SHIP_LENGTH(Table.SHIPS),
+    /** Celda lineal de inicio del barco (fila * tamaño + columna). */
+    SHIP_START_CELL(Table.SHIPS),
+    /** 1 si el barco está en vertical, 0 si está en horizontal. */
+    SHIP_VERTICAL(Table.SHIPS),
+    /** Número de turno del disparo; cambia cada vez que cambia el tirador. */
+    SHOT_TURN(Table.SHOTS),
+    /** Jugador que disparó (0 o 1). */
+    SHOT_SHOOTER(Table.SHOTS),
+    /** Celda lineal atacada (fila * tamaño + columna). */
+    SHOT_CELL(Table.SHOTS),
+    /** Resultado del disparo: ordinal de ShotResult (WATER, TOUCHED o SUNKEN). */
+    SHOT_RESULT(Table.SHOTS),
+    /**
+     * Cantidad de disparos iniciales de la partida: sus primeros disparos, que ya estaban hechos
+     * cuando empezó el historial (ver {@link GameRecord#getInitialShotCount()}). Va al final para
+     * no cambiar los identificadores de las demás; los archivos anteriores no la tienen.
+     */
+    GAME_INITIAL_SHOT_COUNT(Table.GAMES);
+
+    /** Tablas del archivo columnar. */
+    public enum Table { GAMES, SHIPS, SHOTS }
+
+    private final Table table;
+
+    GameColumn(Table table) {
+        this.table = table;
+    }
+
+    /**
+     * @return La tabla a la que pertenece la columna.
+     */
+    public Table getTable() {
+        return this.table;
+    }
+}
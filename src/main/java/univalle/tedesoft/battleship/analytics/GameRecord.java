@@ -0,0 +1,328 @@
+package univalle.tedesoft.battleship.analytics;
+
+import univalle.tedesoft.battleship.models.board.Board;
+import univalle.tedesoft.battleship.models.board.Coordinate;
+import univalle.tedesoft.battleship.models.board.ShotOutcome;
+import univalle.tedesoft.battleship.models.enums.CellState;
+import univalle.tedesoft.battleship.models.enums.Orientation;
+import univalle.tedesoft.battleship.models.enums.ShotResult;
+import univalle.tedesoft.battleship.models.ships.Ship;
+import univalle.tedesoft.battleship.models.state.IGameState;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Registro de una partida terminada en forma de arreglos primitivos: la flota de cada jugador,
+ * la secuencia de disparos con su resultado y el ganador. Es la unidad que consume
+ * {@link ColumnarGameWriter}; se puede reutilizar entre partidas con {@link #reset(int)}.
+ * El jugador 0 es el humano (o el primer jugador de la arena) y el 1 la máquina.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class GameRecord {
+    private static final ShotResult[] SHOT_RESULTS = ShotResult.values();
+
+    private int boardSize;
+    private int winner = -1;
+
+    private int shipCount;
+    private int[] shipPlayer = new int[32];
+    private int[] shipLength = new int[32];
+    private int[] shipStartCell = new int[32];
+    private int[] shipVertical = new int[32];
+
+    private int shotCount;
+    private int[] shotTurn = new int[128];
+    private int[] shotShooter = new int[128];
+    private int[] shotCell = new int[128];
+    private int[] shotResult = new int[128];
+    private int currentTurn;
+    /** Disparos iniciales: los que ya estaban en los tableros cuando empezó el historial. */
+    private int initialShotCount;
+
+    /**
+     * Crea un registro vacío para un tablero de 10x10.
+     */
+    public GameRecord() {
+        this.reset(10);
+    }
+
+    /**
+     * Vacía el registro para reutilizarlo con otra partida.
+     * @param boardSize Tamaño del tablero de la nueva partida.
+     */
+    public void reset(int boardSize) {
+        this.boardSize = boardSize;
+        this.winner = -1;
+        this.shipCount = 0;
+        this.shotCount = 0;
+        this.currentTurn = 0;
+        this.initialShotCount = 0;
+    }
+
+    /**
+     * Agrega un barco a la flota de un jugador.
+     * @param player Dueño del barco (0 o 1).
+     * @param length Longitud del barco.
+     * @param startCell Celda lineal de inicio (la de menor fila y columna).
+     * @param vertical true si el barco está en vertical.
+     */
+    public void addShip(int player, int length, int startCell, boolean vertical) {
+        if (this.shipCount == this.shipPlayer.length) {
+            int capacity = this.shipCount * 2;
+            this.shipPlayer = Arrays.copyOf(this.shipPlayer, capacity);
+            this.shipLength = Arrays.copyOf(this.shipLength, capacity);
+            this.shipStartCell = Arrays.copyOf(this.shipStartCell, capacity);
+            this.shipVertical = Arrays.copyOf(this.shipVertical, capacity);
+        }
+        this.shipPlayer[this.shipCount] = player;
+        this.shipLength[this.shipCount] = length;
+        this.shipStartCell[this.shipCount] = startCell;
+        this.shipVertical[this.shipCount] = vertical ? 1 : 0;
+        this.shipCount++;
+    }
+
+    /**
+     * Agrega el siguiente disparo de la partida. El turno avanza cada vez que cambia el tirador,
+     * de modo que una racha de aciertos o una salva completa comparten el mismo turno.
+     * @param shooter Jugador que disparó (0 o 1).
+     * @param cell Celda lineal atacada.
+     * @param result Resultado del disparo.
+     */
+    public void addShot(int shooter, int cell, ShotResult result) {
+        if (this.shotCount == this.shotTurn.length) {
+            int capacity = this.shotCount * 2;
+            this.shotTurn = Arrays.copyOf(this.shotTurn, capacity);
+            this.shotShooter = Arrays.copyOf(this.shotShooter, capacity);
+            this.shotCell = Arrays.copyOf(this.shotCell, capacity);
+            this.shotResult = Arrays.copyOf(this.shotResult, capacity);
+        }
+        if (this.shotCount > 0 && this.shotShooter[this.shotCount - 1] != shooter) {
+            this.currentTurn++;
+        }
+        this.shotTurn[this.shotCount] = this.currentTurn;
+        this.shotShooter[this.shotCount] = shooter;
+        this.shotCell[this.shotCount] = cell;
+        this.shotResult[this.shotCount] = result.ordinal();
+        this.shotCount++;
+    }
+
+    /**
+     * Agrega el siguiente disparo a partir del resultado que devuelve el tablero.
+     * @param shooter Jugador que disparó (0 o 1).
+     * @param outcome Resultado del disparo, con la coordenada atacada.
+     */
+    public void addShot(int shooter, ShotOutcome outcome) {
+        Coordinate coordinate = outcome.getCoordinate();
+        this.addShot(shooter, coordinate.getY() * this.boardSize + coordinate.getX(), outcome.getResult());
+    }
+
+    /**
+     * Marca los primeros disparos del registro como iniciales: los que ya estaban hechos cuando
+     * empezó el historial, como en una partida cargada. Su orden no es el de la partida.
+     * @param initialShotCount Cantidad de disparos iniciales, entre 0 y getShotCount().
+     */
+    public void setInitialShotCount(int initialShotCount) {
+        if (initialShotCount < 0 || initialShotCount > this.shotCount) {
+            throw new IllegalArgumentException("Disparos iniciales inválidos: " + initialShotCount);
+        }
+        this.initialShotCount = initialShotCount;
+    }
+
+    /**
+     * @param winner Ganador de la partida (0 o 1), o -1 si no terminó.
+     */
+    public void setWinner(int winner) {
+        this.winner = winner;
+    }
+
+    /**
+     * Llena el registro con la partida de un GameState: las flotas de ambos jugadores y los
+     * disparos de su historial. El resultado de cada disparo se reconstruye con el estado final
+     * de los tableros, contando los impactos de cada barco para detectar cuando se hundió.
+     * <p>
+     * Una partida cargada no tiene historial de lo jugado antes de cargarla; esos disparos se
+     * toman de los tableros y se agregan primero como disparos iniciales
+     * ({@link #getInitialShotCount()}), los del humano y luego los de la máquina, en orden de celda.
+     * @param gameState La partida, normalmente ya terminada.
+     */
+    public void loadFrom(IGameState gameState) {
+        Board humanBoard = gameState.getHumanPlayerPositionBoard();
+        Board machineBoard = gameState.getMachinePlayerActualPositionBoard();
+        this.reset(humanBoard.getSize());
+        this.addFleet(0, humanBoard);
+        this.addFleet(1, machineBoard);
+
+        int size = humanBoard.getSize();
+        boolean[][] inHistory = new boolean[2][size * size];
+        for (int i = 0; i < gameState.getShotCount(); i++) {
+            inHistory[gameState.isMachineShot(i) ? 1 : 0][gameState.getShotCell(i)] = true;
+        }
+        Map<Ship, int[]> hits = new IdentityHashMap<>();
+        for (int shooter = 0; shooter < 2; shooter++) {
+            Board target = (shooter == 0) ? machineBoard : humanBoard;
+            for (int cell = 0; cell < size * size; cell++) {
+                CellState state = target.getCellState(cell / size, cell % size);
+                boolean attacked = state == CellState.SHOT_LOST_IN_WATER || state == CellState.HIT_SHIP
+                        || state == CellState.SUNK_SHIP_PART;
+                if (attacked && !inHistory[shooter][cell]) {
+                    this.addShot(shooter, cell, resultOf(target, cell, hits));
+                }
+            }
+        }
+        this.initialShotCount = this.shotCount;
+        for (int i = 0; i < gameState.getShotCount(); i++) {
+            int shooter = gameState.isMachineShot(i) ? 1 : 0;
+            int cell = gameState.getShotCell(i);
+            this.addShot(shooter, cell, resultOf((shooter == 0) ? machineBoard : humanBoard, cell, hits));
+        }
+
+        if (machineBoard.areAllShipsSunk()) {
+            this.winner = 0;
+        } else if (humanBoard.areAllShipsSunk()) {
+            this.winner = 1;
+        }
+    }
+
+    /**
+     * Resultado de un disparo según el estado final del tablero, contando los impactos previos de
+     * cada barco para saber si este lo hundió.
+     */
+    private static ShotResult resultOf(Board target, int cell, Map<Ship, int[]> hits) {
+        int size = target.getSize();
+        int row = cell / size;
+        int col = cell % size;
+        Ship ship = (target.getCellState(row, col) == CellState.SHOT_LOST_IN_WATER) ? null : target.getShipAt(row, col);
+        if (ship == null) {
+            return ShotResult.WATER;
+        }
+        int[] shipHits = hits.computeIfAbsent(ship, key -> new int[1]);
+        shipHits[0]++;
+        return (shipHits[0] == ship.getValueShip()) ? ShotResult.SUNKEN : ShotResult.TOUCHED;
+    }
+
+    private void addFleet(int player, Board board) {
+        for (Ship ship : board.getShips()) {
+            int startRow = Integer.MAX_VALUE;
+            int startCol = Integer.MAX_VALUE;
+            for (Coordinate coordinate : ship.getOccupiedCoordinates()) {
+                startRow = Math.min(startRow, coordinate.getY());
+                startCol = Math.min(startCol, coordinate.getX());
+            }
+            if (startRow != Integer.MAX_VALUE) {
+                this.addShip(player, ship.getValueShip(), startRow * board.getSize() + startCol,
+                        ship.getOrientation() == Orientation.VERTICAL);
+            }
+        }
+    }
+
+    // ----- Consultas -----
+
+    /** @return Tamaño del tablero. */
+    public int getBoardSize() {
+        return this.boardSize;
+    }
+
+    /** @return Ganador (0 o 1), o -1 si la partida no terminó. */
+    public int getWinner() {
+        return this.winner;
+    }
+
+    /** @return Cantidad de barcos de ambas flotas. */
+    public int getShipCount() {
+        return this.shipCount;
+    }
+
+    /** @return Cantidad de disparos, incluidos los iniciales. */
+    public int getShotCount() {
+        return this.shotCount;
+    }
+
+    /**
+     * @return Cantidad de disparos iniciales: los primeros del registro, que ya estaban hechos
+     *         cuando empezó el historial. Es 0 salvo en partidas cargadas.
+     */
+    public int getInitialShotCount() {
+        return this.initialShotCount;
+    }
+
+    /**
+     * @param index Posición del disparo.
+     * @return Resultado del disparo.
+     */
+    public ShotResult getShotResult(int index) {
+        return SHOT_RESULTS[this.shotResult[index]];
+    }
+
+    /**
+     * @param index Posición del disparo.
+     * @return Jugador que hizo el disparo (0 o 1).
+     */
+    public int getShotShooter(int index) {
+        return this.shotShooter[index];
+    }
+
+    /**
+     * @param index Posición del disparo.
+     * @return Celda lineal atacada.
+     */
+    public int getShotCell(int index) {
+        return this.shotCell[index];
+    }
+
+    /**
+     * @param index Posición del barco.
+     * @return Dueño del barco (0 o 1).
+     */
+    public int getShipPlayer(int index) {
+        return this.shipPlayer[index];
+    }
+
+    /**
+     * @param index Posición del barco.
+     * @return Longitud del barco.
+     */
+    public int getShipLength(int index) {
+        return this.shipLength[index];
+    }
+
+    /**
+     * @param index Posición del barco.
+     * @return Celda lineal de inicio del barco.
+     */
+    public int getShipStartCell(int index) {
+        return this.shipStartCell[index];
+    }
+
+    /**
+     * @param index Posición del barco.
+     * @return true si el barco está en vertical.
+     */
+    public boolean isShipVertical(int index) {
+        return this.shipVertical[index] != 0;
+    }
+
+    /**
+     * Copia los valores de una columna de barcos o disparos al final de un arreglo.
+     * @param column Columna de la tabla de barcos o de disparos.
+     * @param target Destino.
+     * @param offset Posición del destino donde empezar.
+     */
+    void copyColumn(GameColumn column, int[] target, int offset) {
+        switch (column) {
+            case SHIP_PLAYER: System.arraycopy(this.shipPlayer, 0, target, offset, this.shipCount); break;
+            case SHIP_LENGTH: System.arraycopy(this.shipLength, 0, target, offset, this.shipCount); break;
+            case SHIP_START_CELL: System.arraycopy(this.shipStartCell, 0, target, offset, this.shipCount); break;
+            case SHIP_VERTICAL: System.arraycopy(this.shipVertical, 0, target, offset, this.shipCount); break;
+            case SHOT_TURN: System.arraycopy(this.shotTurn, 0, target, offset, this.shotCount); break;
+            case SHOT_SHOOTER: System.arraycopy(this.shotShooter, 0, target, offset, this.shotCount); break;
+            case SHOT_CELL: System.arraycopy(this.shotCell, 0, target, offset, this.shotCount); break;
+            case SHOT_RESULT: System.arraycopy(this.shotResult, 0, target, offset, this.shotCount); break;
+            default: throw new IllegalArgumentException("La columna no pertenece a barcos ni disparos: " + column);
+        }
+    }
+}
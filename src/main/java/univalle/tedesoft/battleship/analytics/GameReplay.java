@@ -0,0 +1,342 @@
+package univalle.tedesoft.battleship.analytics;
+
+import univalle.tedesoft.battleship.models.board.Board;
+import univalle.tedesoft.battleship.models.board.Coordinate;
+import univalle.tedesoft.battleship.models.enums.CellState;
+import univalle.tedesoft.battleship.models.enums.Orientation;
+import univalle.tedesoft.battleship.models.enums.ShipType;
+import univalle.tedesoft.battleship.models.enums.ShotResult;
+import univalle.tedesoft.battleship.models.ships.GenericShip;
+import univalle.tedesoft.battleship.models.ships.Ship;
+import univalle.tedesoft.battleship.models.ships.ShipFactory;
+import univalle.tedesoft.battleship.models.state.IGameState;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Repetición navegable de una partida registrada en un {@link GameRecord}.
+ * <p>
+ * La repetición mantiene dos tableros propios (el del humano y el de la máquina) que reflejan la
+ * partida después de los primeros {@link #getPosition()} disparos. Cada {@value #KEYFRAME_INTERVAL}
+ * disparos se guarda un fotograma clave con el estado de todas las celdas y los impactos de cada
+ * barco; los disparos entre fotogramas son los deltas. Saltar a cualquier posición restaura el
+ * fotograma anterior y aplica a lo sumo {@value #KEYFRAME_INTERVAL} - 1 disparos, sin importar
+ * lo larga que sea la partida. Avanzar de a un disparo solo toca las celdas afectadas.
+ * <p>
+ * Los disparos iniciales del registro ({@link GameRecord#getInitialShotCount()}), los de una
+ * partida cargada antes de cargarla, no se pueden recorrer: ya están aplicados en la posición 0.
+ * <p>
+ * No es segura para hilos: se debe usar desde el hilo que dibuja los tableros.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class GameReplay {
+    /** Disparos entre fotogramas clave consecutivos. */
+    public static final int KEYFRAME_INTERVAL = 16;
+
+    private static final CellState[] CELL_STATES = CellState.values();
+    private static final ShotResult[] SHOT_RESULTS = ShotResult.values();
+
+    private final int size;
+    private final Board[] boards = new Board[2];
+    private final List<Ship> ships = new ArrayList<>();
+    /** Celdas lineales de cada barco, en el mismo orden que ships. */
+    private final List<int[]> shipCells = new ArrayList<>();
+    /** Índice + 1 del barco que ocupa cada celda de cada jugador, o 0 si no hay barco. */
+    private final int[][] shipIdByCell;
+
+    private final int shotCount;
+    private final int[] shotShooter;
+    private final int[] shotCell;
+    private final int[] shotResult;
+
+    /** Estado actual de las celdas (ordinal de CellState) de cada jugador. */
+    private final byte[][] cells;
+    /** Impactos actuales de cada barco. */
+    private final int[] shipHits;
+    /** Fotogramas clave: celdas de ambos jugadores seguidas de los impactos de cada barco. */
+    private final byte[][] keyframeCells;
+    private final int[][] keyframeHits;
+    private int position;
+
+    /**
+     * Prepara la repetición de una partida, calculando sus fotogramas clave.
+     * La repetición empieza en la posición 0, con las flotas colocadas y solo los disparos iniciales.
+     * @param record La partida; sus datos se copian, por lo que el registro se puede reutilizar.
+     */
+    public GameReplay(GameRecord record) {
+        this.size = record.getBoardSize();
+        int cellCount = this.size * this.size;
+        this.shipIdByCell = new int[2][cellCount];
+        this.cells = new byte[2][cellCount];
+        for (int player = 0; player < 2; player++) {
+            this.boards[player] = new Board(this.size);
+            Arrays.fill(this.cells[player], (byte) CellState.EMPTY.ordinal());
+        }
+        for (int i = 0; i < record.getShipCount(); i++) {
+            this.addShip(record.getShipPlayer(i), record.getShipLength(i),
+                    record.getShipStartCell(i), record.isShipVertical(i));
+        }
+        this.shipHits = new int[this.ships.size()];
+        int initialShots = record.getInitialShotCount();
+        for (int i = 0; i < initialShots; i++) {
+            this.markShot(record.getShotShooter(i), record.getShotCell(i), record.getShotResult(i), false);
+        }
+
+        this.shotCount = record.getShotCount() - initialShots;
+        this.shotShooter = new int[this.shotCount];
+        this.shotCell = new int[this.shotCount];
+        this.shotResult = new int[this.shotCount];
+        for (int i = 0; i < this.shotCount; i++) {
+            this.shotShooter[i] = record.getShotShooter(initialShots + i);
+            this.shotCell[i] = record.getShotCell(initialShots + i);
+            this.shotResult[i] = record.getShotResult(initialShots + i).ordinal();
+        }
+
+        // Se recorre la partida una vez guardando un fotograma cada KEYFRAME_INTERVAL disparos.
+        int keyframes = this.shotCount / KEYFRAME_INTERVAL + 1;
+        this.keyframeCells = new byte[keyframes][];
+        this.keyframeHits = new int[keyframes][];
+        for (int shot = 0; shot <= this.shotCount; shot++) {
+            if (shot % KEYFRAME_INTERVAL == 0) {
+                this.saveKeyframe(shot / KEYFRAME_INTERVAL);
+            }
+            if (shot < this.shotCount) {
+                this.applyShot(shot, false);
+            }
+        }
+        // Los tableros aún no tienen ninguna celda escrita, se copian todas.
+        this.restoreKeyframe(0, true);
+    }
+
+    /**
+     * Prepara la repetición de la partida de un estado de juego, a partir de su historial de disparos.
+     * Si la partida se cargó, la repetición empieza en el estado en que se cargó.
+     * @param gameState La partida.
+     * @return La repetición, en la posición 0.
+     */
+    public static GameReplay fromGameState(IGameState gameState) {
+        GameRecord record = new GameRecord();
+        record.loadFrom(gameState);
+        return new GameReplay(record);
+    }
+
+    // ----- Navegación -----
+
+    /**
+     * Lleva la repetición al estado posterior a los primeros disparos indicados.
+     * Si la posición pedida está en el mismo tramo que la actual y por delante, solo se aplican
+     * los disparos que faltan; en otro caso se parte del fotograma clave anterior.
+     * @param target Cantidad de disparos aplicados, entre 0 y getShotCount().
+     */
+    public void seek(int target) {
+        if (target < 0 || target > this.shotCount) {
+            throw new IllegalArgumentException("Posición de repetición inválida: " + target);
+        }
+        int keyframe = target / KEYFRAME_INTERVAL;
+        if (this.position > target || this.position < keyframe * KEYFRAME_INTERVAL) {
+            this.restoreKeyframe(keyframe, false);
+        }
+        while (this.position < target) {
+            this.applyShot(this.position, true);
+        }
+    }
+
+    /**
+     * Aplica el siguiente disparo.
+     * @return false si la repetición ya estaba al final.
+     */
+    public boolean step() {
+        if (this.position >= this.shotCount) {
+            return false;
+        }
+        this.applyShot(this.position, true);
+        return true;
+    }
+
+    /**
+     * Vuelve un disparo atrás.
+     * @return false si la repetición ya estaba al inicio.
+     */
+    public boolean stepBack() {
+        if (this.position == 0) {
+            return false;
+        }
+        this.seek(this.position - 1);
+        return true;
+    }
+
+    // ----- Consultas -----
+
+    /** @return Cantidad de disparos aplicados. */
+    public int getPosition() {
+        return this.position;
+    }
+
+    /** @return Cantidad total de disparos de la partida. */
+    public int getShotCount() {
+        return this.shotCount;
+    }
+
+    /** @return true si ya se aplicaron todos los disparos. */
+    public boolean isFinished() {
+        return this.position >= this.shotCount;
+    }
+
+    /**
+     * @param index Posición del disparo.
+     * @return Jugador que hizo el disparo (0 humano, 1 máquina).
+     */
+    public int getShooter(int index) {
+        return this.shotShooter[index];
+    }
+
+    /**
+     * @param index Posición del disparo.
+     * @return Celda lineal atacada.
+     */
+    public int getShotCell(int index) {
+        return this.shotCell[index];
+    }
+
+    /**
+     * @param index Posición del disparo.
+     * @return Resultado del disparo.
+     */
+    public ShotResult getShotResult(int index) {
+        return SHOT_RESULTS[this.shotResult[index]];
+    }
+
+    /**
+     * Tablero del jugador humano en la posición actual: sus barcos y los disparos de la máquina.
+     * @return El tablero; es el mismo objeto durante toda la repetición.
+     */
+    public Board getHumanBoard() {
+        return this.boards[0];
+    }
+
+    /**
+     * Tablero de la máquina en la posición actual: sus barcos y los disparos del humano.
+     * @return El tablero; es el mismo objeto durante toda la repetición.
+     */
+    public Board getMachineBoard() {
+        return this.boards[1];
+    }
+
+    // --- Métodos Privados Auxiliares ---
+
+    private void addShip(int player, int length, int startCell, boolean vertical) {
+        Ship ship = createShip(length);
+        ship.setOrientation(vertical ? Orientation.VERTICAL : Orientation.HORIZONTAL);
+        int startRow = startCell / this.size;
+        int startCol = startCell % this.size;
+        int[] occupied = new int[length];
+        for (int i = 0; i < length; i++) {
+            int row = vertical ? startRow + i : startRow;
+            int col = vertical ? startCol : startCol + i;
+            if (row >= this.size || col >= this.size) {
+                throw new IllegalArgumentException("El barco se sale del tablero en la celda " + startCell);
+            }
+            occupied[i] = row * this.size + col;
+            ship.addCoordinates(new Coordinate(col, row));
+            this.shipIdByCell[player][occupied[i]] = this.ships.size() + 1;
+            this.cells[player][occupied[i]] = (byte) CellState.SHIP.ordinal();
+        }
+        this.ships.add(ship);
+        this.shipCells.add(occupied);
+        this.boards[player].addShipDirectly(ship);
+    }
+
+    /**
+     * Crea el barco de la flota estándar con esa longitud, o uno genérico si no hay ninguno.
+     */
+    private static Ship createShip(int length) {
+        switch (length) {
+            case 4: return ShipFactory.createShip(ShipType.AIR_CRAFT_CARRIER);
+            case 3: return ShipFactory.createShip(ShipType.SUBMARINE);
+            case 2: return ShipFactory.createShip(ShipType.DESTROYER);
+            case 1: return ShipFactory.createShip(ShipType.FRIGATE);
+            default: return new GenericShip("REPLAY_" + length, ShipType.AIR_CRAFT_CARRIER, length);
+        }
+    }
+
+    /**
+     * Aplica un disparo al estado actual. Si syncBoards es true también actualiza los tableros.
+     */
+    private void applyShot(int shot, boolean syncBoards) {
+        this.markShot(this.shotShooter[shot], this.shotCell[shot], SHOT_RESULTS[this.shotResult[shot]], syncBoards);
+        this.position = shot + 1;
+    }
+
+    /**
+     * Marca el resultado de un disparo en las celdas y los impactos, sin mover la posición.
+     */
+    private void markShot(int shooter, int cell, ShotResult result, boolean syncBoards) {
+        int target = 1 - shooter;
+        int shipId = this.shipIdByCell[target][cell];
+        if (result == ShotResult.WATER || shipId == 0) {
+            this.setCell(target, cell, CellState.SHOT_LOST_IN_WATER, syncBoards);
+        } else {
+            this.shipHits[shipId - 1]++;
+            if (syncBoards) {
+                this.ships.get(shipId - 1).registerHit();
+            }
+            if (result == ShotResult.SUNKEN) {
+                for (int shipCell : this.shipCells.get(shipId - 1)) {
+                    this.setCell(target, shipCell, CellState.SUNK_SHIP_PART, syncBoards);
+                }
+            } else {
+                this.setCell(target, cell, CellState.HIT_SHIP, syncBoards);
+            }
+        }
+    }
+
+    private void setCell(int player, int cell, CellState state, boolean syncBoard) {
+        this.cells[player][cell] = (byte) state.ordinal();
+        if (syncBoard) {
+            this.boards[player].setCellState(cell / this.size, cell % this.size, state);
+        }
+    }
+
+    private void saveKeyframe(int keyframe) {
+        int cellCount = this.size * this.size;
+        byte[] frame = new byte[cellCount * 2];
+        System.arraycopy(this.cells[0], 0, frame, 0, cellCount);
+        System.arraycopy(this.cells[1], 0, frame, cellCount, cellCount);
+        this.keyframeCells[keyframe] = frame;
+        this.keyframeHits[keyframe] = this.shipHits.clone();
+    }
+
+    /**
+     * Restaura un fotograma clave y lleva los tableros a ese estado. Salvo que writeAll sea true,
+     * solo se escriben las celdas que difieren del estado actual.
+     */
+    private void restoreKeyframe(int keyframe, boolean writeAll) {
+        int cellCount = this.size * this.size;
+        byte[] frame = this.keyframeCells[keyframe];
+        for (int player = 0; player < 2; player++) {
+            for (int cell = 0; cell < cellCount; cell++) {
+                byte state = frame[player * cellCount + cell];
+                if (writeAll || this.cells[player][cell] != state) {
+                    this.setCell(player, cell, CELL_STATES[state], true);
+                }
+            }
+        }
+        int[] hits = this.keyframeHits[keyframe];
+        for (int i = 0; i < hits.length; i++) {
+            Ship ship = this.ships.get(i);
+            while (ship.getHitCount() < hits[i]) {
+                ship.registerHit();
+            }
+            while (ship.getHitCount() > hits[i]) {
+                ship.unregisterHit();
+            }
+            this.shipHits[i] = hits[i];
+        }
+        this.position = keyframe * KEYFRAME_INTERVAL;
+    }
+}
@@ -4,27 +4,34 @@ import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.ButtonType;
 import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
+import univalle.tedesoft.battleship.analytics.GameReplay;
 import univalle.tedesoft.battleship.exceptions.OutOfBoundsException;
 import univalle.tedesoft.battleship.exceptions.OverlapException;
 import univalle.tedesoft.battleship.models.board.Coordinate;
+import univalle.tedesoft.battleship.models.board.SalvoOutcome;
+import univalle.tedesoft.battleship.models.enums.CellState;
+import univalle.tedesoft.battleship.models.enums.GameMode;
 import univalle.tedesoft.battleship.models.enums.GamePhase;
 import univalle.tedesoft.battleship.models.enums.Orientation;
-import univalle.tedesoft.battleship.models.enums.ShipType;
 import univalle.tedesoft.battleship.models.players.HumanPlayer;
 import univalle.tedesoft.battleship.models.players.MachinePlayer;
 import univalle.tedesoft.battleship.models.players.Player;
 import univalle.tedesoft.battleship.models.ships.Ship;
+import univalle.tedesoft.battleship.models.ships.ShipClass;
 import univalle.tedesoft.battleship.models.board.ShotOutcome;
 import univalle.tedesoft.battleship.models.state.IGameState;
 import univalle.tedesoft.battleship.threads.MachineTurnRunnable;
+import univalle.tedesoft.battleship.threads.ProbabilityMapWorker;
 import univalle.tedesoft.battleship.views.GameView;
 import univalle.tedesoft.battleship.views.InstructionsView;
 import univalle.tedesoft.battleship.views.ViewUtils;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -50,6 +57,16 @@ public class GameController {
     @FXML public Button instructionsButton;
     /** Botón para reiniciar la partida actual al estado inicial de colocación. */
     @FXML public Button restartGameButton;
+    /** Botón para deshacer el último turno del jugador durante la fase de disparos. */
+    @FXML public Button undoButton;
+    /** Botón para rehacer un turno deshecho durante la fase de disparos. */
+    @FXML public Button redoButton;
+    /** Botón para ver la repetición de la partida terminada. */
+    @FXML public Button replayButton;
+    /** Botón para mostrar u ocultar el mapa de probabilidad sobre el tablero enemigo. */
+    @FXML public Button hintButton;
+    /** Contenedor de los controles de la repetición (reproducir, velocidad y posición). */
+    @FXML public HBox replayControlPane;
     /** Tablero donde el jugador coloca sus barcos y recibe disparos. */
     @FXML public GridPane humanPlayerBoardGrid;
     /** Tablero de la máquina, donde el jugador dispara al oponente. */
@@ -76,10 +93,12 @@ public class GameController {
     private GameView gameView;
     /** Hilo que maneja el turno de la máquina. Se usa para introducir un retraso de "pensamiento" antes de que la máquina dispare. */
     private Thread machineTurnThread;
+    /** Turno de la máquina en curso; los turnos cancelados no pueden aplicar su disparo. */
+    private MachineTurnRunnable machineTurn;
 
     // --- Estado interno del controlador ---
-    /** Tipo de barco seleccionado por el jugador para colocar en el tablero. */
-    private ShipType selectedShipToPlace;
+    /** Clase de barco seleccionada por el jugador para colocar en el tablero. */
+    private ShipClass selectedShipToPlace;
     /** Orientación elegida para colocar el barco seleccionado (Horizontal o Vertical). */
     private Orientation chosenOrientation = Orientation.HORIZONTAL;
     /** Barco que se está arrastrando actualmente. Se usa para mover barcos ya colocados en el tablero. */
@@ -92,6 +111,12 @@ public class GameController {
     private static final long MACHINE_TURN_THINK_DELAY_MS = 1500;
     /** Flag que indica si el guardado automático está activado. Por defecto, está habilitado. */
     private boolean isAutoSaveEnabled = true;
+    /** Casillas marcadas por el jugador para su próxima salva (solo en modo salva). */
+    private final List<Coordinate> pendingSalvo = new ArrayList<>();
+    /** Calcula en segundo plano el mapa de probabilidad del tablero enemigo. Se crea al pedir la primera pista. */
+    private ProbabilityMapWorker probabilityMapWorker;
+    /** Indica si el mapa de probabilidad se muestra sobre el tablero enemigo. */
+    private boolean isProbabilityMapVisible = false;
 
     /**
      * Inicialización de JavaFX.
@@ -154,19 +179,19 @@ public class GameController {
 
     /**
      * Procesa la lista de barcos pendientes del modelo y devuelve un mapa
-     * con el recuento de cada tipo de barco.
+     * con el recuento de cada clase de barco.
      * Este es el formato de datos que la vista necesita para renderizar el panel de colocación.
      *
-     * @return Un Map donde la clave es ShipType y el valor es la cantidad pendiente.
+     * @return Un Map donde la clave es el identificador de la clase y el valor es la cantidad pendiente.
      */
-    public Map<ShipType, Long> getPendingShipCounts() {
+    public Map<String, Long> getPendingShipCounts() {
         if (this.gameState == null) {
             // Devuelve un mapa vacío si el estado del juego no está listo
             return Collections.emptyMap();
         }
 
         // Obtener la lista de barcos pendientes del modelo y agruparlos por tipo
-        List<ShipType> pendingShips = this.gameState.getPendingShipsToPlace();
+        List<String> pendingShips = this.gameState.getPendingShipsToPlace();
         return pendingShips.stream().collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
     }
 
@@ -284,6 +309,98 @@ public class GameController {
         }
     }
 
+    /**
+     * Maneja el clic en el botón "Deshacer".
+     * Cancela el turno pendiente de la máquina y revierte el último disparo del jugador
+     * junto con las respuestas de la máquina que le siguieron.
+     */
+    @FXML
+    void onUndoClick() {
+        if (this.gameState == null || this.gameView == null) {
+            return;
+        }
+        this.cancelMachineTurn();
+        this.pendingSalvo.clear();
+        if (this.gameState.undoHumanTurn()) {
+            this.redrawFiringBoards();
+            this.gameView.setBoardInteraction(this.machinePlayerBoardGrid, true);
+            this.gameView.displayMessage("Se deshizo tu último disparo. ¡Es tu turno!", false);
+            this.autoSaveIfEnabled();
+        } else {
+            this.gameView.displayMessage("No hay disparos para deshacer.", true);
+        }
+        this.gameView.updateUndoRedoButtons(this.gameState.canUndo(), this.gameState.canRedo());
+    }
+
+    /**
+     * Maneja el clic en el botón "Rehacer".
+     * Vuelve a aplicar el último turno deshecho del jugador y las respuestas de la máquina.
+     */
+    @FXML
+    void onRedoClick() {
+        if (this.gameState == null || this.gameView == null) {
+            return;
+        }
+        this.cancelMachineTurn();
+        this.pendingSalvo.clear();
+        if (this.gameState.redoHumanTurn()) {
+            this.redrawFiringBoards();
+            this.gameView.displayMessage("Se rehízo tu disparo.", false);
+            this.autoSaveIfEnabled();
+            if (!this.checkAndHandleGameOver()) {
+                if (this.gameState.getCurrentTurnPlayer() instanceof MachinePlayer) {
+                    this.scheduleMachineTurn();
+                } else {
+                    this.gameView.setBoardInteraction(this.machinePlayerBoardGrid, true);
+                }
+            }
+        } else {
+            this.gameView.displayMessage("No hay disparos para rehacer.", true);
+        }
+        this.gameView.updateUndoRedoButtons(this.gameState.canUndo(), this.gameState.canRedo());
+    }
+
+    /**
+     * Maneja el clic en el botón de pistas.
+     * Muestra u oculta el mapa de probabilidad de barcos sobre el tablero enemigo.
+     */
+    @FXML
+    void onHintClick() {
+        if (this.gameState == null || this.gameView == null) {
+            return;
+        }
+        this.isProbabilityMapVisible = !this.isProbabilityMapVisible;
+        this.gameView.setProbabilityMapVisible(this.isProbabilityMapVisible);
+        if (this.isProbabilityMapVisible) {
+            if (this.probabilityMapWorker == null) {
+                this.probabilityMapWorker = new ProbabilityMapWorker(probabilities -> this.gameView.drawProbabilityMap(probabilities));
+            }
+            this.hintButton.setText("Ocultar Pistas");
+            this.requestProbabilityMapUpdate();
+        } else {
+            this.probabilityMapWorker.cancel();
+            this.hintButton.setText("Mostrar Pistas");
+        }
+    }
+
+    /**
+     * Maneja el clic en el botón "Ver Repetición".
+     * Construye la repetición a partir del historial de disparos de la partida y la muestra en la vista.
+     */
+    @FXML
+    void onReplayClick() {
+        if (this.gameState == null || this.gameView == null) {
+            return;
+        }
+        if (this.gameState.getShotCount() == 0) {
+            this.gameView.displayMessage("No hay disparos registrados para repetir.", true);
+            return;
+        }
+        this.cancelMachineTurn();
+        this.gameView.startReplay(GameReplay.fromGameState(this.gameState));
+        this.gameView.displayMessage("Repetición de la partida. Usa la barra para saltar a cualquier disparo.", false);
+    }
+
     /**
      * Maneja el clic en el botón "Colocar Aleatoriamente".
      * Llama al modelo para que coloque los barcos del jugador humano al azar
@@ -337,36 +454,98 @@ public class GameController {
         this.gameView.displayMessage("Turno de la máquina. Pensando...", false);
         this.gameView.setBoardInteraction(this.machinePlayerBoardGrid, false);
 
+        this.cancelMachineTurn();
+
+        // El estado se lee aquí; la búsqueda corre en el hilo del turno y usa parte de la espera,
+        // así la jugada llega siempre al mismo tiempo sin bloquear la interfaz.
+        this.machineTurn = new MachineTurnRunnable(this, MACHINE_TURN_THINK_DELAY_MS, this.gameState.prepareMachineTurn());
+        this.machineTurnThread = new Thread(this.machineTurn);
+        this.machineTurnThread.setDaemon(true);
+        this.machineTurnThread.start();
+    }
+
+    /**
+     * Interrumpe el hilo del turno de la máquina si todavía está "pensando".
+     */
+    private void cancelMachineTurn() {
+        this.machineTurn = null;
         if (this.machineTurnThread != null && this.machineTurnThread.isAlive()) {
             this.machineTurnThread.interrupt();
         }
+    }
 
-        MachineTurnRunnable machineRunnable = new MachineTurnRunnable(this, MACHINE_TURN_THINK_DELAY_MS);
-        this.machineTurnThread = new Thread(machineRunnable);
-        this.machineTurnThread.setDaemon(true);
-        this.machineTurnThread.start();
+    /**
+     * Redibuja ambos tableros de la fase de disparos tras un cambio en el historial.
+     */
+    private void redrawFiringBoards() {
+        this.gameView.drawBoard(this.humanPlayerBoardGrid, this.gameState.getHumanPlayerPositionBoard(), true);
+        this.gameView.drawBoard(this.machinePlayerBoardGrid, this.gameState.getMachinePlayerActualPositionBoard(), false);
+        this.requestProbabilityMapUpdate();
+    }
+
+    /**
+     * Pide recalcular el mapa de probabilidad si está visible. Solo toma instantáneas de los
+     * tableros; el cálculo corre en segundo plano y la vista lo dibuja cuando termina.
+     */
+    private void requestProbabilityMapUpdate() {
+        if (this.isProbabilityMapVisible && this.probabilityMapWorker != null) {
+            this.probabilityMapWorker.requestUpdate(
+                    this.gameState.getMachinePlayerTerritoryBoard().snapshot(),
+                    this.gameState.getMachinePlayerActualPositionBoard().snapshot().opponentView());
+        }
     }
 
     /**
      * Ejecuta la lógica central para un único disparo de la máquina.
-     * Pide al modelo que realice un disparo, actualiza el tablero del jugador humano con el resultado
-     *  y muestra un mensaje con el resultado del disparo.
+     * Aplica en el modelo el disparo que eligió la búsqueda del turno, actualiza el tablero del
+     *  jugador humano con el resultado y muestra un mensaje con el resultado del disparo.
+     * @param turn El turno que terminó de buscar; se ignora si ya fue cancelado.
+     * @param cells Casillas elegidas por la búsqueda.
      * @see MachineTurnRunnable
      */
-    public void executeMachineTurnLogic() {
+    public void executeMachineTurnLogic(MachineTurnRunnable turn, int[] cells) {
+        if (turn != this.machineTurn) return;
+        this.machineTurn = null;
         if (this.gameState.isGameOver()) return;
-        ShotOutcome outcome = this.gameState.handleMachinePlayerTurn();
+        // El turno pudo haber sido cancelado (por ejemplo, al deshacer) después de agendarse.
+        if (!(this.gameState.getCurrentTurnPlayer() instanceof MachinePlayer)) return;
+        if (this.gameState.getGameMode() == GameMode.SALVO) {
+            this.executeMachineSalvoLogic(cells);
+            return;
+        }
+        ShotOutcome outcome = this.gameState.handleMachinePlayerTurn((cells.length > 0) ? cells[0] : -1);
         // Construir y mostrar el mensaje del resultado del disparo de la máquina.
         String message = this.buildShotMessage("Máquina disparó a " + outcome.getCoordinate().toAlgebraicNotation(), outcome);
         this.gameView.displayMessage(message, false);
         // Actualizar el tablero del jugador para mostrar el disparo de la máquina.
         this.gameView.drawBoard(this.humanPlayerBoardGrid, this.gameState.getHumanPlayerPositionBoard(), true);
+        this.gameView.updateUndoRedoButtons(this.gameState.canUndo(), this.gameState.canRedo());
         // Guardar el estado del juego si el guardado automático está habilitado.
         this.autoSaveIfEnabled();
         // Lógica de cambio de turno
         this.processTurnContinuation(outcome);
     }
 
+    /**
+     * Ejecuta la salva completa de la máquina en el modo salva.
+     * El tablero del jugador se redibuja y se guarda una sola vez por salva, no por disparo.
+     * @param cells Casillas elegidas por la búsqueda del turno.
+     */
+    private void executeMachineSalvoLogic(int[] cells) {
+        SalvoOutcome outcome = this.gameState.handleMachinePlayerSalvo(cells);
+        this.gameView.displayMessage(this.buildSalvoMessage("La máquina lanzó", outcome), false);
+        this.gameView.drawBoard(this.humanPlayerBoardGrid, this.gameState.getHumanPlayerPositionBoard(), true);
+        this.gameView.updateUndoRedoButtons(this.gameState.canUndo(), this.gameState.canRedo());
+        this.autoSaveIfEnabled();
+        if (this.checkAndHandleGameOver()) {
+            return;
+        }
+        // En el modo salva el turno siempre pasa al rival después de la salva.
+        this.gameState.switchTurn();
+        this.gameView.displayMessage("¡Es tu turno! Marca " + this.gameState.getSalvoSize() + " casillas para tu salva.", false);
+        this.gameView.setBoardInteraction(this.machinePlayerBoardGrid, true);
+    }
+
     /**
      * Comprueba si la partida ha finalizado y, si es así, gestiona el estado de fin de juego.
      * Si el juego ha terminado, determina al ganador, muestra un mensaje de victoria/derrota
@@ -375,6 +554,7 @@ public class GameController {
      */
     private boolean checkAndHandleGameOver() {
         if (this.gameState.isGameOver()) {
+            this.gameState.finishGame();
             Player winner = this.gameState.getWinner();
             String winnerMessage;
             
@@ -397,6 +577,7 @@ public class GameController {
             // Deshabilitar la interacción con ambos tableros
             this.gameView.setBoardInteraction(this.humanPlayerBoardGrid, false);
             this.gameView.setBoardInteraction(this.machinePlayerBoardGrid, false);
+            this.replayButton.setVisible(true);
             
             return true;
         }
@@ -415,6 +596,10 @@ public class GameController {
             this.gameView.displayMessage("Espera tu turno.", true);
             return;
         }
+        if (this.gameState.getGameMode() == GameMode.SALVO) {
+            this.handleSalvoCellClick(row, col);
+            return;
+        }
 
         try {
             ShotOutcome outcome = this.gameState.handleHumanPlayerShot(row, col);
@@ -423,6 +608,8 @@ public class GameController {
             this.gameView.displayMessage(message, false);
             // Actualizar el tablero del oponente para mostrar el resultado.
             this.gameView.drawBoard(this.machinePlayerBoardGrid, this.gameState.getMachinePlayerActualPositionBoard(), false);
+            this.requestProbabilityMapUpdate();
+            this.gameView.updateUndoRedoButtons(this.gameState.canUndo(), this.gameState.canRedo());
             // Guardar el estado del juego si el guardado automático está habilitado.
             this.autoSaveIfEnabled();
             // Comprobar si el juego ha terminado después del disparo.
@@ -440,6 +627,62 @@ public class GameController {
         }
     }
 
+    /**
+     * Marca o desmarca una casilla para la salva del jugador en el modo salva.
+     * Cuando se han marcado tantas casillas como disparos le corresponden, la salva se dispara completa.
+     *
+     * @param row La fila de la celda clickeada.
+     * @param col La columna de la celda clickeada.
+     */
+    private void handleSalvoCellClick(int row, int col) {
+        Coordinate target = new Coordinate(col, row);
+        if (this.pendingSalvo.removeIf(pending -> pending.getX() == col && pending.getY() == row)) {
+            this.gameView.markPendingShot(row, col, false);
+            this.gameView.displayMessage("Salva: " + this.pendingSalvo.size() + "/" + this.gameState.getSalvoSize() + " casillas marcadas.", false);
+            return;
+        }
+        CellState state = this.gameState.getMachinePlayerActualPositionBoard().getCellState(row, col);
+        if (state != CellState.EMPTY && state != CellState.SHIP) {
+            this.gameView.displayMessage("Ya has disparado en la casilla " + target.toAlgebraicNotation() + ". Por favor, selecciona otra casilla.", true);
+            return;
+        }
+        this.pendingSalvo.add(target);
+        this.gameView.markPendingShot(row, col, true);
+
+        int salvoSize = this.gameState.getSalvoSize();
+        if (this.pendingSalvo.size() < salvoSize) {
+            this.gameView.displayMessage("Salva: " + this.pendingSalvo.size() + "/" + salvoSize + " casillas marcadas.", false);
+            return;
+        }
+        this.fireHumanSalvo();
+    }
+
+    /**
+     * Dispara la salva marcada por el jugador.
+     * Se hace un único redibujado del tablero enemigo y un único autoguardado para toda la salva.
+     */
+    private void fireHumanSalvo() {
+        List<Coordinate> targets = new ArrayList<>(this.pendingSalvo);
+        this.pendingSalvo.clear();
+        try {
+            SalvoOutcome outcome = this.gameState.handleHumanPlayerSalvo(targets);
+            this.gameView.displayMessage(this.buildSalvoMessage("Lanzaste", outcome), false);
+            this.gameView.drawBoard(this.machinePlayerBoardGrid, this.gameState.getMachinePlayerActualPositionBoard(), false);
+            this.requestProbabilityMapUpdate();
+            this.gameView.updateUndoRedoButtons(this.gameState.canUndo(), this.gameState.canRedo());
+            this.autoSaveIfEnabled();
+            if (this.checkAndHandleGameOver()) {
+                return;
+            }
+            this.gameState.switchTurn();
+            this.scheduleMachineTurn();
+        } catch (OverlapException | OutOfBoundsException e) {
+            // Ningún disparo se aplicó; se limpian las marcas para que el jugador vuelva a elegir.
+            this.gameView.drawBoard(this.machinePlayerBoardGrid, this.gameState.getMachinePlayerActualPositionBoard(), false);
+            this.gameView.displayMessage(e.getMessage() + " Por favor, marca de nuevo tu salva.", true);
+        }
+    }
+
     /**
      * Maneja el clic en una celda del tablero de posición del jugador humano.
      * Se usa durante la fase de colocación de barcos.
@@ -459,15 +702,15 @@ public class GameController {
         }
 
         try {
-            if (this.selectedShipToPlace == ShipType.FRIGATE) {
-                // Si es un FRIGATE, por defecto la orientación es horizontal.
+            if (this.selectedShipToPlace.getLength() == 1) {
+                // Si es un barco de una casilla, por defecto la orientación es horizontal.
                 this.chosenOrientation = Orientation.HORIZONTAL;
             }
-            this.gameState.placeHumanPlayerShip(this.selectedShipToPlace, row, col, this.chosenOrientation);
+            this.gameState.placeHumanPlayerShip(this.selectedShipToPlace.getId(), row, col, this.chosenOrientation);
 
             // Actualizar la vista del tablero
             this.gameView.drawBoard(this.humanPlayerBoardGrid, this.gameState.getHumanPlayerPositionBoard(), true);
-            this.gameView.displayMessage("Barco " + this.selectedShipToPlace + " colocado.", false);
+            this.gameView.displayMessage("Barco " + this.selectedShipToPlace.getDisplayName() + " colocado.", false);
 
             // Ocultar controles de orientación
             this.selectedShipToPlace = null;
@@ -579,6 +822,12 @@ public class GameController {
 
         // Reiniciar el estado interno del controlador.
         this.isOpponentBoardVisible = false;
+        this.pendingSalvo.clear();
+        if (this.probabilityMapWorker != null) {
+            this.probabilityMapWorker.cancel();
+        }
+        this.isProbabilityMapVisible = false;
+        this.hintButton.setText("Mostrar Pistas");
 
         // Actualizar la vista.
         this.gameView.resetToPlacementPhase();
@@ -589,21 +838,22 @@ public class GameController {
     // ----- Métodos auxiliares -----
 
     /**
-     * Registra el tipo de barco que el jugador ha seleccionado del panel de colocación.
+     * Registra la clase de barco que el jugador ha seleccionado del panel de colocación.
      *
-     * @param shipType El tipo de barco seleccionado.
+     * @param shipClass La clase de barco seleccionada.
      */
-    public void handleShipSelection(ShipType shipType) {
-        this.selectedShipToPlace = shipType;
-        // Si el barco es un FRIGATE, no necesita controles de orientación.
-        if (shipType == ShipType.FRIGATE) {
+    public void handleShipSelection(ShipClass shipClass) {
+        this.selectedShipToPlace = shipClass;
+        String shipName = shipClass.getDisplayName();
+        // Si el barco es de una casilla, no necesita controles de orientación.
+        if (shipClass.getLength() == 1) {
             this.gameView.showOrientationControls(false);
-            this.gameView.displayMessage("Seleccionado: " + shipType + ". Es un barco de 1 casilla, solo haz clic para colocarlo.", false);
+            this.gameView.displayMessage("Seleccionado: " + shipName + ". Es un barco de 1 casilla, solo haz clic para colocarlo.", false);
 
         } else {
             this.gameView.showOrientationControls(true);
             this.gameView.updateOrientationButtons(this.chosenOrientation);
-            this.gameView.displayMessage("Seleccionado: " + shipType + ". Elige una orientación y haz clic en tu tablero para colocarlo.", false);
+            this.gameView.displayMessage("Seleccionado: " + shipName + ". Elige una orientación y haz clic en tu tablero para colocarlo.", false);
         }
     }
 
@@ -623,6 +873,22 @@ public class GameController {
         return message;
     }
 
+    /**
+     * Construye un mensaje resumido para una salva completa.
+     * @param baseMessage El inicio del mensaje (ej. "Lanzaste").
+     * @param outcome El resultado de la salva.
+     * @return El mensaje completo y formateado.
+     */
+    private String buildSalvoMessage(String baseMessage, SalvoOutcome outcome) {
+        StringBuilder message = new StringBuilder(baseMessage)
+                .append(" una salva de ").append(outcome.size()).append(" disparos: ")
+                .append(outcome.getHitCount()).append(" acierto(s)");
+        for (Ship sunkenShip : outcome.getSunkenShips()) {
+            message.append(", hundió un ").append(sunkenShip.getShipType());
+        }
+        return message.append(".").toString();
+    }
+
     /**
      * Procesa el resultado de un disparo y determina la continuación del turno.
      * Permite centralizar la lógica de turnos entre el turno del jugador humano y el de la máquina.
@@ -677,7 +943,7 @@ public class GameController {
 
     /**
      * Guarda el estado del juego si la opción de autoguardado está habilitada.
-     * Muestra un mensaje sutil al usuario para confirmar la acción.
+     * La escritura se hace en el hilo de guardado para no detener la interfaz.
      */
     private void autoSaveIfEnabled() {
         if (this.isAutoSaveEnabled) {
@@ -685,7 +951,7 @@ public class GameController {
                 return;
             }
             try {
-                this.gameState.saveGame();
+                this.gameState.autoSaveGame();
             } catch (Exception e) {
                 this.gameView.displayMessage("Error en el guardado automático: " + e.getMessage(), true);
             }
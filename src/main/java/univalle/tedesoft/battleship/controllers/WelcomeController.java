@@ -4,13 +4,17 @@ import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.Button;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.ListView;
 import javafx.scene.control.TextField;
-import javafx.scene.layout.VBox;
+import univalle.tedesoft.battleship.models.enums.Difficulty;
+import univalle.tedesoft.battleship.models.enums.GameMode;
 import univalle.tedesoft.battleship.models.players.HumanPlayer;
 import univalle.tedesoft.battleship.models.state.GamePersistenceManager;
 import univalle.tedesoft.battleship.views.GameView;
 import univalle.tedesoft.battleship.views.InstructionsView;
+import univalle.tedesoft.battleship.views.PagedSavedGamesList;
 import univalle.tedesoft.battleship.views.ViewUtils;
 import univalle.tedesoft.battleship.views.WelcomeView;
 
@@ -26,6 +30,10 @@ public class WelcomeController {
     // --- Componentes FXML ---
     /** Campo de texto donde el usuario ingresa su nombre de capitán para iniciar una nueva partida o buscar una existente. */
     @FXML private TextField nameTextField;
+    /** Casilla para jugar la nueva partida en modo salva (un disparo por cada barco a flote). */
+    @FXML private CheckBox salvoModeCheckBox;
+    /** Selector de la dificultad de la máquina para la nueva partida. */
+    @FXML private ComboBox<Difficulty> difficultyComboBox;
     /** Botón de nueva partida */
     @FXML public Button startGameButton;
     /** Botón que inicia la búsqueda de partidas guardadas correspondientes al capitán ingresado. */
@@ -34,10 +42,8 @@ public class WelcomeController {
     @FXML public Button exitButton;
     /** Botón que abre la ventana de instrucciones con las reglas del juego. */
     @FXML public Button instructionsButton;
-    /** Contenedor con barra de desplazamiento que se hace visible para mostrar la lista de partidas guardadas. */
-    @FXML private ScrollPane savedGamesScrollPane;
-    /** Contenedor VBox donde se añaden dinámicamente las tarjetas de información de cada partida guardada. */
-    @FXML private VBox savedGamesContainer;
+    /** Lista virtualizada que se hace visible para mostrar las tarjetas de las partidas guardadas. */
+    @FXML private ListView<GamePersistenceManager.SavedGameInfo> savedGamesListView;
 
     // --- Referencias principales ---
     /** Referencia a la instancia de la vista (`WelcomeView`) que este controlador gestiona. */
@@ -49,6 +55,19 @@ public class WelcomeController {
      */
     public void setWelcomeView(WelcomeView welcomeView) {
         this.welcomeView = welcomeView;
+        // El índice se carga en segundo plano mientras el jugador escribe su nombre.
+        Thread preloadThread = new Thread(GamePersistenceManager::preloadSavedGamesIndex);
+        preloadThread.setDaemon(true);
+        preloadThread.start();
+    }
+
+    /**
+     * Inicialización de JavaFX: llena el selector de dificultad con la dificultad por defecto elegida.
+     */
+    @FXML
+    public void initialize() {
+        this.difficultyComboBox.getItems().setAll(Difficulty.values());
+        this.difficultyComboBox.setValue(Difficulty.DEFAULT);
     }
 
     // ----- Handlers o Manejadores de Eventos con FXML -----
@@ -69,7 +88,8 @@ public class WelcomeController {
         try {
             this.welcomeView.hide();
             GameView gameView = GameView.getInstance();
-            gameView.initializeNewGame(new HumanPlayer(playerName));
+            GameMode gameMode = this.salvoModeCheckBox.isSelected() ? GameMode.SALVO : GameMode.CLASSIC;
+            gameView.initializeNewGame(new HumanPlayer(playerName), gameMode, this.difficultyComboBox.getValue());
             gameView.show();
         } catch (IOException e) {
             this.welcomeView.show();
@@ -82,23 +102,20 @@ public class WelcomeController {
 
     /**
      * Maneja el clic en el botón "Buscar Partidas".
-     * Muestra u oculta el panel de partidas guardadas y lo puebla con la información encontrada,
-     * filtrando por el nickname si este ha sido proporcionado.
+     * Muestra u oculta el panel de partidas guardadas y lo puebla con las partidas cuyo
+     * nickname empieza por el texto ingresado (todas si está vacío), de la más reciente a la más antigua.
      */
     @FXML
     void onShowSavedGamesClick() {
         String nicknameFilter = this.nameTextField.getText().trim();
 
-        if (nicknameFilter.isEmpty()) {
-            ViewUtils.showAlert(AlertType.WARNING, "Nombre Requerido", "Por favor, ingrese un nombre de capitán para buscar sus partidas guardadas.");
-            return;
-        }
-
-        if (this.welcomeView.toggleSavedGamesVisibility(this.savedGamesScrollPane)) {
-            // El panel ahora está visible, así que buscamos y poblamos los datos.
-            List<GamePersistenceManager.SavedGameInfo> savedGames = GamePersistenceManager.findSavedGamesByNickname(nicknameFilter);
-            // Le pedimos a la vista que muestre los juegos, pasándole el contenedor y la lógica de carga.
-            this.welcomeView.displaySavedGames(this.savedGamesContainer, savedGames, this::handleLoadGame);
+        if (this.welcomeView.toggleSavedGamesVisibility(this.savedGamesListView)) {
+            // El panel ahora está visible; las partidas se piden al índice por páginas a medida que se desplaza la lista.
+            int totalGames = GamePersistenceManager.countSavedGamesByPrefix(nicknameFilter);
+            PagedSavedGamesList savedGames = new PagedSavedGamesList(totalGames,
+                    (offset, limit) -> GamePersistenceManager.findSavedGamesByPrefix(nicknameFilter, offset, limit));
+            // Le pedimos a la vista que muestre los juegos, pasándole la lista y la lógica de carga.
+            this.welcomeView.displaySavedGames(this.savedGamesListView, savedGames, this::handleLoadGame, this::handleShowHistory);
         }
     }
 
@@ -126,6 +143,46 @@ public class WelcomeController {
 
     // ----- Lógica principal: carga de partidas guardadas y establecimiento de efectos visuales -----
 
+    /**
+     * Muestra el historial de guardados de una partida y carga la versión que el usuario elija.
+     * @param gameInfo La partida cuyo historial se quiere consultar.
+     */
+    public void handleShowHistory(GamePersistenceManager.SavedGameInfo gameInfo) {
+        List<GamePersistenceManager.SaveVersionInfo> versions = GamePersistenceManager.listSaveVersions(gameInfo.getNickname());
+        if (versions.isEmpty()) {
+            ViewUtils.showAlert(AlertType.INFORMATION, "Sin Historial", "La partida de " + gameInfo.getNickname() + " no tiene versiones anteriores guardadas.");
+            return;
+        }
+        this.welcomeView.chooseSaveVersion(gameInfo.getNickname(), versions).ifPresent(this::handleLoadGameVersion);
+    }
+
+    /**
+     * Lógica para restaurar y cargar una versión del historial de guardados.
+     * @param versión La versión que se va a cargar.
+     */
+    public void handleLoadGameVersion(GamePersistenceManager.SaveVersionInfo version) {
+        try {
+            this.welcomeView.hide();
+            GameView gameView = GameView.getInstance();
+
+            if (gameView.getController().getGameState().loadGameVersion(version)) {
+                gameView.initializeLoadedGame();
+                gameView.show();
+                Platform.runLater(() ->
+                        ViewUtils.showAlert(AlertType.INFORMATION, "Partida Cargada", "Se restauró la versión " + version.getVersion() + " (" + version.getSlot() + ") de " + version.getNickname() + ".")
+                );
+            } else {
+                this.welcomeView.show();
+                ViewUtils.showAlert(AlertType.ERROR, "Error al Cargar", "No se pudo restaurar la versión seleccionada. Los archivos pueden estar corruptos.");
+            }
+        } catch (IOException e) {
+            ViewUtils.showAlert(AlertType.ERROR, "Error Crítico", "No se pudo iniciar el juego: " + e.getMessage());
+        } catch (Exception e) {
+            this.welcomeView.show();
+            ViewUtils.showAlert(AlertType.ERROR, "Error al Cargar", "Ocurrió un error inesperado al restaurar la partida: " + e.getMessage());
+        }
+    }
+
     /**
      * Lógica para cargar una partida seleccionada.
      * @param gameToLoad La información de la partida que se va a cargar.
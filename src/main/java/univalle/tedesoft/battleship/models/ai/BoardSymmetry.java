@@ -0,0 +1,58 @@
+package univalle.tedesoft.battleship.models.ai;
+
+/**
+ * Las ocho simetrías de un tablero cuadrado: cuatro rotaciones y cuatro reflexiones.
+ * Dos estados del tablero que se obtienen uno del otro con una simetría son equivalentes para la IA
+ * siempre que la flota se pueda colocar en ambas orientaciones; las simetrías que intercambian filas
+ * por columnas convierten barcos horizontales en verticales.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public enum BoardSymmetry {
+    IDENTITY(false),
+    ROTATE_90(true),
+    ROTATE_180(false),
+    ROTATE_270(true),
+    FLIP_HORIZONTAL(false),
+    FLIP_VERTICAL(false),
+    TRANSPOSE(true),
+    ANTI_TRANSPOSE(true);
+
+    /** Indica si la simetría intercambia filas por columnas. */
+    private final boolean swapsAxes;
+
+    BoardSymmetry(boolean swapsAxes) {
+        this.swapsAxes = swapsAxes;
+    }
+
+    /**
+     * Transforma una celda.
+     * @param row Fila de la celda.
+     * @param col Columna de la celda.
+     * @param size Tamaño del tablero.
+     * @return La celda lineal (fila * tamaño + columna) transformada.
+     */
+    public int apply(int row, int col, int size) {
+        int last = size - 1;
+        switch (this) {
+            case ROTATE_90: return col * size + (last - row);
+            case ROTATE_180: return (last - row) * size + (last - col);
+            case ROTATE_270: return (last - col) * size + row;
+            case FLIP_HORIZONTAL: return row * size + (last - col);
+            case FLIP_VERTICAL: return (last - row) * size + col;
+            case TRANSPOSE: return col * size + row;
+            case ANTI_TRANSPOSE: return (last - col) * size + (last - row);
+            default: return row * size + col;
+        }
+    }
+
+    /**
+     * Indica si la simetría conserva la orientación de los barcos.
+     * @return true si un barco horizontal sigue siendo horizontal.
+     */
+    public boolean preservesOrientation() {
+        return !this.swapsAxes;
+    }
+}
@@ -0,0 +1,147 @@
+package univalle.tedesoft.battleship.models.ai;
+
+import univalle.tedesoft.battleship.models.board.BoardSnapshot;
+import univalle.tedesoft.battleship.models.enums.CellState;
+import univalle.tedesoft.battleship.models.enums.StrategyParameter;
+import univalle.tedesoft.battleship.models.ships.FleetConfiguration;
+
+import java.util.Random;
+
+/**
+ * Estrategia de la dificultad normal: dispara a la casilla con mayor probabilidad según el
+ * {@link ProbabilityMap}, que considera cada barco por separado. El mapa se actualiza de forma
+ * incremental entre turnos, así que cada disparo cuesta poco. Si se conoce como suele colocar su
+ * flota el rival, las probabilidades se multiplican por los pesos de cada celda. Mientras busca (sin
+ * impactos pendientes) puede favorecer las celdas de la retícula del barco más corto a flote
+ * ({@link StrategyParameter#PARITY_BIAS}).
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class DensityStrategy implements MachineStrategy {
+    private final ProbabilityMap map;
+    /** Aumento de la probabilidad de las celdas de la retícula al buscar. */
+    private final double parityBias;
+    private final Random random;
+    private double[] placementPrior;
+
+    /**
+     * Crea la estrategia con los parámetros del juego.
+     * @param fleetConfiguration Flota del rival.
+     */
+    public DensityStrategy(FleetConfiguration fleetConfiguration) {
+        this(fleetConfiguration, StrategyParameters.getDefault());
+    }
+
+    /**
+     * Crea la estrategia.
+     * @param fleetConfiguration Flota del rival.
+     * @param parameters Parámetros de la estrategia.
+     */
+    public DensityStrategy(FleetConfiguration fleetConfiguration, StrategyParameters parameters) {
+        this(fleetConfiguration, parameters, new Random());
+    }
+
+    /**
+     * Crea la estrategia.
+     * @param fleetConfiguration Flota del rival.
+     * @param parameters Parámetros de la estrategia.
+     * @param random Generador para desempatar; con una semilla fija la estrategia es reproducible.
+     */
+    public DensityStrategy(FleetConfiguration fleetConfiguration, StrategyParameters parameters, Random random) {
+        this.random = random;
+        this.map = new ProbabilityMap(fleetConfiguration.getBoardSize(), fleetConfiguration.getShipLengths(),
+                parameters.getInt(StrategyParameter.HIT_WEIGHT_SHIFT));
+        this.parityBias = parameters.get(StrategyParameter.PARITY_BIAS);
+    }
+
+    @Override
+    public int chooseShot(BoardSnapshot territory, BoardSnapshot fleetBoard, long deadline) {
+        int fallback = RandomStrategy.randomUnshotCell(territory, this.random);
+        if (System.nanoTime() > deadline) {
+            return fallback;
+        }
+        this.map.update(territory, fleetBoard);
+        double[] probabilities = applyPrior(this.map.getProbabilities(null), this.placementPrior);
+        if (this.parityBias > 0) {
+            this.applyParity(probabilities, territory, fleetBoard);
+        }
+        int best = bestCell(probabilities, this.random);
+        return (best >= 0) ? best : fallback;
+    }
+
+    /**
+     * Mientras no haya impactos pendientes, multiplica por 1 + {@link #parityBias} las celdas cuya suma
+     * de fila y columna es múltiplo de la longitud del barco más corto a flote: todo barco de esa
+     * longitud o mayor cubre alguna de ellas. Con barcos de una celda a flote no hace nada.
+     */
+    private void applyParity(double[] probabilities, BoardSnapshot territory, BoardSnapshot fleetBoard) {
+        int size = territory.getSize();
+        for (int cell = 0; cell < size * size; cell++) {
+            if (territory.getCellState(cell / size, cell % size) == CellState.HIT_SHIP) {
+                return;
+            }
+        }
+        int shortest = Integer.MAX_VALUE;
+        for (BoardSnapshot.ShipSnapshot ship : fleetBoard.getShips()) {
+            if (!ship.isSunk()) {
+                shortest = Math.min(shortest, ship.getLength());
+            }
+        }
+        if (shortest < 2 || shortest == Integer.MAX_VALUE) {
+            return;
+        }
+        for (int cell = 0; cell < probabilities.length; cell++) {
+            if ((cell / size + cell % size) % shortest == 0) {
+                probabilities[cell] *= 1 + this.parityBias;
+            }
+        }
+    }
+
+    @Override
+    public void setPlacementPrior(double[] cellWeights) {
+        this.placementPrior = cellWeights;
+    }
+
+    /**
+     * Multiplica las probabilidades por los pesos de cada celda.
+     * @param probabilities Un valor por celda.
+     * @param cellWeights Un peso por celda, o null.
+     * @return Las probabilidades si no hay pesos o no son del mismo tablero; si no, un arreglo nuevo.
+     */
+    static double[] applyPrior(double[] probabilities, double[] cellWeights) {
+        if (cellWeights == null || cellWeights.length != probabilities.length) {
+            return probabilities;
+        }
+        double[] weighted = new double[probabilities.length];
+        for (int cell = 0; cell < probabilities.length; cell++) {
+            weighted[cell] = probabilities[cell] * cellWeights[cell];
+        }
+        return weighted;
+    }
+
+    /**
+     * Elige la celda de mayor valor positivo; entre celdas empatadas elige al azar, para que la
+     * máquina no repita siempre la misma partida.
+     * @param values Un valor por celda.
+     * @param random Generador para desempatar.
+     * @return La celda elegida, o -1 si ninguna tiene valor positivo.
+     */
+    static int bestCell(double[] values, Random random) {
+        int best = -1;
+        int ties = 0;
+        for (int cell = 0; cell < values.length; cell++) {
+            if (values[cell] <= 0) {
+                continue;
+            }
+            if (best < 0 || values[cell] > values[best]) {
+                best = cell;
+                ties = 1;
+            } else if (values[cell] == values[best] && random.nextInt(++ties) == 0) {
+                best = cell;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,445 @@
+package univalle.tedesoft.battleship.models.ai;
+
+import univalle.tedesoft.battleship.models.board.BoardSnapshot;
+import univalle.tedesoft.battleship.models.enums.CellState;
+import univalle.tedesoft.battleship.models.ships.FleetConfiguration;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Resuelve el final de la partida: cuando quedan pocas disposiciones de la flota compatibles con los
+ * disparos, busca el disparo que minimiza la cantidad esperada de disparos para hundir todo, en lugar
+ * de disparar a la celda más probable.
+ * <p>
+ * Las disposiciones se enumeran con {@link JointProbabilityEngine} y se suponen igual de probables.
+ * Cada disparo separa las disposiciones según lo que se observaría (agua, impacto o el barco hundido);
+ * el valor de un grupo es uno más el promedio de los valores de sus partes, con el mejor disparo en
+ * cada paso. La búsqueda aplica y deshace los disparos sobre un estado compacto (celdas disparadas y
+ * celdas restantes de cada barco de cada disposición), memoriza los grupos ya resueltos, descarta un
+ * disparo en cuanto su cota inferior supera al mejor y termina si se agota el tiempo o si visita más
+ * de {@link #DEFAULT_NODE_LIMIT} grupos, lo que la acota también sin límite de tiempo. Cuando cada celda
+ * posible pertenece a una sola disposición todos los órdenes valen lo mismo y el valor se calcula
+ * directamente. No es segura para hilos; cada hilo debe usar su propio resolvedor.
+ * <p>
+ * Las soluciones se guardan en una {@link TranspositionTable}, por defecto la compartida, con la misma
+ * clave de Zobrist que usa {@link JointProbabilityEngine}, de modo que un final ya resuelto en otra
+ * partida o hilo no se vuelve a buscar.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class EndgameSolver {
+    /** Disposiciones máximas para intentar la búsqueda. */
+    public static final int DEFAULT_LAYOUT_LIMIT = 256;
+    /** Tiempo máximo de una búsqueda, en milisegundos. */
+    public static final long DEFAULT_TIME_LIMIT_MILLIS = 150;
+    /**
+     * Grupos de disposiciones que puede evaluar una búsqueda antes de abandonarse; son del orden de
+     * los que se alcanzan a evaluar en {@link #DEFAULT_TIME_LIMIT_MILLIS}.
+     */
+    public static final int DEFAULT_NODE_LIMIT = 100_000;
+    /** Disposiciones máximas que admite la codificación de la búsqueda. */
+    private static final int MAX_LAYOUTS = 1 << 20;
+    /** Distingue en la tabla de transposición las soluciones de otros cálculos. */
+    private static final long TABLE_SALT = 0x3C6EF372FE94F82BL;
+    /** Calidad de una solución en la tabla: cuesta más que un conteo exacto (calidad 2). */
+    private static final int TABLE_QUALITY = 3;
+
+    /**
+     * Disparo elegido por el resolvedor.
+     */
+    public static final class Solution {
+        private final int cell;
+        private final double expectedShots;
+        private final int layoutCount;
+
+        private Solution(int cell, double expectedShots, int layoutCount) {
+            this.cell = cell;
+            this.expectedShots = expectedShots;
+            this.layoutCount = layoutCount;
+        }
+
+        /** @return Celda del disparo, en orden fila por fila. */
+        public int getCell() {
+            return this.cell;
+        }
+
+        /** @return Disparos esperados para terminar, contando este, jugando siempre el mejor. */
+        public double getExpectedShots() {
+            return this.expectedShots;
+        }
+
+        /** @return Disposiciones compatibles con el tablero. */
+        public int getLayoutCount() {
+            return this.layoutCount;
+        }
+    }
+
+    /**
+     * Se lanza cuando la búsqueda supera el límite de tiempo o de nodos.
+     */
+    private static final class SearchLimitExceededException extends RuntimeException {
+        private SearchLimitExceededException() {
+            super("Límite de búsqueda agotado", null, false, false);
+        }
+    }
+
+    private final JointProbabilityEngine engine;
+    private final TranspositionTable table;
+    private final int size;
+    private final int cells;
+    private final int layoutLimit;
+    private final long timeLimitNanos;
+
+    /**
+     * Crea un resolvedor con los límites por defecto.
+     * @param fleetConfiguration Flota del rival.
+     */
+    public EndgameSolver(FleetConfiguration fleetConfiguration) {
+        this(fleetConfiguration, DEFAULT_LAYOUT_LIMIT, DEFAULT_TIME_LIMIT_MILLIS);
+    }
+
+    /**
+     * Crea un resolvedor.
+     * @param fleetConfiguration Flota del rival.
+     * @param layoutLimit Disposiciones máximas para intentar la búsqueda; con más, no se resuelve.
+     * @param timeLimitMillis Tiempo máximo de cada llamada a {@link #solve}, enumeración incluida.
+     */
+    public EndgameSolver(FleetConfiguration fleetConfiguration, int layoutLimit, long timeLimitMillis) {
+        this(fleetConfiguration, layoutLimit, timeLimitMillis, TranspositionTable.getShared());
+    }
+
+    /**
+     * Crea un resolvedor que guarda sus soluciones en una tabla dada.
+     * @param fleetConfiguration Flota del rival.
+     * @param layoutLimit Disposiciones máximas para intentar la búsqueda; con más, no se resuelve.
+     * @param timeLimitMillis Tiempo máximo de cada llamada a {@link #solve}, enumeración incluida.
+     * @param table Tabla de transposición de las soluciones y de los conteos del motor.
+     */
+    public EndgameSolver(FleetConfiguration fleetConfiguration, int layoutLimit, long timeLimitMillis,
+                         TranspositionTable table) {
+        this.engine = new JointProbabilityEngine(fleetConfiguration, JointProbabilityEngine.DEFAULT_STATE_BUDGET,
+                JointProbabilityEngine.DEFAULT_SAMPLE_ATTEMPTS, table);
+        this.table = table;
+        this.size = fleetConfiguration.getBoardSize();
+        this.cells = this.size * this.size;
+        this.layoutLimit = Math.min(layoutLimit, MAX_LAYOUTS);
+        this.timeLimitNanos = timeLimitMillis * 1_000_000L;
+    }
+
+    /**
+     * Busca el mejor disparo de un final de partida.
+     * @param territory Lo que el tirador sabe del tablero: agua, impactos y hundidos.
+     * @param fleetBoard Tablero real del rival; solo se usan sus barcos hundidos y las longitudes de los
+     *                   que siguen a flote. Puede ser la misma instantánea.
+     * @return El disparo óptimo, o null si hay demasiadas disposiciones, ninguna, o se agotó el tiempo.
+     */
+    public Solution solve(BoardSnapshot territory, BoardSnapshot fleetBoard) {
+        return this.solve(territory, fleetBoard, System.nanoTime() + this.timeLimitNanos);
+    }
+
+    /**
+     * Busca el mejor disparo de un final de partida sin pasar de un instante límite, además del
+     * límite de tiempo propio del resolvedor.
+     * @param territory Lo que el tirador sabe del tablero, como en {@link #solve(BoardSnapshot, BoardSnapshot)}.
+     * @param fleetBoard Tablero real del rival, como en {@link #solve(BoardSnapshot, BoardSnapshot)}.
+     * @param deadline Instante de {@link System#nanoTime()} en que se abandona la búsqueda, o
+     *                 {@link MachineStrategy#NO_DEADLINE} para limitarla solo por la cantidad de
+     *                 disposiciones y de nodos, sin el límite de tiempo propio, de modo que el resultado
+     *                 no dependa de la velocidad de la máquina.
+     * @return El disparo óptimo, o null si no se pudo resolver a tiempo.
+     */
+    public Solution solve(BoardSnapshot territory, BoardSnapshot fleetBoard, long deadline) {
+        if (deadline != MachineStrategy.NO_DEADLINE) {
+            deadline = Math.min(deadline, System.nanoTime() + this.timeLimitNanos);
+        }
+        long key = this.engine.tableKey(territory, fleetBoard) ^ TABLE_SALT;
+        double[] stored = this.table.get(key);
+        if (stored != null && stored.length == 3) {
+            // Una solución guardada por un resolvedor con un límite mayor no se usa por encima del propio.
+            int layoutCount = (int) stored[2];
+            return (layoutCount <= this.layoutLimit) ? new Solution((int) stored[0], stored[1], layoutCount) : null;
+        }
+        List<int[][]> layouts = this.engine.enumerateLayouts(territory, fleetBoard, this.layoutLimit, deadline);
+        if (layouts == null || layouts.isEmpty()) {
+            return null;
+        }
+        boolean[] shot = new boolean[this.cells];
+        for (int cell = 0; cell < this.cells; cell++) {
+            CellState state = territory.getCellState(cell / this.size, cell % this.size);
+            shot[cell] = state == CellState.SHOT_LOST_IN_WATER || state == CellState.HIT_SHIP
+                    || state == CellState.SUNK_SHIP_PART;
+        }
+        Search search = new Search(layouts, shot, deadline);
+        try {
+            Solution solution = search.run();
+            if (solution != null) {
+                this.table.put(key, TABLE_QUALITY, new double[]{solution.cell, solution.expectedShots, solution.layoutCount});
+            }
+            return solution;
+        } catch (SearchLimitExceededException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Estado de una búsqueda: las disposiciones, lo que queda de cada barco y las celdas disparadas.
+     */
+    private final class Search {
+        private final int layoutCount;
+        private final int maxShips;
+        private final long deadline;
+        /** Barco de cada celda de cada disposición ([disposición * celdas + celda]), o -1. */
+        private final short[] cellShip;
+        /** Identificador de la ubicación de cada barco ([disposición * maxShips + barco]), que se revela al hundirlo. */
+        private final int[] shipKey;
+        /** Celdas sin disparar de cada barco ([disposición * maxShips + barco]). */
+        private final int[] shipRemaining;
+        /** Celdas de barco sin disparar de cada disposición. */
+        private final int[] layoutRemaining;
+        private final boolean[] shot;
+        private final long[] cellKeys = new long[EndgameSolver.this.cells];
+        private final long[] layoutKeys;
+        private long shotHash;
+        /** Disposiciones del grupo actual; cada llamada reordena solo su rango. */
+        private final int[] order;
+        private final HashMap<Long, Double> memo = new HashMap<>();
+        /** Grupos evaluados hasta ahora. */
+        private int nodes;
+
+        private Search(List<int[][]> layouts, boolean[] shot, long deadline) {
+            int total = EndgameSolver.this.cells;
+            this.layoutCount = layouts.size();
+            this.maxShips = Math.max(1, layouts.get(0).length);
+            this.deadline = deadline;
+            this.shot = shot;
+            this.cellShip = new short[this.layoutCount * total];
+            this.shipKey = new int[this.layoutCount * this.maxShips];
+            this.shipRemaining = new int[this.layoutCount * this.maxShips];
+            this.layoutRemaining = new int[this.layoutCount];
+            this.layoutKeys = new long[this.layoutCount];
+            this.order = new int[this.layoutCount];
+            Arrays.fill(this.cellShip, (short) -1);
+            SplittableRandom random = new SplittableRandom(0x454E4447L);
+            for (int cell = 0; cell < total; cell++) {
+                this.cellKeys[cell] = random.nextLong();
+                if (shot[cell]) {
+                    this.shotHash ^= this.cellKeys[cell];
+                }
+            }
+            for (int layout = 0; layout < this.layoutCount; layout++) {
+                this.order[layout] = layout;
+                this.layoutKeys[layout] = random.nextLong();
+                int[][] ships = layouts.get(layout);
+                for (int s = 0; s < ships.length; s++) {
+                    int[] shipCells = ships[s];
+                    boolean vertical = shipCells.length > 1 && shipCells[1] - shipCells[0] != 1;
+                    int index = layout * this.maxShips + s;
+                    this.shipKey[index] = (shipCells.length * total + shipCells[0]) * 2 + (vertical ? 1 : 0);
+                    for (int cell : shipCells) {
+                        this.cellShip[layout * total + cell] = (short) s;
+                        if (!shot[cell]) {
+                            this.shipRemaining[index]++;
+                            this.layoutRemaining[layout]++;
+                        }
+                    }
+                }
+            }
+        }
+
+        private Solution run() {
+            for (int layout = 0; layout < this.layoutCount; layout++) {
+                if (this.layoutRemaining[layout] == 0) {
+                    // La flota ya estaría hundida: la partida terminaría sin más disparos.
+                    return null;
+                }
+            }
+            int[] choice = {-1};
+            double value = this.search(0, this.layoutCount, choice);
+            return (choice[0] < 0) ? null : new Solution(choice[0], value, this.layoutCount);
+        }
+
+        /**
+         * Disparos esperados para terminar un grupo de disposiciones, con memoria.
+         */
+        private double expected(int from, int to) {
+            if (to - from == 1) {
+                return this.layoutRemaining[this.order[from]];
+            }
+            long key = this.shotHash;
+            for (int i = from; i < to; i++) {
+                key ^= this.layoutKeys[this.order[i]];
+            }
+            Double known = this.memo.get(key);
+            if (known != null) {
+                return known;
+            }
+            double value = this.search(from, to, null);
+            this.memo.put(key, value);
+            return value;
+        }
+
+        /**
+         * Prueba cada disparo útil sobre un grupo y devuelve el valor del mejor.
+         * @param choice Si no es null, recibe en su primera posición la celda del mejor disparo.
+         */
+        private double search(int from, int to, int[] choice) {
+            if (++this.nodes > DEFAULT_NODE_LIMIT || System.nanoTime() > this.deadline) {
+                throw new SearchLimitExceededException();
+            }
+            int total = EndgameSolver.this.cells;
+            int count = to - from;
+            int[] occupancy = new int[total];
+            int maxOccupancy = 0;
+            double remainingSum = 0;
+            for (int i = from; i < to; i++) {
+                int layout = this.order[i];
+                remainingSum += this.layoutRemaining[layout];
+                for (int cell = 0; cell < total; cell++) {
+                    if (!this.shot[cell] && this.cellShip[layout * total + cell] >= 0) {
+                        maxOccupancy = Math.max(maxOccupancy, ++occupancy[cell]);
+                    }
+                }
+            }
+            // Cota inferior: cada disposición necesita al menos sus celdas restantes.
+            double lowerBound = remainingSum / count;
+            if (maxOccupancy <= 1) {
+                // Cada disparo prueba una sola disposición: la k-ésima probada cuesta k - 1 fallos más sus celdas.
+                if (choice != null) {
+                    choice[0] = this.firstOccupied(occupancy);
+                }
+                return (count - 1) / 2.0 + lowerBound;
+            }
+            Integer[] candidates = new Integer[total];
+            int candidateCount = 0;
+            for (int cell = 0; cell < total; cell++) {
+                if (occupancy[cell] > 0) {
+                    candidates[candidateCount++] = cell;
+                }
+            }
+            Arrays.sort(candidates, 0, candidateCount, (a, b) -> occupancy[b] - occupancy[a]);
+            long[] keys = new long[count];
+            double best = Double.POSITIVE_INFINITY;
+            int bestCell = -1;
+            for (int c = 0; c < candidateCount && best > lowerBound; c++) {
+                int cell = candidates[c];
+                this.make(cell, from, to);
+                for (int i = 0; i < count; i++) {
+                    int layout = this.order[from + i];
+                    keys[i] = (this.observation(layout, cell) << 20) | layout;
+                }
+                Arrays.sort(keys);
+                for (int i = 0; i < count; i++) {
+                    this.order[from + i] = (int) (keys[i] & (MAX_LAYOUTS - 1));
+                }
+                double cost = this.evaluate(from, to, keys, best);
+                this.unmake(cell, from, to);
+                if (cost < best) {
+                    best = cost;
+                    bestCell = cell;
+                }
+            }
+            if (choice != null) {
+                choice[0] = bestCell;
+            }
+            return best;
+        }
+
+        /**
+         * Valor de un disparo ya aplicado: uno más el promedio de los grupos que separa. Se abandona
+         * (devolviendo un valor no menor que {@code bound}) en cuanto no puede mejorar la cota.
+         */
+        private double evaluate(int from, int to, long[] keys, double bound) {
+            int count = to - from;
+            double pendingBound = 0;
+            for (int i = from; i < to; i++) {
+                pendingBound += this.layoutRemaining[this.order[i]];
+            }
+            pendingBound /= count;
+            double cost = 1;
+            int start = 0;
+            while (start < count) {
+                int end = start + 1;
+                while (end < count && (keys[end] >>> 20) == (keys[start] >>> 20)) {
+                    end++;
+                }
+                double groupBound = 0;
+                for (int i = start; i < end; i++) {
+                    groupBound += this.layoutRemaining[this.order[from + i]];
+                }
+                groupBound /= count;
+                if (this.layoutRemaining[this.order[from + start]] > 0) {
+                    cost += this.expected(from + start, from + end) * (end - start) / count;
+                }
+                pendingBound -= groupBound;
+                if (cost + pendingBound >= bound) {
+                    return bound;
+                }
+                start = end;
+            }
+            return cost;
+        }
+
+        /**
+         * Lo que se observaría al disparar a una celda ya aplicada: agua, impacto o el barco hundido, y si
+         * la partida termina. Las disposiciones con igual observación quedan juntas al ordenar.
+         */
+        private long observation(int layout, int cell) {
+            int ship = this.cellShip[layout * EndgameSolver.this.cells + cell];
+            long seen;
+            if (ship < 0) {
+                seen = 0;
+            } else if (this.shipRemaining[layout * this.maxShips + ship] > 0) {
+                seen = 1;
+            } else {
+                seen = 2 + this.shipKey[layout * this.maxShips + ship];
+            }
+            return seen * 2 + (this.layoutRemaining[layout] > 0 ? 1 : 0);
+        }
+
+        /**
+         * Aplica un disparo a las disposiciones de un grupo.
+         */
+        private void make(int cell, int from, int to) {
+            this.shot[cell] = true;
+            this.shotHash ^= this.cellKeys[cell];
+            for (int i = from; i < to; i++) {
+                int layout = this.order[i];
+                int ship = this.cellShip[layout * EndgameSolver.this.cells + cell];
+                if (ship >= 0) {
+                    this.shipRemaining[layout * this.maxShips + ship]--;
+                    this.layoutRemaining[layout]--;
+                }
+            }
+        }
+
+        /**
+         * Deshace {@link #make} sobre las mismas disposiciones, en cualquier orden.
+         */
+        private void unmake(int cell, int from, int to) {
+            for (int i = from; i < to; i++) {
+                int layout = this.order[i];
+                int ship = this.cellShip[layout * EndgameSolver.this.cells + cell];
+                if (ship >= 0) {
+                    this.shipRemaining[layout * this.maxShips + ship]++;
+                    this.layoutRemaining[layout]++;
+                }
+            }
+            this.shotHash ^= this.cellKeys[cell];
+            this.shot[cell] = false;
+        }
+
+        private int firstOccupied(int[] occupancy) {
+            for (int cell = 0; cell < occupancy.length; cell++) {
+                if (occupancy[cell] > 0) {
+                    return cell;
+                }
+            }
+            return -1;
+        }
+    }
+}
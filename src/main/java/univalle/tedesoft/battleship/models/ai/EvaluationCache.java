@@ -0,0 +1,113 @@
+package univalle.tedesoft.battleship.models.ai;
+
+import univalle.tedesoft.battleship.models.board.BoardSnapshot;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caché de evaluaciones por celda indexada por la forma canónica del estado del tablero
+ * ({@link SymmetryCanonicalizer}). Las evaluaciones se guardan en el marco del estado canónico y se
+ * devuelven transformadas al marco del estado consultado, de modo que un cálculo sirve para los
+ * hasta ocho estados simétricos. Al comienzo de la partida y en el análisis de aperturas, donde casi
+ * todos los estados tienen gemelos simétricos, esto ahorra la mayor parte de los cálculos.
+ * <p>
+ * Las entradas viven en una {@link TranspositionTable}, por defecto la compartida. Los arreglos
+ * guardados y devueltos pueden compartirse entre hilos y no deben modificarse.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class EvaluationCache {
+    /**
+     * Clase interna estática para crear la caché compartida solo cuando se usa por primera vez.
+     */
+    private static class SharedHolder {
+        private static final EvaluationCache INSTANCE = new EvaluationCache(TranspositionTable.getShared(), false);
+    }
+
+    private final TranspositionTable table;
+    private final boolean orientationPreservingOnly;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Crea una caché sobre una tabla.
+     * @param table Tabla donde se guardan las evaluaciones.
+     * @param orientationPreservingOnly true si la evaluación distingue barcos horizontales de
+     *                                  verticales (por ejemplo, si alguna clase de barco solo admite
+     *                                  una orientación); entonces solo se usan cuatro simetrías.
+     */
+    public EvaluationCache(TranspositionTable table, boolean orientationPreservingOnly) {
+        this.table = table;
+        this.orientationPreservingOnly = orientationPreservingOnly;
+    }
+
+    /**
+     * Caché compartida sobre la tabla de transposición compartida, para evaluaciones que tratan por
+     * igual ambas orientaciones de los barcos.
+     * @return La caché compartida.
+     */
+    public static EvaluationCache getShared() {
+        return SharedHolder.INSTANCE;
+    }
+
+    /**
+     * Busca la evaluación de un estado o de uno simétrico.
+     * @param state Estado del tablero.
+     * @param salt Valor que distingue el tipo de cálculo y lo que no se ve en las celdas (por ejemplo
+     *             la flota restante); debe ser el mismo para estados simétricos.
+     * @return Un valor por celda en el marco de {@code state}, o null si no está en la caché.
+     */
+    public double[] get(BoardSnapshot state, long salt) {
+        SymmetryCanonicalizer canonicalizer = SymmetryCanonicalizer.forSize(state.getSize());
+        SymmetryCanonicalizer.CanonicalForm form = canonicalizer.canonicalize(state, this.orientationPreservingOnly);
+        double[] stored = this.table.get(form.getHash() ^ salt);
+        if (stored == null) {
+            this.misses.increment();
+            return null;
+        }
+        this.hits.increment();
+        return canonicalizer.fromCanonical(stored, form.getSymmetry());
+    }
+
+    /**
+     * Guarda la evaluación de un estado; queda disponible también para sus estados simétricos.
+     * @param state Estado del tablero.
+     * @param salt El mismo valor usado en {@link #get(BoardSnapshot, long)}.
+     * @param quality Calidad de la evaluación, como en {@link TranspositionTable#put(long, int, double[])}.
+     * @param evaluations Un valor por celda en el marco de {@code state}.
+     */
+    public void put(BoardSnapshot state, long salt, int quality, double[] evaluations) {
+        SymmetryCanonicalizer canonicalizer = SymmetryCanonicalizer.forSize(state.getSize());
+        SymmetryCanonicalizer.CanonicalForm form = canonicalizer.canonicalize(state, this.orientationPreservingOnly);
+        this.table.put(form.getHash() ^ salt, quality, canonicalizer.toCanonical(evaluations, form.getSymmetry()));
+    }
+
+    /** @return Búsquedas que encontraron el estado o uno simétrico. */
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /** @return Búsquedas que no encontraron el estado. */
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * @return Fracción de búsquedas que encontraron el estado, entre 0 y 1 (0 si no hubo búsquedas).
+     */
+    public double getHitRate() {
+        long hitCount = this.hits.sum();
+        long total = hitCount + this.misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    /**
+     * Reinicia las estadísticas de aciertos sin vaciar la tabla.
+     */
+    public void resetStatistics() {
+        this.hits.reset();
+        this.misses.reset();
+    }
+}
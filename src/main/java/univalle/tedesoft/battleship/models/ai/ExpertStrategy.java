@@ -0,0 +1,93 @@
+package univalle.tedesoft.battleship.models.ai;
+
+import univalle.tedesoft.battleship.models.board.Board;
+import univalle.tedesoft.battleship.models.board.BoardSnapshot;
+import univalle.tedesoft.battleship.models.enums.StrategyParameter;
+import univalle.tedesoft.battleship.models.ships.FleetConfiguration;
+import univalle.tedesoft.battleship.models.ships.Ship;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Estrategia de la dificultad experta. Mientras dura la apertura juega las jugadas del
+ * {@link OpeningBook} de la flota, sin calcular nada; al final de la partida, si el
+ * {@link EndgameSolver} resuelve a tiempo, el disparo que minimiza los disparos esperados; y en el
+ * resto, la respuesta de {@link JointProbabilityStrategy}, que también coloca la flota. Contra un
+ * rival del que se conoce como coloca su flota no usa el libro.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class ExpertStrategy implements MachineStrategy {
+    private final FleetConfiguration fleetConfiguration;
+    private final JointProbabilityStrategy jointProbability;
+    private final EndgameSolver endgameSolver;
+    /** Fracción del tiempo de la jugada que se le da al solucionador de finales. */
+    private final double endgameTimeFraction;
+    private final Random random;
+    /** true si se conoce como coloca el rival; el libro de aperturas supone una colocación al azar. */
+    private boolean hasPlacementPrior;
+
+    /**
+     * Crea la estrategia con los parámetros del juego.
+     * @param fleetConfiguration Flota del rival.
+     */
+    public ExpertStrategy(FleetConfiguration fleetConfiguration) {
+        this(fleetConfiguration, StrategyParameters.getDefault());
+    }
+
+    /**
+     * Crea la estrategia.
+     * @param fleetConfiguration Flota del rival.
+     * @param parameters Parámetros de la estrategia.
+     */
+    public ExpertStrategy(FleetConfiguration fleetConfiguration, StrategyParameters parameters) {
+        this(fleetConfiguration, parameters, new Random());
+    }
+
+    /**
+     * Crea la estrategia.
+     * @param fleetConfiguration Flota del rival.
+     * @param parameters Parámetros de la estrategia.
+     * @param random Generador para elegir entre las jugadas del libro y desempatar; con una semilla
+     *               fija la estrategia es reproducible.
+     */
+    public ExpertStrategy(FleetConfiguration fleetConfiguration, StrategyParameters parameters, Random random) {
+        this.fleetConfiguration = fleetConfiguration;
+        this.random = random;
+        this.jointProbability = new JointProbabilityStrategy(fleetConfiguration, parameters, new Random(random.nextLong()));
+        this.endgameSolver = new EndgameSolver(fleetConfiguration,
+                parameters.getInt(StrategyParameter.ENDGAME_LAYOUT_LIMIT), EndgameSolver.DEFAULT_TIME_LIMIT_MILLIS);
+        this.endgameTimeFraction = parameters.get(StrategyParameter.ENDGAME_TIME_FRACTION);
+    }
+
+    @Override
+    public int chooseShot(BoardSnapshot territory, BoardSnapshot fleetBoard, long deadline) {
+        OpeningBook book = this.hasPlacementPrior ? null : OpeningBook.forFleet(this.fleetConfiguration);
+        int[] candidates = (book != null) ? book.getCandidates(territory) : null;
+        if (candidates != null && candidates.length > 0) {
+            return candidates[this.random.nextInt(candidates.length)];
+        }
+        // El final se intenta con una parte del tiempo, para que quede tiempo para la respuesta de respaldo.
+        long now = System.nanoTime();
+        long endgameDeadline = (deadline == NO_DEADLINE) ? NO_DEADLINE : now + (long) ((deadline - now) * this.endgameTimeFraction);
+        EndgameSolver.Solution solution = this.endgameSolver.solve(territory, fleetBoard, endgameDeadline);
+        if (solution != null) {
+            return solution.getCell();
+        }
+        return this.jointProbability.chooseShot(territory, fleetBoard, deadline);
+    }
+
+    @Override
+    public void setPlacementPrior(double[] cellWeights) {
+        this.hasPlacementPrior = cellWeights != null;
+        this.jointProbability.setPlacementPrior(cellWeights);
+    }
+
+    @Override
+    public boolean placeFleet(Board board, List<Ship> fleet, FleetConfiguration fleetConfiguration, long deadline) {
+        return this.jointProbability.placeFleet(board, fleet, fleetConfiguration, deadline);
+    }
+}
@@ -0,0 +1,989 @@
+package univalle.tedesoft.battleship.models.ai;
+
+import univalle.tedesoft.battleship.models.board.BoardSnapshot;
+import univalle.tedesoft.battleship.models.enums.CellState;
+import univalle.tedesoft.battleship.models.enums.Orientation;
+import univalle.tedesoft.battleship.models.ships.FleetConfiguration;
+import univalle.tedesoft.battleship.models.ships.ShipClass;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Calcula la probabilidad exacta de barco de cada celda contando todas las disposiciones completas de
+ * la flota a flote que son compatibles con lo que se sabe del tablero: no tocan celdas de agua ni
+ * barcos hundidos, no se superponen y cubren todos los impactos sin explicar. A diferencia de
+ * {@link ProbabilityMap}, que trata cada barco por separado, tiene en cuenta que los barcos no pueden
+ * superponerse, lo que importa sobre todo al final de la partida.
+ * <p>
+ * El conteo recorre las celdas en orden con máscaras de bits: en cada celda libre se decide si queda
+ * vacía o si en ella empieza un barco de alguna longitud restante. Como los barcos solo alcanzan unas
+ * pocas filas hacia adelante, el estado es la celda actual, la ventana de celdas ya ocupadas delante de
+ * ella y el multiconjunto de barcos restantes; los estados se memorizan y se descartan las ramas que
+ * ya no pueden cubrir los impactos pendientes o no dejan espacio para la flota. Una segunda pasada
+ * hacia adelante reparte las disposiciones entre las celdas. Con suficientes hilos el trabajo se
+ * reparte con fork/join entre las ubicaciones del barco más largo; con pocos, un solo conteo comparte
+ * todos los estados y termina antes.
+ * <p>
+ * Si los estados superan el presupuesto, las cuentas no caben en un long o los barcos alcanzan más
+ * celdas hacia adelante de las que caben en la ventana, se estima por muestreo: se generan
+ * disposiciones al azar, prefiriendo las ubicaciones que cubren impactos, se descartan las
+ * incompatibles y cada una pesa según lo que corrige esa preferencia. No es segura para hilos; cada
+ * hilo debe usar su propio motor.
+ * <p>
+ * Los conteos exactos se guardan en una {@link TranspositionTable}, por defecto la compartida, con el
+ * hash de Zobrist que los tableros mantienen de forma incremental; el mismo estado alcanzado en otra
+ * jugada, partida o hilo se responde sin contar de nuevo. Las estimaciones por muestreo dependen del
+ * tiempo disponible y no se guardan.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class JointProbabilityEngine {
+    /** Estados memorizados máximos antes de pasar al muestreo. */
+    public static final int DEFAULT_STATE_BUDGET = 1 << 18;
+    /** Disposiciones al azar que se prueban en el muestreo. */
+    public static final int DEFAULT_SAMPLE_ATTEMPTS = 1 << 18;
+    /** Bits de la ventana de celdas ocupadas delante de la celda actual. */
+    private static final int WINDOW_BITS = 64;
+    /**
+     * Hilos mínimos para repartir el conteo entre las ubicaciones del primer barco. Cada tarea repite
+     * buena parte de los estados de las demás (unas cinco veces más estados en total a mitad de
+     * partida), así que con menos hilos es más rápido un solo conteo.
+     */
+    private static final int MIN_PARALLELISM = 6;
+    /** Distingue en la tabla de transposición los conteos de este motor de otros cálculos. */
+    private static final long TABLE_SALT = 0xBB67AE8584CAA73BL;
+    /** Calidad de un conteo exacto en la tabla: cuesta más que un mapa de probabilidad (calidad 1). */
+    private static final int TABLE_QUALITY = 2;
+
+    /**
+     * Resultado de un cálculo.
+     */
+    public static final class Result {
+        private final double[] probabilities;
+        private final boolean exact;
+        private final long layoutCount;
+
+        private Result(double[] probabilities, boolean exact, long layoutCount) {
+            this.probabilities = probabilities;
+            this.exact = exact;
+            this.layoutCount = layoutCount;
+        }
+
+        /** @return Probabilidad de barco de cada celda, en orden fila por fila; las disparadas valen 0. */
+        public double[] getProbabilities() {
+            return this.probabilities;
+        }
+
+        /** @return true si se contaron todas las disposiciones, false si se estimo por muestreo. */
+        public boolean isExact() {
+            return this.exact;
+        }
+
+        /** @return Disposiciones compatibles (exacto) o muestras aceptadas (muestreo). */
+        public long getLayoutCount() {
+            return this.layoutCount;
+        }
+
+        /**
+         * @return La celda sin disparar más probable, o -1 si ninguna tiene probabilidad positiva.
+         */
+        public int getBestCell() {
+            int best = -1;
+            for (int cell = 0; cell < this.probabilities.length; cell++) {
+                if (this.probabilities[cell] > 0 && (best < 0 || this.probabilities[cell] > this.probabilities[best])) {
+                    best = cell;
+                }
+            }
+            return best;
+        }
+    }
+
+    /**
+     * Se lanza cuando el conteo exacto excede el presupuesto de estados o el tiempo disponible.
+     */
+    private static final class BudgetExceededException extends RuntimeException {
+        private BudgetExceededException() {
+            super("Presupuesto de estados agotado", null, false, false);
+        }
+    }
+
+    private final int size;
+    private final int cells;
+    /** Orientaciones permitidas por longitud de barco. */
+    private final boolean[] horizontalAllowed;
+    private final boolean[] verticalAllowed;
+    private final int stateBudget;
+    private final int sampleAttempts;
+    private final TranspositionTable table;
+    /** Resume las orientaciones permitidas, que cambian el conteo sin cambiar el tablero. */
+    private final long orientationSalt;
+
+    /**
+     * Crea un motor con los presupuestos por defecto.
+     * @param fleetConfiguration Flota del rival; da el tamaño del tablero y las orientaciones permitidas.
+     */
+    public JointProbabilityEngine(FleetConfiguration fleetConfiguration) {
+        this(fleetConfiguration, DEFAULT_STATE_BUDGET, DEFAULT_SAMPLE_ATTEMPTS);
+    }
+
+    /**
+     * Crea un motor.
+     * @param fleetConfiguration Flota del rival; da el tamaño del tablero y las orientaciones permitidas.
+     * @param stateBudget Estados memorizados máximos del conteo exacto.
+     * @param sampleAttempts Disposiciones que se prueban si hay que estimar por muestreo.
+     */
+    public JointProbabilityEngine(FleetConfiguration fleetConfiguration, int stateBudget, int sampleAttempts) {
+        this(fleetConfiguration, stateBudget, sampleAttempts, TranspositionTable.getShared());
+    }
+
+    /**
+     * Crea un motor que guarda sus conteos exactos en una tabla dada.
+     * @param fleetConfiguration Flota del rival; da el tamaño del tablero y las orientaciones permitidas.
+     * @param stateBudget Estados memorizados máximos del conteo exacto.
+     * @param sampleAttempts Disposiciones que se prueban si hay que estimar por muestreo.
+     * @param table Tabla de transposición de los conteos exactos.
+     */
+    public JointProbabilityEngine(FleetConfiguration fleetConfiguration, int stateBudget, int sampleAttempts,
+                                  TranspositionTable table) {
+        this.size = fleetConfiguration.getBoardSize();
+        this.cells = this.size * this.size;
+        this.horizontalAllowed = new boolean[this.size + 1];
+        this.verticalAllowed = new boolean[this.size + 1];
+        for (ShipClass shipClass : fleetConfiguration.getShipClasses()) {
+            this.horizontalAllowed[shipClass.getLength()] |= shipClass.allows(Orientation.HORIZONTAL);
+            this.verticalAllowed[shipClass.getLength()] |= shipClass.allows(Orientation.VERTICAL);
+        }
+        this.stateBudget = stateBudget;
+        this.sampleAttempts = sampleAttempts;
+        this.table = table;
+        this.orientationSalt = 31L * Arrays.hashCode(this.horizontalAllowed) + Arrays.hashCode(this.verticalAllowed);
+    }
+
+    /**
+     * Calcula las probabilidades de un tablero rival.
+     * @param territory Lo que el tirador sabe del tablero: agua, impactos y hundidos. Las celdas con
+     *                  barcos sin descubrir se tratan como desconocidas.
+     * @param fleetBoard Tablero real del rival; solo se usan sus barcos hundidos, que el tirador ya ve,
+     *                   y las longitudes de los que siguen a flote. Puede ser la misma instantánea.
+     * @return Las probabilidades, exactas si el conteo fue posible.
+     */
+    public Result compute(BoardSnapshot territory, BoardSnapshot fleetBoard) {
+        return this.compute(territory, fleetBoard, Long.MAX_VALUE);
+    }
+
+    /**
+     * Calcula las probabilidades de un tablero rival sin pasar de un instante límite: el conteo exacto
+     * se abandona al llegar a el y el muestreo se detiene con las muestras que lleve.
+     * @param territory Lo que el tirador sabe del tablero, como en {@link #compute(BoardSnapshot, BoardSnapshot)}.
+     * @param fleetBoard Tablero real del rival, como en {@link #compute(BoardSnapshot, BoardSnapshot)}.
+     * @param deadline Instante de {@link System#nanoTime()} en que se devuelve lo calculado.
+     * @return Las probabilidades; si no hubo tiempo para ninguna muestra, todas valen 0.
+     */
+    public Result compute(BoardSnapshot territory, BoardSnapshot fleetBoard, long deadline) {
+        long key = this.tableKey(territory, fleetBoard) ^ TABLE_SALT;
+        double[] stored = this.table.get(key);
+        // Una entrada de otro tamaño solo puede ser una colisión con otro cálculo.
+        if (stored != null && stored.length == this.cells + 2) {
+            long layoutCount = ((long) stored[this.cells] << 32) | (long) stored[this.cells + 1];
+            return new Result(Arrays.copyOf(stored, this.cells), true, layoutCount);
+        }
+        Problem problem = this.problemFor(territory, fleetBoard);
+        if (problem.fitsWindow()) {
+            try {
+                Result result = problem.countExactly(deadline);
+                // La cantidad de disposiciones se guarda en dos mitades de 32 bits, que un double representa exactas.
+                double[] entry = Arrays.copyOf(result.probabilities, this.cells + 2);
+                entry[this.cells] = result.layoutCount >>> 32;
+                entry[this.cells + 1] = result.layoutCount & 0xFFFFFFFFL;
+                this.table.put(key, TABLE_QUALITY, entry);
+                return result;
+            } catch (BudgetExceededException | ArithmeticException e) {
+                // Demasiadas disposiciones para contarlas a tiempo: se estima.
+            }
+        }
+        return problem.sample(deadline);
+    }
+
+    /**
+     * Enumera una por una las disposiciones compatibles con un tablero rival, si son pocas. A
+     * diferencia del conteo, descarta los barcos que quedarían completos sobre impactos sin hundirse.
+     * @param territory Lo que el tirador sabe del tablero, como en {@link #compute}.
+     * @param fleetBoard Tablero real del rival, como en {@link #compute}.
+     * @param limit Cantidad máxima de disposiciones.
+     * @param deadline Instante de {@link System#nanoTime()} en que se abandona la enumeración.
+     * @return Las celdas de cada barco de cada disposición, o null si hay más de {@code limit} o se
+     *         alcanzó el límite de tiempo.
+     */
+    List<int[][]> enumerateLayouts(BoardSnapshot territory, BoardSnapshot fleetBoard, int limit, long deadline) {
+        return this.problemFor(territory, fleetBoard).enumerate(limit, deadline);
+    }
+
+    /**
+     * Clave en la tabla de transposición de todo lo que usa el cálculo de un tablero rival: el hash
+     * de Zobrist de ambas instantáneas, las longitudes a flote y las orientaciones de la flota.
+     * @param territory Lo que el tirador sabe del tablero, como en {@link #compute}.
+     * @param fleetBoard Tablero real del rival, como en {@link #compute}.
+     * @return La clave, que cada cálculo combina con su propia sal.
+     */
+    long tableKey(BoardSnapshot territory, BoardSnapshot fleetBoard) {
+        int[] afloat = fleetBoard.getShips().stream().filter(ship -> !ship.isSunk())
+                .mapToInt(BoardSnapshot.ShipSnapshot::getLength).sorted().toArray();
+        // La rotación evita que los dos hashes se anulen cuando ambas instantáneas son la misma.
+        return territory.getKnowledgeHash() ^ Long.rotateLeft(fleetBoard.getKnowledgeHash(), 21)
+                ^ (this.orientationSalt + Arrays.hashCode(afloat)) * 0x9E3779B97F4A7C15L;
+    }
+
+    /**
+     * Traduce un tablero rival a celdas bloqueadas, impactos sin explicar y flota a flote.
+     */
+    private Problem problemFor(BoardSnapshot territory, BoardSnapshot fleetBoard) {
+        boolean[] blocked = new boolean[this.cells];
+        boolean[] hit = new boolean[this.cells];
+        for (int cell = 0; cell < this.cells; cell++) {
+            CellState state = territory.getCellState(cell / this.size, cell % this.size);
+            blocked[cell] = state == CellState.SHOT_LOST_IN_WATER || state == CellState.SUNK_SHIP_PART;
+            hit[cell] = state == CellState.HIT_SHIP;
+        }
+        List<Integer> afloat = new ArrayList<>();
+        for (BoardSnapshot.ShipSnapshot ship : fleetBoard.getShips()) {
+            if (!ship.isSunk()) {
+                afloat.add(ship.getLength());
+                continue;
+            }
+            for (int i = 0; i < ship.getCellCount(); i++) {
+                int cell = ship.getCellRow(i) * this.size + ship.getCellCol(i);
+                blocked[cell] = true;
+                hit[cell] = false;
+            }
+        }
+        int[] lengths = afloat.stream().mapToInt(Integer::intValue).sorted().toArray();
+        return new Problem(blocked, hit, lengths);
+    }
+
+    /**
+     * Un tablero concreto: celdas bloqueadas, impactos pendientes y flota a flote.
+     */
+    private final class Problem {
+        private final boolean[] blocked;
+        private final boolean[] hit;
+        /** Longitudes distintas de la flota a flote, de mayor a menor. */
+        private final int[] lengths;
+        /** Cantidad de barcos de cada longitud. */
+        private final int[] counts;
+        /** Base de cada longitud en el código del multiconjunto restante. */
+        private final int[] radix;
+        private final int fullFleet;
+        /** Celdas que ocupan los barcos restantes, por código de multiconjunto. */
+        private final int[] remainingCells;
+
+        private Problem(boolean[] blocked, boolean[] hit, int[] sortedLengths) {
+            this.blocked = blocked;
+            this.hit = hit;
+            this.lengths = Arrays.stream(sortedLengths).distinct()
+                    .boxed().sorted((a, b) -> b - a).mapToInt(Integer::intValue).toArray();
+            this.counts = new int[this.lengths.length];
+            for (int length : sortedLengths) {
+                this.counts[this.indexOf(length)]++;
+            }
+            this.radix = new int[this.lengths.length];
+            int codes = 1;
+            for (int l = 0; l < this.lengths.length; l++) {
+                this.radix[l] = codes;
+                codes *= this.counts[l] + 1;
+            }
+            this.fullFleet = codes - 1;
+            this.remainingCells = new int[codes];
+            for (int code = 0; code < codes; code++) {
+                for (int l = 0; l < this.lengths.length; l++) {
+                    this.remainingCells[code] += this.countOf(code, l) * this.lengths[l];
+                }
+            }
+        }
+
+        private int indexOf(int length) {
+            for (int l = 0; l < this.lengths.length; l++) {
+                if (this.lengths[l] == length) {
+                    return l;
+                }
+            }
+            return -1;
+        }
+
+        private int countOf(int code, int l) {
+            return (code / this.radix[l]) % (this.counts[l] + 1);
+        }
+
+        /**
+         * Indica si la ventana de un barco vertical del largo mayor cabe en un long.
+         */
+        private boolean fitsWindow() {
+            return this.lengths.length == 0 || (this.lengths[0] - 1) * JointProbabilityEngine.this.size < WINDOW_BITS;
+        }
+
+        private boolean allows(int length, boolean vertical) {
+            return vertical ? JointProbabilityEngine.this.verticalAllowed[length]
+                    : JointProbabilityEngine.this.horizontalAllowed[length];
+        }
+
+        /**
+         * Celdas de una ubicación, o null si se sale del tablero, toca una celda bloqueada o su
+         * orientación no está permitida. Los barcos de una celda solo se consideran horizontales.
+         */
+        private int[] placement(int start, int length, boolean vertical, boolean[] blockedCells) {
+            int n = JointProbabilityEngine.this.size;
+            if (vertical && length == 1) {
+                return null;
+            }
+            if (!this.allows(length, vertical) && !(length == 1 && this.allows(1, true))) {
+                return null;
+            }
+            int row = start / n;
+            int col = start % n;
+            if ((vertical ? row : col) + length > n) {
+                return null;
+            }
+            int[] placed = new int[length];
+            for (int i = 0; i < length; i++) {
+                int cell = vertical ? start + i * n : start + i;
+                if (blockedCells[cell]) {
+                    return null;
+                }
+                placed[i] = cell;
+            }
+            return placed;
+        }
+
+        // ----- Conteo exacto -----
+
+        private Result countExactly(long deadline) {
+            int total = JointProbabilityEngine.this.cells;
+            if (this.lengths.length == 0) {
+                boolean pending = false;
+                for (boolean h : this.hit) {
+                    pending |= h;
+                }
+                return new Result(new double[total], true, pending ? 0 : 1);
+            }
+            AtomicLong states = new AtomicLong();
+            Tally tally;
+            if (ForkJoinPool.getCommonPoolParallelism() >= MIN_PARALLELISM) {
+                // Se fija el primero de los barcos más largos (el de menor ubicación) y cada ubicación es una tarea.
+                List<int[]> firstPlacements = new ArrayList<>();
+                List<Integer> firstKeys = new ArrayList<>();
+                for (int start = 0; start < total; start++) {
+                    for (int o = 0; o < 2; o++) {
+                        int[] placed = this.placement(start, this.lengths[0], o == 1, this.blocked);
+                        if (placed != null) {
+                            firstPlacements.add(placed);
+                            firstKeys.add(start * 2 + o);
+                        }
+                    }
+                }
+                tally = ForkJoinPool.commonPool().invoke(new PlacementTask(firstPlacements, firstKeys, 0, firstPlacements.size(), states, deadline));
+            } else {
+                tally = new Tally();
+                new Counter(new int[0], -1, states, deadline).count(tally);
+            }
+            double[] probabilities = new double[total];
+            if (tally.layouts > 0) {
+                for (int cell = 0; cell < total; cell++) {
+                    probabilities[cell] = this.hit[cell] ? 0 : (double) tally.coverage[cell] / tally.layouts;
+                }
+            }
+            return new Result(probabilities, true, tally.layouts);
+        }
+
+        /**
+         * Disposiciones y cobertura por celda de una parte del conteo.
+         */
+        private final class Tally {
+            private long layouts;
+            private final long[] coverage = new long[JointProbabilityEngine.this.cells];
+
+            private void add(Tally other) {
+                this.layouts = Math.addExact(this.layouts, other.layouts);
+                for (int cell = 0; cell < this.coverage.length; cell++) {
+                    this.coverage[cell] = Math.addExact(this.coverage[cell], other.coverage[cell]);
+                }
+            }
+        }
+
+        /**
+         * Tarea de fork/join sobre un rango de ubicaciones del primer barco largo.
+         */
+        private final class PlacementTask extends RecursiveTask<Tally> {
+            private final List<int[]> placements;
+            private final List<Integer> keys;
+            private final int from;
+            private final int to;
+            private final AtomicLong states;
+            private final long deadline;
+
+            private PlacementTask(List<int[]> placements, List<Integer> keys, int from, int to, AtomicLong states, long deadline) {
+                this.placements = placements;
+                this.keys = keys;
+                this.from = from;
+                this.to = to;
+                this.states = states;
+                this.deadline = deadline;
+            }
+
+            @Override
+            protected Tally compute() {
+                if (this.to - this.from <= 1) {
+                    Tally tally = new Tally();
+                    if (this.to > this.from) {
+                        new Counter(this.placements.get(this.from), this.keys.get(this.from), this.states, this.deadline).count(tally);
+                    }
+                    return tally;
+                }
+                int middle = (this.from + this.to) >>> 1;
+                PlacementTask left = new PlacementTask(this.placements, this.keys, this.from, middle, this.states, this.deadline);
+                left.fork();
+                Tally right = new PlacementTask(this.placements, this.keys, middle, this.to, this.states, this.deadline).compute();
+                Tally result = left.join();
+                result.add(right);
+                return result;
+            }
+        }
+
+        /**
+         * Conteo por perfiles, opcionalmente con el primer barco largo ya colocado en una ubicación.
+         * Cada estado (celda actual, ventana de celdas ocupadas desde ella y barcos restantes) recibe un
+         * identificador; sus datos viven en arreglos primitivos y se buscan con direccionamiento abierto.
+         */
+        private final class Counter {
+            private final int total = JointProbabilityEngine.this.cells;
+            /** Celdas del barco fijo, o vacío si no hay. */
+            private final int[] fixed;
+            /** Ubicación (celda * 2 + orientación) del barco fijo, o -1. */
+            private final int fixedKey;
+            private final AtomicLong states;
+            private final long deadline;
+            private final boolean[] taken;
+            /** Ventana de cada ubicación que empieza en una celda: [longitud][orientación][celda], 0 si no es válida. */
+            private final long[][][] masks;
+            /** Celdas libres (no bloqueadas ni tomadas) desde cada celda hasta el final. */
+            private final int[] freeFrom;
+            /** Impactos sin explicar desde cada celda hasta el final. */
+            private final int[] hitsFrom;
+            /** Impactos dentro de la ventana de cada celda. */
+            private final long[] hitWindow;
+
+            /** Identificador + 1 del estado en cada posición de la tabla, o 0 si está libre. */
+            private int[] slots = new int[1 << 10];
+            private int stateCount;
+            private int[] stateCells = new int[1 << 9];
+            private long[] stateWindows = new long[1 << 9];
+            private int[] stateFleets = new int[1 << 9];
+            /** Formas de completar la disposición desde cada estado, o -1 si aún no se calcula. */
+            private long[] completions = new long[1 << 9];
+            /** Formas de llegar a cada estado desde el inicio. */
+            private long[] arrivals = new long[1 << 9];
+
+            private Counter(int[] fixed, int fixedKey, AtomicLong states, long deadline) {
+                this.fixed = fixed;
+                this.fixedKey = fixedKey;
+                this.states = states;
+                this.deadline = deadline;
+                this.taken = Problem.this.blocked.clone();
+                for (int cell : fixed) {
+                    this.taken[cell] = true;
+                }
+                this.masks = new long[Problem.this.lengths.length][2][this.total];
+                for (int l = 0; l < Problem.this.lengths.length; l++) {
+                    for (int start = 0; start < this.total; start++) {
+                        for (int o = 0; o < 2; o++) {
+                            int[] placed = Problem.this.placement(start, Problem.this.lengths[l], o == 1, this.taken);
+                            if (placed == null) {
+                                continue;
+                            }
+                            long mask = 0;
+                            for (int cell : placed) {
+                                mask |= 1L << (cell - start);
+                            }
+                            this.masks[l][o][start] = mask;
+                        }
+                    }
+                }
+                this.freeFrom = new int[this.total + 1];
+                this.hitsFrom = new int[this.total + 1];
+                this.hitWindow = new long[this.total];
+                for (int cell = this.total - 1; cell >= 0; cell--) {
+                    boolean pendingHit = Problem.this.hit[cell] && !this.taken[cell];
+                    this.freeFrom[cell] = this.freeFrom[cell + 1] + (this.taken[cell] ? 0 : 1);
+                    this.hitsFrom[cell] = this.hitsFrom[cell + 1] + (pendingHit ? 1 : 0);
+                }
+                for (int cell = 0; cell < this.total; cell++) {
+                    for (int k = 0; k < WINDOW_BITS && cell + k < this.total; k++) {
+                        if (Problem.this.hit[cell + k] && !this.taken[cell + k]) {
+                            this.hitWindow[cell] |= 1L << k;
+                        }
+                    }
+                }
+            }
+
+            /**
+             * Cuenta las disposiciones y su cobertura, y las agrega al total.
+             */
+            private void count(Tally tally) {
+                // Con un barco fijo, los demás barcos de la longitud más larga van en ubicaciones posteriores.
+                int fleet = (this.fixed.length == 0) ? Problem.this.fullFleet : Problem.this.fullFleet - Problem.this.radix[0];
+                int root = this.normalize(0, 0L, fleet);
+                if (root < 0) {
+                    return;
+                }
+                long layouts = this.completions(root);
+                if (layouts == 0) {
+                    return;
+                }
+                this.arrivals[root] = 1;
+                // Las transiciones siempre avanzan de celda, así que recorrer por celda respeta el orden.
+                for (int id : this.idsByCell()) {
+                    if (this.stateCells[id] < this.total && this.arrivals[id] != 0 && this.completions[id] > 0) {
+                        this.propagate(id, tally.coverage);
+                    }
+                }
+                tally.layouts = Math.addExact(tally.layouts, layouts);
+                for (int cell : this.fixed) {
+                    tally.coverage[cell] = Math.addExact(tally.coverage[cell], layouts);
+                }
+            }
+
+            /**
+             * Avanza sobre las celdas que no admiten decisión (ocupadas o tomadas) y devuelve el
+             * identificador del estado, o -1 si la rama ya no puede completarse.
+             */
+            private int normalize(int cell, long window, int fleet) {
+                while (cell < this.total && ((window & 1L) != 0 || this.taken[cell])) {
+                    window >>>= 1;
+                    cell++;
+                }
+                int needed = Problem.this.remainingCells[fleet];
+                int pendingHits = (cell < this.total) ? this.hitsFrom[cell] - Long.bitCount(window & this.hitWindow[cell]) : 0;
+                int free = this.freeFrom[cell] - Long.bitCount(window);
+                if (needed < pendingHits || needed > free) {
+                    return -1;
+                }
+                return this.find(cell, window, fleet);
+            }
+
+            /**
+             * Busca un estado en la tabla y lo crea si no existe.
+             */
+            private int find(int cell, long window, int fleet) {
+                int mask = this.slots.length - 1;
+                long h = (window * 0x9E3779B97F4A7C15L) ^ (cell * 0xC2B2AE3D27D4EB4FL) ^ (fleet * 0x165667B19E3779F9L);
+                int slot = (int) (h ^ (h >>> 29)) & mask;
+                while (this.slots[slot] != 0) {
+                    int id = this.slots[slot] - 1;
+                    if (this.stateWindows[id] == window && this.stateCells[id] == cell && this.stateFleets[id] == fleet) {
+                        return id;
+                    }
+                    slot = (slot + 1) & mask;
+                }
+                long created = this.states.incrementAndGet();
+                if (created > JointProbabilityEngine.this.stateBudget
+                        || ((created & 1023) == 0 && System.nanoTime() > this.deadline)) {
+                    throw new BudgetExceededException();
+                }
+                int id = this.stateCount++;
+                if (id == this.stateCells.length) {
+                    int capacity = id * 2;
+                    this.stateCells = Arrays.copyOf(this.stateCells, capacity);
+                    this.stateWindows = Arrays.copyOf(this.stateWindows, capacity);
+                    this.stateFleets = Arrays.copyOf(this.stateFleets, capacity);
+                    this.completions = Arrays.copyOf(this.completions, capacity);
+                    this.arrivals = Arrays.copyOf(this.arrivals, capacity);
+                }
+                this.stateCells[id] = cell;
+                this.stateWindows[id] = window;
+                this.stateFleets[id] = fleet;
+                this.completions[id] = -1;
+                this.slots[slot] = id + 1;
+                if (this.stateCount * 2 > this.slots.length) {
+                    this.rehash();
+                }
+                return id;
+            }
+
+            /**
+             * Duplica la tabla de búsqueda.
+             */
+            private void rehash() {
+                int[] oldSlots = this.slots;
+                this.slots = new int[oldSlots.length * 2];
+                int mask = this.slots.length - 1;
+                for (int entry : oldSlots) {
+                    if (entry == 0) {
+                        continue;
+                    }
+                    int id = entry - 1;
+                    long h = (this.stateWindows[id] * 0x9E3779B97F4A7C15L) ^ (this.stateCells[id] * 0xC2B2AE3D27D4EB4FL)
+                            ^ (this.stateFleets[id] * 0x165667B19E3779F9L);
+                    int slot = (int) (h ^ (h >>> 29)) & mask;
+                    while (this.slots[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    this.slots[slot] = entry;
+                }
+            }
+
+            /**
+             * Identificadores de los estados ordenados por celda (ordenamiento por conteo).
+             */
+            private int[] idsByCell() {
+                int[] starts = new int[this.total + 2];
+                for (int id = 0; id < this.stateCount; id++) {
+                    starts[this.stateCells[id] + 1]++;
+                }
+                for (int cell = 0; cell <= this.total; cell++) {
+                    starts[cell + 1] += starts[cell];
+                }
+                int[] ordered = new int[this.stateCount];
+                for (int id = 0; id < this.stateCount; id++) {
+                    ordered[starts[this.stateCells[id]]++] = id;
+                }
+                return ordered;
+            }
+
+            /**
+             * Formas de completar la disposición desde un estado (recursivo con memoria).
+             */
+            private long completions(int id) {
+                if (this.completions[id] >= 0) {
+                    return this.completions[id];
+                }
+                int cell = this.stateCells[id];
+                long window = this.stateWindows[id];
+                int fleet = this.stateFleets[id];
+                long result = 0;
+                if (cell == this.total) {
+                    result = (fleet == 0) ? 1 : 0;
+                } else {
+                    int empty = this.emptyChild(cell, window, fleet);
+                    if (empty >= 0) {
+                        result = Math.addExact(result, this.completions(empty));
+                    }
+                    for (int l = 0; l < Problem.this.lengths.length; l++) {
+                        for (int o = 0; o < 2; o++) {
+                            int child = this.placedChild(cell, window, fleet, l, o);
+                            if (child >= 0) {
+                                result = Math.addExact(result, this.completions(child));
+                            }
+                        }
+                    }
+                }
+                // Los arreglos pueden haber crecido durante la recursión; se escribe al final.
+                this.completions[id] = result;
+                return result;
+            }
+
+            /**
+             * Reparte las llegadas de un estado entre sus hijos y suma la cobertura de cada barco colocado.
+             */
+            private void propagate(int id, long[] coverage) {
+                int cell = this.stateCells[id];
+                long window = this.stateWindows[id];
+                int fleet = this.stateFleets[id];
+                long arriving = this.arrivals[id];
+                int empty = this.emptyChild(cell, window, fleet);
+                if (empty >= 0 && this.completions[empty] > 0) {
+                    this.arrivals[empty] = Math.addExact(this.arrivals[empty], arriving);
+                }
+                for (int l = 0; l < Problem.this.lengths.length; l++) {
+                    for (int o = 0; o < 2; o++) {
+                        int child = this.placedChild(cell, window, fleet, l, o);
+                        if (child < 0 || this.completions[child] <= 0) {
+                            continue;
+                        }
+                        this.arrivals[child] = Math.addExact(this.arrivals[child], arriving);
+                        long ways = Math.multiplyExact(arriving, this.completions[child]);
+                        long mask = this.masks[l][o][cell];
+                        while (mask != 0) {
+                            int covered = cell + Long.numberOfTrailingZeros(mask);
+                            coverage[covered] = Math.addExact(coverage[covered], ways);
+                            mask &= mask - 1;
+                        }
+                    }
+                }
+            }
+
+            /**
+             * Hijo que deja vacía la celda actual; no existe si la celda es un impacto sin explicar.
+             */
+            private int emptyChild(int cell, long window, int fleet) {
+                if (Problem.this.hit[cell]) {
+                    return -1;
+                }
+                return this.normalize(cell + 1, window >>> 1, fleet);
+            }
+
+            /**
+             * Hijo que coloca en la celda actual un barco de la longitud l con la orientación o.
+             */
+            private int placedChild(int cell, long window, int fleet, int l, int o) {
+                if (Problem.this.countOf(fleet, l) == 0) {
+                    return -1;
+                }
+                long mask = this.masks[l][o][cell];
+                if (mask == 0 || (mask & window) != 0) {
+                    return -1;
+                }
+                if (l == 0 && cell * 2 + o <= this.fixedKey) {
+                    return -1;
+                }
+                return this.normalize(cell + 1, (window | mask) >>> 1, fleet - Problem.this.radix[l]);
+            }
+        }
+
+        // ----- Enumeración -----
+
+        private List<int[][]> enumerate(int limit, long deadline) {
+            int ships = Arrays.stream(this.counts).sum();
+            Enumeration enumeration = new Enumeration(ships, limit, deadline);
+            return enumeration.extend(0) ? enumeration.layouts : null;
+        }
+
+        /**
+         * Recorrido en profundidad de las disposiciones. Mientras queden impactos sin cubrir se coloca un
+         * barco sobre el primero de ellos; después, los barcos restantes de mayor a menor y los de igual
+         * longitud en ubicaciones crecientes, de modo que cada disposición aparece una sola vez.
+         */
+        private final class Enumeration {
+            private final int[][] placed;
+            private final int limit;
+            private final long deadline;
+            private final boolean[] occupied = Problem.this.blocked.clone();
+            private final int[] remaining = Problem.this.counts.clone();
+            /** Última ubicación libre (celda * 2 + orientación) usada por cada longitud. */
+            private final int[] lastKey = new int[Problem.this.lengths.length];
+            private final List<int[][]> layouts = new ArrayList<>();
+
+            private Enumeration(int ships, int limit, long deadline) {
+                this.placed = new int[ships][];
+                this.limit = limit;
+                this.deadline = deadline;
+                Arrays.fill(this.lastKey, -1);
+            }
+
+            /**
+             * Coloca el barco número {@code depth} de todas las formas posibles.
+             * @return false si se superó el límite de disposiciones o de tiempo.
+             */
+            private boolean extend(int depth) {
+                if (System.nanoTime() > this.deadline) {
+                    return false;
+                }
+                int n = JointProbabilityEngine.this.size;
+                int target = -1;
+                int uncovered = 0;
+                for (int cell = 0; cell < JointProbabilityEngine.this.cells; cell++) {
+                    if (Problem.this.hit[cell] && !this.occupied[cell]) {
+                        target = (target < 0) ? cell : target;
+                        uncovered++;
+                    }
+                }
+                if (depth == this.placed.length) {
+                    if (target < 0) {
+                        this.layouts.add(this.placed.clone());
+                    }
+                    return this.layouts.size() <= this.limit;
+                }
+                int free = 0;
+                for (int l = 0; l < Problem.this.lengths.length; l++) {
+                    free += this.remaining[l] * Problem.this.lengths[l];
+                }
+                if (free < uncovered) {
+                    return true;
+                }
+                if (target >= 0) {
+                    for (int l = 0; l < Problem.this.lengths.length; l++) {
+                        if (this.remaining[l] == 0) {
+                            continue;
+                        }
+                        int length = Problem.this.lengths[l];
+                        for (int o = 0; o < 2; o++) {
+                            for (int i = 0; i < length; i++) {
+                                int start = (o == 1) ? target - i * n : target - i;
+                                if (start < 0 || (o == 0 && start / n != target / n)) {
+                                    continue;
+                                }
+                                int[] cells = Problem.this.placement(start, length, o == 1, this.occupied);
+                                if (cells == null || this.allHits(cells)) {
+                                    continue;
+                                }
+                                if (!this.place(depth, l, cells)) {
+                                    return false;
+                                }
+                            }
+                        }
+                    }
+                    return true;
+                }
+                int l = 0;
+                while (this.remaining[l] == 0) {
+                    l++;
+                }
+                int previous = this.lastKey[l];
+                for (int key = previous + 1; key < JointProbabilityEngine.this.cells * 2; key++) {
+                    int[] cells = Problem.this.placement(key / 2, Problem.this.lengths[l], key % 2 == 1, this.occupied);
+                    if (cells == null) {
+                        continue;
+                    }
+                    this.lastKey[l] = key;
+                    boolean completed = this.place(depth, l, cells);
+                    this.lastKey[l] = previous;
+                    if (!completed) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+
+            /**
+             * Coloca un barco, sigue con el siguiente y lo retira.
+             */
+            private boolean place(int depth, int l, int[] cells) {
+                for (int cell : cells) {
+                    this.occupied[cell] = true;
+                }
+                this.remaining[l]--;
+                this.placed[depth] = cells;
+                boolean completed = this.extend(depth + 1);
+                this.remaining[l]++;
+                for (int cell : cells) {
+                    this.occupied[cell] = false;
+                }
+                return completed;
+            }
+
+            /**
+             * Un barco con todas sus celdas impactadas ya se habría hundido.
+             */
+            private boolean allHits(int[] cells) {
+                for (int cell : cells) {
+                    if (!Problem.this.hit[cell]) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+
+        // ----- Muestreo -----
+
+        /**
+         * Estima las probabilidades con disposiciones al azar y se descartan las que tienen barcos
+         * superpuestos o impactos sin cubrir. Cada barco elige una ubicación uniforme entre las que no
+         * tocan celdas bloqueadas; si hay impactos pendientes, la mitad de las veces la elige entre las
+         * que cubren alguno, porque de otro modo casi todas las disposiciones se descartarían. Cada
+         * disposición aceptada pesa lo que corrige esa preferencia (muestreo por importancia), así que
+         * la estimación sigue siendo la de una muestra uniforme de las disposiciones válidas.
+         */
+        private Result sample(long deadline) {
+            int total = JointProbabilityEngine.this.cells;
+            int words = (total + 63) >>> 6;
+            long[] hitBits = new long[words];
+            for (int cell = 0; cell < total; cell++) {
+                if (this.hit[cell]) {
+                    hitBits[cell >>> 6] |= 1L << (cell & 63);
+                }
+            }
+            int ships = Arrays.stream(this.counts).sum();
+            // Ubicaciones de cada barco; las que cubren algún impacto van primero.
+            long[][][] options = new long[ships][][];
+            int[] hitOptions = new int[ships];
+            double[] hitWeight = new double[ships];
+            double[] otherWeight = new double[ships];
+            int ship = 0;
+            for (int l = 0; l < this.lengths.length; l++) {
+                List<long[]> covering = new ArrayList<>();
+                List<long[]> others = new ArrayList<>();
+                for (int start = 0; start < total; start++) {
+                    for (int o = 0; o < 2; o++) {
+                        int[] placed = this.placement(start, this.lengths[l], o == 1, this.blocked);
+                        if (placed == null) {
+                            continue;
+                        }
+                        long[] bits = new long[words];
+                        boolean coversHit = false;
+                        for (int cell : placed) {
+                            bits[cell >>> 6] |= 1L << (cell & 63);
+                            coversHit |= this.hit[cell];
+                        }
+                        (coversHit ? covering : others).add(bits);
+                    }
+                }
+                covering.addAll(others);
+                long[][] all = covering.toArray(new long[0][]);
+                int h = all.length - others.size();
+                for (int i = 0; i < this.counts[l]; i++, ship++) {
+                    options[ship] = all;
+                    hitOptions[ship] = h;
+                    // Con preferencia 1/2: q(p) = 1/(2a) + [p cubre impacto]/(2h); el peso es (1/a)/q(p).
+                    hitWeight[ship] = (h == 0) ? 1 : 2.0 / (1.0 + (double) all.length / h);
+                    otherWeight[ship] = (h == 0) ? 1 : 2.0;
+                }
+            }
+            double[] coverage = new double[total];
+            double totalWeight = 0;
+            long accepted = 0;
+            SplittableRandom random = new SplittableRandom(Arrays.hashCode(this.blocked) * 31L + Arrays.hashCode(this.hit));
+            long[] occupied = new long[words];
+            for (int attempt = 0; attempt < JointProbabilityEngine.this.sampleAttempts; attempt++) {
+                if ((attempt & 255) == 0 && System.nanoTime() > deadline) {
+                    break;
+                }
+                Arrays.fill(occupied, 0L);
+                boolean valid = true;
+                double weight = 1;
+                for (int i = 0; i < ships && valid; i++) {
+                    long[][] shipOptions = options[i];
+                    if (shipOptions.length == 0) {
+                        valid = false;
+                        break;
+                    }
+                    int h = hitOptions[i];
+                    int index = (h > 0 && random.nextBoolean()) ? random.nextInt(h) : random.nextInt(shipOptions.length);
+                    weight *= (index < h) ? hitWeight[i] : otherWeight[i];
+                    long[] bits = shipOptions[index];
+                    for (int w = 0; w < words && valid; w++) {
+                        valid = (occupied[w] & bits[w]) == 0;
+                        occupied[w] |= bits[w];
+                    }
+                }
+                for (int w = 0; w < words && valid; w++) {
+                    valid = (hitBits[w] & ~occupied[w]) == 0;
+                }
+                if (!valid) {
+                    continue;
+                }
+                accepted++;
+                totalWeight += weight;
+                for (int w = 0; w < words; w++) {
+                    long bits = occupied[w];
+                    while (bits != 0) {
+                        coverage[(w << 6) + Long.numberOfTrailingZeros(bits)] += weight;
+                        bits &= bits - 1;
+                    }
+                }
+            }
+            double[] probabilities = new double[total];
+            if (accepted > 0) {
+                for (int cell = 0; cell < total; cell++) {
+                    probabilities[cell] = this.hit[cell] ? 0 : coverage[cell] / totalWeight;
+                }
+            }
+            return new Result(probabilities, false, accepted);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package univalle.tedesoft.battleship.models.ai;
+
+import univalle.tedesoft.battleship.models.board.Board;
+import univalle.tedesoft.battleship.models.board.BoardSnapshot;
+import univalle.tedesoft.battleship.models.enums.StrategyParameter;
+import univalle.tedesoft.battleship.models.ships.FleetConfiguration;
+import univalle.tedesoft.battleship.models.ships.Ship;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Estrategia de la dificultad difícil: dispara a la casilla con mayor probabilidad según todas las
+ * disposiciones de la flota ({@link JointProbabilityEngine}). Primero obtiene la respuesta de
+ * {@link DensityStrategy} y la reemplaza si el motor termina el cálculo (exacto o por muestreo) a
+ * tiempo. Usa los pesos del rival igual que {@link DensityStrategy}. Coloca su flota con una
+ * disposición de la {@link PlacementPool} de la flota, si la hay.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class JointProbabilityStrategy implements MachineStrategy {
+    private final DensityStrategy density;
+    private final JointProbabilityEngine engine;
+    private final Random random;
+    private double[] placementPrior;
+
+    /**
+     * Crea la estrategia con los parámetros del juego.
+     * @param fleetConfiguration Flota del rival.
+     */
+    public JointProbabilityStrategy(FleetConfiguration fleetConfiguration) {
+        this(fleetConfiguration, StrategyParameters.getDefault());
+    }
+
+    /**
+     * Crea la estrategia.
+     * @param fleetConfiguration Flota del rival.
+     * @param parameters Parámetros de la estrategia.
+     */
+    public JointProbabilityStrategy(FleetConfiguration fleetConfiguration, StrategyParameters parameters) {
+        this(fleetConfiguration, parameters, new Random());
+    }
+
+    /**
+     * Crea la estrategia.
+     * @param fleetConfiguration Flota del rival.
+     * @param parameters Parámetros de la estrategia.
+     * @param random Generador para desempatar y colocar la flota; con una semilla fija la estrategia es reproducible.
+     */
+    public JointProbabilityStrategy(FleetConfiguration fleetConfiguration, StrategyParameters parameters, Random random) {
+        this.random = random;
+        this.density = new DensityStrategy(fleetConfiguration, parameters, new Random(random.nextLong()));
+        this.engine = new JointProbabilityEngine(fleetConfiguration, JointProbabilityEngine.DEFAULT_STATE_BUDGET,
+                parameters.getInt(StrategyParameter.SAMPLE_ATTEMPTS));
+    }
+
+    @Override
+    public int chooseShot(BoardSnapshot territory, BoardSnapshot fleetBoard, long deadline) {
+        int fallback = this.density.chooseShot(territory, fleetBoard, deadline);
+        if (System.nanoTime() > deadline) {
+            return fallback;
+        }
+        JointProbabilityEngine.Result result = this.engine.compute(territory, fleetBoard, deadline);
+        double[] probabilities = DensityStrategy.applyPrior(result.getProbabilities(), this.placementPrior);
+        int best = DensityStrategy.bestCell(probabilities, this.random);
+        return (best >= 0) ? best : fallback;
+    }
+
+    @Override
+    public void setPlacementPrior(double[] cellWeights) {
+        this.placementPrior = cellWeights;
+        this.density.setPlacementPrior(cellWeights);
+    }
+
+    @Override
+    public boolean placeFleet(Board board, List<Ship> fleet, FleetConfiguration fleetConfiguration, long deadline) {
+        PlacementPool pool = PlacementPool.forFleet(fleetConfiguration);
+        if (pool != null && pool.placeOn(board, fleet, this.random)) {
+            return true;
+        }
+        return MachineStrategy.super.placeFleet(board, fleet, fleetConfiguration, deadline);
+    }
+}
@@ -0,0 +1,91 @@
+package univalle.tedesoft.battleship.models.ai;
+
+import univalle.tedesoft.battleship.models.board.Board;
+import univalle.tedesoft.battleship.models.board.BoardSnapshot;
+import univalle.tedesoft.battleship.models.enums.CellState;
+import univalle.tedesoft.battleship.models.ships.FleetConfiguration;
+import univalle.tedesoft.battleship.models.ships.Ship;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Estrategia de la máquina: como elige sus disparos y como coloca su flota.
+ * <p>
+ * Toda estrategia sigue un contrato "anytime": recibe un instante límite y, al llegar a él, devuelve
+ * la mejor respuesta que tenga. Por eso las estrategias calculan primero una respuesta barata y la
+ * mejoran mientras quede tiempo. Una instancia pertenece a una partida y se usa desde un solo hilo.
+ * Con {@link #NO_DEADLINE} no hay límite de tiempo: cada búsqueda se detiene solo por sus límites de
+ * trabajo (estados, muestras, disposiciones y nodos), así que, con el mismo generador al azar, la
+ * estrategia responde siempre igual. Lo usan las evaluaciones fuera de línea para ser reproducibles.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public interface MachineStrategy {
+    /** Instante límite que indica que la búsqueda no tiene límite de tiempo, solo de trabajo. */
+    long NO_DEADLINE = Long.MAX_VALUE;
+
+    /**
+     * Elige el siguiente disparo.
+     * @param territory Lo que la máquina sabe del tablero rival: agua, impactos y hundidos; no
+     *                  contiene barcos sin descubrir.
+     * @param fleetBoard Flota rival tal como la ve la máquina ({@link BoardSnapshot#opponentView()}):
+     *                   barcos hundidos completos y solo la longitud de los que siguen a flote.
+     *                   Puede ser la misma instantánea.
+     * @param deadline Instante de {@link System#nanoTime()} en que debe devolverse el disparo, o {@link #NO_DEADLINE}.
+     * @return La celda del disparo en orden fila por fila, o -1 si no encontró ninguna sin disparar.
+     */
+    int chooseShot(BoardSnapshot territory, BoardSnapshot fleetBoard, long deadline);
+
+    /**
+     * Elige los disparos de una salva, que se resuelven todos juntos. Por defecto pide un disparo a
+     * {@link #chooseShot} por vez, suponiendo agua en las celdas ya elegidas, y reparte el tiempo
+     * en partes iguales.
+     * @param territory Lo que la máquina sabe del tablero rival, como en {@link #chooseShot}.
+     * @param fleetBoard Flota rival tal como la ve la máquina, como en {@link #chooseShot}.
+     * @param shots Cantidad de disparos de la salva.
+     * @param deadline Instante de {@link System#nanoTime()} en que debe devolverse la salva.
+     * @return Las celdas elegidas, distintas y sin disparar; puede tener menos de {@code shots} si no
+     *         quedan celdas o la estrategia no encontró más.
+     */
+    default int[] chooseSalvo(BoardSnapshot territory, BoardSnapshot fleetBoard, int shots, long deadline) {
+        int size = territory.getSize();
+        long start = System.nanoTime();
+        int[] chosen = new int[shots];
+        int count = 0;
+        BoardSnapshot assumed = territory;
+        for (int i = 0; i < shots; i++) {
+            long shotDeadline = (deadline == NO_DEADLINE) ? NO_DEADLINE : start + (deadline - start) / shots * (i + 1);
+            int cell = this.chooseShot(assumed, fleetBoard, shotDeadline);
+            if (cell < 0 || cell >= size * size || assumed.getCellState(cell / size, cell % size) != CellState.EMPTY) {
+                break;
+            }
+            chosen[count++] = cell;
+            assumed = assumed.withCellState(cell / size, cell % size, CellState.SHOT_LOST_IN_WATER);
+        }
+        return Arrays.copyOf(chosen, count);
+    }
+
+    /**
+     * Coloca la flota en un tablero vacío. Por defecto, al azar.
+     * @param board Tablero vacío donde se coloca la flota.
+     * @param fleet Barcos a colocar.
+     * @param fleetConfiguration Flota de la partida; da las orientaciones permitidas.
+     * @param deadline Instante de {@link System#nanoTime()} en que debe terminar la colocación.
+     * @return true si colocó toda la flota; si no, el tablero queda vacío.
+     */
+    default boolean placeFleet(Board board, List<Ship> fleet, FleetConfiguration fleetConfiguration, long deadline) {
+        return RandomStrategy.placeRandomly(board, fleet, fleetConfiguration, new Random(), deadline);
+    }
+
+    /**
+     * Recibe lo que se sabe de como suele colocar su flota el rival. Por defecto se ignora.
+     * @param cellWeights Un peso por celda con promedio 1 (ver {@link PlacementStatistics#getCellWeights(double)}),
+     *                    o null si no se sabe nada del rival.
+     */
+    default void setPlacementPrior(double[] cellWeights) {
+    }
+}
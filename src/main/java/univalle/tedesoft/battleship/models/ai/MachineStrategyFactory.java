@@ -0,0 +1,60 @@
+package univalle.tedesoft.battleship.models.ai;
+
+import univalle.tedesoft.battleship.models.enums.Difficulty;
+import univalle.tedesoft.battleship.models.ships.FleetConfiguration;
+
+import java.util.Random;
+
+/**
+ * Fábrica de las estrategias de la máquina para cada dificultad.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class MachineStrategyFactory {
+    /** Constructor privado para prevenir la instanciación. */
+    private MachineStrategyFactory() {}
+
+    /**
+     * Crea la estrategia de una dificultad para una partida, con los parámetros del juego
+     * ({@link StrategyParameters#getDefault()}).
+     * @param difficulty La dificultad; null se interpreta como la dificultad por defecto.
+     * @param fleetConfiguration Flota del rival.
+     * @return Una estrategia nueva, que no debe compartirse entre partidas.
+     */
+    public static MachineStrategy create(Difficulty difficulty, FleetConfiguration fleetConfiguration) {
+        return create(difficulty, fleetConfiguration, StrategyParameters.getDefault());
+    }
+
+    /**
+     * Crea la estrategia de una dificultad para una partida.
+     * @param difficulty La dificultad; null se interpreta como la dificultad por defecto.
+     * @param fleetConfiguration Flota del rival.
+     * @param parameters Parámetros de la estrategia.
+     * @return Una estrategia nueva, que no debe compartirse entre partidas.
+     */
+    public static MachineStrategy create(Difficulty difficulty, FleetConfiguration fleetConfiguration,
+                                         StrategyParameters parameters) {
+        return create(difficulty, fleetConfiguration, parameters, new Random());
+    }
+
+    /**
+     * Crea la estrategia de una dificultad con un generador al azar dado. Con una semilla fija y
+     * {@link MachineStrategy#NO_DEADLINE} la estrategia juega siempre igual, como necesitan las
+     * evaluaciones fuera de línea.
+     * @param difficulty La dificultad; null se interpreta como la dificultad por defecto.
+     * @param fleetConfiguration Flota del rival.
+     * @param parameters Parámetros de la estrategia.
+     * @param random Generador de la estrategia.
+     * @return Una estrategia nueva, que no debe compartirse entre partidas.
+     */
+    public static MachineStrategy create(Difficulty difficulty, FleetConfiguration fleetConfiguration,
+                                         StrategyParameters parameters, Random random) {
+        switch ((difficulty != null) ? difficulty : Difficulty.DEFAULT) {
+            case EASY: return new RandomStrategy(random);
+            case NORMAL: return new DensityStrategy(fleetConfiguration, parameters, random);
+            case HARD: return new JointProbabilityStrategy(fleetConfiguration, parameters, random);
+            default: return new ExpertStrategy(fleetConfiguration, parameters, random);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package univalle.tedesoft.battleship.models.ai;
+
+import univalle.tedesoft.battleship.models.board.BoardSnapshot;
+import univalle.tedesoft.battleship.models.enums.CellState;
+import univalle.tedesoft.battleship.models.ships.FleetConfiguration;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Libro de aperturas: los mejores primeros disparos contra una flota, calculados de antemano por
+ * {@code univalle.tedesoft.battleship.simulation.OpeningBookGenerator}. La apertura dura mientras
+ * todos los disparos hayan caido al agua; con el primer impacto el libro deja de aplicar.
+ * <p>
+ * Cada entrada asocia la forma canónica de un estado ({@link SymmetryCanonicalizer}) con hasta
+ * {@value #CANDIDATES} celdas igual de buenas, de modo que un estado cubre también sus simétricos y el
+ * jugador puede variar entre partidas. Hay un archivo por configuración de flota, que se mapea en
+ * memoria la primera vez que se consulta; buscar una jugada es una búsqueda binaria sobre el archivo,
+ * sin crear objetos ni leerlo completo.
+ *
+ * Estructura del archivo:
+ * <pre>
+ * cabecera (32 bytes)    magia, versión, tamaño del tablero, indicadores, cantidad de barcos,
+ *                        cantidad de entradas, profundidad y reservado
+ * flota                  longitud de cada barco (un int por barco)
+ * entradas               ordenadas por hash: hash canónico (long) y {@value #CANDIDATES} celdas
+ *                        del marco canónico (short, -1 si no hay)
+ * </pre>
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public final class OpeningBook {
+    /** Propiedad del sistema con el directorio de los libros de aperturas. */
+    public static final String DIRECTORY_PROPERTY = "battleship.openingBooks";
+    /** Directorio de los libros por defecto. */
+    static final String DEFAULT_DIRECTORY = "src/main/resources/univalle/tedesoft/battleship/books";
+    /** Celdas candidatas por entrada. */
+    public static final int CANDIDATES = 4;
+
+    private static final int MAGIC = 0x424F4F4B;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int ENTRY_SIZE = Long.BYTES + CANDIDATES * Short.BYTES;
+    /** Indicador: la flota no se puede girar y solo se usan las simetrías que conservan la orientación. */
+    private static final int FLAG_ORIENTATION_PRESERVING = 1;
+
+    /** Libros ya abiertos, por archivo; vacío si el archivo no existe o no es válido. */
+    private static final ConcurrentHashMap<Path, Optional<OpeningBook>> OPEN_BOOKS = new ConcurrentHashMap<>();
+
+    private final ByteBuffer entries;
+    private final int entryCount;
+    private final int boardSize;
+    private final int depth;
+    private final boolean orientationPreservingOnly;
+
+    private OpeningBook(ByteBuffer entries, int entryCount, int boardSize, int depth, boolean orientationPreservingOnly) {
+        this.entries = entries;
+        this.entryCount = entryCount;
+        this.boardSize = boardSize;
+        this.depth = depth;
+        this.orientationPreservingOnly = orientationPreservingOnly;
+    }
+
+    /**
+     * Devuelve el libro de una flota, abriéndolo la primera vez que se pide.
+     * @param fleetConfiguration La flota del rival.
+     * @return El libro, o null si no hay libro para esa flota.
+     */
+    public static OpeningBook forFleet(FleetConfiguration fleetConfiguration) {
+        Path path = pathFor(fleetConfiguration);
+        return OPEN_BOOKS.computeIfAbsent(path, p -> {
+            if (!Files.isRegularFile(p)) {
+                return Optional.empty();
+            }
+            try {
+                return Optional.of(open(p, fleetConfiguration));
+            } catch (IOException e) {
+                System.err.println("No se pudo abrir el libro de aperturas " + p + ": " + e.getMessage());
+                return Optional.empty();
+            }
+        }).orElse(null);
+    }
+
+    /**
+     * Ruta del libro de una flota dentro del directorio de libros.
+     * @param fleetConfiguration La flota.
+     * @return La ruta del archivo, exista o no.
+     */
+    public static Path pathFor(FleetConfiguration fleetConfiguration) {
+        String directory = System.getProperty(DIRECTORY_PROPERTY, DEFAULT_DIRECTORY);
+        String lengths = Arrays.stream(fleetConfiguration.getShipLengths())
+                .mapToObj(Integer::toString).collect(Collectors.joining("-"));
+        String suffix = fleetConfiguration.allowsBothOrientations() ? "" : "-fixed";
+        return Paths.get(directory, "opening-" + fleetConfiguration.getBoardSize() + "-" + lengths + suffix + ".book");
+    }
+
+    /**
+     * Abre y mapea un libro, verificando que corresponda a la flota.
+     * @param path Ruta del archivo.
+     * @param fleetConfiguration La flota que debe tener el libro.
+     * @return El libro.
+     * @throws IOException Si el archivo no se puede leer o no es un libro de esa flota.
+     */
+    public static OpeningBook open(Path path, FleetConfiguration fleetConfiguration) throws IOException {
+        MappedByteBuffer map;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("El libro supera el tamaño que se puede mapear");
+            }
+            // El mapeo sigue siendo válido después de cerrar el canal.
+            map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (map.capacity() < HEADER_SIZE || map.getInt(0) != MAGIC || map.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("El archivo no es un libro de aperturas válido");
+        }
+        int boardSize = map.getInt(8);
+        boolean orientationPreservingOnly = (map.getInt(12) & FLAG_ORIENTATION_PRESERVING) != 0;
+        int shipCount = map.getInt(16);
+        int entryCount = map.getInt(20);
+        int depth = map.getInt(24);
+        int fleetEnd = HEADER_SIZE + shipCount * Integer.BYTES;
+        if (shipCount < 0 || entryCount < 0 || map.capacity() != fleetEnd + (long) entryCount * ENTRY_SIZE) {
+            throw new IOException("El libro de aperturas está incompleto");
+        }
+        int[] fleet = new int[shipCount];
+        for (int i = 0; i < shipCount; i++) {
+            fleet[i] = map.getInt(HEADER_SIZE + i * Integer.BYTES);
+        }
+        if (boardSize != fleetConfiguration.getBoardSize()
+                || !Arrays.equals(fleet, fleetConfiguration.getShipLengths())
+                || orientationPreservingOnly == fleetConfiguration.allowsBothOrientations()) {
+            throw new IOException("El libro de aperturas es de otra flota");
+        }
+        ByteBuffer entries = map.position(fleetEnd).slice();
+        return new OpeningBook(entries, entryCount, boardSize, depth, orientationPreservingOnly);
+    }
+
+    /**
+     * Escribe un libro. El archivo se escribe aparte y se reemplaza de forma atómica, para que un
+     * proceso que lo tenga mapeado nunca vea un libro a medio escribir.
+     * @param path Ruta del archivo.
+     * @param fleetConfiguration La flota del libro.
+     * @param depth Cantidad máxima de disparos de las aperturas del libro.
+     * @param book Celdas candidatas (en el marco canónico, de mejor a peor) por hash canónico.
+     * @throws IOException Si el archivo no se puede escribir.
+     */
+    public static void write(Path path, FleetConfiguration fleetConfiguration, int depth, Map<Long, int[]> book) throws IOException {
+        int[] fleet = fleetConfiguration.getShipLengths();
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + fleet.length * Integer.BYTES + book.size() * ENTRY_SIZE);
+        buffer.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(fleetConfiguration.getBoardSize())
+                .putInt(fleetConfiguration.allowsBothOrientations() ? 0 : FLAG_ORIENTATION_PRESERVING)
+                .putInt(fleet.length).putInt(book.size()).putInt(depth).putInt(0);
+        for (int length : fleet) {
+            buffer.putInt(length);
+        }
+        for (Map.Entry<Long, int[]> entry : new TreeMap<>(book).entrySet()) {
+            buffer.putLong(entry.getKey());
+            int[] cells = entry.getValue();
+            for (int i = 0; i < CANDIDATES; i++) {
+                buffer.putShort((short) (i < cells.length ? cells[i] : -1));
+            }
+        }
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temporary = Files.createTempFile(parent, "opening", ".tmp");
+        try {
+            Files.write(temporary, buffer.array());
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        OPEN_BOOKS.remove(path);
+    }
+
+    /**
+     * Busca las jugadas del libro para un estado.
+     * @param state Lo que el jugador sabe del tablero rival.
+     * @return Las celdas candidatas, en el marco de {@code state} y de mejor a peor, o null si el
+     *         estado ya salió de la apertura o no está en el libro.
+     */
+    public int[] getCandidates(BoardSnapshot state) {
+        if (state.getSize() != this.boardSize || !this.isOpening(state)) {
+            return null;
+        }
+        SymmetryCanonicalizer canonicalizer = SymmetryCanonicalizer.forSize(this.boardSize);
+        SymmetryCanonicalizer.CanonicalForm form = canonicalizer.canonicalize(state, this.orientationPreservingOnly);
+        int index = this.find(form.getHash());
+        if (index < 0) {
+            return null;
+        }
+        int base = index * ENTRY_SIZE + Long.BYTES;
+        int count = 0;
+        while (count < CANDIDATES && this.entries.getShort(base + count * Short.BYTES) >= 0) {
+            count++;
+        }
+        int[] cells = new int[count];
+        for (int i = 0; i < count; i++) {
+            cells[i] = canonicalizer.fromCanonicalCell(this.entries.getShort(base + i * Short.BYTES), form.getSymmetry());
+        }
+        return cells;
+    }
+
+    /** @return Cantidad de estados del libro. */
+    public int size() {
+        return this.entryCount;
+    }
+
+    /** @return Cantidad máxima de disparos de las aperturas del libro. */
+    public int getDepth() {
+        return this.depth;
+    }
+
+    /**
+     * Indica si el estado sigue en la apertura: ningún impacto y no más disparos que la profundidad.
+     */
+    private boolean isOpening(BoardSnapshot state) {
+        int shots = 0;
+        for (int row = 0; row < this.boardSize; row++) {
+            for (int col = 0; col < this.boardSize; col++) {
+                CellState cellState = state.getCellState(row, col);
+                if (cellState == CellState.HIT_SHIP || cellState == CellState.SUNK_SHIP_PART) {
+                    return false;
+                }
+                if (cellState == CellState.SHOT_LOST_IN_WATER && ++shots > this.depth) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Búsqueda binaria del hash entre las entradas ordenadas.
+     * @return El índice de la entrada, o -1.
+     */
+    private int find(long hash) {
+        int low = 0;
+        int high = this.entryCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long key = this.entries.getLong(middle * ENTRY_SIZE);
+            if (key < hash) {
+                low = middle + 1;
+            } else if (key > hash) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,293 @@
+package univalle.tedesoft.battleship.models.ai;
+
+import univalle.tedesoft.battleship.exceptions.OutOfBoundsException;
+import univalle.tedesoft.battleship.exceptions.OverlapException;
+import univalle.tedesoft.battleship.models.board.Board;
+import univalle.tedesoft.battleship.models.board.Coordinate;
+import univalle.tedesoft.battleship.models.enums.Orientation;
+import univalle.tedesoft.battleship.models.ships.FleetConfiguration;
+import univalle.tedesoft.battleship.models.ships.Ship;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Reserva de disposiciones de flota difíciles de hundir, calculadas de antemano por
+ * {@code univalle.tedesoft.battleship.simulation.PlacementOptimizer} contra las estrategias de disparo
+ * de referencia. Al empezar la partida la máquina toma una disposición al azar de la reserva y le
+ * aplica una simetría del tablero al azar, de modo que colocar la flota no cuesta más que una lectura
+ * y el rival no puede aprenderse las disposiciones.
+ * <p>
+ * Hay un archivo por configuración de flota, que se mapea en memoria la primera vez que se consulta.
+ * Cada barco se guarda como un short: {@code celda * 2 + 1} si es vertical y {@code celda * 2} si es
+ * horizontal, donde la celda es la de inicio (fila * tamaño + columna) y los barcos van en el orden de
+ * {@link FleetConfiguration#createFleet()}.
+ *
+ * Estructura del archivo:
+ * <pre>
+ * cabecera (32 bytes)    magia, versión, tamaño del tablero, indicadores, cantidad de barcos,
+ *                        cantidad de entradas y reservado
+ * flota                  longitud de cada barco (un int por barco)
+ * entradas               de mejor a peor: disparos promedio para hundirla (float) y un short por barco
+ * </pre>
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public final class PlacementPool {
+    /** Propiedad del sistema con el directorio de las reservas de disposiciones. */
+    public static final String DIRECTORY_PROPERTY = "battleship.placementPools";
+    /** Directorio de las reservas por defecto. */
+    static final String DEFAULT_DIRECTORY = "src/main/resources/univalle/tedesoft/battleship/pools";
+
+    private static final int MAGIC = 0x504F4F4C;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    /** Indicador: la flota no se puede girar y solo se usan las simetrías que conservan la orientación. */
+    private static final int FLAG_ORIENTATION_PRESERVING = 1;
+
+    /** Reservas ya abiertas, por archivo; vacío si el archivo no existe o no es válido. */
+    private static final ConcurrentHashMap<Path, Optional<PlacementPool>> OPEN_POOLS = new ConcurrentHashMap<>();
+
+    private final ByteBuffer entries;
+    private final int entryCount;
+    private final int boardSize;
+    private final int[] fleet;
+    private final BoardSymmetry[] symmetries;
+
+    private PlacementPool(ByteBuffer entries, int entryCount, int boardSize, int[] fleet, boolean orientationPreservingOnly) {
+        this.entries = entries;
+        this.entryCount = entryCount;
+        this.boardSize = boardSize;
+        this.fleet = fleet;
+        this.symmetries = Arrays.stream(BoardSymmetry.values())
+                .filter(symmetry -> !orientationPreservingOnly || symmetry.preservesOrientation())
+                .toArray(BoardSymmetry[]::new);
+    }
+
+    /**
+     * Devuelve la reserva de una flota, abriéndola la primera vez que se pide.
+     * @param fleetConfiguration La flota.
+     * @return La reserva, o null si no hay reserva para esa flota.
+     */
+    public static PlacementPool forFleet(FleetConfiguration fleetConfiguration) {
+        Path path = pathFor(fleetConfiguration);
+        return OPEN_POOLS.computeIfAbsent(path, p -> {
+            if (!Files.isRegularFile(p)) {
+                return Optional.empty();
+            }
+            try {
+                return Optional.of(open(p, fleetConfiguration));
+            } catch (IOException e) {
+                System.err.println("No se pudo abrir la reserva de disposiciones " + p + ": " + e.getMessage());
+                return Optional.empty();
+            }
+        }).orElse(null);
+    }
+
+    /**
+     * Ruta de la reserva de una flota dentro del directorio de reservas.
+     * @param fleetConfiguration La flota.
+     * @return La ruta del archivo, exista o no.
+     */
+    public static Path pathFor(FleetConfiguration fleetConfiguration) {
+        String directory = System.getProperty(DIRECTORY_PROPERTY, DEFAULT_DIRECTORY);
+        String lengths = Arrays.stream(fleetConfiguration.getShipLengths())
+                .mapToObj(Integer::toString).collect(Collectors.joining("-"));
+        String suffix = fleetConfiguration.allowsBothOrientations() ? "" : "-fixed";
+        return Paths.get(directory, "placement-" + fleetConfiguration.getBoardSize() + "-" + lengths + suffix + ".pool");
+    }
+
+    /**
+     * Abre y mapea una reserva, verificando que corresponda a la flota.
+     * @param path Ruta del archivo.
+     * @param fleetConfiguration La flota que debe tener la reserva.
+     * @return La reserva.
+     * @throws IOException Si el archivo no se puede leer o no es una reserva de esa flota.
+     */
+    public static PlacementPool open(Path path, FleetConfiguration fleetConfiguration) throws IOException {
+        MappedByteBuffer map;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("La reserva supera el tamaño que se puede mapear");
+            }
+            // El mapeo sigue siendo válido después de cerrar el canal.
+            map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (map.capacity() < HEADER_SIZE || map.getInt(0) != MAGIC || map.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("El archivo no es una reserva de disposiciones válida");
+        }
+        int boardSize = map.getInt(8);
+        boolean orientationPreservingOnly = (map.getInt(12) & FLAG_ORIENTATION_PRESERVING) != 0;
+        int shipCount = map.getInt(16);
+        int entryCount = map.getInt(20);
+        int fleetEnd = HEADER_SIZE + shipCount * Integer.BYTES;
+        if (shipCount < 0 || entryCount < 0
+                || map.capacity() != fleetEnd + (long) entryCount * entrySize(shipCount)) {
+            throw new IOException("La reserva de disposiciones está incompleta");
+        }
+        int[] fleet = new int[shipCount];
+        for (int i = 0; i < shipCount; i++) {
+            fleet[i] = map.getInt(HEADER_SIZE + i * Integer.BYTES);
+        }
+        if (boardSize != fleetConfiguration.getBoardSize()
+                || !Arrays.equals(fleet, fleetConfiguration.getShipLengths())
+                || orientationPreservingOnly == fleetConfiguration.allowsBothOrientations()) {
+            throw new IOException("La reserva de disposiciones es de otra flota");
+        }
+        ByteBuffer entries = map.position(fleetEnd).slice();
+        return new PlacementPool(entries, entryCount, boardSize, fleet, orientationPreservingOnly);
+    }
+
+    /**
+     * Escribe una reserva. El archivo se escribe aparte y se reemplaza de forma atómica, para que un
+     * proceso que lo tenga mapeado nunca vea una reserva a medio escribir.
+     * @param path Ruta del archivo.
+     * @param fleetConfiguration La flota de la reserva.
+     * @param layouts Disposiciones de mejor a peor, cada una con un valor por barco
+     *                (ver {@link #encodeLayout(List, int)}).
+     * @param scores Disparos promedio que costo hundir cada disposición.
+     * @throws IOException Si el archivo no se puede escribir.
+     */
+    public static void write(Path path, FleetConfiguration fleetConfiguration, List<int[]> layouts, double[] scores) throws IOException {
+        int[] fleet = fleetConfiguration.getShipLengths();
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + fleet.length * Integer.BYTES
+                + layouts.size() * entrySize(fleet.length));
+        buffer.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(fleetConfiguration.getBoardSize())
+                .putInt(fleetConfiguration.allowsBothOrientations() ? 0 : FLAG_ORIENTATION_PRESERVING)
+                .putInt(fleet.length).putInt(layouts.size()).putInt(0).putInt(0);
+        for (int length : fleet) {
+            buffer.putInt(length);
+        }
+        for (int i = 0; i < layouts.size(); i++) {
+            int[] layout = layouts.get(i);
+            if (layout.length != fleet.length) {
+                throw new IllegalArgumentException("La disposición " + i + " no tiene un valor por barco");
+            }
+            buffer.putFloat((float) scores[i]);
+            for (int key : layout) {
+                buffer.putShort((short) key);
+            }
+        }
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temporary = Files.createTempFile(parent, "placement", ".tmp");
+        try {
+            Files.write(temporary, buffer.array());
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        OPEN_POOLS.remove(path);
+    }
+
+    /**
+     * Coloca en un tablero una disposición de la reserva elegida al azar, transformada por una
+     * simetría del tablero elegida al azar.
+     * @param board Tablero donde colocar; se limpia antes de empezar.
+     * @param fleet Barcos a colocar, en el orden de {@link FleetConfiguration#createFleet()}.
+     * @param random Generador a usar.
+     * @return true si colocó todos los barcos; si no, el tablero queda vacío.
+     */
+    public boolean placeOn(Board board, List<Ship> fleet, Random random) {
+        if (this.entryCount == 0 || board.getSize() != this.boardSize || fleet.size() != this.fleet.length) {
+            return false;
+        }
+        int base = random.nextInt(this.entryCount) * entrySize(this.fleet.length) + Float.BYTES;
+        BoardSymmetry symmetry = this.symmetries[random.nextInt(this.symmetries.length)];
+        int[] layout = new int[this.fleet.length];
+        for (int i = 0; i < layout.length; i++) {
+            int key = this.entries.getShort(base + i * Short.BYTES);
+            layout[i] = transform(key, this.fleet[i], symmetry, this.boardSize);
+        }
+        return placeLayout(board, fleet, layout);
+    }
+
+    /**
+     * Coloca una disposición en un tablero.
+     * @param board Tablero donde colocar; se limpia antes de empezar.
+     * @param fleet Barcos a colocar, uno por valor de la disposición.
+     * @param layout Un valor por barco (ver {@link #encodeLayout(List, int)}).
+     * @return true si colocó todos los barcos; si no, el tablero queda vacío.
+     */
+    public static boolean placeLayout(Board board, List<Ship> fleet, int[] layout) {
+        board.resetBoard();
+        int size = board.getSize();
+        for (int i = 0; i < layout.length; i++) {
+            Ship ship = fleet.get(i);
+            int cell = layout[i] >> 1;
+            Orientation orientation = ((layout[i] & 1) != 0) ? Orientation.VERTICAL : Orientation.HORIZONTAL;
+            if (!board.canPlaceShip(cell / size, cell % size, ship.getValueShip(), orientation)) {
+                board.resetBoard();
+                return false;
+            }
+            ship.setOrientation(orientation);
+            try {
+                board.placeShip(ship, new Coordinate(cell % size, cell / size));
+            } catch (OutOfBoundsException | OverlapException e) {
+                board.resetBoard();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Codifica la disposición de una flota ya colocada.
+     * @param fleet Barcos colocados.
+     * @param size Tamaño del tablero.
+     * @return Un valor por barco: {@code celda * 2 + 1} si es vertical y {@code celda * 2} si no.
+     */
+    public static int[] encodeLayout(List<Ship> fleet, int size) {
+        int[] layout = new int[fleet.size()];
+        for (int i = 0; i < layout.length; i++) {
+            Ship ship = fleet.get(i);
+            Coordinate start = ship.getOccupiedCoordinates().get(0);
+            int cell = start.getY() * size + start.getX();
+            layout[i] = cell * 2 + ((ship.getOrientation() == Orientation.VERTICAL) ? 1 : 0);
+        }
+        return layout;
+    }
+
+    /** @return Cantidad de disposiciones de la reserva. */
+    public int size() {
+        return this.entryCount;
+    }
+
+    /**
+     * Aplica una simetría a un barco codificado: transforma sus dos extremos y toma como nuevo inicio
+     * el menor. Los barcos de una casilla conservan su orientación.
+     */
+    private static int transform(int key, int length, BoardSymmetry symmetry, int size) {
+        int cell = key >> 1;
+        boolean vertical = (key & 1) != 0;
+        int row = cell / size;
+        int col = cell % size;
+        int first = symmetry.apply(row, col, size);
+        int last = symmetry.apply(vertical ? row + length - 1 : row, vertical ? col : col + length - 1, size);
+        if (length == 1) {
+            return first * 2 + (vertical ? 1 : 0);
+        }
+        boolean transformedVertical = (first / size) != (last / size);
+        return Math.min(first, last) * 2 + (transformedVertical ? 1 : 0);
+    }
+
+    /** Bytes de una entrada con la cantidad de barcos dada. */
+    private static int entrySize(int shipCount) {
+        return Float.BYTES + shipCount * Short.BYTES;
+    }
+}
@@ -0,0 +1,312 @@
+package univalle.tedesoft.battleship.models.ai;
+
+import univalle.tedesoft.battleship.models.board.Coordinate;
+import univalle.tedesoft.battleship.models.ships.Ship;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Estadísticas de como coloca su flota un jugador: por cada clase de barco, cuántas veces ocupó cada
+ * celda en las partidas terminadas. La máquina las usa como conocimiento previo al disparar contra
+ * ese jugador ({@link #getCellWeights(double)}).
+ * <p>
+ * Hay un archivo binario por jugador y tamaño de tablero, que se mapea en memoria de lectura y
+ * escritura la primera vez que se consulta. Cargarlo no recorre las partidas guardadas y registrar una
+ * partida solo incrementa los contadores de las celdas de sus barcos. Los contadores no se escriben de
+ * forma atómica: si el proceso termina a mitad de un registro, la partida puede quedar contada a
+ * medias, lo que para una estadística es aceptable.
+ *
+ * Estructura del archivo:
+ * <pre>
+ * cabecera (32 bytes)    magia, versión, tamaño del tablero, cantidad de clases, partidas
+ *                        registradas y reservado
+ * clases                 por clase: identificador (UTF-8, {@value #CLASS_ID_BYTES} bytes rellenos con
+ *                        ceros), barcos registrados (int) y un contador por celda (int)
+ * </pre>
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public final class PlacementStatistics {
+    /** Propiedad del sistema con el directorio de las estadísticas. */
+    public static final String DIRECTORY_PROPERTY = "battleship.placementStats";
+    /**
+     * Directorio de las estadísticas por defecto, en el directorio personal del usuario: son datos
+     * del jugador que se crean al jugar, no recursos del juego.
+     */
+    static final String DEFAULT_DIRECTORY = Paths.get(System.getProperty("user.home"), ".battleship", "stats").toString();
+    /** Bytes del identificador de cada clase; las clases con identificadores más largos no se registran. */
+    static final int CLASS_ID_BYTES = 32;
+
+    private static final int MAGIC = 0x50535441;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int CLASS_COUNT_OFFSET = 12;
+    private static final int GAMES_OFFSET = 16;
+
+    /** Estadísticas ya abiertas, por archivo; vacío si el archivo no se pudo abrir. */
+    private static final ConcurrentHashMap<Path, Optional<PlacementStatistics>> OPEN_STATISTICS = new ConcurrentHashMap<>();
+
+    private final Path path;
+    private final int boardSize;
+    /** Índice de la sección de cada clase. */
+    private final Map<String, Integer> classIndex = new HashMap<>();
+    private MappedByteBuffer map;
+
+    private PlacementStatistics(Path path, int boardSize, MappedByteBuffer map) {
+        this.path = path;
+        this.boardSize = boardSize;
+        this.map = map;
+    }
+
+    /**
+     * Devuelve las estadísticas de un jugador, abriéndolas la primera vez que se piden.
+     * @param nickname Nickname del jugador.
+     * @param boardSize Tamaño del tablero.
+     * @return Las estadísticas, o null si el jugador no tiene partidas registradas en ese tablero.
+     */
+    public static PlacementStatistics forPlayer(String nickname, int boardSize) {
+        Path path = pathFor(nickname, boardSize);
+        if (path == null || !Files.isRegularFile(path)) {
+            return null;
+        }
+        return openCached(path, boardSize);
+    }
+
+    /**
+     * Registra la flota de una partida terminada en las estadísticas de un jugador, creándolas si es
+     * su primera partida.
+     * @param nickname Nickname del jugador.
+     * @param boardSize Tamaño del tablero.
+     * @param ships Barcos del jugador, ya colocados.
+     * @return true si la partida quedó registrada.
+     */
+    public static boolean record(String nickname, int boardSize, List<Ship> ships) {
+        Path path = pathFor(nickname, boardSize);
+        PlacementStatistics statistics = (path != null) ? openCached(path, boardSize) : null;
+        if (statistics == null) {
+            return false;
+        }
+        try {
+            statistics.recordGame(ships);
+            return true;
+        } catch (IOException e) {
+            System.err.println("No se pudo registrar la colocación de " + nickname + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Abre un archivo de estadísticas una sola vez por proceso.
+     */
+    private static PlacementStatistics openCached(Path path, int boardSize) {
+        return OPEN_STATISTICS.computeIfAbsent(path, p -> {
+            try {
+                return Optional.of(open(p, boardSize));
+            } catch (IOException e) {
+                System.err.println("No se pudieron abrir las estadísticas de colocación " + p + ": " + e.getMessage());
+                return Optional.empty();
+            }
+        }).orElse(null);
+    }
+
+    /**
+     * Ruta de las estadísticas de un jugador dentro del directorio de estadísticas.
+     * @param nickname Nickname del jugador.
+     * @param boardSize Tamaño del tablero.
+     * @return La ruta del archivo, exista o no, o null si el nickname no sirve como nombre de archivo.
+     */
+    public static Path pathFor(String nickname, int boardSize) {
+        if (nickname == null || nickname.trim().isEmpty() || nickname.startsWith(".")
+                || !nickname.matches("[^\\\\/:*?\"<>|]+")) {
+            return null;
+        }
+        String directory = System.getProperty(DIRECTORY_PROPERTY, DEFAULT_DIRECTORY);
+        return Paths.get(directory, nickname + "-" + boardSize + ".stats");
+    }
+
+    /**
+     * Abre y mapea las estadísticas de un archivo, creándolo vacío si no existe.
+     * @param path Ruta del archivo.
+     * @param boardSize Tamaño del tablero que deben tener.
+     * @return Las estadísticas.
+     * @throws IOException Si el archivo no se puede leer o crear, o no son estadísticas de ese tablero.
+     */
+    public static PlacementStatistics open(Path path, int boardSize) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        MappedByteBuffer map;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE)) {
+            if (channel.size() == 0) {
+                map = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+                map.putInt(0, MAGIC).putInt(4, FORMAT_VERSION).putInt(8, boardSize);
+                map.force();
+            } else {
+                map = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            }
+        }
+        if (map.capacity() < HEADER_SIZE || map.getInt(0) != MAGIC || map.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("El archivo no es de estadísticas de colocación");
+        }
+        if (map.getInt(8) != boardSize) {
+            throw new IOException("Las estadísticas de colocación son de otro tablero");
+        }
+        int classCount = map.getInt(CLASS_COUNT_OFFSET);
+        // Una sección sin contar en la cabecera es una clase que se estaba agregando; se reutiliza.
+        if (classCount < 0 || map.capacity() < HEADER_SIZE + (long) classCount * sectionSize(boardSize)) {
+            throw new IOException("Las estadísticas de colocación están incompletas");
+        }
+        PlacementStatistics statistics = new PlacementStatistics(path, boardSize, map);
+        for (int i = 0; i < classCount; i++) {
+            statistics.classIndex.put(statistics.readClassId(i), i);
+        }
+        return statistics;
+    }
+
+    /**
+     * Registra la flota de una partida terminada. Cuesta lo que ocupan sus barcos, salvo la primera
+     * vez que aparece una clase, que agrega su sección al archivo.
+     * @param ships Barcos del jugador, ya colocados.
+     * @throws IOException Si el archivo no se pudo ampliar.
+     */
+    public synchronized void recordGame(List<Ship> ships) throws IOException {
+        int cells = this.boardSize * this.boardSize;
+        for (Ship ship : ships) {
+            Integer section = this.classIndex.get(ship.getShipClassId());
+            if (section == null) {
+                section = this.addClass(ship.getShipClassId());
+                if (section < 0) {
+                    continue;
+                }
+            }
+            int base = HEADER_SIZE + section * sectionSize(this.boardSize) + CLASS_ID_BYTES;
+            this.map.putInt(base, this.map.getInt(base) + 1);
+            for (Coordinate coordinate : ship.getOccupiedCoordinates()) {
+                int cell = coordinate.getY() * this.boardSize + coordinate.getX();
+                if (cell >= 0 && cell < cells) {
+                    int offset = base + Integer.BYTES * (1 + cell);
+                    this.map.putInt(offset, this.map.getInt(offset) + 1);
+                }
+            }
+        }
+        this.map.putInt(GAMES_OFFSET, this.map.getInt(GAMES_OFFSET) + 1);
+        this.map.force();
+    }
+
+    /** @return Cantidad de partidas registradas. */
+    public synchronized int getGamesRecorded() {
+        return this.map.getInt(GAMES_OFFSET);
+    }
+
+    /**
+     * Devuelve cuántas veces ocupó cada celda una clase de barco.
+     * @param classId Identificador de la clase.
+     * @return Un contador por celda, en orden fila por fila; todos en cero si la clase no se registró.
+     */
+    public synchronized int[] getOccupancy(String classId) {
+        int cells = this.boardSize * this.boardSize;
+        int[] occupancy = new int[cells];
+        Integer section = this.classIndex.get(classId);
+        if (section != null) {
+            int base = HEADER_SIZE + section * sectionSize(this.boardSize) + CLASS_ID_BYTES + Integer.BYTES;
+            for (int cell = 0; cell < cells; cell++) {
+                occupancy[cell] = this.map.getInt(base + cell * Integer.BYTES);
+            }
+        }
+        return occupancy;
+    }
+
+    /**
+     * Calcula un peso por celda a partir de la ocupación de todas las clases: mayor que 1 donde el
+     * jugador suele poner barcos y menor donde no. Los pesos se acercan a 1 mientras haya pocas
+     * partidas registradas, como si además hubiera {@code pseudoGames} partidas con la ocupación
+     * promedio en todas las celdas.
+     * @param pseudoGames Partidas ficticias que suavizan los pesos; debe ser positivo.
+     * @return Un peso por celda con promedio 1, o null si no hay partidas registradas.
+     */
+    public synchronized double[] getCellWeights(double pseudoGames) {
+        int games = this.getGamesRecorded();
+        if (games <= 0) {
+            return null;
+        }
+        int cells = this.boardSize * this.boardSize;
+        long[] occupancy = new long[cells];
+        long total = 0;
+        for (int section = 0; section < this.classIndex.size(); section++) {
+            int base = HEADER_SIZE + section * sectionSize(this.boardSize) + CLASS_ID_BYTES + Integer.BYTES;
+            for (int cell = 0; cell < cells; cell++) {
+                int count = this.map.getInt(base + cell * Integer.BYTES);
+                occupancy[cell] += count;
+                total += count;
+            }
+        }
+        if (total == 0) {
+            return null;
+        }
+        // Ocupación promedio de una celda en una partida.
+        double mean = (double) total / cells / games;
+        double[] weights = new double[cells];
+        for (int cell = 0; cell < cells; cell++) {
+            weights[cell] = (occupancy[cell] + pseudoGames * mean) / ((games + pseudoGames) * mean);
+        }
+        return weights;
+    }
+
+    /** @return Ruta del archivo de las estadísticas. */
+    public Path getPath() {
+        return this.path;
+    }
+
+    /**
+     * Agrega al final del archivo la sección de una clase nueva y vuelve a mapearlo.
+     * @return El índice de la sección, o -1 si el identificador no cabe.
+     */
+    private int addClass(String classId) throws IOException {
+        byte[] id = classId.getBytes(StandardCharsets.UTF_8);
+        if (id.length > CLASS_ID_BYTES) {
+            System.err.println("Clase de barco sin estadísticas, identificador demasiado largo: " + classId);
+            return -1;
+        }
+        int section = this.classIndex.size();
+        long size = HEADER_SIZE + (long) (section + 1) * sectionSize(this.boardSize);
+        try (FileChannel channel = FileChannel.open(this.path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            this.map = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+        int base = HEADER_SIZE + section * sectionSize(this.boardSize);
+        // Se rellena con ceros por si la sección quedó de un agregado interrumpido con otro identificador.
+        this.map.put(base, Arrays.copyOf(id, CLASS_ID_BYTES));
+        this.map.putInt(CLASS_COUNT_OFFSET, section + 1);
+        this.classIndex.put(classId, section);
+        return section;
+    }
+
+    /** Lee el identificador de la clase de una sección. */
+    private String readClassId(int section) {
+        byte[] id = new byte[CLASS_ID_BYTES];
+        this.map.get(HEADER_SIZE + section * sectionSize(this.boardSize), id);
+        int length = 0;
+        while (length < id.length && id[length] != 0) {
+            length++;
+        }
+        return new String(Arrays.copyOf(id, length), StandardCharsets.UTF_8);
+    }
+
+    /** Bytes de la sección de una clase. */
+    private static int sectionSize(int boardSize) {
+        return CLASS_ID_BYTES + Integer.BYTES * (1 + boardSize * boardSize);
+    }
+}
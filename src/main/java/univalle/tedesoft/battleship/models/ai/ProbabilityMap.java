@@ -0,0 +1,255 @@
+package univalle.tedesoft.battleship.models.ai;
+
+import univalle.tedesoft.battleship.models.board.BoardSnapshot;
+import univalle.tedesoft.battleship.models.enums.CellState;
+
+import java.util.Arrays;
+
+/**
+ * Mapa de probabilidad de que cada celda del tablero enemigo oculte un barco, calculado a partir
+ * de lo que el jugador ya sabe (sus disparos y los barcos hundidos) y de la flota que falta hundir.
+ * <p>
+ * Para cada longitud de barco se cuentan todas las ubicaciones posibles que no pisan agua ni barcos
+ * hundidos; las que cubren impactos sin hundir pesan 2<sup>{@value #DEFAULT_HIT_WEIGHT_SHIFT}</sup> veces
+ * más (por defecto) por cada impacto, porque esos impactos pertenecen a algún barco que sigue a flote. La probabilidad de una
+ * celda para una longitud es el peso de las ubicaciones que la cubren sobre el peso total, y las
+ * de los barcos restantes se combinan como si fueran independientes. Es una estimación: no
+ * considera que los barcos no se superponen entre sí.
+ * <p>
+ * Los conteos se actualizan de forma incremental: cuando cambia una celda solo se recalculan las
+ * ubicaciones que la cubren, unas pocas decenas, en lugar de todo el tablero.
+ * No es segura para hilos; está pensada para usarse desde un único hilo en segundo plano.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class ProbabilityMap {
+    /** Bits que se suman por defecto al peso de una ubicación por cada impacto sin hundir que cubre. */
+    public static final int DEFAULT_HIT_WEIGHT_SHIFT = 5;
+
+    /** Celda sin disparar. */
+    private static final byte UNKNOWN = 0;
+    /** Celda donde no puede haber un barco a flote: agua o barco hundido. */
+    private static final byte BLOCKED = 1;
+    /** Impacto de un barco que aún no se hunde. */
+    private static final byte HIT = 2;
+
+    private final int size;
+    /** Bits que se suman al peso de una ubicación por cada impacto sin hundir que cubre. */
+    private final int hitWeightShift;
+    /** Longitudes distintas de la flota, de mayor a menor. */
+    private final int[] lengths;
+    private final byte[] knowledge;
+    /** Peso de las ubicaciones que cubren cada celda, por longitud. */
+    private final long[][] cellWeights;
+    /** Peso total de las ubicaciones válidas, por longitud. */
+    private final long[] totalWeights;
+    /** Cantidad de barcos a flote de cada longitud, en el mismo orden que lengths. */
+    private final int[] remaining;
+    /** Cantidad de barcos de cada longitud en la flota completa. */
+    private final int[] fleetCounts;
+
+    /**
+     * Crea el mapa de un tablero sin disparos.
+     * @param size Tamaño del tablero.
+     * @param fleetLengths Longitud de cada barco de la flota enemiga.
+     */
+    public ProbabilityMap(int size, int[] fleetLengths) {
+        this(size, fleetLengths, DEFAULT_HIT_WEIGHT_SHIFT);
+    }
+
+    /**
+     * Crea el mapa de un tablero sin disparos.
+     * @param size Tamaño del tablero.
+     * @param fleetLengths Longitud de cada barco de la flota enemiga.
+     * @param hitWeightShift Bits que se suman al peso de una ubicación por cada impacto sin hundir que cubre.
+     */
+    public ProbabilityMap(int size, int[] fleetLengths, int hitWeightShift) {
+        this.size = size;
+        this.hitWeightShift = hitWeightShift;
+        this.lengths = Arrays.stream(fleetLengths).distinct()
+                .boxed().sorted((a, b) -> b - a).mapToInt(Integer::intValue).toArray();
+        this.knowledge = new byte[size * size];
+        this.cellWeights = new long[this.lengths.length][size * size];
+        this.totalWeights = new long[this.lengths.length];
+        this.remaining = new int[this.lengths.length];
+        for (int length : fleetLengths) {
+            this.remaining[this.lengthIndex(length)]++;
+        }
+        this.fleetCounts = this.remaining.clone();
+        for (int l = 0; l < this.lengths.length; l++) {
+            for (int start = 0; start < size * size; start++) {
+                this.addPlacement(l, start, true, 1);
+                this.addPlacement(l, start, false, 1);
+            }
+        }
+    }
+
+    /**
+     * Lleva el mapa al estado que conoce el jugador: los disparos del tablero de territorio y los
+     * barcos hundidos de la flota enemiga. Solo se recalculan las celdas que cambiaron.
+     * @param territory Instantánea del tablero donde se anotan los disparos del jugador.
+     * @param fleetBoard Instantánea del tablero real del enemigo; solo se usan sus barcos
+     *                   hundidos, que el jugador ya ve, y las longitudes de los que siguen a flote.
+     */
+    public void update(BoardSnapshot territory, BoardSnapshot fleetBoard) {
+        byte[] target = this.classifyTerritory(territory);
+        Arrays.fill(this.remaining, 0);
+        for (BoardSnapshot.ShipSnapshot ship : fleetBoard.getShips()) {
+            if (!ship.isSunk()) {
+                int index = this.lengthIndex(ship.getLength());
+                if (index >= 0) {
+                    this.remaining[index]++;
+                }
+                continue;
+            }
+            // El territorio solo anota la celda del disparo que hundió el barco; las demás quedan como impactos.
+            for (int i = 0; i < ship.getCellCount(); i++) {
+                target[ship.getCellRow(i) * this.size + ship.getCellCol(i)] = BLOCKED;
+            }
+        }
+        this.applyKnowledge(target);
+    }
+
+    /**
+     * Lleva el mapa a un estado sin barcos hundidos, con toda la flota a flote. Sirve para analizar
+     * estados armados sin un tablero enemigo real, como las aperturas.
+     * @param territory Instantánea del tablero donde se anotan los disparos; no debe tener barcos hundidos.
+     */
+    public void update(BoardSnapshot territory) {
+        System.arraycopy(this.fleetCounts, 0, this.remaining, 0, this.remaining.length);
+        this.applyKnowledge(this.classifyTerritory(territory));
+    }
+
+    /**
+     * Calcula la probabilidad de barco de cada celda sin disparar; las celdas ya disparadas valen 0.
+     * @param result Arreglo de tamaño * tamaño donde escribir el resultado, o null para crear uno.
+     * @return Las probabilidades, en orden fila por fila.
+     */
+    public double[] getProbabilities(double[] result) {
+        double[] probabilities = (result != null) ? result : new double[this.knowledge.length];
+        for (int cell = 0; cell < probabilities.length; cell++) {
+            if (this.knowledge[cell] != UNKNOWN) {
+                probabilities[cell] = 0;
+                continue;
+            }
+            double miss = 1.0;
+            for (int l = 0; l < this.lengths.length; l++) {
+                if (this.remaining[l] == 0 || this.totalWeights[l] == 0) {
+                    continue;
+                }
+                double p = (double) this.cellWeights[l][cell] / this.totalWeights[l];
+                miss *= Math.pow(1.0 - p, this.remaining[l]);
+            }
+            probabilities[cell] = 1.0 - miss;
+        }
+        return probabilities;
+    }
+
+    /** @return Tamaño del tablero. */
+    public int getSize() {
+        return this.size;
+    }
+
+    // --- Métodos Privados Auxiliares ---
+
+    /**
+     * Clasifica cada celda del territorio.
+     */
+    private byte[] classifyTerritory(BoardSnapshot territory) {
+        byte[] target = new byte[this.knowledge.length];
+        for (int cell = 0; cell < target.length; cell++) {
+            target[cell] = classify(territory.getCellState(cell / this.size, cell % this.size));
+        }
+        return target;
+    }
+
+    /**
+     * Actualiza solo las celdas cuyo conocimiento cambió.
+     */
+    private void applyKnowledge(byte[] target) {
+        for (int cell = 0; cell < target.length; cell++) {
+            if (target[cell] != this.knowledge[cell]) {
+                this.setKnowledge(cell, target[cell]);
+            }
+        }
+    }
+
+    private static byte classify(CellState state) {
+        switch (state) {
+            case HIT_SHIP: return HIT;
+            case SHOT_LOST_IN_WATER:
+            case SUNK_SHIP_PART: return BLOCKED;
+            default: return UNKNOWN;
+        }
+    }
+
+    private int lengthIndex(int length) {
+        for (int i = 0; i < this.lengths.length; i++) {
+            if (this.lengths[i] == length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void setKnowledge(int cell, byte value) {
+        this.forEachPlacementCovering(cell, -1);
+        this.knowledge[cell] = value;
+        this.forEachPlacementCovering(cell, 1);
+    }
+
+    /**
+     * Suma (sign = 1) o resta (sign = -1) las ubicaciones de todas las longitudes que cubren una celda.
+     */
+    private void forEachPlacementCovering(int cell, int sign) {
+        int row = cell / this.size;
+        int col = cell % this.size;
+        for (int l = 0; l < this.lengths.length; l++) {
+            int length = this.lengths[l];
+            for (int offset = 0; offset < length; offset++) {
+                if (col - offset >= 0) {
+                    this.addPlacement(l, row * this.size + col - offset, true, sign);
+                }
+                if (length > 1 && row - offset >= 0) {
+                    this.addPlacement(l, (row - offset) * this.size + col, false, sign);
+                }
+            }
+        }
+    }
+
+    /**
+     * Suma o resta el peso de una ubicación si cabe en el tablero y no pisa celdas bloqueadas.
+     * Los barcos de longitud 1 solo se cuentan en horizontal para no duplicarlos.
+     */
+    private void addPlacement(int l, int start, boolean horizontal, int sign) {
+        int length = this.lengths[l];
+        if (!horizontal && length == 1) {
+            return;
+        }
+        int row = start / this.size;
+        int col = start % this.size;
+        if ((horizontal ? col : row) + length > this.size) {
+            return;
+        }
+        int step = horizontal ? 1 : this.size;
+        int hits = 0;
+        for (int i = 0, cell = start; i < length; i++, cell += step) {
+            byte value = this.knowledge[cell];
+            if (value == BLOCKED) {
+                return;
+            }
+            if (value == HIT) {
+                hits++;
+            }
+        }
+        // El tope evita desbordar los totales con barcos muy largos.
+        long weight = sign * (1L << Math.min(40, hits * this.hitWeightShift));
+        this.totalWeights[l] += weight;
+        long[] weights = this.cellWeights[l];
+        for (int i = 0, cell = start; i < length; i++, cell += step) {
+            weights[cell] += weight;
+        }
+    }
+}
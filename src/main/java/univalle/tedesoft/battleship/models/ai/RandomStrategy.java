@@ -0,0 +1,117 @@
+package univalle.tedesoft.battleship.models.ai;
+
+import univalle.tedesoft.battleship.exceptions.OutOfBoundsException;
+import univalle.tedesoft.battleship.exceptions.OverlapException;
+import univalle.tedesoft.battleship.models.board.Board;
+import univalle.tedesoft.battleship.models.board.BoardSnapshot;
+import univalle.tedesoft.battleship.models.board.Coordinate;
+import univalle.tedesoft.battleship.models.enums.CellState;
+import univalle.tedesoft.battleship.models.enums.Orientation;
+import univalle.tedesoft.battleship.models.ships.FleetConfiguration;
+import univalle.tedesoft.battleship.models.ships.Ship;
+import univalle.tedesoft.battleship.models.ships.ShipClass;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Estrategia de la dificultad fácil: dispara al azar a una casilla no atacada y coloca la flota al
+ * azar. También ofrece estas dos operaciones a las demás estrategias como respuesta de respaldo.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class RandomStrategy implements MachineStrategy {
+    private final Random random;
+
+    /**
+     * Crea la estrategia con un generador propio.
+     */
+    public RandomStrategy() {
+        this(new Random());
+    }
+
+    /**
+     * Crea la estrategia.
+     * @param random Generador de los disparos; con una semilla fija la estrategia es reproducible.
+     */
+    public RandomStrategy(Random random) {
+        this.random = random;
+    }
+
+    @Override
+    public int chooseShot(BoardSnapshot territory, BoardSnapshot fleetBoard, long deadline) {
+        return randomUnshotCell(territory, this.random);
+    }
+
+    /**
+     * Elige al azar una casilla sin disparar.
+     * @param territory Lo que el tirador sabe del tablero rival.
+     * @param random Generador a usar.
+     * @return La celda en orden fila por fila, o -1 si todas fueron disparadas.
+     */
+    public static int randomUnshotCell(BoardSnapshot territory, Random random) {
+        int size = territory.getSize();
+        int[] unshot = new int[size * size];
+        int count = 0;
+        for (int cell = 0; cell < size * size; cell++) {
+            CellState state = territory.getCellState(cell / size, cell % size);
+            if (state != CellState.HIT_SHIP && state != CellState.SUNK_SHIP_PART && state != CellState.SHOT_LOST_IN_WATER) {
+                unshot[count++] = cell;
+            }
+        }
+        return (count == 0) ? -1 : unshot[random.nextInt(count)];
+    }
+
+    /**
+     * Coloca una flota completa al azar, respetando las orientaciones de cada clase de barco.
+     * @param board Tablero donde colocar; se limpia antes de empezar.
+     * @param fleet Barcos a colocar.
+     * @param fleetConfiguration Flota de la partida.
+     * @param random Generador a usar.
+     * @param deadline Instante de {@link System#nanoTime()} en que se abandona la colocación.
+     * @return true si colocó todos los barcos; si no, el tablero queda vacío.
+     */
+    public static boolean placeRandomly(Board board, List<Ship> fleet, FleetConfiguration fleetConfiguration,
+                                        Random random, long deadline) {
+        board.resetBoard();
+        final int maxPlacementAttempts = 100 + 10 * board.getSize(); // Evitar bucles infinitos.
+        for (Ship ship : fleet) {
+            boolean placedSuccessfully = false;
+            int attempts = 0;
+            ShipClass shipClass = fleetConfiguration.getShipClass(ship);
+            List<Orientation> orientations = new ArrayList<>((shipClass != null)
+                    ? shipClass.getAllowedOrientations()
+                    : Arrays.asList(Orientation.values()));
+
+            while (!placedSuccessfully && attempts < maxPlacementAttempts && System.nanoTime() <= deadline) {
+                int row = random.nextInt(board.getSize());
+                int col = random.nextInt(board.getSize());
+                Orientation orientation = orientations.get(random.nextInt(orientations.size()));
+                attempts++;
+
+                // Verificar sin excepciones antes de colocar; con flotas grandes la mayoría de intentos falla.
+                if (!board.canPlaceShip(row, col, ship.getValueShip(), orientation)) {
+                    continue;
+                }
+                ship.setOrientation(orientation);
+                try {
+                    board.placeShip(ship, new Coordinate(col, row));
+                    placedSuccessfully = true;
+                } catch (OutOfBoundsException | OverlapException e) {
+                    placedSuccessfully = false;
+                }
+            }
+
+            if (!placedSuccessfully) {
+                // Salir para evitar un tablero a medio colocar.
+                board.resetBoard();
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,218 @@
+package univalle.tedesoft.battleship.models.ai;
+
+import univalle.tedesoft.battleship.models.enums.StrategyParameter;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Valores de los parámetros ajustables de las estrategias ({@link StrategyParameter}). Son
+ * inmutables: {@link #with(StrategyParameter, double)} devuelve una copia.
+ * <p>
+ * Los parámetros del juego se leen del archivo indicado en la propiedad del sistema
+ * {@value #FILE_PROPERTY}, o de {@value #DEFAULT_FILE} si no se indica; ese archivo lo escribe
+ * {@code univalle.tedesoft.battleship.simulation.StrategyTuner}. Sin archivo se usan los valores por
+ * defecto. El archivo tiene una entrada {@code clave: valor} por línea; las líneas vacías o que
+ * empiezan con '#' se ignoran, y los parámetros que no aparecen conservan su valor por defecto.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public final class StrategyParameters {
+    /** Propiedad del sistema con el archivo de parámetros del juego. */
+    public static final String FILE_PROPERTY = "battleship.strategyParameters";
+    /** Archivo de parámetros si no se indica otro. */
+    static final String DEFAULT_FILE = "src/main/resources/univalle/tedesoft/battleship/strategy.parameters";
+
+    private static final StrategyParameter[] PARAMETERS = StrategyParameter.values();
+    /** Parámetros del juego, leídos la primera vez que se piden. */
+    private static volatile StrategyParameters gameParameters;
+
+    private final double[] values;
+
+    private StrategyParameters(double[] values) {
+        this.values = values;
+    }
+
+    /**
+     * Devuelve los valores por defecto de todos los parámetros.
+     * @return Los parámetros por defecto.
+     */
+    public static StrategyParameters defaults() {
+        double[] values = new double[PARAMETERS.length];
+        for (StrategyParameter parameter : PARAMETERS) {
+            values[parameter.ordinal()] = parameter.getDefaultValue();
+        }
+        return new StrategyParameters(values);
+    }
+
+    /**
+     * Devuelve los parámetros del juego, leyéndolos la primera vez: los del archivo de parámetros
+     * ({@link #defaultPath()}), o los por defecto si no existe o no se pudo leer.
+     * @return Los parámetros del juego.
+     */
+    public static StrategyParameters getDefault() {
+        StrategyParameters current = gameParameters;
+        if (current == null) {
+            current = defaults();
+            Path path = defaultPath();
+            if (Files.isRegularFile(path)) {
+                try {
+                    current = load(path);
+                } catch (IOException | IllegalArgumentException e) {
+                    System.err.println("No se pudieron cargar los parámetros " + path + ", se usarán los por defecto: " + e.getMessage());
+                }
+            }
+            gameParameters = current;
+        }
+        return current;
+    }
+
+    /**
+     * Ruta del archivo de parámetros del juego.
+     * @return El archivo de la propiedad del sistema {@value #FILE_PROPERTY}, o {@value #DEFAULT_FILE}.
+     */
+    public static Path defaultPath() {
+        String file = System.getProperty(FILE_PROPERTY);
+        return Paths.get((file != null && !file.trim().isEmpty()) ? file.trim() : DEFAULT_FILE);
+    }
+
+    /**
+     * Carga los parámetros desde un archivo.
+     * @param path Ruta del archivo.
+     * @return Los parámetros; los que no aparecen conservan su valor por defecto.
+     * @throws IOException si no se puede leer el archivo.
+     * @throws IllegalArgumentException si el archivo tiene un formato inválido.
+     */
+    public static StrategyParameters load(Path path) throws IOException {
+        StrategyParameters parameters = defaults();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                int separator = line.indexOf(':');
+                StrategyParameter parameter = (separator > 0) ? findByKey(line.substring(0, separator).trim()) : null;
+                if (parameter == null) {
+                    throw new IllegalArgumentException("Línea " + lineNumber + " inválida (" + line + "): parámetro desconocido");
+                }
+                try {
+                    parameters = parameters.with(parameter, Double.parseDouble(line.substring(separator + 1).trim()));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Línea " + lineNumber + " inválida (" + line + "): " + e.getMessage(), e);
+                }
+            }
+        }
+        return parameters;
+    }
+
+    /**
+     * Escribe los parámetros en un archivo, reemplazándolo de forma atómica.
+     * @param path Ruta del archivo.
+     * @param comment Comentario de la cabecera, o null.
+     * @throws IOException si no se puede escribir el archivo.
+     */
+    public void write(Path path, String comment) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temporary = Files.createTempFile(parent, "parameters", ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                if (comment != null) {
+                    for (String line : comment.split("\n")) {
+                        writer.write("# " + line);
+                        writer.newLine();
+                    }
+                }
+                for (StrategyParameter parameter : PARAMETERS) {
+                    writer.write(parameter.getKey() + ": " + this.format(parameter));
+                    writer.newLine();
+                }
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Devuelve una copia con otro valor para un parámetro, ajustado a su rango.
+     * @param parameter El parámetro.
+     * @param value El valor nuevo.
+     * @return Los parámetros con el valor cambiado.
+     */
+    public StrategyParameters with(StrategyParameter parameter, double value) {
+        double[] copy = this.values.clone();
+        copy[parameter.ordinal()] = parameter.clamp(value);
+        return new StrategyParameters(copy);
+    }
+
+    /**
+     * @param parameter El parámetro.
+     * @return Su valor.
+     */
+    public double get(StrategyParameter parameter) {
+        return this.values[parameter.ordinal()];
+    }
+
+    /**
+     * @param parameter Un parámetro entero.
+     * @return Su valor como entero.
+     */
+    public int getInt(StrategyParameter parameter) {
+        return (int) Math.round(this.values[parameter.ordinal()]);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof StrategyParameters && Arrays.equals(this.values, ((StrategyParameters) other).values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(this.values);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (StrategyParameter parameter : PARAMETERS) {
+            text.append((text.length() == 0) ? "" : ", ").append(parameter.getKey()).append('=').append(this.format(parameter));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Da formato al valor de un parámetro, sin decimales si es entero.
+     */
+    private String format(StrategyParameter parameter) {
+        return parameter.isInteger()
+                ? Integer.toString(this.getInt(parameter))
+                : String.format(Locale.ROOT, "%.4f", this.get(parameter));
+    }
+
+    /**
+     * Busca un parámetro por su clave.
+     */
+    private static StrategyParameter findByKey(String key) {
+        for (StrategyParameter parameter : PARAMETERS) {
+            if (parameter.getKey().equals(key)) {
+                return parameter;
+            }
+        }
+        return null;
+    }
+}
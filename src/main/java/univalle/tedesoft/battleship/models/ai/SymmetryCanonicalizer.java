@@ -0,0 +1,168 @@
+package univalle.tedesoft.battleship.models.ai;
+
+import univalle.tedesoft.battleship.models.board.BoardSnapshot;
+import univalle.tedesoft.battleship.models.board.ZobristKeys;
+import univalle.tedesoft.battleship.models.enums.CellState;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lleva un estado de conocimiento del tablero a su forma canónica: de los ocho estados equivalentes
+ * por simetría, el de menor hash de Zobrist. Estados simétricos tienen así la misma clave, y una
+ * evaluación calculada para uno sirve para los demás transformando sus celdas.
+ * <p>
+ * Las permutaciones de celdas de cada simetría se calculan una vez por tamaño de tablero. Para
+ * canonicalizar solo se recorren las celdas disparadas y se acumulan a la vez los ocho hashes, por lo
+ * que al principio de la partida, con pocos disparos, el costo es casi nulo.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public final class SymmetryCanonicalizer {
+    private static final BoardSymmetry[] SYMMETRIES = BoardSymmetry.values();
+    private static final ConcurrentHashMap<Integer, SymmetryCanonicalizer> BY_SIZE = new ConcurrentHashMap<>();
+
+    /**
+     * Resultado de canonicalizar un estado: su hash canónico y la simetría que lleva al estado
+     * canónico.
+     */
+    public static final class CanonicalForm {
+        private final long hash;
+        private final BoardSymmetry symmetry;
+
+        private CanonicalForm(long hash, BoardSymmetry symmetry) {
+            this.hash = hash;
+            this.symmetry = symmetry;
+        }
+
+        /** @return El hash de Zobrist del estado canónico. */
+        public long getHash() {
+            return this.hash;
+        }
+
+        /** @return La simetría que transforma el estado original en el canónico. */
+        public BoardSymmetry getSymmetry() {
+            return this.symmetry;
+        }
+    }
+
+    private final int size;
+    private final ZobristKeys keys;
+    /** Celda destino de cada celda, por simetría (indexado por ordinal). */
+    private final int[][] permutations;
+    /** Permutaciones inversas: celda original de cada celda transformada. */
+    private final int[][] inversePermutations;
+
+    private SymmetryCanonicalizer(int size) {
+        this.size = size;
+        this.keys = ZobristKeys.forSize(size);
+        this.permutations = new int[SYMMETRIES.length][size * size];
+        this.inversePermutations = new int[SYMMETRIES.length][size * size];
+        for (BoardSymmetry symmetry : SYMMETRIES) {
+            for (int cell = 0; cell < size * size; cell++) {
+                int target = symmetry.apply(cell / size, cell % size, size);
+                this.permutations[symmetry.ordinal()][cell] = target;
+                this.inversePermutations[symmetry.ordinal()][target] = cell;
+            }
+        }
+    }
+
+    /**
+     * Devuelve el canonicalizador de un tamaño de tablero; se crea una sola vez y se comparte.
+     * @param size Tamaño del tablero.
+     * @return El canonicalizador.
+     */
+    public static SymmetryCanonicalizer forSize(int size) {
+        return BY_SIZE.computeIfAbsent(size, SymmetryCanonicalizer::new);
+    }
+
+    /**
+     * Calcula la forma canónica de un estado.
+     * @param snapshot Estado del tablero; solo importan las celdas disparadas.
+     * @param orientationPreservingOnly true si la flota no se puede girar (alguna clase de barco solo
+     *                                  admite una orientación); se usan solo las cuatro simetrías que
+     *                                  conservan la orientación.
+     * @return El hash canónico y la simetría que lleva a él.
+     */
+    public CanonicalForm canonicalize(BoardSnapshot snapshot, boolean orientationPreservingOnly) {
+        long[] hashes = new long[SYMMETRIES.length];
+        Arrays.fill(hashes, this.keys.getEmptyHash());
+        for (int cell = 0; cell < this.size * this.size; cell++) {
+            CellState state = snapshot.getCellState(cell / this.size, cell % this.size);
+            if (this.keys.get(cell, state) == 0L) {
+                continue;
+            }
+            for (int s = 0; s < hashes.length; s++) {
+                hashes[s] ^= this.keys.get(this.permutations[s][cell], state);
+            }
+        }
+        int best = 0;
+        for (int s = 1; s < hashes.length; s++) {
+            if (orientationPreservingOnly && !SYMMETRIES[s].preservesOrientation()) {
+                continue;
+            }
+            if (hashes[s] < hashes[best]) {
+                best = s;
+            }
+        }
+        return new CanonicalForm(hashes[best], SYMMETRIES[best]);
+    }
+
+    /**
+     * Lleva valores por celda del marco del estado original al del estado canónico.
+     * @param values Un valor por celda del estado original.
+     * @param symmetry Simetría de la forma canónica.
+     * @return Los valores en el marco canónico (un arreglo nuevo, salvo con la identidad).
+     */
+    public double[] toCanonical(double[] values, BoardSymmetry symmetry) {
+        if (symmetry == BoardSymmetry.IDENTITY) {
+            return values;
+        }
+        int[] permutation = this.permutations[symmetry.ordinal()];
+        double[] result = new double[values.length];
+        for (int cell = 0; cell < values.length; cell++) {
+            result[permutation[cell]] = values[cell];
+        }
+        return result;
+    }
+
+    /**
+     * Lleva valores por celda del marco canónico al del estado original.
+     * @param values Un valor por celda en el marco canónico.
+     * @param symmetry Simetría de la forma canónica.
+     * @return Los valores en el marco del estado original (un arreglo nuevo, salvo con la identidad).
+     */
+    public double[] fromCanonical(double[] values, BoardSymmetry symmetry) {
+        if (symmetry == BoardSymmetry.IDENTITY) {
+            return values;
+        }
+        int[] permutation = this.permutations[symmetry.ordinal()];
+        double[] result = new double[values.length];
+        for (int cell = 0; cell < values.length; cell++) {
+            result[cell] = values[permutation[cell]];
+        }
+        return result;
+    }
+
+    /**
+     * Lleva una celda del estado original a la celda equivalente del estado canónico.
+     * @param cell Celda lineal del estado original.
+     * @param symmetry Simetría de la forma canónica.
+     * @return La celda lineal en el marco canónico.
+     */
+    public int toCanonicalCell(int cell, BoardSymmetry symmetry) {
+        return this.permutations[symmetry.ordinal()][cell];
+    }
+
+    /**
+     * Lleva una celda del estado canónico a la celda equivalente del estado original.
+     * @param cell Celda lineal en el marco canónico.
+     * @param symmetry Simetría de la forma canónica.
+     * @return La celda lineal del estado original.
+     */
+    public int fromCanonicalCell(int cell, BoardSymmetry symmetry) {
+        return this.inversePermutations[symmetry.ordinal()][cell];
+    }
+}
@@ -0,0 +1,150 @@
+package univalle.tedesoft.battleship.models.ai;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tabla de transposición concurrente y de tamaño fijo que guarda, por estado de conocimiento de un
+ * tablero, la evaluación de cada jugada (un valor por celda) o el resultado de un cálculo codificado
+ * en un arreglo. La clave es el hash de Zobrist del estado
+ * ({@link univalle.tedesoft.battleship.models.board.Board#getKnowledgeHash()}), combinado con lo que
+ * distinga el cálculo, como la flota restante. La usan {@link EvaluationCache},
+ * {@link JointProbabilityEngine} y {@link EndgameSolver}.
+ * <p>
+ * Las entradas son inmutables y se publican con escrituras atómicas, de modo que varios hilos
+ * pueden leer y escribir sin bloqueos. La tabla nunca crece: cada hash cae en un grupo de dos
+ * posiciones; la primera conserva la entrada de mayor calidad (la evaluación más costosa) y la
+ * segunda siempre se reemplaza con la más reciente. Como es una caché, perder una entrada por una
+ * escritura concurrente solo significa recalcularla.
+ * <p>
+ * Los arreglos guardados y devueltos se comparten entre hilos y no deben modificarse.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class TranspositionTable {
+    /** Propiedad del sistema con la cantidad de entradas de la tabla compartida. */
+    public static final String ENTRIES_PROPERTY = "battleship.tt.entries";
+    /** Cantidad de entradas de la tabla compartida si no se indica otra. */
+    private static final int DEFAULT_ENTRIES = 1 << 16;
+
+    /**
+     * Entrada inmutable de la tabla.
+     */
+    private static final class Entry {
+        private final long hash;
+        private final int quality;
+        private final double[] evaluations;
+
+        private Entry(long hash, int quality, double[] evaluations) {
+            this.hash = hash;
+            this.quality = quality;
+            this.evaluations = evaluations;
+        }
+    }
+
+    /**
+     * Clase interna estática para crear la tabla compartida solo cuando se usa por primera vez.
+     */
+    private static class SharedHolder {
+        private static final TranspositionTable INSTANCE = new TranspositionTable(Integer.getInteger(ENTRIES_PROPERTY, DEFAULT_ENTRIES));
+    }
+
+    private final AtomicReferenceArray<Entry> entries;
+    /** Máscara para llevar un hash al primer índice de su grupo (siempre par). */
+    private final int bucketMask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Crea una tabla vacía.
+     * @param capacity Cantidad máxima de entradas; se redondea a la potencia de dos siguiente (mínimo 2).
+     */
+    public TranspositionTable(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.entries = new AtomicReferenceArray<>(size);
+        this.bucketMask = (size - 1) & ~1;
+    }
+
+    /**
+     * Tabla compartida por todo el programa: jugadas, hilos y partidas simuladas.
+     * Su tamaño se puede fijar con la propiedad {@value #ENTRIES_PROPERTY}.
+     * @return La tabla compartida.
+     */
+    public static TranspositionTable getShared() {
+        return SharedHolder.INSTANCE;
+    }
+
+    /**
+     * Busca la evaluación de un estado.
+     * @param hash Hash del estado.
+     * @return Las evaluaciones guardadas, o null si el estado no está en la tabla.
+     */
+    public double[] get(long hash) {
+        int index = this.indexOf(hash);
+        Entry entry = this.entries.get(index);
+        if (entry == null || entry.hash != hash) {
+            entry = this.entries.get(index + 1);
+        }
+        if (entry != null && entry.hash == hash) {
+            this.hits.increment();
+            return entry.evaluations;
+        }
+        this.misses.increment();
+        return null;
+    }
+
+    /**
+     * Guarda la evaluación de un estado.
+     * @param hash Hash del estado.
+     * @param quality Calidad de la evaluación (por ejemplo, su profundidad o cantidad de muestras);
+     *                entre dos estados que compiten por la misma posición se conserva el de mayor calidad.
+     * @param evaluations Valor de cada jugada; la tabla guarda la referencia, no una copia.
+     */
+    public void put(long hash, int quality, double[] evaluations) {
+        int index = this.indexOf(hash);
+        Entry entry = new Entry(hash, quality, evaluations);
+        Entry preferred = this.entries.get(index);
+        if (preferred == null || preferred.hash == hash || quality >= preferred.quality) {
+            this.entries.set(index, entry);
+            // La entrada desplazada pasa a la posición de reemplazo en vez de perderse.
+            if (preferred != null && preferred.hash != hash) {
+                this.entries.set(index + 1, preferred);
+            }
+        } else {
+            this.entries.set(index + 1, entry);
+        }
+    }
+
+    /**
+     * Vacía la tabla y sus estadísticas.
+     */
+    public void clear() {
+        for (int i = 0; i < this.entries.length(); i++) {
+            this.entries.set(i, null);
+        }
+        this.hits.reset();
+        this.misses.reset();
+    }
+
+    /** @return Cantidad máxima de entradas. */
+    public int getCapacity() {
+        return this.entries.length();
+    }
+
+    /** @return Búsquedas que encontraron el estado. */
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /** @return Búsquedas que no encontraron el estado. */
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    private int indexOf(long hash) {
+        // Los bits altos del hash de Zobrist están tan mezclados como los bajos; se combinan ambos.
+        return (int) (hash ^ (hash >>> 32)) & this.bucketMask;
+    }
+}
@@ -8,6 +8,7 @@ import univalle.tedesoft.battleship.models.enums.ShotResult;
 import univalle.tedesoft.battleship.models.ships.Ship;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -19,17 +20,45 @@ import java.util.List;
 public class Board extends BoardAdapter {
     /** Tamaño estandar del tablero*/
     private static final int DEFAULT_SIZE = 10; // Tamaño estándar del tablero 10x10
+    /** Tamaño de este tablero (filas = columnas)*/
+    private final int size;
     /** Matriz de celdas, para guardar los estados de cada celda de forma ordenada por coordenadas*/
     private CellState[][] grid;
     /** Lista de barcos alojados en el tablero*/
     private List<Ship> ships;
+    /** Índice + 1 (en ships) del barco que ocupa cada celda, o 0 si no hay barco; permite getShipAt en O(1)*/
+    private int[] shipIdByCell;
+    /** Bitácora de disparos recibidos, permite deshacer y rehacer movimientos en tiempo constante*/
+    private final MoveLog moveLog = new MoveLog();
+    /** Versión del tablero, se incrementa con cada modificación de celdas o barcos*/
+    private long version;
+    /** Última instantánea tomada; se reutiliza mientras la versión no cambie*/
+    private BoardSnapshot lastSnapshot;
+    /** Claves de Zobrist del tamaño de este tablero*/
+    private final ZobristKeys zobristKeys;
+    /** Hash de Zobrist de los disparos recibidos (agua, impactos y hundidos), se actualiza con cada cambio de celda*/
+    private long knowledgeHash;
 
     /**
-     * Constructor que inicializa un tablero vacío con un tamaño específico.
+     * Constructor que inicializa un tablero vacío con el tamaño estándar.
      */
     public Board() {
-        this.grid = new CellState[DEFAULT_SIZE][DEFAULT_SIZE];
+        this(DEFAULT_SIZE);
+    }
+
+    /**
+     * Constructor que inicializa un tablero vacío con un tamaño específico.
+     * @param size Cantidad de filas y columnas del tablero.
+     */
+    public Board(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("El tamaño del tablero debe ser positivo: " + size);
+        }
+        this.size = size;
+        this.grid = new CellState[size][size];
         this.ships = new ArrayList<>();
+        this.shipIdByCell = new int[size * size];
+        this.zobristKeys = ZobristKeys.forSize(size);
         this.initializeGrid();
     }
 
@@ -37,11 +66,12 @@ public class Board extends BoardAdapter {
      * Inicializa todas las celdas del tablero a EMPTY.
      */
     private void initializeGrid() {
-        for (int i = 0; i < DEFAULT_SIZE; i++) {
-            for (int j = 0; j < DEFAULT_SIZE; j++) {
+        for (int i = 0; i < this.size; i++) {
+            for (int j = 0; j < this.size; j++) {
                 grid[i][j] = CellState.EMPTY;
             }
         }
+        this.knowledgeHash = this.zobristKeys.getEmptyHash();
     }
 
     /**
@@ -55,10 +85,10 @@ public class Board extends BoardAdapter {
      */
     public boolean placeShip(Ship ship, Coordinate startCoordinate) throws OutOfBoundsException, OverlapException {
         // Validación de límites
-        if (ship.getOrientation() == Orientation.HORIZONTAL && startCoordinate.getX() + ship.getValueShip() > DEFAULT_SIZE) {
+        if (ship.getOrientation() == Orientation.HORIZONTAL && startCoordinate.getX() + ship.getValueShip() > this.size) {
             throw new OutOfBoundsException("Fuera de los límites del tablero, el barco no cabe horizontalmente!");
         }
-        if (ship.getOrientation() == Orientation.VERTICAL && startCoordinate.getY() + ship.getValueShip() > DEFAULT_SIZE) {
+        if (ship.getOrientation() == Orientation.VERTICAL && startCoordinate.getY() + ship.getValueShip() > this.size) {
             throw new OutOfBoundsException("Fuera de los límites del tablero, el barco no cabe verticalmente!");
         }
 
@@ -94,6 +124,8 @@ public class Board extends BoardAdapter {
         }
 
         ships.add(ship);
+        this.indexShipCells(ship, ships.size());
+        this.version++;
         return true;
     }
 
@@ -114,6 +146,9 @@ public class Board extends BoardAdapter {
 
             // Quitar el barco de la lista de barcos del tablero
             this.ships.remove(shipToRemove);
+            // Los índices de los barcos posteriores se desplazan; reconstruir el índice de celdas.
+            this.rebuildShipIndex();
+            this.version++;
 
             return true;
         }
@@ -132,39 +167,206 @@ public class Board extends BoardAdapter {
             throw new OutOfBoundsException("Coordenada fuera de los límites del tablero.");
         }
 
-        int row = targetCoordinate.getY();
-        int col = targetCoordinate.getX();
-        CellState currentState = this.grid[row][col];
+        ShotResult result = this.makeShot(targetCoordinate.getY(), targetCoordinate.getX());
+        switch (result) {
+            case WATER:
+                return new ShotOutcome(targetCoordinate, ShotResult.WATER);
+            case TOUCHED:
+                return new ShotOutcome(targetCoordinate, ShotResult.TOUCHED);
+            case SUNKEN:
+                return new ShotOutcome(targetCoordinate, ShotResult.SUNKEN, this.moveLog.lastHitShip());
+            default:
+                throw new OverlapException("Ya has disparado en la casilla " + targetCoordinate.toAlgebraicNotation() + ".");
+        }
+    }
+
+    /**
+     * Aplica un disparo sobre la celda indicada y lo registra en la bitácora de movimientos.
+     * A diferencia de receiveShot, no crea objetos ni lanza excepciones por celdas repetidas,
+     * por lo que es apto para búsquedas de la IA que hacen y deshacen disparos (make/unmake).
+     * La coordenada debe ser válida; no se verifica para no penalizar el camino rápido.
+     * @param row Fila del disparo.
+     * @param col Columna del disparo.
+     * @return El resultado del disparo, o ALREADY_HIT si la celda ya había sido atacada (no se registra movimiento).
+     */
+    public ShotResult makeShot(int row, int col) {
+        if (isAttacked(this.grid[row][col])) {
+            return ShotResult.ALREADY_HIT;
+        }
+        this.moveLog.beginMove();
+        ShotResult result = this.applyShot(row, col);
+        this.moveLog.endMove();
+        return result;
+    }
+
+    /**
+     * Procesa una salva: varios disparos que se validan y aplican juntos en una sola pasada.
+     * Primero se verifican todas las coordenadas (límites, repetidas dentro de la salva y ya atacadas);
+     * si alguna es inválida no se aplica ningún disparo. Toda la salva queda registrada como un único
+     * movimiento, de modo que unmakeShot la revierte completa.
+     * @param targets Coordenadas de los disparos de la salva.
+     * @return Un SalvoOutcome con el resultado de cada disparo y los barcos hundidos.
+     * @throws OutOfBoundsException si alguna coordenada está fuera del tablero.
+     * @throws OverlapException si alguna celda ya fue atacada o se repite dentro de la salva.
+     */
+    public SalvoOutcome receiveShots(List<Coordinate> targets) throws OutOfBoundsException, OverlapException {
+        int count = targets.size();
+        int[] cells = new int[count];
+        boolean[] selected = new boolean[this.size * this.size];
+        for (int i = 0; i < count; i++) {
+            Coordinate target = targets.get(i);
+            int row = target.getY();
+            int col = target.getX();
+            if (!isValidCoordinate(row, col)) {
+                throw new OutOfBoundsException("Coordenada fuera de los límites del tablero.");
+            }
+            int cell = row * this.size + col;
+            if (selected[cell]) {
+                throw new OverlapException("La casilla " + target.toAlgebraicNotation() + " está repetida en la salva.");
+            }
+            if (isAttacked(this.grid[row][col])) {
+                throw new OverlapException("Ya has disparado en la casilla " + target.toAlgebraicNotation() + ".");
+            }
+            selected[cell] = true;
+            cells[i] = cell;
+        }
+
+        byte[] results = new byte[count];
+        List<Ship> sunkenShips = new ArrayList<>();
+        if (count > 0) {
+            this.moveLog.beginMove();
+            for (int i = 0; i < count; i++) {
+                int row = cells[i] / this.size;
+                int col = cells[i] % this.size;
+                ShotResult result = this.applyShot(row, col);
+                results[i] = (byte) result.ordinal();
+                if (result == ShotResult.SUNKEN) {
+                    sunkenShips.add(this.getShipAt(row, col));
+                }
+            }
+            this.moveLog.endMove();
+        }
+        return new SalvoOutcome(this.size, cells, results, sunkenShips);
+    }
 
+    /**
+     * Aplica un disparo sobre una celda no atacada, registrando los cambios en el movimiento abierto.
+     * @param row Fila del disparo.
+     * @param col Columna del disparo.
+     * @return WATER, TOUCHED o SUNKEN.
+     */
+    private ShotResult applyShot(int row, int col) {
+        CellState currentState = this.grid[row][col];
         switch (currentState) {
             case EMPTY:
-                this.grid[row][col] = CellState.SHOT_LOST_IN_WATER;
-                return new ShotOutcome(targetCoordinate, ShotResult.WATER);
+                this.writeCell(row, col, CellState.SHOT_LOST_IN_WATER, null);
+                return ShotResult.WATER;
             case SHIP:
                 Ship hitShip = this.getShipAt(row, col);
                 if (hitShip != null) {
                     hitShip.registerHit();
                     if (hitShip.isSunk()) {
+                        // La celda disparada lleva la referencia del barco para revertir el impacto.
+                        this.writeCell(row, col, CellState.SUNK_SHIP_PART, hitShip);
                         for (Coordinate coord : hitShip.getOccupiedCoordinates()) {
-                            this.grid[coord.getY()][coord.getX()] = CellState.SUNK_SHIP_PART;
+                            if (coord.getY() != row || coord.getX() != col) {
+                                this.writeCell(coord.getY(), coord.getX(), CellState.SUNK_SHIP_PART, null);
+                            }
                         }
-                        return new ShotOutcome(targetCoordinate, ShotResult.SUNKEN, hitShip);
-                    } else {
-                        this.grid[row][col] = CellState.HIT_SHIP;
-                        return new ShotOutcome(targetCoordinate, ShotResult.TOUCHED);
+                        return ShotResult.SUNKEN;
                     }
                 }
-                this.grid[row][col] = CellState.HIT_SHIP;
-                return new ShotOutcome(targetCoordinate, ShotResult.TOUCHED);
+                this.writeCell(row, col, CellState.HIT_SHIP, hitShip);
+                return ShotResult.TOUCHED;
+            default:
+                throw new IllegalStateException("Estado de celda inesperado: " + currentState);
+        }
+    }
 
-            case HIT_SHIP:
-            case SHOT_LOST_IN_WATER:
-            case SUNK_SHIP_PART:
-                throw new OverlapException("Ya has disparado en la casilla " + targetCoordinate.toAlgebraicNotation() + ".");
+    /**
+     * Indica si un estado de celda corresponde a una celda ya atacada.
+     * @param state Estado de la celda.
+     * @return true si la celda recibió un disparo.
+     */
+    private static boolean isAttacked(CellState state) {
+        return state == CellState.HIT_SHIP || state == CellState.SHOT_LOST_IN_WATER || state == CellState.SUNK_SHIP_PART;
+    }
 
-            default:
-                throw new IllegalStateException("Estado de celda desconocido: " + currentState);
+    /**
+     * Deshace el último disparo aplicado al tablero (unmake).
+     * Restaura los estados de las celdas y el contador de impactos del barco afectado.
+     * @return true si había un disparo para deshacer, false en caso contrario.
+     */
+    public boolean unmakeShot() {
+        if (this.moveLog.undo(this)) {
+            this.version++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Vuelve a aplicar el último disparo deshecho con unmakeShot.
+     * @return true si había un disparo para rehacer, false en caso contrario.
+     */
+    public boolean redoShot() {
+        if (this.moveLog.redo(this)) {
+            this.version++;
+            return true;
         }
+        return false;
+    }
+
+    /**
+     * Indica si hay disparos registrados que se pueden deshacer.
+     * @return true si se puede deshacer al menos un disparo.
+     */
+    public boolean canUnmakeShot() {
+        return this.moveLog.canUndo();
+    }
+
+    /**
+     * Indica si hay disparos deshechos que se pueden volver a aplicar.
+     * @return true si se puede rehacer al menos un disparo.
+     */
+    public boolean canRedoShot() {
+        return this.moveLog.canRedo();
+    }
+
+    /**
+     * Devuelve el barco impactado por el último disparo aplicado.
+     * @return El barco impactado, o null si el último disparo cayó al agua o no hay disparos.
+     */
+    public Ship getLastHitShip() {
+        return this.moveLog.lastHitShip();
+    }
+
+    /**
+     * Escribe el estado de una celda y registra el cambio en la bitácora de movimientos.
+     * @param row Fila de la celda.
+     * @param col Columna de la celda.
+     * @param state Nuevo estado.
+     * @param hitShip Barco al que se le registró un impacto con este cambio, o null.
+     */
+    private void writeCell(int row, int col, CellState state, Ship hitShip) {
+        int cell = row * this.size + col;
+        this.moveLog.record(cell, this.grid[row][col], state, hitShip);
+        this.knowledgeHash ^= this.zobristKeys.get(cell, this.grid[row][col]) ^ this.zobristKeys.get(cell, state);
+        this.grid[row][col] = state;
+        this.version++;
+    }
+
+    /**
+     * Restaura el estado de una celda sin registrarlo en la bitácora. Lo usa la bitácora
+     * al deshacer y rehacer movimientos; quien lo llama incrementa la versión.
+     * @param cell Celda lineal (fila * tamaño + columna).
+     * @param state Estado a restaurar.
+     */
+    void restoreCell(int cell, CellState state) {
+        int row = cell / this.size;
+        int col = cell % this.size;
+        this.knowledgeHash ^= this.zobristKeys.get(cell, this.grid[row][col]) ^ this.zobristKeys.get(cell, state);
+        this.grid[row][col] = state;
     }
 
     /**
@@ -175,7 +377,7 @@ public class Board extends BoardAdapter {
      * @throws OutOfBoundsException si la coordenada esta fuera del tablero.
      */
     public CellState getCellState(int row, int col) throws OutOfBoundsException {
-        if (row < 0 || row >= DEFAULT_SIZE || col < 0 || col >= DEFAULT_SIZE) {
+        if (row < 0 || row >= this.size || col < 0 || col >= this.size) {
             throw new OutOfBoundsException("Coordenada (" + row + "," + col + ") está fuera del tablero.");
         }
         return grid[row][col];
@@ -193,7 +395,10 @@ public class Board extends BoardAdapter {
         if (!isValidCoordinate(row, col)) {
             throw new OutOfBoundsException("Coordenada (" + row + "," + col + ") está fuera del tablero.");
         }
+        int cell = row * this.size + col;
+        this.knowledgeHash ^= this.zobristKeys.get(cell, this.grid[row][col]) ^ this.zobristKeys.get(cell, state);
         this.grid[row][col] = state;
+        this.version++;
     }
 
     /**
@@ -212,8 +417,44 @@ public class Board extends BoardAdapter {
         return true;
     }
 
+    /**
+     * Devuelve una instantánea inmutable del tablero.
+     * Mientras el tablero no cambie se devuelve la misma instancia, por lo que llamarlo
+     * repetidamente no tiene costo. Debe invocarse desde el hilo que modifica el tablero;
+     * la instantánea resultante puede compartirse libremente con otros hilos.
+     * @return La instantánea del estado actual.
+     */
+    public BoardSnapshot snapshot() {
+        BoardSnapshot current = this.lastSnapshot;
+        if (current == null || current.getVersion() != this.version) {
+            current = BoardSnapshot.capture(this.grid, this.ships, this.version, this.knowledgeHash, current);
+            this.lastSnapshot = current;
+        }
+        return current;
+    }
+
+    /**
+     * Devuelve la versión actual del tablero. Cambia con cada modificación.
+     * @return La versión del tablero.
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Devuelve el hash de Zobrist de lo que se sabe del tablero: las celdas que recibieron disparos
+     * y su resultado. No depende de dónde están los barcos sin descubrir, por lo que identifica un
+     * estado de conocimiento y sirve de clave para la {@link univalle.tedesoft.battleship.models.ai.TranspositionTable}.
+     * Se mantiene en tiempo constante con cada disparo, deshacer, rehacer o cambio de celda.
+     * @return El hash del estado de conocimiento.
+     */
+    public long getKnowledgeHash() {
+        return this.knowledgeHash;
+    }
+
     /**
      * Devuelve la lista de barcos colocados en este tablero.
+     * Para lecturas frecuentes o desde otros hilos es preferible snapshot(), que no copia la lista.
      * @return Una lista de los barcos.
      */
     public List<Ship> getShips() {
@@ -226,29 +467,74 @@ public class Board extends BoardAdapter {
      */
     public void addShipDirectly(Ship ship) {
         this.ships.add(ship);
+        this.indexShipCells(ship, this.ships.size());
+        this.version++;
     }
 
     /**
      * Encuentra y devuelve el barco que ocupa una coordenada específica.
      * Esencial para saber qué barco colorear en la vista.
+     * Usa el índice de celdas, por lo que no depende de la cantidad de barcos del tablero.
      *
      * @param row La fila a verificar.
      * @param col La columna a verificar.
      * @return El objeto Ship en esa coordenada, o null si no hay ninguno.
      */
     public Ship getShipAt(int row, int col) {
-        // Itera sobre todos los barcos en el tablero
-        for (Ship ship : this.ships) {
-            // Para cada barco, itera sobre sus coordenadas ocupadas
-            for (Coordinate coord : ship.getOccupiedCoordinates()) {
-                // Si la coordenada del barco coincide con la que buscamos...
-                if (coord.getY() == row && coord.getX() == col) {
-                    return ship;
-                }
+        if (!isValidCoordinate(row, col)) {
+            return null;
+        }
+        int shipId = this.shipIdByCell[row * this.size + col];
+        return (shipId == 0) ? null : this.ships.get(shipId - 1);
+    }
+
+    /**
+     * Verifica, sin lanzar excepciones, si un barco de la longitud y orientación dadas
+     * cabe en una posición sin salirse del tablero ni superponerse con otro.
+     * Útil para colocar flotas grandes al azar sin el costo de las excepciones.
+     * @param row Fila de inicio.
+     * @param col Columna de inicio.
+     * @param length Longitud del barco.
+     * @param orientation Orientación del barco.
+     * @return true si el barco se puede colocar.
+     */
+    public boolean canPlaceShip(int row, int col, int length, Orientation orientation) {
+        int endRow = (orientation == Orientation.VERTICAL) ? row + length - 1 : row;
+        int endCol = (orientation == Orientation.HORIZONTAL) ? col + length - 1 : col;
+        if (!isValidCoordinate(row, col) || !isValidCoordinate(endRow, endCol)) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            int r = (orientation == Orientation.VERTICAL) ? row + i : row;
+            int c = (orientation == Orientation.HORIZONTAL) ? col + i : col;
+            if (this.grid[r][c] != CellState.EMPTY) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Registra en el índice de celdas las coordenadas de un barco.
+     * @param ship El barco.
+     * @param shipId Índice + 1 del barco en la lista de barcos.
+     */
+    private void indexShipCells(Ship ship, int shipId) {
+        for (Coordinate coord : ship.getOccupiedCoordinates()) {
+            if (isValidCoordinate(coord.getY(), coord.getX())) {
+                this.shipIdByCell[coord.getY() * this.size + coord.getX()] = shipId;
             }
         }
-        // Si recorrimos todos los barcos y ninguno ocupa esa celda, devolvemos null.
-        return null;
+    }
+
+    /**
+     * Reconstruye el índice de celdas a partir de la lista de barcos.
+     */
+    private void rebuildShipIndex() {
+        Arrays.fill(this.shipIdByCell, 0);
+        for (int i = 0; i < this.ships.size(); i++) {
+            this.indexShipCells(this.ships.get(i), i + 1);
+        }
     }
 
     /**
@@ -256,7 +542,7 @@ public class Board extends BoardAdapter {
      * @return El tamaño (número de filas/columnas).
      */
     public int getSize() {
-        return DEFAULT_SIZE;
+        return this.size;
     }
 
     /**
@@ -287,6 +573,9 @@ public class Board extends BoardAdapter {
     public void resetBoard() {
         initializeGrid();
         this.ships.clear();
+        Arrays.fill(this.shipIdByCell, 0);
+        this.moveLog.clear();
+        this.version++;
     }
 
     /**
@@ -296,5 +585,8 @@ public class Board extends BoardAdapter {
      */
     public void clearShipsOnly() {
         this.ships.clear();
+        Arrays.fill(this.shipIdByCell, 0);
+        this.moveLog.clear();
+        this.version++;
     }
 }
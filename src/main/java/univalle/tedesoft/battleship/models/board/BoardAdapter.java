@@ -34,6 +34,11 @@ public abstract class BoardAdapter implements IBoard {
     }
     /** Implementacion por defecto. No hace nada y devuelve null. */
     @Override
+    public SalvoOutcome receiveShots(List<Coordinate> targets) throws OutOfBoundsException, OverlapException {
+        return null;
+    }
+    /** Implementación por defecto. No hace nada y devuelve null. */
+    @Override
     public CellState getCellState(int row, int col) throws OutOfBoundsException {
         return null;
     }
@@ -0,0 +1,299 @@
+package univalle.tedesoft.battleship.models.board;
+
+import univalle.tedesoft.battleship.models.enums.CellState;
+import univalle.tedesoft.battleship.models.enums.Orientation;
+import univalle.tedesoft.battleship.models.enums.ShipType;
+import univalle.tedesoft.battleship.models.ships.Ship;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Vista inmutable del estado de un tablero en un instante dado.
+ * Las celdas se guardan como un arreglo de bytes (un ordinal de CellState por celda) y los barcos
+ * como descriptores inmutables, de modo que cualquier hilo (renderizado, autoguardado, IA en segundo plano)
+ * puede leerla sin bloqueos mientras el hilo del juego sigue modificando el tablero real.
+ * Las instantáneas consecutivas comparten los descriptores de los barcos que no cambiaron.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public final class BoardSnapshot {
+    /** Estados de celda indexados por ordinal. */
+    private static final CellState[] STATES = CellState.values();
+
+    /** Tamaño del tablero (filas = columnas). */
+    private final int size;
+    /** Ordinal de CellState de cada celda, en orden fila por fila. */
+    private final byte[] cells;
+    /** Índice + 1 del barco que ocupa cada celda, o 0 si no hay barco. */
+    private final int[] shipIndexByCell;
+    /** Descriptores de los barcos del tablero. */
+    private final List<ShipSnapshot> ships;
+    /** Versión del tablero en la que se tomó la instantánea. */
+    private final long version;
+    /** Hash de Zobrist de lo que se sabía del tablero. */
+    private final long knowledgeHash;
+
+    /**
+     * Constructor privado; las instantáneas se crean con capture().
+     */
+    private BoardSnapshot(int size, byte[] cells, int[] shipIndexByCell, List<ShipSnapshot> ships, long version, long knowledgeHash) {
+        this.size = size;
+        this.cells = cells;
+        this.shipIndexByCell = shipIndexByCell;
+        this.ships = ships;
+        this.version = version;
+        this.knowledgeHash = knowledgeHash;
+    }
+
+    /**
+     * Toma una instantánea de la grilla y los barcos indicados, reutilizando los descriptores
+     * de barcos de la instantánea anterior que no hayan cambiado.
+     * @param grid Grilla del tablero.
+     * @param boardShips Barcos del tablero.
+     * @param versión Versión actual del tablero.
+     * @param knowledgeHash Hash de Zobrist actual del tablero.
+     * @param previous Instantánea anterior del mismo tablero, o null.
+     * @return La nueva instantánea.
+     */
+    static BoardSnapshot capture(CellState[][] grid, List<Ship> boardShips, long version, long knowledgeHash, BoardSnapshot previous) {
+        int size = grid.length;
+        byte[] cells = new byte[size * size];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                cells[row * size + col] = (byte) grid[row][col].ordinal();
+            }
+        }
+
+        int[] shipIndexByCell = new int[size * size];
+        List<ShipSnapshot> shipSnapshots = new ArrayList<>(boardShips.size());
+        for (int i = 0; i < boardShips.size(); i++) {
+            Ship ship = boardShips.get(i);
+            ShipSnapshot shipSnapshot = null;
+            if (previous != null && i < previous.ships.size() && previous.ships.get(i).isSnapshotOf(ship)) {
+                shipSnapshot = previous.ships.get(i);
+            }
+            if (shipSnapshot == null) {
+                shipSnapshot = new ShipSnapshot(ship, size);
+            }
+            shipSnapshots.add(shipSnapshot);
+            for (int c = 0; c < shipSnapshot.cells.length; c++) {
+                int cell = shipSnapshot.cells[c];
+                if (cell >= 0 && cell < shipIndexByCell.length) {
+                    shipIndexByCell[cell] = i + 1;
+                }
+            }
+        }
+        return new BoardSnapshot(size, cells, shipIndexByCell, Collections.unmodifiableList(shipSnapshots), version, knowledgeHash);
+    }
+
+    /**
+     * Devuelve lo que el rival sabe de este tablero: las celdas con barcos sin descubrir aparecen
+     * como vacías y de los barcos a flote solo se conservan el tipo, la clase y la longitud, sin
+     * posición, orientación ni daño. Los barcos hundidos se conservan completos, porque el rival ya los ve.
+     * Es la vista que debe recibir una estrategia que dispara sobre este tablero.
+     * @return La vista del rival; la misma instancia si ya lo era.
+     */
+    public BoardSnapshot opponentView() {
+        boolean hidden = true;
+        for (byte cell : this.cells) {
+            hidden &= STATES[cell] != CellState.SHIP;
+        }
+        for (ShipSnapshot ship : this.ships) {
+            hidden &= ship.isSunk() || ship.source == null;
+        }
+        if (hidden) {
+            return this;
+        }
+        byte[] viewCells = this.cells.clone();
+        for (int cell = 0; cell < viewCells.length; cell++) {
+            if (STATES[viewCells[cell]] == CellState.SHIP) {
+                viewCells[cell] = (byte) CellState.EMPTY.ordinal();
+            }
+        }
+        int[] viewShipIndexByCell = new int[this.shipIndexByCell.length];
+        List<ShipSnapshot> viewShips = new ArrayList<>(this.ships.size());
+        for (int i = 0; i < this.ships.size(); i++) {
+            ShipSnapshot ship = this.ships.get(i);
+            if (ship.isSunk()) {
+                viewShips.add(ship);
+                for (int cell : ship.cells) {
+                    viewShipIndexByCell[cell] = i + 1;
+                }
+            } else {
+                viewShips.add(ship.hidden());
+            }
+        }
+        return new BoardSnapshot(this.size, viewCells, viewShipIndexByCell, Collections.unmodifiableList(viewShips),
+                this.version, this.knowledgeHash);
+    }
+
+    /**
+     * Devuelve una copia con una celda en otro estado, por ejemplo para suponer el resultado de un
+     * disparo que aún no se hizo. El hash de Zobrist se actualiza; los barcos no cambian.
+     * @param row Fila.
+     * @param col Columna.
+     * @param state Estado supuesto de la celda.
+     * @return La copia modificada.
+     */
+    public BoardSnapshot withCellState(int row, int col, CellState state) {
+        int cell = row * this.size + col;
+        byte[] copy = this.cells.clone();
+        copy[cell] = (byte) state.ordinal();
+        ZobristKeys keys = ZobristKeys.forSize(this.size);
+        long hash = this.knowledgeHash ^ keys.get(cell, STATES[this.cells[cell]]) ^ keys.get(cell, state);
+        return new BoardSnapshot(this.size, copy, this.shipIndexByCell, this.ships, this.version, hash);
+    }
+
+    /**
+     * Obtiene el estado de una celda.
+     * @param row Fila.
+     * @param col Columna.
+     * @return El estado de la celda en el momento de la instantánea.
+     */
+    public CellState getCellState(int row, int col) {
+        return STATES[this.cells[row * this.size + col]];
+    }
+
+    /**
+     * Devuelve el descriptor del barco que ocupa una celda.
+     * @param row Fila.
+     * @param col Columna.
+     * @return El barco en esa celda, o null si no hay ninguno.
+     */
+    public ShipSnapshot getShipAt(int row, int col) {
+        int index = this.shipIndexByCell[row * this.size + col];
+        return (index == 0) ? null : this.ships.get(index - 1);
+    }
+
+    /**
+     * Devuelve los barcos del tablero. La lista es inmutable y no se copia en cada llamada.
+     * @return Lista inmutable de descriptores de barcos.
+     */
+    public List<ShipSnapshot> getShips() {
+        return this.ships;
+    }
+
+    /**
+     * Verifica si todos los barcos estaban hundidos al tomar la instantánea.
+     * @return true si hay barcos y todos están hundidos.
+     */
+    public boolean areAllShipsSunk() {
+        if (this.ships.isEmpty()) {
+            return false;
+        }
+        for (ShipSnapshot ship : this.ships) {
+            if (!ship.isSunk()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** @return El tamaño del tablero. */
+    public int getSize() {
+        return this.size;
+    }
+
+    /** @return El hash de Zobrist de lo que se sabía del tablero, ver {@link Board#getKnowledgeHash()}. */
+    public long getKnowledgeHash() {
+        return this.knowledgeHash;
+    }
+
+    /** @return La versión del tablero en la que se tomó la instantánea. */
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Descriptor inmutable de un barco dentro de una instantánea.
+     */
+    public static final class ShipSnapshot {
+        /** Barco de origen, solo para detectar si cambió entre instantáneas; nunca se expone. */
+        private final Ship source;
+        private final ShipType shipType;
+        private final String shipClassId;
+        private final Orientation orientation;
+        private final int length;
+        private final int hitCount;
+        /** Celdas ocupadas como índices lineales (fila * tamaño + columna). */
+        private final int[] cells;
+        private final int boardSize;
+
+        private ShipSnapshot(Ship ship, int boardSize) {
+            this.source = ship;
+            this.shipType = ship.getShipType();
+            this.shipClassId = ship.getShipClassId();
+            this.orientation = ship.getOrientation();
+            this.length = ship.getValueShip();
+            this.hitCount = ship.getHitCount();
+            this.boardSize = boardSize;
+            List<Coordinate> coordinates = ship.getOccupiedCoordinates();
+            this.cells = new int[coordinates.size()];
+            for (int i = 0; i < this.cells.length; i++) {
+                Coordinate coord = coordinates.get(i);
+                this.cells[i] = coord.getY() * boardSize + coord.getX();
+            }
+        }
+
+        /**
+         * Copia de un descriptor sin posición, orientación ni daño, para la vista del rival.
+         */
+        private ShipSnapshot(ShipSnapshot ship) {
+            this.source = null;
+            this.shipType = ship.shipType;
+            this.shipClassId = ship.shipClassId;
+            this.orientation = null;
+            this.length = ship.length;
+            this.hitCount = 0;
+            this.boardSize = ship.boardSize;
+            this.cells = new int[0];
+        }
+
+        /**
+         * @return Este barco sin su posición, su orientación ni su daño.
+         */
+        private ShipSnapshot hidden() {
+            return (this.source == null) ? this : new ShipSnapshot(this);
+        }
+
+        /**
+         * Indica si este descriptor sigue representando fielmente al barco dado.
+         * @param ship Barco a comparar.
+         * @return true si es el mismo barco y no cambió su daño, orientación ni posición.
+         */
+        private boolean isSnapshotOf(Ship ship) {
+            if (ship != this.source || ship.getHitCount() != this.hitCount || ship.getOrientation() != this.orientation) {
+                return false;
+            }
+            List<Coordinate> coordinates = ship.getOccupiedCoordinates();
+            if (coordinates.size() != this.cells.length) {
+                return false;
+            }
+            for (int i = 0; i < this.cells.length; i++) {
+                Coordinate coord = coordinates.get(i);
+                if (this.cells[i] != coord.getY() * this.boardSize + coord.getX()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        public ShipType getShipType() { return this.shipType; }
+        /** @return El identificador de la clase del barco en la configuración de flota. */
+        public String getShipClassId() { return this.shipClassId; }
+        /** @return La orientación del barco, o null si es un barco a flote de la vista del rival. */
+        public Orientation getOrientation() { return this.orientation; }
+        public int getLength() { return this.length; }
+        public int getHitCount() { return this.hitCount; }
+        public boolean isSunk() { return this.hitCount >= this.length; }
+        /** @return Cantidad de celdas ocupadas por el barco. */
+        public int getCellCount() { return this.cells.length; }
+        /** @return La fila de la celda i-ésima del barco. */
+        public int getCellRow(int i) { return this.cells[i] / this.boardSize; }
+        /** @return La columna de la celda i-ésima del barco. */
+        public int getCellCol(int i) { return this.cells[i] % this.boardSize; }
+    }
+}
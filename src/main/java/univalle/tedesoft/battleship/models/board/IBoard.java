@@ -37,6 +37,14 @@ public interface IBoard {
      * @throws OverlapException Si ya se habia disparado ahi.
      */
     ShotOutcome receiveShot(Coordinate targetCoordinate) throws OutOfBoundsException, OverlapException;
+    /**
+     * Procesa una salva de disparos en una sola pasada. Si algún disparo es inválido no se aplica ninguno.
+     * @param targets Las casillas a las que se dispara.
+     * @return El resultado de cada disparo y los barcos hundidos.
+     * @throws OutOfBoundsException Si algún disparo es fuera del tablero.
+     * @throws OverlapException Si alguna casilla ya había sido atacada o se repite.
+     */
+    SalvoOutcome receiveShots(List<Coordinate> targets) throws OutOfBoundsException, OverlapException;
     /**
      * Te dice que hay en una casilla especifica.
      * @param row La fila.
@@ -0,0 +1,176 @@
+package univalle.tedesoft.battleship.models.board;
+
+import univalle.tedesoft.battleship.models.enums.CellState;
+import univalle.tedesoft.battleship.models.ships.Ship;
+
+import java.util.Arrays;
+
+/**
+ * Bitácora compacta de movimientos de un tablero.
+ * Cada movimiento se guarda como una secuencia de cambios de celda empaquetados en un int
+ * (índice de celda, estado anterior y estado nuevo), junto con el barco que recibió el impacto.
+ * Permite deshacer y rehacer el último movimiento en tiempo constante y sin crear objetos
+ * por movimiento, lo que la hace útil tanto para la interfaz como para las búsquedas de la IA.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+final class MoveLog {
+    /** Bits reservados para cada estado de celda dentro de un cambio empaquetado. */
+    private static final int STATE_BITS = 3;
+    /** Máscara para extraer un estado de celda. */
+    private static final int STATE_MASK = (1 << STATE_BITS) - 1;
+    /** Estados de celda indexados por ordinal, para evitar llamar a values() en cada reversión. */
+    private static final CellState[] STATES = CellState.values();
+
+    /** Cambios de celda empaquetados: (índice << 6) | (anterior << 3) | nuevo. */
+    private int[] changes = new int[64];
+    /** Barco impactado en cada cambio, o null si el cambio no registró un impacto. */
+    private Ship[] hitShips = new Ship[64];
+    /** Cantidad de cambios válidos en la bitácora (incluye los que se pueden rehacer). */
+    private int changeCount;
+    /** Posición, dentro de changes, donde empieza cada movimiento. */
+    private int[] moveStarts = new int[32];
+    /** Cantidad de movimientos aplicados actualmente. */
+    private int moveCount;
+    /** Cantidad total de movimientos registrados, incluidos los deshechos que se pueden rehacer. */
+    private int moveLimit;
+    /** Indica si hay un movimiento abierto recibiendo cambios. */
+    private boolean recording;
+
+    /**
+     * Abre un nuevo movimiento. Descarta cualquier movimiento deshecho pendiente de rehacer.
+     */
+    void beginMove() {
+        // El inicio del movimiento siempre está en moveStarts[moveCount] (lo deja listo endMove).
+        this.changeCount = this.moveStarts[this.moveCount];
+        this.recording = true;
+    }
+
+    /**
+     * Registra un cambio de celda dentro del movimiento abierto.
+     * @param cellIndex Índice lineal de la celda (fila * tamaño + columna).
+     * @param previous Estado anterior de la celda.
+     * @param next Estado nuevo de la celda.
+     * @param hitShip Barco al que se le registró un impacto con este cambio, o null.
+     */
+    void record(int cellIndex, CellState previous, CellState next, Ship hitShip) {
+        if (!this.recording) {
+            return;
+        }
+        if (this.changeCount == this.changes.length) {
+            this.changes = Arrays.copyOf(this.changes, this.changes.length * 2);
+            this.hitShips = Arrays.copyOf(this.hitShips, this.hitShips.length * 2);
+        }
+        this.changes[this.changeCount] = (cellIndex << (2 * STATE_BITS)) | (previous.ordinal() << STATE_BITS) | next.ordinal();
+        this.hitShips[this.changeCount] = hitShip;
+        this.changeCount++;
+    }
+
+    /**
+     * Cierra el movimiento abierto.
+     */
+    void endMove() {
+        if (!this.recording) {
+            return;
+        }
+        this.recording = false;
+        this.moveCount++;
+        this.moveLimit = this.moveCount;
+        // Guardar el final del movimiento como inicio del siguiente, para poder rehacerlo luego.
+        if (this.moveCount == this.moveStarts.length) {
+            this.moveStarts = Arrays.copyOf(this.moveStarts, this.moveStarts.length * 2);
+        }
+        this.moveStarts[this.moveCount] = this.changeCount;
+    }
+
+    /**
+     * Revierte el último movimiento aplicado sobre el tablero indicado.
+     * @param board Tablero dueño de la bitácora.
+     * @return true si había un movimiento para deshacer.
+     */
+    boolean undo(Board board) {
+        if (this.moveCount == 0) {
+            return false;
+        }
+        int start = this.moveStarts[this.moveCount - 1];
+        int end = this.moveStarts[this.moveCount];
+        for (int i = end - 1; i >= start; i--) {
+            int packed = this.changes[i];
+            int cell = packed >>> (2 * STATE_BITS);
+            board.restoreCell(cell, STATES[(packed >>> STATE_BITS) & STATE_MASK]);
+            if (this.hitShips[i] != null) {
+                this.hitShips[i].unregisterHit();
+            }
+        }
+        this.moveCount--;
+        return true;
+    }
+
+    /**
+     * Vuelve a aplicar el último movimiento deshecho sobre el tablero indicado.
+     * @param board Tablero dueño de la bitácora.
+     * @return true si había un movimiento para rehacer.
+     */
+    boolean redo(Board board) {
+        if (this.moveCount == this.moveLimit) {
+            return false;
+        }
+        int start = this.moveStarts[this.moveCount];
+        int end = this.moveStarts[this.moveCount + 1];
+        for (int i = start; i < end; i++) {
+            int packed = this.changes[i];
+            int cell = packed >>> (2 * STATE_BITS);
+            board.restoreCell(cell, STATES[packed & STATE_MASK]);
+            if (this.hitShips[i] != null) {
+                this.hitShips[i].registerHit();
+            }
+        }
+        this.moveCount++;
+        return true;
+    }
+
+    /**
+     * Devuelve el barco impactado por el último movimiento aplicado, si lo hubo.
+     * @return El barco impactado, o null.
+     */
+    Ship lastHitShip() {
+        if (this.moveCount == 0) {
+            return null;
+        }
+        int start = this.moveStarts[this.moveCount - 1];
+        int end = this.moveStarts[this.moveCount];
+        for (int i = start; i < end; i++) {
+            if (this.hitShips[i] != null) {
+                return this.hitShips[i];
+            }
+        }
+        return null;
+    }
+
+    /** @return true si hay movimientos para deshacer. */
+    boolean canUndo() {
+        return this.moveCount > 0;
+    }
+
+    /** @return true si hay movimientos deshechos para rehacer. */
+    boolean canRedo() {
+        return this.moveCount < this.moveLimit;
+    }
+
+    /** @return la cantidad de movimientos aplicados. */
+    int size() {
+        return this.moveCount;
+    }
+
+    /**
+     * Vacía la bitácora por completo.
+     */
+    void clear() {
+        Arrays.fill(this.hitShips, 0, this.changeCount, null);
+        this.changeCount = 0;
+        this.moveCount = 0;
+        this.moveLimit = 0;
+        this.recording = false;
+    }
+}
@@ -0,0 +1,84 @@
+package univalle.tedesoft.battleship.models.board;
+
+import univalle.tedesoft.battleship.models.enums.ShotResult;
+import univalle.tedesoft.battleship.models.ships.Ship;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Representa el resultado de una salva completa (varios disparos en un mismo turno).
+ * Guarda las celdas y los resultados en arreglos primitivos, de modo que una salva
+ * de muchos disparos genera un solo objeto en lugar de un ShotOutcome por disparo.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class SalvoOutcome {
+    /** Resultados de disparo indexados por ordinal. */
+    private static final ShotResult[] RESULTS = ShotResult.values();
+
+    /** Tamaño del tablero sobre el que se disparó, para decodificar las celdas. */
+    private final int boardSize;
+    /** Celda de cada disparo como índice lineal (fila * tamaño + columna). */
+    private final int[] cells;
+    /** Ordinal de ShotResult de cada disparo. */
+    private final byte[] results;
+    /** Barcos hundidos por la salva, en el orden en que se hundieron. */
+    private final List<Ship> sunkenShips;
+
+    public SalvoOutcome(int boardSize, int[] cells, byte[] results, List<Ship> sunkenShips) {
+        this.boardSize = boardSize;
+        this.cells = cells;
+        this.results = results;
+        this.sunkenShips = Collections.unmodifiableList(sunkenShips);
+    }
+
+    /** @return La cantidad de disparos de la salva. */
+    public int size() {
+        return this.cells.length;
+    }
+
+    /**
+     * Obtiene la coordenada del disparo i-ésimo. Crea el objeto bajo demanda.
+     * @param i Índice del disparo.
+     * @return La coordenada del disparo.
+     */
+    public Coordinate getCoordinate(int i) {
+        return new Coordinate(this.getCol(i), this.getRow(i));
+    }
+
+    /** @return La fila del disparo i-ésimo. */
+    public int getRow(int i) {
+        return this.cells[i] / this.boardSize;
+    }
+
+    /** @return La columna del disparo i-ésimo. */
+    public int getCol(int i) {
+        return this.cells[i] % this.boardSize;
+    }
+
+    /** @return El resultado del disparo i-ésimo. */
+    public ShotResult getResult(int i) {
+        return RESULTS[this.results[i]];
+    }
+
+    /**
+     * Cuenta los disparos de la salva que impactaron un barco (tocado o hundido).
+     * @return La cantidad de aciertos.
+     */
+    public int getHitCount() {
+        int hits = 0;
+        for (byte result : this.results) {
+            if (result == ShotResult.TOUCHED.ordinal() || result == ShotResult.SUNKEN.ordinal()) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    /** @return Los barcos hundidos por la salva. */
+    public List<Ship> getSunkenShips() {
+        return this.sunkenShips;
+    }
+}
@@ -0,0 +1,95 @@
+package univalle.tedesoft.battleship.models.board;
+
+import univalle.tedesoft.battleship.models.enums.CellState;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Claves de Zobrist para resumir en un long lo que se sabe de un tablero: que celdas fueron
+ * agua, impacto o parte de un barco hundido. Las celdas sin disparar (EMPTY o SHIP) no aportan
+ * nada, de modo que el hash no depende de dónde están los barcos que aún no se descubren.
+ * <p>
+ * El hash de un tablero es el XOR de la clave inicial de su tamaño con la clave de cada celda
+ * disparada, por lo que se actualiza en tiempo constante con cada cambio de celda: se quita la
+ * clave del estado anterior y se agrega la del nuevo. Las claves son deterministas (no dependen
+ * de la ejecución), así que el mismo estado da el mismo hash en cualquier hilo, partida o
+ * simulación, y se pueden compartir en una tabla de transposición.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public final class ZobristKeys {
+    /** Semilla fija de las claves. */
+    private static final long SEED = 0x2545F4914F6CDD1DL;
+    /** Claves ya generadas, por tamaño de tablero. */
+    private static final ConcurrentHashMap<Integer, ZobristKeys> BY_SIZE = new ConcurrentHashMap<>();
+
+    private final int size;
+    private final long emptyHash;
+    /** Tres claves por celda: agua, impacto y hundido. */
+    private final long[] keys;
+
+    private ZobristKeys(int size) {
+        this.size = size;
+        this.emptyHash = mix(SEED ^ ((long) size << 32));
+        this.keys = new long[size * size * 3];
+        for (int i = 0; i < this.keys.length; i++) {
+            this.keys[i] = mix(this.emptyHash + (i + 1) * 0x9E3779B97F4A7C15L);
+        }
+    }
+
+    /**
+     * Devuelve las claves de un tamaño de tablero; se generan una sola vez y se comparten.
+     * @param size Tamaño del tablero.
+     * @return Las claves.
+     */
+    public static ZobristKeys forSize(int size) {
+        return BY_SIZE.computeIfAbsent(size, ZobristKeys::new);
+    }
+
+    /**
+     * @return El hash de un tablero sin disparos.
+     */
+    public long getEmptyHash() {
+        return this.emptyHash;
+    }
+
+    /**
+     * Clave de una celda en un estado. Los estados sin disparo tienen clave 0.
+     * @param cell Celda lineal (fila * tamaño + columna).
+     * @param state Estado de la celda.
+     * @return La clave para combinar con XOR.
+     */
+    public long get(int cell, CellState state) {
+        switch (state) {
+            case SHOT_LOST_IN_WATER: return this.keys[cell * 3];
+            case HIT_SHIP: return this.keys[cell * 3 + 1];
+            case SUNK_SHIP_PART: return this.keys[cell * 3 + 2];
+            default: return 0L;
+        }
+    }
+
+    /**
+     * Calcula desde cero el hash de una instantánea. Los tableros lo mantienen de forma
+     * incremental; este método sirve para estados armados fuera de un Board.
+     * @param snapshot La instantánea.
+     * @return El hash de lo que se sabe del tablero.
+     */
+    public long hash(BoardSnapshot snapshot) {
+        long hash = this.emptyHash;
+        for (int cell = 0; cell < this.size * this.size; cell++) {
+            hash ^= this.get(cell, snapshot.getCellState(cell / this.size, cell % this.size));
+        }
+        return hash;
+    }
+
+    /**
+     * Función de mezcla de SplitMix64.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
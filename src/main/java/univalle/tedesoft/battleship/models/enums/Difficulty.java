@@ -0,0 +1,57 @@
+package univalle.tedesoft.battleship.models.enums;
+
+/**
+ * Enum que representa la dificultad de la máquina: cada nivel usa una estrategia de disparo y
+ * un tiempo máximo para decidir cada jugada.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public enum Difficulty {
+    /** Dispara al azar a casillas no atacadas*/
+    EASY("Fácil", 10),
+    /** Dispara a la casilla más probable según cada barco por separado*/
+    NORMAL("Normal", 50),
+    /** Dispara a la casilla más probable según todas las disposiciones de la flota*/
+    HARD("Difícil", 250),
+    /** Como el difícil, con libro de aperturas y finales resueltos de forma óptima*/
+    EXPERT("Experto", 400);
+
+    /**
+     * Dificultad inicial de la pantalla de bienvenida y de los guardados que no la indican: la
+     * estrategia de densidad, rápida y sin archivos precalculados. Las demás se eligen en la
+     * pantalla de bienvenida.
+     */
+    public static final Difficulty DEFAULT = NORMAL;
+
+    /**Nombre que se muestra al jugador*/
+    private final String displayName;
+    /**Tiempo máximo de la máquina para elegir cada jugada, en milisegundos*/
+    private final long timeBudgetMillis;
+
+    Difficulty(String displayName, long timeBudgetMillis) {
+        this.displayName = displayName;
+        this.timeBudgetMillis = timeBudgetMillis;
+    }
+
+    /**
+     * Obtiene el nombre de la dificultad para mostrar.
+     * @return El nombre en español.
+     */
+    public String getDisplayName() {
+        return this.displayName;
+    }
+
+    /**
+     * Obtiene el tiempo máximo de la máquina para elegir cada jugada.
+     * @return El tiempo en milisegundos.
+     */
+    public long getTimeBudgetMillis() {
+        return this.timeBudgetMillis;
+    }
+
+    @Override
+    public String toString() {
+        return this.displayName;
+    }
+}
@@ -0,0 +1,14 @@
+package univalle.tedesoft.battleship.models.enums;
+
+/**
+ * Enum que representa la variante de reglas de la partida.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public enum GameMode {
+    /** Un disparo por turno; acertar permite volver a disparar*/
+    CLASSIC,
+    /** Una salva por turno, con un disparo por cada barco propio a flote*/
+    SALVO
+}
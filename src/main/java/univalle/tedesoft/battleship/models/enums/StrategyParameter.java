@@ -0,0 +1,69 @@
+package univalle.tedesoft.battleship.models.enums;
+
+/**
+ * Enum que representa los parámetros ajustables de las estrategias de la máquina, con su clave en
+ * el archivo de parámetros, su valor por defecto y el rango que puede explorar el ajuste automático.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public enum StrategyParameter {
+    /** Bits que se suman al peso de una ubicación del mapa de probabilidad por cada impacto que cubre*/
+    HIT_WEIGHT_SHIFT("density.hitWeightShift", 5, 1, 12, true, Difficulty.NORMAL),
+    /** Aumento de la probabilidad de las celdas de la retícula del barco más corto a flote, al buscar*/
+    PARITY_BIAS("density.parityBias", 0.0, 0.0, 1.0, false, Difficulty.NORMAL),
+    /** Intentos de muestreo del motor de probabilidad conjunta cuando no puede contar exacto*/
+    SAMPLE_ATTEMPTS("joint.sampleAttempts", 1 << 18, 1 << 12, 1 << 20, true, Difficulty.HARD),
+    /** Disposiciones máximas que acepta resolver el solucionador de finales*/
+    ENDGAME_LAYOUT_LIMIT("endgame.layoutLimit", 256, 16, 4096, true, Difficulty.EXPERT),
+    /** Fracción del tiempo de la jugada que se le da al solucionador de finales*/
+    ENDGAME_TIME_FRACTION("expert.endgameTimeFraction", 0.5, 0.1, 0.9, false, Difficulty.EXPERT);
+
+    /**Clave en el archivo de parámetros*/
+    private final String key;
+    /**Valor por defecto*/
+    private final double defaultValue;
+    /**Menor valor permitido*/
+    private final double minimum;
+    /**Mayor valor permitido*/
+    private final double maximum;
+    /**true si el valor se redondea a entero*/
+    private final boolean integer;
+    /**Menor dificultad cuya estrategia usa el parámetro*/
+    private final Difficulty minimumDifficulty;
+
+    StrategyParameter(String key, double defaultValue, double minimum, double maximum, boolean integer,
+                      Difficulty minimumDifficulty) {
+        this.key = key;
+        this.defaultValue = defaultValue;
+        this.minimum = minimum;
+        this.maximum = maximum;
+        this.integer = integer;
+        this.minimumDifficulty = minimumDifficulty;
+    }
+
+    /**
+     * Ajusta un valor al rango del parámetro, redondeándolo si es entero.
+     * @param value El valor.
+     * @return El valor permitido más cercano.
+     */
+    public double clamp(double value) {
+        double clamped = Math.max(this.minimum, Math.min(this.maximum, value));
+        return this.integer ? Math.rint(clamped) : clamped;
+    }
+
+    /**
+     * Indica si la estrategia de una dificultad usa el parámetro.
+     * @param difficulty La dificultad.
+     * @return true si lo usa.
+     */
+    public boolean appliesTo(Difficulty difficulty) {
+        return difficulty.ordinal() >= this.minimumDifficulty.ordinal();
+    }
+
+    public String getKey() { return this.key; }
+    public double getDefaultValue() { return this.defaultValue; }
+    public double getMinimum() { return this.minimum; }
+    public double getMaximum() { return this.maximum; }
+    public boolean isInteger() { return this.integer; }
+}
@@ -1,4 +1,7 @@
 package univalle.tedesoft.battleship.models.players;
+
+import univalle.tedesoft.battleship.models.ai.MachineStrategy;
+
 /**
  * Clase que representa al jugador maquina.
  * @author David Esteban Valencia
@@ -6,8 +9,20 @@ package univalle.tedesoft.battleship.models.players;
  * @author Juan Pablo Escamilla
  */
 public class MachinePlayer extends Player {
+    /**Estrategia con la que la máquina dispara y coloca su flota*/
+    private MachineStrategy strategy;
+
     /**Constructor de la clase*/
-    public MachinePlayer() {
+    public MachinePlayer(MachineStrategy strategy) {
         super("Machine Player");
+        this.strategy = strategy;
+    }
+    /**Método para obtener la estrategia de la máquina*/
+    public MachineStrategy getStrategy() {
+        return strategy;
+    }
+    /**Método para cambiar la estrategia de la máquina*/
+    public void setStrategy(MachineStrategy strategy) {
+        this.strategy = strategy;
     }
 }
@@ -0,0 +1,294 @@
+package univalle.tedesoft.battleship.models.ships;
+
+import univalle.tedesoft.battleship.models.enums.Orientation;
+import univalle.tedesoft.battleship.models.enums.ShipType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Configuración de flota cargada desde un archivo: tamaño del tablero y clases de barcos
+ * (longitud, cantidad y orientaciones permitidas). Reemplaza las flotas fijas en el código,
+ * de modo que tableros grandes puedan usar flotas grandes.
+ * <p>
+ * Formato del archivo (una entrada por línea, las líneas con # son comentarios):
+ * <pre>
+ * BOARD_SIZE:10
+ * SHIP:AIR_CRAFT_CARRIER:Portaaviones:4:1:HORIZONTAL,VERTICAL
+ * </pre>
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public final class FleetConfiguration {
+    /** Recurso con la flota estándar. */
+    private static final String STANDARD_FLEET_RESOURCE = "/univalle/tedesoft/battleship/fleets/standard.fleet";
+    /** Propiedad del sistema que permite elegir otro archivo de flota. */
+    public static final String FLEET_FILE_PROPERTY = "battleship.fleet";
+    /** Flota estándar, cargada una sola vez. */
+    private static volatile FleetConfiguration standardFleet;
+
+    /** Tamaño del tablero (filas = columnas). */
+    private final int boardSize;
+    /** Clases de barcos en el orden del archivo. */
+    private final List<ShipClass> shipClasses;
+    /** Clases indexadas por identificador. */
+    private final Map<String, ShipClass> classesById;
+    /** Cantidad total de barcos de la flota. */
+    private final int totalShips;
+    /** Cantidad total de casillas ocupadas por la flota. */
+    private final int totalShipCells;
+
+    /**
+     * Constructor de la configuración.
+     * @param boardSize Tamaño del tablero.
+     * @param shipClasses Clases de barcos de la flota.
+     */
+    public FleetConfiguration(int boardSize, List<ShipClass> shipClasses) {
+        if (boardSize < 1) {
+            throw new IllegalArgumentException("El tamaño del tablero debe ser positivo: " + boardSize);
+        }
+        this.boardSize = boardSize;
+        this.shipClasses = Collections.unmodifiableList(new ArrayList<>(shipClasses));
+        this.classesById = new HashMap<>();
+        int ships = 0;
+        long cells = 0;
+        for (ShipClass shipClass : this.shipClasses) {
+            if (shipClass.getLength() > boardSize) {
+                throw new IllegalArgumentException("El barco " + shipClass.getId() + " no cabe en un tablero de " + boardSize);
+            }
+            if (this.classesById.put(shipClass.getId(), shipClass) != null) {
+                throw new IllegalArgumentException("Clase de barco repetida: " + shipClass.getId());
+            }
+            ships += shipClass.getCount();
+            cells += (long) shipClass.getCount() * shipClass.getLength();
+        }
+        if (cells > (long) boardSize * boardSize) {
+            throw new IllegalArgumentException("La flota ocupa " + cells + " casillas y el tablero solo tiene " + (boardSize * boardSize));
+        }
+        this.totalShips = ships;
+        this.totalShipCells = (int) cells;
+    }
+
+    /**
+     * Devuelve la flota estándar (1 portaaviones, 2 submarinos, 3 destructores y 4 fragatas en 10x10).
+     * @return La configuración estándar.
+     */
+    public static FleetConfiguration standard() {
+        FleetConfiguration fleet = standardFleet;
+        if (fleet == null) {
+            fleet = loadStandard();
+            standardFleet = fleet;
+        }
+        return fleet;
+    }
+
+    /**
+     * Devuelve la flota por defecto del juego: la del archivo indicado en la propiedad
+     * del sistema battleship.fleet, o la estándar si no se indicó o no se pudo leer.
+     * @return La configuración por defecto.
+     */
+    public static FleetConfiguration getDefault() {
+        String fleetFile = System.getProperty(FLEET_FILE_PROPERTY);
+        if (fleetFile != null && !fleetFile.trim().isEmpty()) {
+            try {
+                return load(Paths.get(fleetFile.trim()));
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println("No se pudo cargar la flota " + fleetFile + ", se usará la estándar: " + e.getMessage());
+            }
+        }
+        return standard();
+    }
+
+    /**
+     * Carga una configuración de flota desde un archivo.
+     * @param path Ruta del archivo.
+     * @return La configuración cargada.
+     * @throws IOException si no se puede leer el archivo.
+     * @throws IllegalArgumentException si el archivo tiene un formato inválido.
+     */
+    public static FleetConfiguration load(Path path) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return parse(reader);
+        }
+    }
+
+    /**
+     * Lee la flota estándar desde los recursos; si falla, la construye en memoria.
+     */
+    private static FleetConfiguration loadStandard() {
+        try (InputStream in = FleetConfiguration.class.getResourceAsStream(STANDARD_FLEET_RESOURCE)) {
+            if (in != null) {
+                return parse(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+            }
+            System.err.println("No se encontró el recurso de flota estándar: " + STANDARD_FLEET_RESOURCE);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error al leer la flota estándar: " + e.getMessage());
+        }
+        Set<Orientation> both = EnumSet.allOf(Orientation.class);
+        List<ShipClass> classes = new ArrayList<>();
+        classes.add(new ShipClass("AIR_CRAFT_CARRIER", "Portaaviones", 4, 1, both, ShipType.AIR_CRAFT_CARRIER));
+        classes.add(new ShipClass("SUBMARINE", "Submarino", 3, 2, both, ShipType.SUBMARINE));
+        classes.add(new ShipClass("DESTROYER", "Destructor", 2, 3, both, ShipType.DESTROYER));
+        classes.add(new ShipClass("FRIGATE", "Fragata", 1, 4, EnumSet.of(Orientation.HORIZONTAL), ShipType.FRIGATE));
+        return new FleetConfiguration(10, classes);
+    }
+
+    /**
+     * Interpreta el contenido de un archivo de flota.
+     */
+    private static FleetConfiguration parse(BufferedReader reader) throws IOException {
+        int boardSize = 10;
+        List<ShipClass> classes = new ArrayList<>();
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            try {
+                if (line.startsWith("BOARD_SIZE:")) {
+                    boardSize = Integer.parseInt(line.substring("BOARD_SIZE:".length()).trim());
+                } else if (line.startsWith("SHIP:")) {
+                    classes.add(parseShipClass(line.substring("SHIP:".length())));
+                } else {
+                    throw new IllegalArgumentException("entrada desconocida");
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Línea " + lineNumber + " inválida (" + line + "): " + e.getMessage(), e);
+            }
+        }
+        if (classes.isEmpty()) {
+            throw new IllegalArgumentException("El archivo de flota no define barcos.");
+        }
+        return new FleetConfiguration(boardSize, classes);
+    }
+
+    /**
+     * Interpreta una entrada de barco con formato id:nombre:longitud:cantidad:orientaciones.
+     */
+    private static ShipClass parseShipClass(String data) {
+        String[] parts = data.split(":");
+        if (parts.length != 5) {
+            throw new IllegalArgumentException("se esperaban 5 campos y hay " + parts.length);
+        }
+        String id = parts[0].trim();
+        int length = Integer.parseInt(parts[2].trim());
+        int count = Integer.parseInt(parts[3].trim());
+        Set<Orientation> orientations = EnumSet.noneOf(Orientation.class);
+        for (String orientation : parts[4].split(",")) {
+            orientations.add(Orientation.valueOf(orientation.trim()));
+        }
+        return new ShipClass(id, parts[1].trim(), length, count, orientations, ShipClass.resolveVisualType(id, length));
+    }
+
+    /**
+     * Crea todos los barcos de la flota, ordenados de mayor a menor longitud
+     * (el orden que hace más fácil colocarlos al azar en tableros llenos).
+     * @return Una lista nueva con los barcos de la flota.
+     */
+    public List<Ship> createFleet() {
+        List<Ship> fleet = new ArrayList<>(this.totalShips);
+        for (ShipClass shipClass : this.getClassesByLengthDescending()) {
+            for (int i = 0; i < shipClass.getCount(); i++) {
+                fleet.add(ShipFactory.createShip(shipClass));
+            }
+        }
+        return fleet;
+    }
+
+    /**
+     * Devuelve el identificador de clase de cada unidad de la flota (con repeticiones),
+     * en el formato que usa la interfaz para la colocación manual. Se usa el identificador
+     * y no el tipo visual porque varias clases pueden compartir el mismo tipo.
+     * @return Los identificadores de clase de la flota completa.
+     */
+    public List<String> getShipClassIds() {
+        List<String> ids = new ArrayList<>(this.totalShips);
+        for (ShipClass shipClass : this.shipClasses) {
+            for (int i = 0; i < shipClass.getCount(); i++) {
+                ids.add(shipClass.getId());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Devuelve la longitud de cada unidad de la flota, de mayor a menor.
+     * Útil para simuladores que guardan la flota en arreglos primitivos.
+     * @return Las longitudes de todos los barcos.
+     */
+    public int[] getShipLengths() {
+        int[] lengths = new int[this.totalShips];
+        int index = 0;
+        for (ShipClass shipClass : this.getClassesByLengthDescending()) {
+            for (int i = 0; i < shipClass.getCount(); i++) {
+                lengths[index++] = shipClass.getLength();
+            }
+        }
+        return lengths;
+    }
+
+    /**
+     * Busca la clase de un barco existente.
+     * @param ship El barco.
+     * @return Su clase en esta flota, o null si no pertenece a ella.
+     */
+    public ShipClass getShipClass(Ship ship) {
+        return this.classesById.get(ship.getShipClassId());
+    }
+
+    /**
+     * Busca una clase por su identificador.
+     * @param id El identificador de la clase.
+     * @return La clase, o null si no existe.
+     */
+    public ShipClass getShipClass(String id) {
+        return this.classesById.get(id);
+    }
+
+    /**
+     * Indica si todos los barcos de más de una casilla admiten ambas orientaciones. Solo entonces
+     * las rotaciones del tablero que intercambian filas por columnas dan estados equivalentes.
+     * @return true si la flota se puede girar.
+     */
+    public boolean allowsBothOrientations() {
+        for (ShipClass shipClass : this.shipClasses) {
+            if (shipClass.getLength() > 1
+                    && !(shipClass.allows(Orientation.HORIZONTAL) && shipClass.allows(Orientation.VERTICAL))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Devuelve las clases de la flota ordenadas de mayor a menor longitud.
+     * @return Una lista nueva con las clases ordenadas.
+     */
+    public List<ShipClass> getClassesByLengthDescending() {
+        List<ShipClass> sorted = new ArrayList<>(this.shipClasses);
+        sorted.sort((a, b) -> Integer.compare(b.getLength(), a.getLength()));
+        return sorted;
+    }
+
+    public int getBoardSize() { return this.boardSize; }
+    public List<ShipClass> getShipClasses() { return this.shipClasses; }
+    public int getTotalShips() { return this.totalShips; }
+    public int getTotalShipCells() { return this.totalShipCells; }
+}
@@ -0,0 +1,35 @@
+package univalle.tedesoft.battleship.models.ships;
+
+import univalle.tedesoft.battleship.models.enums.ShipType;
+
+/**
+ * Clase que representa una embarcación definida por una configuración de flota,
+ * con una longitud arbitraria. Se dibuja con la forma del ShipType indicado.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class GenericShip extends Ship {
+    /**Identificador de la clase de barco en la configuración de flota*/
+    private final String shipClassId;
+
+    /**
+     * Constructor de la clase.
+     * @param shipClassId identificador de la clase de barco.
+     * @param visualType tipo de barco con el que se dibuja.
+     * @param length cantidad de casillas que ocupa.
+     */
+    public GenericShip(String shipClassId, ShipType visualType, int length) {
+        super(visualType, length);
+        this.shipClassId = shipClassId;
+    }
+
+    /**
+     * Método que retorna el identificador de la clase de barco.
+     * @return identificador de la clase de barco.
+     */
+    @Override
+    public String getShipClassId() {
+        return this.shipClassId;
+    }
+}
@@ -49,6 +49,15 @@ public abstract class Ship {
         return shipType;
     }
 
+    /**
+     * Método que retorna el identificador de la clase de barco dentro de la configuración de flota.
+     * Para los barcos estándar coincide con el nombre de su ShipType.
+     * @return identificador de la clase de barco.
+     */
+    public String getShipClassId() {
+        return shipType.name();
+    }
+
     /**
      * Metodo que retorna la orientacion del barco.
      * @return orientacion de la embarcacion.
@@ -122,4 +131,14 @@ public abstract class Ship {
             this.sunkTheShip();
         }
     }
+
+    /**
+     * Revierte un impacto registrado previamente. Se usa al deshacer un disparo.
+     */
+    public void unregisterHit() {
+        if (this.hitCount > 0) {
+            this.hitCount--;
+        }
+        this.sunk = this.isSunk();
+    }
 }
@@ -0,0 +1,114 @@
+package univalle.tedesoft.battleship.models.ships;
+
+import univalle.tedesoft.battleship.models.enums.Orientation;
+import univalle.tedesoft.battleship.models.enums.ShipType;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Descriptor inmutable de una clase de barco dentro de una configuración de flota:
+ * identificador, nombre, longitud, cantidad de unidades y orientaciones permitidas.
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public final class ShipClass {
+    /**Identificador único de la clase dentro de la flota*/
+    private final String id;
+    /**Nombre para mostrar*/
+    private final String displayName;
+    /**Cantidad de casillas que ocupa cada barco*/
+    private final int length;
+    /**Cantidad de barcos de esta clase en la flota*/
+    private final int count;
+    /**Orientaciones en las que se puede colocar*/
+    private final Set<Orientation> allowedOrientations;
+    /**Tipo de barco estándar con el que se dibuja y se identifica en la interfaz*/
+    private final ShipType visualType;
+    /**Indica si la clase coincide con uno de los barcos estándar*/
+    private final boolean standard;
+
+    /**
+     * Constructor de la clase.
+     * @param id identificador de la clase.
+     * @param displayName nombre para mostrar.
+     * @param length longitud de cada barco.
+     * @param count cantidad de barcos.
+     * @param allowedOrientations orientaciones permitidas (al menos una).
+     * @param visualType tipo de barco estándar asociado.
+     */
+    public ShipClass(String id, String displayName, int length, int count,
+                     Set<Orientation> allowedOrientations, ShipType visualType) {
+        if (length < 1) {
+            throw new IllegalArgumentException("La longitud del barco " + id + " debe ser positiva.");
+        }
+        if (count < 0) {
+            throw new IllegalArgumentException("La cantidad de barcos " + id + " no puede ser negativa.");
+        }
+        if (allowedOrientations == null || allowedOrientations.isEmpty()) {
+            throw new IllegalArgumentException("El barco " + id + " debe permitir al menos una orientación.");
+        }
+        this.id = id;
+        this.displayName = displayName;
+        this.length = length;
+        this.count = count;
+        this.allowedOrientations = Collections.unmodifiableSet(EnumSet.copyOf(allowedOrientations));
+        this.visualType = visualType;
+        this.standard = id.equals(visualType.name()) && ShipFactory.createShip(visualType).getValueShip() == length;
+    }
+
+    /**
+     * Elige el tipo estándar con el que se dibuja una clase: el tipo con el mismo nombre si existe,
+     * o el tipo estándar más parecido por longitud.
+     * @param id identificador de la clase.
+     * @param length longitud de la clase.
+     * @return el tipo de barco estándar asociado.
+     */
+    static ShipType resolveVisualType(String id, int length) {
+        for (ShipType type : ShipType.values()) {
+            if (type.name().equals(id)) {
+                return type;
+            }
+        }
+        if (length >= 4) {
+            return ShipType.AIR_CRAFT_CARRIER;
+        } else if (length == 3) {
+            return ShipType.SUBMARINE;
+        } else if (length == 2) {
+            return ShipType.DESTROYER;
+        }
+        return ShipType.FRIGATE;
+    }
+
+    /**
+     * Indica si la clase corresponde exactamente a uno de los barcos estándar del juego.
+     * @return true si el identificador es un ShipType y la longitud coincide con la de ese tipo.
+     */
+    public boolean isStandard() {
+        return this.standard;
+    }
+
+    /**
+     * Indica si la clase permite una orientación.
+     * @param orientation la orientación a verificar.
+     * @return true si está permitida.
+     */
+    public boolean allows(Orientation orientation) {
+        return this.allowedOrientations.contains(orientation);
+    }
+
+    public String getId() { return this.id; }
+    public String getDisplayName() { return this.displayName; }
+    public int getLength() { return this.length; }
+    public int getCount() { return this.count; }
+    public Set<Orientation> getAllowedOrientations() { return this.allowedOrientations; }
+    public ShipType getVisualType() { return this.visualType; }
+
+    @Override
+    public String toString() {
+        return String.format("ShipClass{id='%s', length=%d, count=%d, orientations=%s}",
+                this.id, this.length, this.count, this.allowedOrientations);
+    }
+}
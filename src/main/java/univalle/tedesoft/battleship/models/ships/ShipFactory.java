@@ -31,4 +31,17 @@ public class ShipFactory {
                 throw new IllegalArgumentException("Tipo de barco desconocido: " + type);
         }
     }
+
+    /**
+     * Crea un barco a partir de una clase de la configuración de flota.
+     * Las clases estándar producen las subclases conocidas; las demás producen un GenericShip.
+     * @param shipClass La clase de barco a crear.
+     * @return Una nueva instancia del barco solicitado.
+     */
+    public static Ship createShip(ShipClass shipClass) {
+        if (shipClass.isStandard()) {
+            return createShip(shipClass.getVisualType());
+        }
+        return new GenericShip(shipClass.getId(), shipClass.getVisualType(), shipClass.getLength());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,154 @@
+package univalle.tedesoft.battleship.models.state;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Almacén de partidas en directorios: un subdirectorio por jugador con un archivo de texto
+ * por cada parte de la partida. Es el formato original del juego; los guardados se confirman
+ * con {@link SaveTransaction} y cada jugador conserva su historial de versiones.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class FileSaveStore implements SaveStore {
+    /** Archivos de una partida guardada antes de que existiera el manifiesto. */
+    static final String[] LEGACY_GAME_FILES = {
+            "game_info.txt",
+            "human_board_board_state.txt",
+            "machine_board_board_state.txt",
+            "machine_territory_board_state.txt",
+            "human_ships_ships_state.txt",
+            "machine_ships_ships_state.txt"
+    };
+
+    private final Path saveDirectory;
+
+    /**
+     * Crea un almacén sobre un directorio raíz de partidas.
+     * @param saveDirectory Directorio raíz; se crea al guardar la primera partida.
+     */
+    public FileSaveStore(Path saveDirectory) {
+        this.saveDirectory = saveDirectory;
+    }
+
+    @Override
+    public void writeGame(String nickname, Map<String, byte[]> files) throws IOException {
+        this.prepareTransaction(nickname, files).commit();
+    }
+
+    /**
+     * Confirma todas las partidas como un solo grupo de {@link SaveTransaction}.
+     */
+    @Override
+    public void writeGames(Map<String, Map<String, byte[]>> games) throws IOException {
+        List<SaveTransaction> transactions = new ArrayList<>(games.size());
+        for (Map.Entry<String, Map<String, byte[]>> game : games.entrySet()) {
+            transactions.add(this.prepareTransaction(game.getKey(), game.getValue()));
+        }
+        SaveTransaction.commitAll(transactions);
+    }
+
+    @Override
+    public Map<String, byte[]> readGame(String nickname) throws IOException {
+        Path playerSaveDir = this.saveDirectory.resolve(nickname);
+        if (!Files.isDirectory(playerSaveDir)) {
+            return null;
+        }
+        Map<String, byte[]> files = SaveTransaction.readVerified(playerSaveDir);
+        if (files != null) {
+            return files;
+        }
+        // Guardado sin manifiesto: se leen los archivos conocidos que existan.
+        files = new LinkedHashMap<>();
+        for (String fileName : LEGACY_GAME_FILES) {
+            Path filePath = playerSaveDir.resolve(fileName);
+            if (Files.exists(filePath)) {
+                files.put(fileName, Files.readAllBytes(filePath));
+            }
+        }
+        return files.isEmpty() ? null : files;
+    }
+
+    @Override
+    public boolean hasGame(String nickname) {
+        return Files.exists(this.saveDirectory.resolve(nickname).resolve(LEGACY_GAME_FILES[0]));
+    }
+
+    @Override
+    public boolean deleteGame(String nickname) throws IOException {
+        Path playerSaveDir = this.saveDirectory.resolve(nickname);
+        if (!Files.isDirectory(playerSaveDir)) {
+            return false;
+        }
+        // Se borra primero lo más profundo (historial) y al final el propio directorio.
+        try (Stream<Path> paths = Files.walk(playerSaveDir)) {
+            List<Path> toDelete = new ArrayList<>();
+            paths.forEach(toDelete::add);
+            for (int i = toDelete.size() - 1; i >= 0; i--) {
+                Files.deleteIfExists(toDelete.get(i));
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public List<String> listNicknames() throws IOException {
+        List<String> nicknames = new ArrayList<>();
+        this.forEachNickname(nicknames::add);
+        return nicknames;
+    }
+
+    @Override
+    public void forEachNickname(Consumer<String> action) throws IOException {
+        if (!Files.isDirectory(this.saveDirectory)) {
+            return;
+        }
+        // El directorio se lee por partes, sin reunir todos los jugadores en memoria.
+        try (DirectoryStream<Path> players = Files.newDirectoryStream(this.saveDirectory, Files::isDirectory)) {
+            for (Path playerDir : players) {
+                String name = playerDir.getFileName().toString();
+                if (!name.equals(SaveTransaction.JOURNAL_DIRECTORY)) {
+                    action.accept(name);
+                }
+            }
+        }
+    }
+
+    @Override
+    public int recover() {
+        return SaveTransaction.recover(this.saveDirectory);
+    }
+
+    @Override
+    public Path getCatalogPath() {
+        return this.saveDirectory.resolve(SaveCatalog.CATALOG_FILE);
+    }
+
+    @Override
+    public Path getPlayerDirectory(String nickname) {
+        return this.saveDirectory.resolve(nickname);
+    }
+
+    @Override
+    public String describeLocation(String nickname) {
+        return this.saveDirectory.resolve(nickname).toString();
+    }
+
+    private SaveTransaction prepareTransaction(String nickname, Map<String, byte[]> files) {
+        SaveTransaction transaction = new SaveTransaction(this.saveDirectory.resolve(nickname));
+        for (Map.Entry<String, byte[]> file : files.entrySet()) {
+            transaction.stageFile(file.getKey(), file.getValue());
+        }
+        return transaction;
+    }
+}
@@ -1,5 +1,7 @@
 package univalle.tedesoft.battleship.models.state;
 
+import univalle.tedesoft.battleship.models.enums.Difficulty;
+import univalle.tedesoft.battleship.models.enums.GameMode;
 import univalle.tedesoft.battleship.models.enums.GamePhase;
 
 import java.time.LocalDateTime;
@@ -17,6 +19,8 @@ public class GameMemento {
     private final int humanPlayerSunkShips;
     private final int computerPlayerSunkShips;
     private final GamePhase currentPhase;
+    private final GameMode gameMode;
+    private final Difficulty difficulty;
     private final LocalDateTime saveDateTime;
     
     /**
@@ -28,11 +32,55 @@ public class GameMemento {
      */
     public GameMemento(String humanPlayerNickname, int humanPlayerSunkShips,
                        int computerPlayerSunkShips, GamePhase currentPhase) {
+        this(humanPlayerNickname, humanPlayerSunkShips, computerPlayerSunkShips, currentPhase, GameMode.CLASSIC);
+    }
+
+    /**
+     * Constructor del Memento con la variante de reglas de la partida
+     * @param humanPlayerNickname Nickname del jugador humano
+     * @param humanPlayerSunkShips Cantidad de barcos hundidos por el humano
+     * @param computerPlayerSunkShips Cantidad de barcos hundidos por la computadora
+     * @param currentPhase Fase actual del juego
+     * @param gameMode Modo de juego (clásico o salva)
+     */
+    public GameMemento(String humanPlayerNickname, int humanPlayerSunkShips,
+                       int computerPlayerSunkShips, GamePhase currentPhase, GameMode gameMode) {
+        this(humanPlayerNickname, humanPlayerSunkShips, computerPlayerSunkShips, currentPhase, gameMode, LocalDateTime.now());
+    }
+
+    /**
+     * Constructor del Memento con la fecha en que se guardó la partida
+     * @param humanPlayerNickname Nickname del jugador humano
+     * @param humanPlayerSunkShips Cantidad de barcos hundidos por el humano
+     * @param computerPlayerSunkShips Cantidad de barcos hundidos por la computadora
+     * @param currentPhase Fase actual del juego
+     * @param gameMode Modo de juego (clásico o salva)
+     * @param saveDateTime Fecha y hora del guardado
+     */
+    public GameMemento(String humanPlayerNickname, int humanPlayerSunkShips, int computerPlayerSunkShips,
+                       GamePhase currentPhase, GameMode gameMode, LocalDateTime saveDateTime) {
+        this(humanPlayerNickname, humanPlayerSunkShips, computerPlayerSunkShips, currentPhase, gameMode, Difficulty.DEFAULT, saveDateTime);
+    }
+
+    /**
+     * Constructor del Memento con la dificultad de la máquina
+     * @param humanPlayerNickname Nickname del jugador humano
+     * @param humanPlayerSunkShips Cantidad de barcos hundidos por el humano
+     * @param computerPlayerSunkShips Cantidad de barcos hundidos por la computadora
+     * @param currentPhase Fase actual del juego
+     * @param gameMode Modo de juego (clásico o salva)
+     * @param difficulty Dificultad de la máquina
+     * @param saveDateTime Fecha y hora del guardado
+     */
+    public GameMemento(String humanPlayerNickname, int humanPlayerSunkShips, int computerPlayerSunkShips,
+                       GamePhase currentPhase, GameMode gameMode, Difficulty difficulty, LocalDateTime saveDateTime) {
         this.humanPlayerNickname = humanPlayerNickname;
         this.humanPlayerSunkShips = humanPlayerSunkShips;
         this.computerPlayerSunkShips = computerPlayerSunkShips;
         this.currentPhase = currentPhase;
-        this.saveDateTime = LocalDateTime.now();
+        this.gameMode = (gameMode != null) ? gameMode : GameMode.CLASSIC;
+        this.difficulty = (difficulty != null) ? difficulty : Difficulty.DEFAULT;
+        this.saveDateTime = (saveDateTime != null) ? saveDateTime : LocalDateTime.now();
     }
     
     // Getters
@@ -52,14 +100,22 @@ public class GameMemento {
         return currentPhase;
     }
     
+    public GameMode getGameMode() {
+        return gameMode;
+    }
+    
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+    
     public LocalDateTime getSaveDateTime() {
         return saveDateTime;
     }
     
     @Override
     public String toString() {
-        return String.format("GameMemento{player='%s', humanSunk=%d, computerSunk=%d, phase=%s, saved=%s}",
+        return String.format("GameMemento{player='%s', humanSunk=%d, computerSunk=%d, phase=%s, mode=%s, difficulty=%s, saved=%s}",
                 humanPlayerNickname, humanPlayerSunkShips, computerPlayerSunkShips, 
-                currentPhase, saveDateTime);
+                currentPhase, gameMode, difficulty.name(), saveDateTime);
     }
 } 
\ No newline at end of file
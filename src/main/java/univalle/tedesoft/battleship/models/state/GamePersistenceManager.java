@@ -1,30 +1,57 @@
 package univalle.tedesoft.battleship.models.state;
 
+import univalle.tedesoft.battleship.models.enums.Difficulty;
+import univalle.tedesoft.battleship.models.enums.GameMode;
 import univalle.tedesoft.battleship.models.enums.GamePhase;
 
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.nio.file.DirectoryStream;
-import java.nio.file.Files;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Gestor único para la persistencia del juego.
  * Esta clase es la única autoridad responsable de guardar, cargar,
- * y descubrir partidas guardadas en el sistema de archivos.
+ * y descubrir partidas guardadas. Las partidas se escriben en un {@link SaveStore},
+ * elegido por configuración con {@link SaveStoreFactory} o reemplazado con {@link #setSaveStore(SaveStore)}.
  */
 public final class GamePersistenceManager {
 
-    private static final String SAVE_DIRECTORY = "src/main/resources/univalle/tedesoft/battleship/saves";
     private static final String GAME_INFO_FILE = "game_info.txt";
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    /** Ranura en la que se registran los guardados que no indican otra. */
+    public static final String DEFAULT_SLOT = "autoguardado";
+    /** Los nombres de ranura se usan como nombres de archivo, por eso se restringen. */
+    private static final String SLOT_NAME_PATTERN = "[A-Za-z0-9_-]{1,32}";
+    /** Almacén donde se escriben y leen las partidas. */
+    private static SaveStore store = SaveStoreFactory.createFromConfiguration();
+    /** Índice de partidas guardadas para búsquedas por prefijo y por fecha sin recorrer el almacén. */
+    private static SaveCatalog catalog = new SaveCatalog(store);
+    /** Protege la cola de guardados y el estado del hilo de guardado. */
+    private static final Object SAVE_QUEUE_LOCK = new Object();
+    /** Guardados preparados que esperan al hilo de guardado, en orden de llegada. */
+    private static final List<PendingSave> pendingSaves = new ArrayList<>();
+    /** Último guardado encolado; al confirmarse, también lo están todos los anteriores. */
+    private static PendingSave lastQueuedSave;
+    /** Indica si hay un hilo de guardado vaciando la cola. */
+    private static boolean saveThreadRunning;
+    /** Protege la recuperación de guardados interrumpidos. */
+    private static final Object RECOVERY_LOCK = new Object();
+    /** Almacén cuyos guardados interrumpidos ya se recuperaron. */
+    private static SaveStore recoveredStore;
 
     /** Constructor privado para prevenir la instanciación. */
     private GamePersistenceManager() {}
@@ -53,41 +80,116 @@ public final class GamePersistenceManager {
     }
 
     /**
-     * Guarda el estado completo de una partida para un jugador específico.
+     * DTO con la información de una versión del historial de guardados de un jugador.
+     */
+    public static class SaveVersionInfo {
+        private final String nickname;
+        private final String slot;
+        private final int version;
+        private final String gamePhase;
+        private final LocalDateTime saveDate;
+
+        public SaveVersionInfo(String nickname, String slot, int version, String gamePhase, LocalDateTime saveDate) {
+            this.nickname = nickname;
+            this.slot = slot;
+            this.version = version;
+            this.gamePhase = gamePhase;
+            this.saveDate = saveDate;
+        }
+
+        public String getNickname() { return this.nickname; }
+        public String getSlot() { return this.slot; }
+        public int getVersion() { return this.version; }
+        public String getGamePhase() { return this.gamePhase; }
+        public LocalDateTime getSaveDate() { return this.saveDate; }
+    }
+
+    /**
+     * Guardado preparado en el hilo que lo pidió, a la espera del hilo de guardado.
+     */
+    private static final class PendingSave {
+        private final String nickname;
+        private final String slot;
+        private final GameMemento memento;
+        private final Map<String, byte[]> files;
+        /** Se completa con true si el guardado se confirmó. */
+        private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        private PendingSave(String nickname, String slot, GameMemento memento, Map<String, byte[]> files) {
+            this.nickname = nickname;
+            this.slot = slot;
+            this.memento = memento;
+            this.files = files;
+        }
+    }
+
+    /**
+     * Reemplaza el almacén de partidas, por ejemplo por uno en memoria para simulaciones.
+     * El índice de partidas se reconstruye sobre el almacén nuevo.
+     *
+     * @param saveStore El almacén a usar desde ahora.
+     */
+    public static void setSaveStore(SaveStore saveStore) {
+        awaitPendingSaves();
+        synchronized (GamePersistenceManager.class) {
+            store = saveStore;
+            catalog = new SaveCatalog(saveStore);
+        }
+    }
+
+    /**
+     * @return El almacén de partidas en uso.
+     */
+    public static synchronized SaveStore getSaveStore() {
+        return store;
+    }
+
+    /**
+     * Guarda el estado completo de una partida para un jugador específico en la ranura por defecto.
      *
      * @param gameState El estado del juego a guardar.
      * @return true si se guardó exitosamente, false en caso contrario.
      */
     public static boolean saveGame(GameState gameState) {
-        String nickname = gameState.getHumanPlayerNickname();
-        if (nickname == null || nickname.trim().isEmpty()) {
-            System.err.println("No se puede guardar el juego sin un nickname válido.");
+        return saveGame(gameState, DEFAULT_SLOT);
+    }
+
+    /**
+     * Guarda el estado completo de una partida y lo registra como nueva versión de una ranura
+     * del historial del jugador. La partida guardada queda además como la actual del jugador.
+     * El estado se toma en el hilo que llama y se escribe en el hilo de guardado, junto con los
+     * autoguardados que estén en espera; este método espera a que el guardado se confirme.
+     *
+     * @param gameState El estado del juego a guardar.
+     * @param slot Nombre de la ranura (letras, dígitos, '_' o '-').
+     * @return true si se guardó exitosamente, false en caso contrario o si la ranura no es la
+     *         por defecto y el almacén en uso no conserva historial.
+     */
+    public static boolean saveGame(GameState gameState, String slot) {
+        PendingSave save = prepareSave(gameState, slot);
+        if (save == null) {
             return false;
         }
+        enqueueSave(save);
+        return save.result.join();
+    }
 
-        try {
-            String playerSaveDir = createPlayerSaveDirectory(nickname);
-
-            // 1. Crear el Memento con la metadata actual.
-            GameMemento memento = gameState.createMemento();
-
-            // 2. Guardar la metadata en game_info.txt.
-            saveGameInfoToFile(memento, playerSaveDir);
-
-            // 3. Serializar el estado completo del juego (tableros y barcos).
-            boolean completeStateSaved = GameSerializer.serializeGameByNickname(gameState, playerSaveDir);
-
-            if (completeStateSaved) {
-                System.out.println("Juego guardado exitosamente para " + nickname + " en: " + playerSaveDir);
-                return true;
-            } else {
-                System.err.println("Error al guardar el estado completo del juego para " + nickname);
-                return false;
-            }
-        } catch (Exception e) {
-            System.err.println("Error al guardar el juego completo para " + nickname + ": " + e.getMessage());
+    /**
+     * Guarda la partida en la ranura por defecto sin esperar a que se escriba en el disco.
+     * El estado se toma en el hilo que llama; si llegan varios autoguardados del mismo jugador
+     * antes de que el hilo de guardado los atienda, solo se escribe el más reciente, y los de
+     * jugadores distintos se confirman como un solo grupo.
+     *
+     * @param gameState El estado del juego a guardar.
+     * @return true si el guardado quedó en espera, false si no se pudo preparar.
+     */
+    public static boolean autoSaveGame(GameState gameState) {
+        PendingSave save = prepareSave(gameState, DEFAULT_SLOT);
+        if (save == null) {
             return false;
         }
+        enqueueSave(save);
+        return true;
     }
 
     /**
@@ -98,22 +200,23 @@ public final class GamePersistenceManager {
      * @return true si se cargó exitosamente, false en caso contrario.
      */
     public static boolean loadGame(GameState gameState, String nickname) {
+        awaitPendingSaves();
         try {
-            String playerSaveDir = getPlayerSaveDirectory(nickname);
-            if (playerSaveDir == null) {
-                System.err.println("No se encontró directorio de guardado para " + nickname);
+            Map<String, byte[]> files = getSaveStore().readGame(nickname);
+            if (files == null) {
+                System.err.println("No se encontró partida guardada para " + nickname);
                 return false;
             }
 
             // 1. Cargar la metadata desde game_info.txt.
-            GameMemento memento = loadGameInfoFromFile(playerSaveDir);
+            GameMemento memento = parseGameInfo(files.get(GAME_INFO_FILE));
             if (memento == null) {
                 return false;
             }
             gameState.restoreFromMemento(memento);
 
             // 2. Deserializar el estado completo del juego.
-            boolean completeStateLoaded = GameSerializer.deserializeGameByNickname(gameState, playerSaveDir);
+            boolean completeStateLoaded = GameSerializer.deserializeGame(gameState, files);
             if (completeStateLoaded) {
                 System.out.println("Estado completo del juego cargado para " + nickname);
                 return true;
@@ -135,27 +238,399 @@ public final class GamePersistenceManager {
      */
     public static List<SavedGameInfo> findSavedGamesByNickname(String nickname) {
         List<SavedGameInfo> savedGames = new ArrayList<>();
-        String playerSaveDir = getPlayerSaveDirectory(nickname);
-
-        if (playerSaveDir != null) {
-            GameMemento memento = loadGameInfoFromFile(playerSaveDir);
-            if (memento != null) {
-                savedGames.add(new SavedGameInfo(
-                        memento.getHumanPlayerNickname(),
-                        memento.getCurrentPhase().toString(),
-                        memento.getSaveDateTime(),
-                        playerSaveDir
-                ));
-            }
+        SaveCatalog saveCatalog = getCatalog();
+        SavedGameInfo indexed = saveCatalog.find(nickname);
+        if (indexed != null) {
+            savedGames.add(indexed);
+            return savedGames;
+        }
+
+        // Partidas copiadas a mano al almacén aún no figuran en el índice.
+        SavedGameInfo info = readSavedGameInfo(getSaveStore(), nickname);
+        if (info != null) {
+            saveCatalog.update(info);
+            savedGames.add(info);
         }
         return savedGames;
     }
 
+    /**
+     * Busca las partidas guardadas cuyo nickname empieza por un prefijo, sin distinguir
+     * mayúsculas, de la más reciente a la más antigua. La consulta se resuelve sobre el
+     * índice de partidas, sin recorrer el directorio de guardado.
+     *
+     * @param prefix El prefijo a buscar; vacío para todas las partidas.
+     * @param offset Cantidad de resultados a omitir (para paginar).
+     * @param limit  Cantidad máxima de resultados.
+     * @return Una lista de objetos SavedGameInfo.
+     */
+    public static List<SavedGameInfo> findSavedGamesByPrefix(String prefix, int offset, int limit) {
+        return getCatalog().findByPrefixSortedByDate(prefix, offset, limit);
+    }
+
+    /**
+     * Cuenta las partidas guardadas cuyo nickname empieza por un prefijo.
+     *
+     * @param prefix El prefijo a buscar; vacío para todas las partidas.
+     * @return La cantidad de partidas encontradas.
+     */
+    public static int countSavedGamesByPrefix(String prefix) {
+        return getCatalog().countByPrefix(prefix);
+    }
+
+    /**
+     * Carga el índice de partidas en memoria para que la primera búsqueda no espere la lectura del archivo.
+     */
+    public static void preloadSavedGamesIndex() {
+        recoverInterruptedSaves();
+        getCatalog().countByPrefix("");
+    }
+
+    /**
+     * Completa los guardados que quedaron confirmados pero sin aplicar por un cierre inesperado
+     * y descarta los que no llegaron a confirmarse. Se ejecuta una sola vez por almacén: la pide
+     * la precarga del índice al iniciar y, antes de confirmar cualquier guardado, el hilo de
+     * guardado, que espera a que termine si ya está en curso.
+     *
+     * @return Cantidad de guardados completados; 0 si el almacén ya se había recuperado.
+     */
+    public static int recoverInterruptedSaves() {
+        synchronized (RECOVERY_LOCK) {
+            SaveStore saveStore = getSaveStore();
+            if (recoveredStore == saveStore) {
+                return 0;
+            }
+            recoveredStore = saveStore;
+            int recovered = saveStore.recover();
+            if (recovered > 0) {
+                System.out.println("Se completaron " + recovered + " guardados interrumpidos.");
+            }
+            return recovered;
+        }
+    }
+
+    /**
+     * Reconstruye el índice de partidas recorriendo el almacén.
+     * Útil si se agregaron o borraron partidas fuera del juego.
+     */
+    public static void rebuildSavedGamesIndex() {
+        awaitPendingSaves();
+        getCatalog().rebuild();
+    }
+
+    /**
+     * Exporta a un archivo zip las partidas cuyo nickname empieza por un prefijo, sin distinguir mayúsculas.
+     *
+     * @param archive Ruta del archivo zip a crear.
+     * @param prefix El prefijo de los nicknames a exportar; vacío para todas las partidas.
+     * @param listener Receptor del avance, o null.
+     * @return Cantidad de partidas exportadas, o -1 si la exportación falló.
+     */
+    public static long exportSavedGames(Path archive, String prefix, SaveArchive.ProgressListener listener) {
+        awaitPendingSaves();
+        String lowerPrefix = prefix.toLowerCase(Locale.ROOT);
+        try {
+            long exported = SaveArchive.exportGames(getSaveStore(), archive,
+                    nickname -> nickname.toLowerCase(Locale.ROOT).startsWith(lowerPrefix),
+                    countSavedGamesByPrefix(prefix), listener);
+            System.out.println("Se exportaron " + exported + " partidas a " + archive);
+            return exported;
+        } catch (IOException e) {
+            System.err.println("Error al exportar las partidas guardadas: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Importa las partidas de un archivo zip creado con {@link #exportSavedGames} y las agrega al índice.
+     *
+     * @param archive Ruta del archivo zip.
+     * @param overwrite true para reemplazar las partidas que ya existan con el mismo nickname.
+     * @param listener Receptor del avance, o null.
+     * @return Cantidad de partidas importadas, o -1 si la importación falló.
+     */
+    public static long importSavedGames(Path archive, boolean overwrite, SaveArchive.ProgressListener listener) {
+        awaitPendingSaves();
+        SaveStore saveStore = getSaveStore();
+        SaveCatalog saveCatalog = getCatalog();
+        try {
+            long imported = SaveArchive.importGames(saveStore, archive, overwrite, listener, (nickname, files) -> {
+                GameMemento memento = parseGameInfo(files.get(GAME_INFO_FILE));
+                if (memento != null && memento.getHumanPlayerNickname() != null) {
+                    saveCatalog.update(new SavedGameInfo(memento.getHumanPlayerNickname(), memento.getCurrentPhase().toString(),
+                            memento.getSaveDateTime(), saveStore.describeLocation(nickname)));
+                }
+            });
+            System.out.println("Se importaron " + imported + " partidas desde " + archive);
+            return imported;
+        } catch (IOException e) {
+            System.err.println("Error al importar las partidas guardadas: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Lee la información básica de la partida guardada de un jugador.
+     *
+     * @param saveStore Almacén de partidas.
+     * @param nickname Nickname del jugador.
+     * @return La información de la partida, o null si no hay una partida válida.
+     */
+    static SavedGameInfo readSavedGameInfo(SaveStore saveStore, String nickname) {
+        Map<String, byte[]> files;
+        try {
+            files = saveStore.readGame(nickname);
+        } catch (IOException e) {
+            System.err.println("Error al leer la partida de " + nickname + ": " + e.getMessage());
+            return null;
+        }
+        GameMemento memento = (files != null) ? parseGameInfo(files.get(GAME_INFO_FILE)) : null;
+        if (memento == null || memento.getHumanPlayerNickname() == null) {
+            return null;
+        }
+        return new SavedGameInfo(
+                memento.getHumanPlayerNickname(),
+                memento.getCurrentPhase().toString(),
+                memento.getSaveDateTime(),
+                saveStore.describeLocation(nickname)
+        );
+    }
+
+    /**
+     * Lista las ranuras de guardado que tienen historial para un jugador.
+     *
+     * @param nickname El nickname del jugador.
+     * @return Los nombres de las ranuras, en orden alfabético.
+     */
+    public static List<String> listSaveSlots(String nickname) {
+        awaitPendingSaves();
+        Path playerSaveDir = getSaveStore().getPlayerDirectory(nickname);
+        if (playerSaveDir == null) {
+            return new ArrayList<>();
+        }
+        return SaveHistory.listSlots(playerSaveDir);
+    }
+
+    /**
+     * Lista las versiones guardadas de un jugador en todas sus ranuras, de la más reciente a la más antigua.
+     *
+     * @param nickname El nickname del jugador.
+     * @return Las versiones encontradas.
+     */
+    public static List<SaveVersionInfo> listSaveVersions(String nickname) {
+        List<SaveVersionInfo> versions = new ArrayList<>();
+        for (String slot : listSaveSlots(nickname)) {
+            versions.addAll(listSaveVersions(nickname, slot));
+        }
+        versions.sort(Comparator.comparing(SaveVersionInfo::getSaveDate).reversed());
+        return versions;
+    }
+
+    /**
+     * Lista las versiones guardadas de una ranura, de la más reciente a la más antigua.
+     *
+     * @param nickname El nickname del jugador.
+     * @param slot Nombre de la ranura.
+     * @return Las versiones encontradas.
+     */
+    public static List<SaveVersionInfo> listSaveVersions(String nickname, String slot) {
+        awaitPendingSaves();
+        Path playerSaveDir = getSaveStore().getPlayerDirectory(nickname);
+        if (playerSaveDir == null || slot == null || !slot.matches(SLOT_NAME_PATTERN)) {
+            return new ArrayList<>();
+        }
+        return SaveHistory.listVersions(playerSaveDir, nickname, slot);
+    }
+
+    /**
+     * Restaura una versión del historial como partida actual del jugador y la carga.
+     *
+     * @param gameState El objeto GameState donde se cargarán los datos.
+     * @param versión La versión a restaurar.
+     * @return true si se restauró y cargó exitosamente, false en caso contrario.
+     */
+    public static boolean restoreGameVersion(GameState gameState, SaveVersionInfo version) {
+        awaitPendingSaves();
+        String nickname = version.getNickname();
+        SaveStore saveStore = getSaveStore();
+        Path playerSaveDir = saveStore.getPlayerDirectory(nickname);
+        if (playerSaveDir == null || !version.getSlot().matches(SLOT_NAME_PATTERN)) {
+            System.err.println("No se encontró la versión " + version.getVersion() + " de " + nickname);
+            return false;
+        }
+        try {
+            Map<String, byte[]> files = SaveHistory.readVersion(playerSaveDir, version.getSlot(), version.getVersion());
+            if (files == null) {
+                System.err.println("No existe la versión " + version.getVersion() + " en la ranura " + version.getSlot());
+                return false;
+            }
+            saveStore.writeGame(nickname, files);
+        } catch (IOException e) {
+            System.err.println("Error al restaurar la versión " + version.getVersion() + " de " + nickname + ": " + e.getMessage());
+            return false;
+        }
+        // La partida actual cambió de fecha y fase: se actualiza su entrada en el índice.
+        SavedGameInfo restored = readSavedGameInfo(saveStore, nickname);
+        if (restored != null) {
+            getCatalog().update(restored);
+        }
+        return loadGame(gameState, nickname);
+    }
+
     // --- Métodos Privados Auxiliares ---
 
-    private static void saveGameInfoToFile(GameMemento memento, String playerSaveDir) throws IOException {
-        Path gameInfoPath = Paths.get(playerSaveDir, GAME_INFO_FILE);
-        try (BufferedWriter writer = Files.newBufferedWriter(gameInfoPath)) {
+    /**
+     * Toma el estado de la partida y prepara sus archivos para el hilo de guardado.
+     * @return El guardado preparado, o null si no se pudo preparar.
+     */
+    private static PendingSave prepareSave(GameState gameState, String slot) {
+        if (slot == null || !slot.matches(SLOT_NAME_PATTERN)) {
+            System.err.println("Nombre de ranura de guardado inválido: " + slot);
+            return null;
+        }
+        String nickname = gameState.getHumanPlayerNickname();
+        if (nickname == null || nickname.trim().isEmpty()) {
+            System.err.println("No se puede guardar el juego sin un nickname válido.");
+            return null;
+        }
+        if (!slot.equals(DEFAULT_SLOT) && getSaveStore().getPlayerDirectory(nickname) == null) {
+            // Solo los almacenes con un directorio por jugador conservan el historial de ranuras.
+            System.err.println("El almacén de partidas en uso no conserva historial; no se puede guardar en la ranura " + slot);
+            return null;
+        }
+        try {
+            // 1. Crear el Memento con la metadata actual.
+            GameMemento memento = gameState.createMemento();
+
+            // 2. Preparar la metadata (game_info.txt) y el estado completo (tableros y barcos)
+            //    en un solo lote, para que el almacén los confirme juntos.
+            SaveBatch batch = new SaveBatch();
+            saveGameInfoToFile(memento, batch);
+            GameSerializer.serializeGameByNickname(gameState.getSnapshot(), batch);
+            return new PendingSave(nickname, slot, memento, batch.getFiles());
+        } catch (Exception e) {
+            System.err.println("Error al preparar el guardado del juego para " + nickname + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Agrega un guardado a la cola e inicia el hilo de guardado si no está activo.
+     */
+    private static void enqueueSave(PendingSave save) {
+        synchronized (SAVE_QUEUE_LOCK) {
+            pendingSaves.add(save);
+            lastQueuedSave = save;
+            if (!saveThreadRunning) {
+                saveThreadRunning = true;
+                // No es daemon: al cerrar la aplicación se terminan de escribir los guardados en espera.
+                Thread saveThread = new Thread(GamePersistenceManager::drainSaveQueue, "battleship-save");
+                saveThread.start();
+            }
+        }
+    }
+
+    /**
+     * Espera a que se confirmen los guardados en cola, para leer el almacén con lo último guardado.
+     */
+    private static void awaitPendingSaves() {
+        PendingSave last;
+        synchronized (SAVE_QUEUE_LOCK) {
+            last = lastQueuedSave;
+        }
+        if (last != null) {
+            last.result.join();
+        }
+    }
+
+    /**
+     * Cuerpo del hilo de guardado: confirma en grupo todo lo que haya en la cola hasta vaciarla.
+     */
+    private static void drainSaveQueue() {
+        while (true) {
+            List<PendingSave> group;
+            synchronized (SAVE_QUEUE_LOCK) {
+                if (pendingSaves.isEmpty()) {
+                    saveThreadRunning = false;
+                    return;
+                }
+                group = new ArrayList<>(pendingSaves);
+                pendingSaves.clear();
+            }
+            // Ningún guardado se confirma antes de recuperar los interrumpidos del almacén.
+            recoverInterruptedSaves();
+            commitSaveGroup(group);
+        }
+    }
+
+    /**
+     * Escribe un grupo de guardados con una sola confirmación del almacén. De cada jugador se
+     * escribe solo el guardado más reciente; los anteriores de ranuras explícitas se siguen
+     * registrando en el historial, y los autoguardados anteriores se descartan.
+     */
+    private static void commitSaveGroup(List<PendingSave> group) {
+        SaveStore saveStore = getSaveStore();
+        Map<String, PendingSave> latest = new LinkedHashMap<>();
+        for (PendingSave save : group) {
+            latest.remove(save.nickname);
+            latest.put(save.nickname, save);
+        }
+        try {
+            Map<String, Map<String, byte[]>> games = new LinkedHashMap<>();
+            for (PendingSave save : latest.values()) {
+                games.put(save.nickname, save.files);
+            }
+            // 3. Confirmar todos los archivos de forma atómica.
+            saveStore.writeGames(games);
+        } catch (Exception e) {
+            for (PendingSave save : group) {
+                System.err.println("Error al guardar el juego completo para " + save.nickname + ": " + e.getMessage());
+                save.result.complete(false);
+            }
+            return;
+        }
+        for (PendingSave save : group) {
+            boolean isLatest = latest.get(save.nickname) == save;
+            try {
+                if (isLatest || !save.slot.equals(DEFAULT_SLOT)) {
+                    recordHistoryVersion(saveStore, save.nickname, save.slot, save.memento, save.files);
+                }
+                if (isLatest) {
+                    getCatalog().update(new SavedGameInfo(save.memento.getHumanPlayerNickname(), save.memento.getCurrentPhase().toString(),
+                            save.memento.getSaveDateTime(), saveStore.describeLocation(save.nickname)));
+                    System.out.println("Juego guardado exitosamente para " + save.nickname + " en: " + saveStore.describeLocation(save.nickname));
+                }
+            } catch (Exception e) {
+                System.err.println("Error al registrar el guardado de " + save.nickname + ": " + e.getMessage());
+            }
+            save.result.complete(true);
+        }
+    }
+
+    private static synchronized SaveCatalog getCatalog() {
+        return catalog;
+    }
+
+    /**
+     * Agrega al historial la partida recién guardada, si el almacén conserva historial.
+     * Un fallo aquí no invalida el guardado principal.
+     */
+    private static void recordHistoryVersion(SaveStore saveStore, String nickname, String slot, GameMemento memento, Map<String, byte[]> files) {
+        Path playerSaveDir = saveStore.getPlayerDirectory(nickname);
+        if (playerSaveDir == null) {
+            // Almacén sin historial: solo llegan aquí los autoguardados, las demás ranuras se rechazan al preparar.
+            return;
+        }
+        try {
+            SaveHistory.recordVersion(playerSaveDir, slot, memento.getCurrentPhase().toString(),
+                    memento.getSaveDateTime(), files);
+        } catch (IOException e) {
+            System.err.println("Error al registrar la versión en el historial de guardado: " + e.getMessage());
+        }
+    }
+
+    private static void saveGameInfoToFile(GameMemento memento, SaveBatch batch) throws IOException {
+        try (BufferedWriter writer = batch.openFile(GAME_INFO_FILE)) {
             writer.write("NICKNAME:" + memento.getHumanPlayerNickname());
             writer.newLine();
             writer.write("HUMAN_SUNK_SHIPS:" + memento.getHumanPlayerSunkShips());
@@ -164,22 +639,30 @@ public final class GamePersistenceManager {
             writer.newLine();
             writer.write("GAME_PHASE:" + memento.getCurrentPhase());
             writer.newLine();
+            writer.write("GAME_MODE:" + memento.getGameMode());
+            writer.newLine();
+            writer.write("DIFFICULTY:" + memento.getDifficulty().name());
+            writer.newLine();
             writer.write("SAVE_DATE:" + memento.getSaveDateTime().format(DATE_FORMATTER));
             writer.newLine();
         }
     }
 
-    private static GameMemento loadGameInfoFromFile(String playerSaveDir) {
-        Path gameInfoPath = Paths.get(playerSaveDir, GAME_INFO_FILE);
-        if (!Files.exists(gameInfoPath)) {
+    private static GameMemento parseGameInfo(byte[] gameInfo) {
+        if (gameInfo == null) {
             return null;
         }
 
-        try (BufferedReader reader = Files.newBufferedReader(gameInfoPath)) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(gameInfo), StandardCharsets.UTF_8))) {
             String nickname = null;
             int humanSunkShips = 0;
             int computerSunkShips = 0;
             GamePhase gamePhase = GamePhase.INITIAL;
+            // Los guardados anteriores al modo salva no tienen esta línea y son partidas clásicas.
+            GameMode gameMode = GameMode.CLASSIC;
+            // Los guardados anteriores a las dificultades no la indican y usan la de por defecto.
+            Difficulty difficulty = Difficulty.DEFAULT;
+            LocalDateTime saveDate = null;
 
             String line;
             while ((line = reader.readLine()) != null) {
@@ -192,29 +675,16 @@ public final class GamePersistenceManager {
                         case "HUMAN_SUNK_SHIPS": humanSunkShips = Integer.parseInt(value); break;
                         case "COMPUTER_SUNK_SHIPS": computerSunkShips = Integer.parseInt(value); break;
                         case "GAME_PHASE": gamePhase = GamePhase.valueOf(value); break;
+                        case "GAME_MODE": gameMode = GameMode.valueOf(value); break;
+                        case "DIFFICULTY": difficulty = Difficulty.valueOf(value); break;
+                        case "SAVE_DATE": saveDate = LocalDateTime.parse(value, DATE_FORMATTER); break;
                     }
                 }
             }
-            return new GameMemento(nickname, humanSunkShips, computerSunkShips, gamePhase);
+            return new GameMemento(nickname, humanSunkShips, computerSunkShips, gamePhase, gameMode, difficulty, saveDate);
         } catch (IOException | IllegalArgumentException | DateTimeParseException e) {
             System.err.println("Error al leer el archivo de información del juego: " + e.getMessage());
             return null;
         }
     }
-
-    private static String getPlayerSaveDirectory(String nickname) {
-        Path playerPath = Paths.get(SAVE_DIRECTORY, nickname);
-        if (Files.isDirectory(playerPath)) {
-            return playerPath.toString();
-        }
-        return null;
-    }
-
-    private static String createPlayerSaveDirectory(String nickname) throws IOException {
-        Path playerPath = Paths.get(SAVE_DIRECTORY, nickname);
-        if (!Files.exists(playerPath)) {
-            Files.createDirectories(playerPath);
-        }
-        return playerPath.toString();
-    }
 }
@@ -3,18 +3,30 @@ package univalle.tedesoft.battleship.models.state;
 import univalle.tedesoft.battleship.exceptions.InvalidShipPlacementException;
 import univalle.tedesoft.battleship.exceptions.OutOfBoundsException;
 import univalle.tedesoft.battleship.exceptions.OverlapException;
+import univalle.tedesoft.battleship.models.ai.MachineStrategy;
+import univalle.tedesoft.battleship.models.ai.MachineStrategyFactory;
+import univalle.tedesoft.battleship.models.ai.PlacementStatistics;
+import univalle.tedesoft.battleship.models.ai.RandomStrategy;
 import univalle.tedesoft.battleship.models.board.Board;
+import univalle.tedesoft.battleship.models.board.BoardSnapshot;
 import univalle.tedesoft.battleship.models.board.Coordinate;
 import univalle.tedesoft.battleship.models.players.Player;
 import univalle.tedesoft.battleship.models.enums.*;
 import univalle.tedesoft.battleship.models.players.MachinePlayer;
 import univalle.tedesoft.battleship.models.ships.*;
+import univalle.tedesoft.battleship.models.board.SalvoOutcome;
 import univalle.tedesoft.battleship.models.board.ShotOutcome;
+import univalle.tedesoft.battleship.models.ships.FleetConfiguration;
+import univalle.tedesoft.battleship.models.ships.ShipClass;
 import univalle.tedesoft.battleship.models.ships.ShipFactory;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Random;
+import java.util.function.Supplier;
 
 /**
  * Clase que representa la instancia del juego.
@@ -33,18 +45,60 @@ public class GameState implements IGameState {
     private Player currentPlayer;
     /**Fase actual del juego*/
     private GamePhase currentPhase;
+    /**Configuración de la flota y del tamaño de los tableros*/
+    private final FleetConfiguration fleetConfiguration;
+    /**Variante de reglas de la partida (clásica o salva)*/
+    private GameMode gameMode = GameMode.CLASSIC;
     /**Cantidad de Barcos que el humano tiene a su disposicion para colocar en la tabla*/
-    private final List<ShipType> pendingShipsToPlaceForHuman;
+    private final List<String> pendingShipsToPlaceForHuman;
+    /**Historial de disparos, empaquetados como (continuación << 29) | (tirador << 28) | (celda << 8) | estado previo en el territorio*/
+    private int[] moveHistory;
+    /**Cantidad de disparos del historial aplicados actualmente*/
+    private int moveHistoryCount;
+    /**Cantidad total de disparos registrados, incluidos los deshechos que se pueden rehacer*/
+    private int moveHistoryLimit;
+    /**Última instantánea publicada del juego, legible desde cualquier hilo sin bloqueos*/
+    private volatile GameStateSnapshot publishedSnapshot;
+    /**Dificultad de la máquina*/
+    private Difficulty difficulty = Difficulty.DEFAULT;
+    /**Estrategia de la máquina para la dificultad actual, creada cuando se necesita*/
+    private MachineStrategy machineStrategy;
+    /**true si la colocación del humano en esta partida ya se registró en sus estadísticas*/
+    private boolean placementRecorded;
+    /**Partidas ficticias con que se suavizan las estadísticas de colocación del humano*/
+    private static final double PLACEMENT_PRIOR_PSEUDO_GAMES = 5.0;
+    /**Código de tirador para los disparos del jugador humano dentro del historial*/
+    private static final int HUMAN_SHOOTER = 0;
+    /**Código de tirador para los disparos de la máquina dentro del historial*/
+    private static final int MACHINE_SHOOTER = 1;
+    /**Posición del bit del tirador dentro de un registro del historial; deja 20 bits para la celda*/
+    private static final int SHOOTER_SHIFT = 28;
+    /**Máscara de la celda dentro de un registro del historial (desplazado 8 bits)*/
+    private static final int CELL_MASK = (1 << (SHOOTER_SHIFT - 8)) - 1;
+    /**Bit del historial que marca un disparo que continúa la salva del registro anterior*/
+    private static final int SALVO_CONTINUATION = 1 << 29;
 
-    /** Constructor de la Clase*/
+    /** Constructor de la Clase, con la flota por defecto*/
     public GameState() {
+        this(FleetConfiguration.getDefault());
+    }
+
+    /**
+     * Constructor de la Clase con una configuración de flota específica.
+     * @param fleetConfiguration La flota y el tamaño de tablero de la partida.
+     */
+    public GameState(FleetConfiguration fleetConfiguration) {
+        this.fleetConfiguration = fleetConfiguration;
         //Tableros de juego necesarios.
-        this.humanPlayerBoard = new Board();
-        this.machinePlayerBoard = new Board();
-        this.machinePlayerTerritoryBoard = new Board();
+        int boardSize = fleetConfiguration.getBoardSize();
+        this.humanPlayerBoard = new Board(boardSize);
+        this.machinePlayerBoard = new Board(boardSize);
+        this.machinePlayerTerritoryBoard = new Board(boardSize);
         //Fase inicial del juego.
         this.currentPhase = GamePhase.INITIAL;
         this.pendingShipsToPlaceForHuman = new ArrayList<>();
+        this.moveHistory = new int[64];
+        this.publishSnapshot();
     }
 
     /**
@@ -57,74 +111,63 @@ public class GameState implements IGameState {
     public void startNewGame(Player humanPlayer) {
         //  Jugadores.
         this.humanPlayer = humanPlayer;
-        this.machinePlayer = new MachinePlayer();
+        this.machinePlayer = new MachinePlayer(this.getMachineStrategy());
+        this.applyPlacementPrior();
+        this.placementRecorded = false;
         this.currentPlayer = this.humanPlayer;
         //  Se inicializa las tablas.
         this.humanPlayerBoard.resetBoard();
         this.machinePlayerBoard.resetBoard();
         this.machinePlayerTerritoryBoard.resetBoard();
+        this.clearMoveHistory();
         //  El juego empieza en su fase inicial.
         this.currentPhase = GamePhase.PLACEMENT;
         //  Barcos que el humano ha colocado.
         this.pendingShipsToPlaceForHuman.clear();
         //  Barcos que el humano debe movilizar en la tabla.
-        this.pendingShipsToPlaceForHuman.addAll(createFleetShipTypes());
+        this.pendingShipsToPlaceForHuman.addAll(this.fleetConfiguration.getShipClassIds());
         // Colocar los barcos de la máquina inmediatamente al iniciar una nueva partida.
         this.placeMachinePlayerShips();
+        this.publishSnapshot();
     }
 
     /**
      * Intenta colocar un barco para el jugador humano en su tablero de posición, la mayor parte
      * de esta tarea se realiza en Board.
-     * @param shipType El barco a colocar (ej. PORTAAVIONES, SUBMARINO).
+     * @param shipClassId Identificador de la clase de barco a colocar (ej. AIR_CRAFT_CARRIER).
      * @param row coordenada en fila donde se piensa ubicar el ship.
      * @param col coordenada en columna
      * @throws InvalidShipPlacementException si la colocación es inválida por superposición,
      *         salirse del tablero o tipo de barco ya colocado.
      */
     @Override
-    public void placeHumanPlayerShip(ShipType shipType, int row, int col, Orientation orientation) throws InvalidShipPlacementException, OverlapException, OutOfBoundsException {
+    public void placeHumanPlayerShip(String shipClassId, int row, int col, Orientation orientation) throws InvalidShipPlacementException, OverlapException, OutOfBoundsException {
 
-        // 1. Validar que el tipo de barco está pendiente de ser colocado.
-        if (!this.pendingShipsToPlaceForHuman.contains(shipType)) {
-            throw new InvalidShipPlacementException("Ya has colocado todos los barcos de tipo: " + shipType);
+        // 1. Validar que la clase de barco está pendiente de ser colocada.
+        ShipClass shipClass = this.fleetConfiguration.getShipClass(shipClassId);
+        if (shipClass == null || !this.pendingShipsToPlaceForHuman.contains(shipClassId)) {
+            throw new InvalidShipPlacementException("Ya has colocado todos los barcos de tipo: " + shipClassId);
         }
 
-        // 2. Crear los objetos de dominio necesarios.
-        //Ship newShip = createShipFromType(shipType);
-        Ship newShip = ShipFactory.createShip(shipType);
+        // 2. Crear los objetos de dominio necesarios, respetando la clase definida en la flota.
+        if (shipClass.getLength() > 1 && !shipClass.allows(orientation)) {
+            throw new InvalidShipPlacementException("El barco " + shipClass.getDisplayName() + " no se puede colocar en orientación " + orientation);
+        }
+        Ship newShip = ShipFactory.createShip(shipClass);
         newShip.setOrientation(orientation);
         Coordinate coordinate = new Coordinate(col, row); // Recordar que Coordinate(x, y) -> (col, row)
 
         // 3. Delegar la colocación al tablero.
         if (this.humanPlayerBoard.placeShip(newShip, coordinate)) {
             // 4. Si la colocación fue exitosa, remover el tipo de barco de la lista de pendientes.
-            this.pendingShipsToPlaceForHuman.remove(shipType);
+            this.pendingShipsToPlaceForHuman.remove(shipClassId);
+            this.publishSnapshot();
         } else {
             // Esta línea es teóricamente inalcanzable si placeShip lanza excepciones, pero es una buena práctica.
             throw new InvalidShipPlacementException("No fue posible agregar esta embarcacion!!");
         }
     };
 
-    /**
-     * Este metodo crea la lista de TIPOS de barcos que cada jugador debe poseer.
-     * @return una lista de ShipType con la flota completa.
-     */
-    private List<ShipType> createFleetShipTypes() {
-        List<ShipType> fleetTypes = new ArrayList<>();
-        fleetTypes.add(ShipType.AIR_CRAFT_CARRIER); // 1
-        fleetTypes.add(ShipType.SUBMARINE);        // 2
-        fleetTypes.add(ShipType.SUBMARINE);
-        fleetTypes.add(ShipType.DESTROYER);        // 3
-        fleetTypes.add(ShipType.DESTROYER);
-        fleetTypes.add(ShipType.DESTROYER);
-        fleetTypes.add(ShipType.FRIGATE);          // 4
-        fleetTypes.add(ShipType.FRIGATE);
-        fleetTypes.add(ShipType.FRIGATE);
-        fleetTypes.add(ShipType.FRIGATE);
-        return fleetTypes;
-    }
-
     /**
      * Indica que el jugador humano ha terminado de colocar todos sus barcos.
      * La máquina también debe tener sus barcos colocados.
@@ -138,6 +181,7 @@ public class GameState implements IGameState {
         this.currentPhase = GamePhase.FIRING;
         // El jugador humano siempre inicia la fase de disparos
         this.currentPlayer = this.humanPlayer;
+        this.publishSnapshot();
     }
 
     /**
@@ -151,8 +195,11 @@ public class GameState implements IGameState {
     public ShotOutcome handleHumanPlayerShot(int row, int col) throws OutOfBoundsException, OverlapException {
         Coordinate coordinate = new Coordinate(col, row);
         try {
+            CellState previousTerritoryState = this.machinePlayerTerritoryBoard.getCellState(row, col);
             ShotOutcome outcome = this.machinePlayerBoard.receiveShot(coordinate);
             this.machinePlayerTerritoryBoard.setCellState(row, col, this.machinePlayerBoard.getCellState(row, col));
+            this.recordMove(HUMAN_SHOOTER, row, col, previousTerritoryState, false);
+            this.publishSnapshot();
             return outcome;
         } catch (OverlapException e) {
             // Relanzar la excepción para que el controlador la maneje.
@@ -161,23 +208,63 @@ public class GameState implements IGameState {
     }
 
     /**
-     * Ejecuta el turno de la máquina. La máquina elige una casilla para disparar
-     * en el tablero del jugador humano.
+     * Prepara la búsqueda del turno de la máquina. Lo que la máquina sabe del tablero humano y la
+     * cantidad de disparos se toman aquí, en el hilo del juego; la búsqueda devuelta no toca la
+     * partida y puede ejecutarse en otro hilo. La estrategia de la dificultad actual busca dentro
+     * del tiempo de esa dificultad, contado desde que empieza la búsqueda.
+     * @return La búsqueda; devuelve las casillas elegidas, en orden fila por fila.
+     */
+    @Override
+    public Supplier<int[]> prepareMachineTurn() {
+        // La estrategia solo recibe lo que la máquina sabe del tablero humano.
+        BoardSnapshot view = this.humanPlayerBoard.snapshot().opponentView();
+        MachineStrategy strategy = this.getMachineStrategy();
+        long budgetNanos = this.difficulty.getTimeBudgetMillis() * 1_000_000L;
+        boolean salvo = this.gameMode == GameMode.SALVO;
+        int shots = salvo ? Math.min(this.getSalvoSize(), this.countUnattackedCells(this.humanPlayerBoard)) : 1;
+        return () -> {
+            // Una estrategia no admite dos búsquedas a la vez, y un turno cancelado puede seguir buscando.
+            synchronized (strategy) {
+                long deadline = System.nanoTime() + budgetNanos;
+                return salvo
+                        ? strategy.chooseSalvo(view, view, shots, deadline)
+                        : new int[]{strategy.chooseShot(view, view, deadline)};
+            }
+        };
+    }
+
+    /**
+     * Ejecuta el turno de la máquina en este hilo: busca el disparo con
+     * {@link #prepareMachineTurn()} y lo aplica.
      * @return Un objeto ShotOutcome que indica las coordenadas del disparo y su resultado.
      */
     @Override
     public ShotOutcome handleMachinePlayerTurn() {
+        int[] cells = this.prepareMachineTurn().get();
+        return this.handleMachinePlayerTurn((cells.length > 0) ? cells[0] : -1);
+    }
+
+    /**
+     * Aplica el disparo de la máquina elegido por la búsqueda del turno. Si la casilla no es
+     * válida o ya fue atacada (por ejemplo, si la partida cambió mientras se buscaba), se dispara
+     * al azar.
+     * @param cell Casilla elegida en orden fila por fila, o -1.
+     * @return Un objeto ShotOutcome que indica las coordenadas del disparo y su resultado.
+     */
+    @Override
+    public ShotOutcome handleMachinePlayerTurn(int cell) {
         Random random = new Random();
-        Coordinate shotCoordinate;
+        int size = this.humanPlayerBoard.getSize();
+        Coordinate shotCoordinate = (cell >= 0 && cell < size * size) ? new Coordinate(cell % size, cell / size) : null;
         int maxAttempts = 100; // Evita bucles infinitos
 
         // Bucle para encontrar una celda válida que no haya sido disparada
-        do {
+        while (shotCoordinate == null || (isCellAlreadyShotByMachine(shotCoordinate) && maxAttempts > 0)) {
             int row = random.nextInt(this.humanPlayerBoard.getSize());
             int col = random.nextInt(this.humanPlayerBoard.getSize());
             shotCoordinate = new Coordinate(col, row);
             maxAttempts--;
-        } while (isCellAlreadyShotByMachine(shotCoordinate) && maxAttempts > 0);
+        }
 
         // Si después de 100 intentos no se encontró una celda (muy improbable),
         // se devuelve un resultado que el controlador pueda interpretar.
@@ -188,7 +275,10 @@ public class GameState implements IGameState {
         try {
             // La IA no debe lanzar la excepción, sino obtener un resultado simple.
             // Por eso no llamamos a receiveShot directamente sino que manejamos el caso internamente.
-            return this.humanPlayerBoard.receiveShot(shotCoordinate);
+            ShotOutcome outcome = this.humanPlayerBoard.receiveShot(shotCoordinate);
+            this.recordMove(MACHINE_SHOOTER, shotCoordinate.getY(), shotCoordinate.getX(), CellState.EMPTY, false);
+            this.publishSnapshot();
+            return outcome;
 
         } catch(OutOfBoundsException | OverlapException e) {
             System.err.println("Error inesperado en el turno de la IA: " + e.getMessage());
@@ -210,6 +300,381 @@ public class GameState implements IGameState {
         }
     }
 
+    // ----- Modo salva -----
+
+    /**
+     * Calcula cuántos disparos tiene la salva del jugador con el turno: uno por cada barco propio a flote,
+     * sin superar las casillas del rival que aún no han sido atacadas.
+     * @return La cantidad de disparos de la salva actual, o 1 en el modo clásico.
+     */
+    @Override
+    public int getSalvoSize() {
+        if (this.gameMode != GameMode.SALVO) {
+            return 1;
+        }
+        boolean humanShooting = this.currentPlayer != this.machinePlayer;
+        Board ownBoard = humanShooting ? this.humanPlayerBoard : this.machinePlayerBoard;
+        Board targetBoard = humanShooting ? this.machinePlayerBoard : this.humanPlayerBoard;
+        int shipsAfloat = 0;
+        for (Ship ship : ownBoard.getShips()) {
+            if (!ship.isSunk()) {
+                shipsAfloat++;
+            }
+        }
+        return Math.min(shipsAfloat, this.countUnattackedCells(targetBoard));
+    }
+
+    /**
+     * Procesa la salva del jugador humano sobre el tablero de la máquina.
+     * Todos los disparos se validan antes de aplicar cualquiera; la salva se registra como un solo turno.
+     * @param targets Coordenadas de los disparos.
+     * @return El resultado de la salva.
+     * @throws OutOfBoundsException si algún disparo es fuera del tablero.
+     * @throws OverlapException si alguna casilla ya fue atacada o se repite.
+     */
+    @Override
+    public SalvoOutcome handleHumanPlayerSalvo(List<Coordinate> targets) throws OutOfBoundsException, OverlapException {
+        CellState[] previousTerritoryStates = new CellState[targets.size()];
+        for (int i = 0; i < targets.size(); i++) {
+            Coordinate target = targets.get(i);
+            if (this.machinePlayerTerritoryBoard.isValidCoordinate(target.getY(), target.getX())) {
+                previousTerritoryStates[i] = this.machinePlayerTerritoryBoard.getCellState(target.getY(), target.getX());
+            }
+        }
+        SalvoOutcome outcome = this.machinePlayerBoard.receiveShots(targets);
+        for (int i = 0; i < outcome.size(); i++) {
+            int row = outcome.getRow(i);
+            int col = outcome.getCol(i);
+            this.machinePlayerTerritoryBoard.setCellState(row, col, this.machinePlayerBoard.getCellState(row, col));
+            this.recordMove(HUMAN_SHOOTER, row, col, previousTerritoryStates[i], i > 0);
+        }
+        this.publishSnapshot();
+        return outcome;
+    }
+
+    /**
+     * Ejecuta la salva de la máquina en este hilo: busca las casillas con
+     * {@link #prepareMachineTurn()} y las dispara juntas.
+     * @return El resultado de la salva.
+     */
+    @Override
+    public SalvoOutcome handleMachinePlayerSalvo() {
+        return this.handleMachinePlayerSalvo(this.prepareMachineTurn().get());
+    }
+
+    /**
+     * Aplica la salva de la máquina elegida por la búsqueda del turno: dispara juntas tantas
+     * casillas no atacadas del tablero humano como disparos le correspondan. Las casillas inválidas,
+     * repetidas o ya atacadas se descartan, y si faltan disparos el resto se completa al azar.
+     * @param chosen Casillas elegidas en orden fila por fila.
+     * @return El resultado de la salva.
+     */
+    @Override
+    public SalvoOutcome handleMachinePlayerSalvo(int[] chosen) {
+        int size = this.humanPlayerBoard.getSize();
+        int shots = Math.min(this.getSalvoSize(), this.countUnattackedCells(this.humanPlayerBoard));
+        List<Coordinate> targets = new ArrayList<>();
+        boolean[] taken = new boolean[size * size];
+        for (int cell : chosen) {
+            Coordinate coordinate = new Coordinate(cell % size, cell / size);
+            if (targets.size() < shots && cell >= 0 && cell < taken.length && !taken[cell]
+                    && !isCellAlreadyShotByMachine(coordinate)) {
+                taken[cell] = true;
+                targets.add(coordinate);
+            }
+        }
+        if (targets.size() < shots) {
+            List<Coordinate> candidates = new ArrayList<>();
+            for (int cell = 0; cell < taken.length; cell++) {
+                Coordinate coordinate = new Coordinate(cell % size, cell / size);
+                if (!taken[cell] && !isCellAlreadyShotByMachine(coordinate)) {
+                    candidates.add(coordinate);
+                }
+            }
+            Collections.shuffle(candidates);
+            targets.addAll(candidates.subList(0, Math.min(shots - targets.size(), candidates.size())));
+        }
+
+        try {
+            SalvoOutcome outcome = this.humanPlayerBoard.receiveShots(targets);
+            for (int i = 0; i < outcome.size(); i++) {
+                this.recordMove(MACHINE_SHOOTER, outcome.getRow(i), outcome.getCol(i), CellState.EMPTY, i > 0);
+            }
+            this.publishSnapshot();
+            return outcome;
+        } catch (OutOfBoundsException | OverlapException e) {
+            System.err.println("Error inesperado en la salva de la IA: " + e.getMessage());
+            return new SalvoOutcome(size, new int[0], new byte[0], new ArrayList<>());
+        }
+    }
+
+    /**
+     * Cuenta las casillas de un tablero que aún no han recibido disparos.
+     * @param board El tablero a revisar.
+     * @return La cantidad de casillas sin atacar.
+     */
+    private int countUnattackedCells(Board board) {
+        int count = 0;
+        for (int row = 0; row < board.getSize(); row++) {
+            for (int col = 0; col < board.getSize(); col++) {
+                CellState state = board.getCellState(row, col);
+                if (state == CellState.EMPTY || state == CellState.SHIP) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Obtiene la variante de reglas de la partida.
+     * @return El modo de juego.
+     */
+    @Override
+    public GameMode getGameMode() {
+        return this.gameMode;
+    }
+
+    /**
+     * Establece la variante de reglas. Debe llamarse antes de startNewGame.
+     * @param gameMode El modo de juego; null se interpreta como clásico.
+     */
+    @Override
+    public void setGameMode(GameMode gameMode) {
+        this.gameMode = (gameMode != null) ? gameMode : GameMode.CLASSIC;
+    }
+
+    /**
+     * Obtiene la dificultad de la máquina.
+     * @return La dificultad.
+     */
+    @Override
+    public Difficulty getDifficulty() {
+        return this.difficulty;
+    }
+
+    /**
+     * Establece la dificultad de la máquina; la estrategia cambia desde su siguiente jugada.
+     * @param difficulty La dificultad; null se interpreta como la dificultad por defecto.
+     */
+    @Override
+    public void setDifficulty(Difficulty difficulty) {
+        this.difficulty = (difficulty != null) ? difficulty : Difficulty.DEFAULT;
+        this.machineStrategy = MachineStrategyFactory.create(this.difficulty, this.fleetConfiguration);
+        this.applyPlacementPrior();
+        if (this.machinePlayer instanceof MachinePlayer) {
+            ((MachinePlayer) this.machinePlayer).setStrategy(this.machineStrategy);
+        }
+    }
+
+    /**
+     * Obtiene la estrategia de la máquina, creándola la primera vez.
+     */
+    private MachineStrategy getMachineStrategy() {
+        if (this.machineStrategy == null) {
+            this.machineStrategy = MachineStrategyFactory.create(this.difficulty, this.fleetConfiguration);
+        }
+        return this.machineStrategy;
+    }
+
+    /**
+     * Entrega a la estrategia de la máquina las estadísticas de colocación del jugador humano, si
+     * tiene partidas registradas.
+     */
+    private void applyPlacementPrior() {
+        if (this.humanPlayer == null) {
+            return;
+        }
+        PlacementStatistics statistics = PlacementStatistics.forPlayer(this.humanPlayer.getName(),
+                this.fleetConfiguration.getBoardSize());
+        double[] weights = (statistics != null) ? statistics.getCellWeights(PLACEMENT_PRIOR_PSEUDO_GAMES) : null;
+        this.getMachineStrategy().setPlacementPrior(weights);
+    }
+
+    // ----- Historial de movimientos (deshacer/rehacer) -----
+
+    /**
+     * Registra un disparo aplicado en el historial. Descarta los disparos deshechos pendientes de rehacer.
+     * @param shooter Código del tirador (HUMAN_SHOOTER o MACHINE_SHOOTER).
+     * @param row Fila del disparo.
+     * @param col Columna del disparo.
+     * @param previousTerritoryState Estado que tenía la celda en el tablero de territorio antes del disparo.
+     * @param salvoContinuation true si el disparo pertenece a la misma salva que el registro anterior.
+     */
+    private void recordMove(int shooter, int row, int col, CellState previousTerritoryState, boolean salvoContinuation) {
+        if (this.moveHistoryCount == this.moveHistory.length) {
+            this.moveHistory = Arrays.copyOf(this.moveHistory, this.moveHistory.length * 2);
+        }
+        int cell = row * this.humanPlayerBoard.getSize() + col;
+        int continuation = salvoContinuation ? SALVO_CONTINUATION : 0;
+        this.moveHistory[this.moveHistoryCount++] = continuation | (shooter << SHOOTER_SHIFT) | (cell << 8) | previousTerritoryState.ordinal();
+        this.moveHistoryLimit = this.moveHistoryCount;
+    }
+
+    /**
+     * Vacía el historial de disparos.
+     */
+    private void clearMoveHistory() {
+        this.moveHistoryCount = 0;
+        this.moveHistoryLimit = 0;
+    }
+
+    /**
+     * Deshace el último disparo registrado, sin importar quién lo hizo.
+     * El turno vuelve al jugador que realizó ese disparo. En una salva, el tablero se revierte
+     * completo al llegar a su primer disparo, porque el tablero la registra como un único movimiento.
+     * @return true si había un disparo para deshacer.
+     */
+    private boolean undoSingleMove() {
+        if (this.moveHistoryCount == 0) {
+            return false;
+        }
+        int packed = this.moveHistory[--this.moveHistoryCount];
+        int shooter = (packed >>> SHOOTER_SHIFT) & 1;
+        boolean continuation = (packed & SALVO_CONTINUATION) != 0;
+        int cell = (packed >>> 8) & CELL_MASK;
+        int size = this.humanPlayerBoard.getSize();
+        if (shooter == HUMAN_SHOOTER) {
+            if (!continuation) {
+                this.machinePlayerBoard.unmakeShot();
+            }
+            this.machinePlayerTerritoryBoard.setCellState(cell / size, cell % size, CellState.values()[packed & 0xFF]);
+            this.currentPlayer = this.humanPlayer;
+        } else {
+            if (!continuation) {
+                this.humanPlayerBoard.unmakeShot();
+            }
+            this.currentPlayer = this.machinePlayer;
+        }
+        if (this.currentPhase == GamePhase.GAME_OVER) {
+            this.currentPhase = GamePhase.FIRING;
+        }
+        return true;
+    }
+
+    /**
+     * Vuelve a aplicar el siguiente disparo deshecho y ajusta el turno según su resultado.
+     * @return true si había un disparo para rehacer.
+     */
+    private boolean redoSingleMove() {
+        if (this.moveHistoryCount == this.moveHistoryLimit) {
+            return false;
+        }
+        int packed = this.moveHistory[this.moveHistoryCount++];
+        int shooter = (packed >>> SHOOTER_SHIFT) & 1;
+        int cell = (packed >>> 8) & CELL_MASK;
+        int size = this.humanPlayerBoard.getSize();
+        int row = cell / size;
+        int col = cell % size;
+        Board targetBoard = (shooter == HUMAN_SHOOTER) ? this.machinePlayerBoard : this.humanPlayerBoard;
+        if ((packed & SALVO_CONTINUATION) == 0) {
+            targetBoard.redoShot();
+        }
+        CellState resultState = targetBoard.getCellState(row, col);
+        if (shooter == HUMAN_SHOOTER) {
+            this.machinePlayerTerritoryBoard.setCellState(row, col, resultState);
+        }
+        // Un disparo al agua pasa el turno; un acierto lo conserva. Una salva siempre pasa el turno.
+        Player shooterPlayer = (shooter == HUMAN_SHOOTER) ? this.humanPlayer : this.machinePlayer;
+        Player otherPlayer = (shooter == HUMAN_SHOOTER) ? this.machinePlayer : this.humanPlayer;
+        boolean keepsTurn = this.gameMode == GameMode.CLASSIC && resultState != CellState.SHOT_LOST_IN_WATER;
+        this.currentPlayer = keepsTurn ? shooterPlayer : otherPlayer;
+        return true;
+    }
+
+    /**
+     * Deshace el último turno del jugador humano: revierte los disparos de la máquina posteriores
+     * y el último disparo del humano, dejándole el turno para repetirlo.
+     * @return true si se deshizo algún disparo del humano.
+     */
+    @Override
+    public boolean undoHumanTurn() {
+        while (this.moveHistoryCount > 0) {
+            int packed = this.moveHistory[this.moveHistoryCount - 1];
+            int shooter = (packed >>> SHOOTER_SHIFT) & 1;
+            this.undoSingleMove();
+            // En una salva se sigue deshaciendo hasta llegar a su primer disparo.
+            if (shooter == HUMAN_SHOOTER && (packed & SALVO_CONTINUATION) == 0) {
+                this.publishSnapshot();
+                return true;
+            }
+        }
+        this.publishSnapshot();
+        return false;
+    }
+
+    /**
+     * Rehace el siguiente disparo del humano que fue deshecho, junto con las respuestas
+     * de la máquina que le siguieron.
+     * @return true si se rehizo algún disparo del humano.
+     */
+    @Override
+    public boolean redoHumanTurn() {
+        if (!this.canRedo()) {
+            return false;
+        }
+        boolean redone = false;
+        while (this.moveHistoryCount < this.moveHistoryLimit) {
+            int packed = this.moveHistory[this.moveHistoryCount];
+            int shooter = (packed >>> SHOOTER_SHIFT) & 1;
+            if (redone && shooter == HUMAN_SHOOTER && (packed & SALVO_CONTINUATION) == 0) {
+                break;
+            }
+            this.redoSingleMove();
+            redone = redone || shooter == HUMAN_SHOOTER;
+        }
+        this.publishSnapshot();
+        return redone;
+    }
+
+    /**
+     * Indica si hay disparos que se puedan deshacer.
+     * @return true si el historial tiene disparos aplicados.
+     */
+    @Override
+    public boolean canUndo() {
+        return this.moveHistoryCount > 0;
+    }
+
+    /**
+     * Indica si hay disparos deshechos que se puedan rehacer.
+     * @return true si hay disparos pendientes de rehacer.
+     */
+    @Override
+    public boolean canRedo() {
+        return this.moveHistoryCount < this.moveHistoryLimit;
+    }
+
+    /**
+     * Obtiene la cantidad de disparos aplicados en la partida actual. Las partidas cargadas
+     * desde un guardado empiezan con el historial vacío.
+     * @return Cantidad de disparos del historial, sin contar los deshechos.
+     */
+    @Override
+    public int getShotCount() {
+        return this.moveHistoryCount;
+    }
+
+    /**
+     * Indica si un disparo del historial lo hizo la máquina.
+     * @param index Posición del disparo en orden cronológico, entre 0 y getShotCount() - 1.
+     * @return true si disparó la máquina, false si disparó el jugador humano.
+     */
+    @Override
+    public boolean isMachineShot(int index) {
+        return ((this.moveHistory[index] >>> SHOOTER_SHIFT) & 1) == MACHINE_SHOOTER;
+    }
+
+    /**
+     * Obtiene la celda atacada por un disparo del historial.
+     * @param index Posición del disparo en orden cronológico, entre 0 y getShotCount() - 1.
+     * @return La celda lineal (fila * tamaño + columna).
+     */
+    @Override
+    public int getShotCell(int index) {
+        return (this.moveHistory[index] >>> 8) & CELL_MASK;
+    }
+
     /**
      * Obtiene el tablero de posición del jugador humano.
      * Utilizado por la vista para mostrar los barcos del jugador y los disparos de la máquina.
@@ -257,13 +722,26 @@ public class GameState implements IGameState {
         }
         
         boolean isGameOver = humanShipsSunk || machineShipsSunk;
-        if (isGameOver) {
+        if (isGameOver && this.currentPhase != GamePhase.GAME_OVER) {
             this.currentPhase = GamePhase.GAME_OVER;
+            this.publishSnapshot();
             System.out.println("El juego ha terminado. Fase actualizada a GAME_OVER.");
         }
         return isGameOver;
     }
 
+    /**
+     * Cierra una partida terminada: registra la colocación de la flota del jugador humano en sus
+     * estadísticas. Deshacer y volver a terminar la misma partida no la registra dos veces.
+     */
+    @Override
+    public void finishGame() {
+        if (this.isGameOver() && !this.placementRecorded) {
+            this.placementRecorded = PlacementStatistics.record(this.getHumanPlayerNickname(),
+                    this.fleetConfiguration.getBoardSize(), this.humanPlayerBoard.getShips());
+        }
+    }
+
     /**
      * Obtiene el ganador del juego.
      * @return El Player del ganador, o null si el juego no ha terminado.
@@ -311,15 +789,16 @@ public class GameState implements IGameState {
         } else {
             this.currentPlayer = this.humanPlayer;
         }
+        this.publishSnapshot();
     }
 
     /**
      * Obtiene la lista de barcos que el jugador aún necesita colocar.
      * Esta lista se utiliza para mostrar los barcos pendientes en la interfaz de usuario.
-     * @return Una lista de ShipType que representa los barcos pendientes de colocar por el jugador humano.
+     * @return Los identificadores de clase de los barcos pendientes de colocar por el jugador humano.
      */
     @Override
-    public List<ShipType> getPendingShipsToPlace() {
+    public List<String> getPendingShipsToPlace() {
         return new ArrayList<>(this.pendingShipsToPlaceForHuman);
     }
     
@@ -332,6 +811,38 @@ public class GameState implements IGameState {
         return this.currentPhase;
     }
 
+    // ----- Instantáneas -----
+
+    /**
+     * Publica una instantánea inmutable del estado actual. Se invoca desde el hilo del juego
+     * al final de cada operación que modifica el estado. Los tableros sin cambios reutilizan
+     * su instantánea anterior, por lo que el costo es proporcional solo a lo que cambió.
+     */
+    private void publishSnapshot() {
+        PlayerType turn = null;
+        if (this.currentPlayer != null) {
+            turn = (this.currentPlayer == this.machinePlayer) ? PlayerType.MACHINE_PLAYER : PlayerType.HUMAN_PLAYER;
+        }
+        this.publishedSnapshot = new GameStateSnapshot(
+                this.getHumanPlayerNickname(),
+                this.currentPhase,
+                turn,
+                this.humanPlayerBoard.snapshot(),
+                this.machinePlayerBoard.snapshot(),
+                this.machinePlayerTerritoryBoard.snapshot()
+        );
+    }
+
+    /**
+     * Devuelve la última instantánea publicada del juego.
+     * Puede llamarse desde cualquier hilo sin bloqueos ni copias defensivas.
+     * @return La instantánea más reciente.
+     */
+    @Override
+    public GameStateSnapshot getSnapshot() {
+        return this.publishedSnapshot;
+    }
+
     // ----- Métodos de Guardado y Carga -----
     /**
      * Crea un memento con el estado actual del juego
@@ -343,7 +854,7 @@ public class GameState implements IGameState {
         int humanSunkShips = countSunkShips(humanPlayerBoard);
         int computerSunkShips = countSunkShips(machinePlayerBoard);
         
-        return new GameMemento(nickname, humanSunkShips, computerSunkShips, currentPhase);
+        return new GameMemento(nickname, humanSunkShips, computerSunkShips, currentPhase, gameMode, difficulty, LocalDateTime.now());
     }
     
     /**
@@ -353,14 +864,23 @@ public class GameState implements IGameState {
     @Override
     public void restoreFromMemento(GameMemento memento) {
         if (memento != null) {
+            // La dificultad va primero: de ella depende la estrategia del jugador máquina.
+            this.setDifficulty(memento.getDifficulty());
             // Asegurar que los jugadores estén inicializados
             ensurePlayersInitialized(memento.getHumanPlayerNickname());
+            this.applyPlacementPrior();
             
-            // Restaurar la fase del juego
+            // Restaurar la fase del juego y la variante de reglas
             this.currentPhase = memento.getCurrentPhase();
+            // Una partida guardada ya terminada se registró al terminar.
+            this.placementRecorded = this.currentPhase == GamePhase.GAME_OVER;
+            this.setGameMode(memento.getGameMode());
+            // El historial de disparos no se persiste; una partida cargada empieza sin historial.
+            this.clearMoveHistory();
             
             // IMPORTANTE: Establecer el turno correcto basado en la fase cargada
             restoreCurrentPlayerBasedOnPhase(this.currentPhase);
+            this.publishSnapshot();
             
             System.out.println("Estado del juego restaurado desde memento: " + memento);
         }
@@ -380,7 +900,7 @@ public class GameState implements IGameState {
         
         // Inicializar jugador máquina si no existe
         if (this.machinePlayer == null) {
-            this.machinePlayer = new univalle.tedesoft.battleship.models.players.MachinePlayer();
+            this.machinePlayer = new univalle.tedesoft.battleship.models.players.MachinePlayer(this.getMachineStrategy());
         }
     }
 
@@ -443,6 +963,39 @@ public class GameState implements IGameState {
         GamePersistenceManager.saveGame(this);
     }
 
+    /**
+     * Toma el estado del juego y deja su escritura al hilo de guardado.
+     * @see GamePersistenceManager#autoSaveGame(GameState)
+     */
+    @Override
+    public void autoSaveGame() {
+        GamePersistenceManager.autoSaveGame(this);
+    }
+
+    /**
+     * Guarda el estado completo del juego como nueva versión de una ranura del historial del jugador.
+     * @param slot Nombre de la ranura.
+     * @return true si se guardó exitosamente.
+     * @see GamePersistenceManager#saveGame(GameState, String)
+     */
+    @Override
+    public boolean saveGame(String slot) {
+        return GamePersistenceManager.saveGame(this, slot);
+    }
+
+    /**
+     * Restaura y carga una versión del historial de guardados del jugador.
+     * @param versión La versión a restaurar.
+     * @return true si la carga fue exitosa, false en caso contrario.
+     * @see GamePersistenceManager#restoreGameVersion(GameState, GamePersistenceManager.SaveVersionInfo)
+     */
+    @Override
+    public boolean loadGameVersion(GamePersistenceManager.SaveVersionInfo version) {
+        boolean loaded = GamePersistenceManager.restoreGameVersion(this, version);
+        this.publishSnapshot();
+        return loaded;
+    }
+
     /**
      * Carga una partida guardada por el jugador humano.
      * Delega la operación de carga al GamePersistenceManager.
@@ -454,7 +1007,10 @@ public class GameState implements IGameState {
      */
     @Override
     public boolean loadGame(String nickname) {
-        return GamePersistenceManager.loadGame(this, nickname);
+        boolean loaded = GamePersistenceManager.loadGame(this, nickname);
+        // Los tableros se reconstruyeron al deserializar; publicar la vista resultante.
+        this.publishSnapshot();
+        return loaded;
     }
 
     /**
@@ -471,28 +1027,30 @@ public class GameState implements IGameState {
 
     /**
      * Metodo que crea la cantidad de barcos que cada jugador debe poseer en su tablero.
-     * @return fleet flota de barcos especificada en los requerimientos.
+     * @return fleet flota de barcos especificada en la configuración de flota.
      */
     private List<Ship> createFleet() {
-        List<Ship> fleet = new ArrayList<>();
-        fleet.add(new AirCraftCarrier());
-        fleet.add(new Submarine());
-        fleet.add(new Submarine());
-        fleet.add(new Destroyer());
-        fleet.add(new Destroyer());
-        fleet.add(new Destroyer());
-        fleet.add(new Frigate());
-        fleet.add(new Frigate());
-        fleet.add(new Frigate());
-        fleet.add(new Frigate());
-        return fleet;
+        return this.fleetConfiguration.createFleet();
+    }
+
+    /**
+     * Obtiene la configuración de flota de la partida.
+     * @return La configuración de flota.
+     */
+    @Override
+    public FleetConfiguration getFleetConfiguration() {
+        return this.fleetConfiguration;
     }
 
     /**
      * Metodo que crea y asigna en su sitio los barcos del jugador máquina.
      */
     private void placeMachinePlayerShips() {
-        this.placeShipsRandomlyOnBoard(this.machinePlayerBoard);
+        long deadline = System.nanoTime() + this.difficulty.getTimeBudgetMillis() * 1_000_000L;
+        if (!this.getMachineStrategy().placeFleet(this.machinePlayerBoard, this.createFleet(), this.fleetConfiguration, deadline)) {
+            // La estrategia no terminó a tiempo: se coloca al azar, sin límite de tiempo.
+            this.placeShipsRandomlyOnBoard(this.machinePlayerBoard);
+        }
     }
 
     /**
@@ -504,6 +1062,7 @@ public class GameState implements IGameState {
         this.placeShipsRandomlyOnBoard(this.humanPlayerBoard);
         // Vaciar la lista de barcos pendientes para la UI.
         this.pendingShipsToPlaceForHuman.clear();
+        this.publishSnapshot();
     }
 
     /**
@@ -515,43 +1074,8 @@ public class GameState implements IGameState {
      * @param board El tablero (del humano o de la máquina) en el que se colocarán los barcos.
      */
     private void placeShipsRandomlyOnBoard(Board board) {
-        // Asegurarse que el tablero esté limpio antes de empezar.
-        board.resetBoard();
-        List<Ship> fleetToPlace = this.createFleet();
-        Random random = new Random();
-
-        for (Ship ship : fleetToPlace) {
-            boolean placedSuccessfully = false;
-            int attempts = 0;
-            final int MAX_PLACEMENT_ATTEMPTS = 100; // Evitar bucles infinitos.
-
-            while (!placedSuccessfully && attempts < MAX_PLACEMENT_ATTEMPTS) {
-                int row = random.nextInt(board.getSize());
-                int col = random.nextInt(board.getSize());
-
-                Orientation orientation;
-                if (ship.getShipType() == ShipType.FRIGATE) {
-                    orientation = Orientation.HORIZONTAL;
-                } else {
-                    orientation = random.nextBoolean() ? Orientation.HORIZONTAL : Orientation.VERTICAL;
-                }
-                ship.setOrientation(orientation);
-
-                try {
-                    board.placeShip(ship, new Coordinate(col, row));
-                    placedSuccessfully = true;
-                } catch (OutOfBoundsException | OverlapException e) {
-                    placedSuccessfully = false;
-                }
-                attempts++;
-            }
-
-            if (!placedSuccessfully) {
-                System.err.println("Error crítico: No se pudo colocar el barco " + ship.getShipType() + " en el tablero. Reiniciando tablero.");
-                board.resetBoard();
-                // Salir para evitar un tablero a medio colocar.
-                return;
-            }
+        if (!RandomStrategy.placeRandomly(board, this.createFleet(), this.fleetConfiguration, new Random(), Long.MAX_VALUE)) {
+            System.err.println("Error crítico: No se pudo colocar la flota en el tablero. Reiniciando tablero.");
         }
     }
 
@@ -578,6 +1102,7 @@ public class GameState implements IGameState {
         try {
             // Intentar colocar el barco en la nueva posición.
             this.humanPlayerBoard.placeShip(shipToMove, new Coordinate(newCol, newRow));
+            this.publishSnapshot();
         } catch (OutOfBoundsException | OverlapException e) {
             // Si el movimiento falla, restaurar el barco a su estado original.
             // Limpiar cualquier coordenada parcial que se haya podido añadir.
@@ -594,6 +1119,7 @@ public class GameState implements IGameState {
                 // Restaurar el estado en la grilla y en la lista de barcos.
                 this.humanPlayerBoard.setCellState(coord.getY(), coord.getX(), CellState.SHIP);
             }
+            this.publishSnapshot();
 
             // Relanzar la excepción para que el controlador pueda notificar al usuario.
             throw e;
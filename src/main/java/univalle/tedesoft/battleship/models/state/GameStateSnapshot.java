@@ -0,0 +1,77 @@
+package univalle.tedesoft.battleship.models.state;
+
+import univalle.tedesoft.battleship.models.board.BoardSnapshot;
+import univalle.tedesoft.battleship.models.enums.GamePhase;
+import univalle.tedesoft.battleship.models.enums.PlayerType;
+
+/**
+ * Vista inmutable y consistente de una partida completa.
+ * Agrupa las instantáneas de los tres tableros junto con la fase y el turno, de modo que
+ * la vista, el autoguardado o una IA en segundo plano puedan leer el juego sin bloqueos.
+ * Los tableros que no cambiaron entre dos instantáneas comparten la misma instancia.
+ *
+ * @author Juan Pablo Escamilla
+ * @author David Valencia
+ * @author Santiago Guerrero
+ */
+public final class GameStateSnapshot {
+    private final String humanPlayerNickname;
+    private final GamePhase currentPhase;
+    private final PlayerType currentTurn;
+    private final BoardSnapshot humanPlayerBoard;
+    private final BoardSnapshot machinePlayerBoard;
+    private final BoardSnapshot machinePlayerTerritoryBoard;
+
+    /**
+     * Constructor de la instantánea.
+     * @param humanPlayerNickname Nickname del jugador humano.
+     * @param currentPhase Fase del juego.
+     * @param currentTurn Tipo del jugador que tiene el turno, o null si aún no hay jugadores.
+     * @param humanPlayerBoard Instantánea del tablero de posición del humano.
+     * @param machinePlayerBoard Instantánea del tablero real de la máquina.
+     * @param machinePlayerTerritoryBoard Instantánea del territorio enemigo visto por el humano.
+     */
+    public GameStateSnapshot(String humanPlayerNickname, GamePhase currentPhase, PlayerType currentTurn,
+                             BoardSnapshot humanPlayerBoard, BoardSnapshot machinePlayerBoard,
+                             BoardSnapshot machinePlayerTerritoryBoard) {
+        this.humanPlayerNickname = humanPlayerNickname;
+        this.currentPhase = currentPhase;
+        this.currentTurn = currentTurn;
+        this.humanPlayerBoard = humanPlayerBoard;
+        this.machinePlayerBoard = machinePlayerBoard;
+        this.machinePlayerTerritoryBoard = machinePlayerTerritoryBoard;
+    }
+
+    // Getters
+    public String getHumanPlayerNickname() {
+        return humanPlayerNickname;
+    }
+
+    public GamePhase getCurrentPhase() {
+        return currentPhase;
+    }
+
+    public PlayerType getCurrentTurn() {
+        return currentTurn;
+    }
+
+    public BoardSnapshot getHumanPlayerBoard() {
+        return humanPlayerBoard;
+    }
+
+    public BoardSnapshot getMachinePlayerBoard() {
+        return machinePlayerBoard;
+    }
+
+    public BoardSnapshot getMachinePlayerTerritoryBoard() {
+        return machinePlayerTerritoryBoard;
+    }
+
+    /**
+     * Indica si la partida estaba terminada al tomar la instantánea.
+     * @return true si alguna de las flotas estaba completamente hundida.
+     */
+    public boolean isGameOver() {
+        return this.humanPlayerBoard.areAllShipsSunk() || this.machinePlayerBoard.areAllShipsSunk();
+    }
+}
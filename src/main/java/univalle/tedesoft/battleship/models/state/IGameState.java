@@ -4,15 +4,20 @@ import univalle.tedesoft.battleship.exceptions.InvalidShipPlacementException;
 import univalle.tedesoft.battleship.exceptions.OutOfBoundsException;
 import univalle.tedesoft.battleship.exceptions.OverlapException;
 import univalle.tedesoft.battleship.models.enums.Orientation;
-import univalle.tedesoft.battleship.models.enums.ShipType;
+import univalle.tedesoft.battleship.models.enums.Difficulty;
+import univalle.tedesoft.battleship.models.enums.GameMode;
 import univalle.tedesoft.battleship.models.enums.GamePhase;
 import univalle.tedesoft.battleship.models.players.Player; // Necesitará ser definida
 import univalle.tedesoft.battleship.models.board.Board;
+import univalle.tedesoft.battleship.models.board.Coordinate;
+import univalle.tedesoft.battleship.models.board.SalvoOutcome;
+import univalle.tedesoft.battleship.models.ships.FleetConfiguration;
 import univalle.tedesoft.battleship.models.ships.Ship;
 import univalle.tedesoft.battleship.models.board.ShotOutcome;
 
 
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Define el contrato para el estado y la lógica del juego Batalla Naval.
@@ -33,7 +38,7 @@ public interface IGameState {
      * Intenta colocar un barco para el jugador humano en su tablero de posición.
      * Esta es la firma corregida que acepta los datos directamente desde la UI.
      *
-     * @param shipType El tipo de barco a colocar (ej. AIRCRAFT_CARRIER).
+     * @param shipClassId El identificador de la clase de barco a colocar (ej. AIR_CRAFT_CARRIER).
      * @param row La fila (0-9) de la casilla de inicio del barco.
      * @param col La columna (0-9) de la casilla de inicio del barco.
      * @param orientation La orientación del barco (HORIZONTAL o VERTICAL).
@@ -41,7 +46,7 @@ public interface IGameState {
      * @throws OverlapException si el barco se superpone con otro.
      * @throws OutOfBoundsException si el barco se sale del tablero.
      */
-    void placeHumanPlayerShip(ShipType shipType, int row, int col, Orientation orientation) throws InvalidShipPlacementException, OverlapException, OutOfBoundsException;
+    void placeHumanPlayerShip(String shipClassId, int row, int col, Orientation orientation) throws InvalidShipPlacementException, OverlapException, OutOfBoundsException;
 
     /**
      * Indica que el jugador humano ha terminado de colocar todos sus barcos.
@@ -57,6 +62,14 @@ public interface IGameState {
      */
     ShotOutcome handleHumanPlayerShot(int row, int col) throws OutOfBoundsException, OverlapException;
 
+    /**
+     * Prepara la búsqueda del turno de la máquina. Debe llamarse desde el hilo del juego; la
+     * búsqueda devuelta puede ejecutarse en otro hilo para no bloquear la interfaz, y sus casillas
+     * se aplican después con {@link #handleMachinePlayerTurn(int)} o {@link #handleMachinePlayerSalvo(int[])}.
+     * @return La búsqueda; devuelve las casillas elegidas, en orden fila por fila.
+     */
+    Supplier<int[]> prepareMachineTurn();
+
     /**
      * Ejecuta el turno de la máquina. La máquina elige una casilla para disparar
      * en el tablero del jugador humano.
@@ -64,6 +77,72 @@ public interface IGameState {
      */
     ShotOutcome handleMachinePlayerTurn();
 
+    /**
+     * Aplica un disparo de la máquina ya elegido por {@link #prepareMachineTurn()}.
+     * @param cell Casilla elegida en orden fila por fila, o -1 para disparar al azar.
+     * @return Un objeto ShotResult que indica las coordenadas del disparo y su resultado.
+     */
+    ShotOutcome handleMachinePlayerTurn(int cell);
+
+    /**
+     * Procesa la salva del jugador humano (modo salva). Todos los disparos se validan
+     * antes de aplicar cualquiera y se registran como un solo turno.
+     * @param targets Las coordenadas de los disparos de la salva.
+     * @return El resultado de cada disparo de la salva.
+     * @throws OutOfBoundsException si algún disparo es fuera del tablero.
+     * @throws OverlapException si alguna casilla ya fue atacada o se repite.
+     */
+    SalvoOutcome handleHumanPlayerSalvo(List<Coordinate> targets) throws OutOfBoundsException, OverlapException;
+
+    /**
+     * Ejecuta la salva de la máquina sobre el tablero del jugador humano (modo salva).
+     * @return El resultado de cada disparo de la salva.
+     */
+    SalvoOutcome handleMachinePlayerSalvo();
+
+    /**
+     * Aplica una salva de la máquina ya elegida por {@link #prepareMachineTurn()} (modo salva).
+     * @param cells Casillas elegidas en orden fila por fila.
+     * @return El resultado de cada disparo de la salva.
+     */
+    SalvoOutcome handleMachinePlayerSalvo(int[] cells);
+
+    /**
+     * Calcula la cantidad de disparos de la salva del jugador con el turno.
+     * @return Un disparo por cada barco propio a flote, o 1 en el modo clásico.
+     */
+    int getSalvoSize();
+
+    /**
+     * Obtiene la variante de reglas de la partida.
+     * @return El modo de juego.
+     */
+    GameMode getGameMode();
+
+    /**
+     * Establece la variante de reglas de la partida. Debe llamarse antes de startNewGame.
+     * @param gameMode El modo de juego.
+     */
+    void setGameMode(GameMode gameMode);
+
+    /**
+     * Obtiene la dificultad de la máquina.
+     * @return La dificultad.
+     */
+    Difficulty getDifficulty();
+
+    /**
+     * Establece la dificultad de la máquina: su estrategia y el tiempo que tiene para cada jugada.
+     * @param difficulty La dificultad.
+     */
+    void setDifficulty(Difficulty difficulty);
+
+    /**
+     * Obtiene la configuración de flota (clases de barcos y tamaño del tablero) de la partida.
+     * @return La configuración de flota.
+     */
+    FleetConfiguration getFleetConfiguration();
+
     /**
      * Obtiene el tablero de posición del jugador humano.
      * Utilizado por la vista para mostrar los barcos del jugador y los disparos de la máquina.
@@ -91,6 +170,11 @@ public interface IGameState {
      */
     boolean isGameOver();
 
+    /**
+     * Cierra una partida terminada. Se llama una vez, cuando el juego muestra el final de la partida.
+     */
+    void finishGame();
+
     /**
      * Obtiene el ganador del juego.
      * @return El PlayerType del ganador (HUMAN o COMPUTER), o null si el juego no ha terminado.
@@ -109,11 +193,24 @@ public interface IGameState {
      */
     void saveGame();
 
+    /**
+     * Guarda el estado actual del juego sin esperar a que se escriba en el disco.
+     * Pensado para el autoguardado, que se pide después de cada jugada.
+     */
+    void autoSaveGame();
+
+    /**
+     * Guarda el estado actual del juego como nueva versión de una ranura del historial del jugador.
+     * @param slot Nombre de la ranura.
+     * @return true si se guardó exitosamente.
+     */
+    boolean saveGame(String slot);
+
     /**
      * Obtiene la lista de barcos que el jugador humano aún necesita colocar.
-     * @return Una lista de ShipType.
+     * @return Los identificadores de clase de los barcos pendientes, con repeticiones.
      */
-    List<ShipType> getPendingShipsToPlace();
+    List<String> getPendingShipsToPlace();
 
     /**
      * Devuelve el nickname del jugador humano.
@@ -155,6 +252,13 @@ public interface IGameState {
      */
     boolean loadGame(String nickname);
 
+    /**
+     * Restaura y carga una versión del historial de guardados del jugador.
+     * @param versión La versión a restaurar.
+     * @return true si la carga fue exitosa, false en caso contrario.
+     */
+    boolean loadGameVersion(GamePersistenceManager.SaveVersionInfo version);
+
     /**
      * Crea un memento con el estado actual del juego
      * @return El memento creado
@@ -166,4 +270,56 @@ public interface IGameState {
      * @param memento El memento a restaurar
      */
     void restoreFromMemento(GameMemento memento);
-}
\ No newline at end of file
+
+    /**
+     * Deshace el último turno del jugador humano, incluyendo las respuestas de la máquina
+     * que le siguieron. El turno queda en manos del humano.
+     * @return true si se deshizo algún disparo.
+     */
+    boolean undoHumanTurn();
+
+    /**
+     * Rehace el último turno del jugador humano que fue deshecho, junto con las respuestas de la máquina.
+     * @return true si se rehizo algún disparo.
+     */
+    boolean redoHumanTurn();
+
+    /**
+     * Indica si hay disparos que se puedan deshacer.
+     * @return true si es posible deshacer.
+     */
+    boolean canUndo();
+
+    /**
+     * Indica si hay disparos deshechos que se puedan rehacer.
+     * @return true si es posible rehacer.
+     */
+    boolean canRedo();
+
+    /**
+     * Obtiene la cantidad de disparos aplicados en la partida, sin contar los deshechos.
+     * @return Cantidad de disparos del historial.
+     */
+    int getShotCount();
+
+    /**
+     * Indica si un disparo del historial lo hizo la máquina.
+     * @param index Posición del disparo en orden cronológico.
+     * @return true si disparó la máquina, false si disparó el jugador humano.
+     */
+    boolean isMachineShot(int index);
+
+    /**
+     * Obtiene la celda atacada por un disparo del historial.
+     * @param index Posición del disparo en orden cronológico.
+     * @return La celda lineal (fila * tamaño + columna).
+     */
+    int getShotCell(int index);
+
+    /**
+     * Devuelve la última instantánea inmutable publicada del juego.
+     * Puede leerse desde cualquier hilo mientras el hilo del juego sigue modificando el estado.
+     * @return La instantánea más reciente.
+     */
+    GameStateSnapshot getSnapshot();
+}
@@ -0,0 +1,373 @@
+package univalle.tedesoft.battleship.models.state;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Almacén de partidas en un único archivo mapeado en memoria.
+ * Evita crear un directorio y seis archivos por jugador, lo que resulta mucho más rápido
+ * cuando un servidor o un benchmark guarda miles de partidas.
+ *
+ * Estructura del archivo:
+ * <pre>
+ * cabecera (64 bytes)    magia, versión y cantidad de ranuras
+ * tabla de ranuras       por ranura, dos entradas de 128 bytes: secuencia, posición, longitud
+ *                        y CRC del bloque, nickname y CRC de la propia entrada
+ * zona de datos          bloques con los archivos de cada partida, agregados al final
+ * </pre>
+ * Cada guardado escribe su bloque al final de la zona de datos, lo sincroniza y solo entonces
+ * escribe la entrada de la ranura que no está vigente, con una secuencia mayor. Si el proceso se
+ * interrumpe a mitad de la entrada, su CRC no coincide y al abrir se usa la otra entrada, que
+ * sigue apuntando a la partida anterior. Cuando el espacio de bloques obsoletos supera al vigente,
+ * el archivo se compacta reescribiéndolo y reemplazándolo de forma atómica.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class MappedSaveStore implements SaveStore {
+    private static final int MAGIC = 0x42535331;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int ENTRY_SIZE = 128;
+    private static final int SLOT_SIZE = 2 * ENTRY_SIZE;
+    private static final int MAX_NICKNAME_BYTES = 96;
+    private static final int ENTRY_CRC_OFFSET = ENTRY_SIZE - 4;
+    private static final int INITIAL_SLOTS = 1024;
+    private static final long INITIAL_DATA_SIZE = 1 << 20;
+    private static final int PAGE_SIZE = 4096;
+    /** Longitud registrada en la entrada de una partida eliminada. */
+    private static final int DELETED = -1;
+
+    private final Path storePath;
+    private FileChannel channel;
+    private MappedByteBuffer map;
+    private int slotCount;
+    private long dataStart;
+    /** Primera posición libre de la zona de datos. */
+    private long dataEnd;
+    /** Bytes de la zona de datos que pertenecen a partidas vigentes. */
+    private long liveBytes;
+    /** Última secuencia usada; cada entrada nueva recibe una mayor. */
+    private long sequence;
+    /** Ranura vigente de cada jugador. */
+    private final Map<String, Integer> slotsByNickname = new HashMap<>();
+    /** Entrada vigente (0 o 1) y longitud del bloque de cada ranura. */
+    private int[] activeEntry;
+    private int[] blockLength;
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+
+    /**
+     * Abre el archivo del almacén, o lo crea si no existe.
+     * @param storePath Ruta del archivo.
+     * @throws IOException Si el archivo no se puede abrir o no es un almacén válido.
+     */
+    public MappedSaveStore(Path storePath) throws IOException {
+        this.storePath = storePath;
+        if (!Files.exists(storePath)) {
+            if (storePath.getParent() != null) {
+                Files.createDirectories(storePath.getParent());
+            }
+            createEmptyStore(storePath, INITIAL_SLOTS, INITIAL_DATA_SIZE);
+        }
+        this.open();
+    }
+
+    @Override
+    public synchronized void writeGame(String nickname, Map<String, byte[]> files) throws IOException {
+        byte[] name = nickname.getBytes(StandardCharsets.UTF_8);
+        if (name.length == 0 || name.length > MAX_NICKNAME_BYTES) {
+            throw new IOException("Nickname demasiado largo para el almacén: " + nickname);
+        }
+        byte[] block = encodeBlock(files);
+        if (!this.slotsByNickname.containsKey(nickname) && this.freeSlots.isEmpty()) {
+            this.compact(this.slotCount * 2, block.length);
+        }
+        if (this.dataEnd + block.length > this.map.capacity()) {
+            this.makeRoom(block.length);
+        }
+        // La ranura se busca después de hacer sitio: compactar vuelve a cargar la tabla de ranuras.
+        Integer slot = this.slotsByNickname.get(nickname);
+
+        // 1. El bloque se escribe y sincroniza antes de que ninguna entrada apunte a él.
+        long offset = this.dataEnd;
+        this.map.put((int) offset, block);
+        this.map.force((int) offset, block.length);
+        this.dataEnd += block.length;
+
+        // 2. La entrada no vigente de la ranura pasa a ser la vigente.
+        if (slot == null) {
+            slot = this.freeSlots.pop();
+        } else {
+            this.liveBytes -= this.blockLength[slot];
+        }
+        this.writeEntry(slot, 1 - this.activeEntry[slot], offset, block.length, crc32(block, 0, block.length), name);
+        this.slotsByNickname.put(nickname, slot);
+        this.blockLength[slot] = block.length;
+        this.liveBytes += block.length;
+    }
+
+    @Override
+    public synchronized Map<String, byte[]> readGame(String nickname) throws IOException {
+        Integer slot = this.slotsByNickname.get(nickname);
+        if (slot == null) {
+            return null;
+        }
+        int entry = entryPosition(slot, this.activeEntry[slot]);
+        long offset = this.map.getLong(entry + 8);
+        int length = this.map.getInt(entry + 16);
+        int crc = this.map.getInt(entry + 20);
+        byte[] block = new byte[length];
+        this.map.get((int) offset, block);
+        if (crc32(block, 0, length) != crc) {
+            throw new IOException("Bloque corrupto para " + nickname + " en " + this.storePath);
+        }
+        return decodeBlock(block);
+    }
+
+    @Override
+    public synchronized boolean hasGame(String nickname) {
+        return this.slotsByNickname.containsKey(nickname);
+    }
+
+    @Override
+    public synchronized boolean deleteGame(String nickname) throws IOException {
+        Integer slot = this.slotsByNickname.remove(nickname);
+        if (slot == null) {
+            return false;
+        }
+        this.writeEntry(slot, 1 - this.activeEntry[slot], 0, DELETED, 0, nickname.getBytes(StandardCharsets.UTF_8));
+        this.liveBytes -= this.blockLength[slot];
+        this.blockLength[slot] = 0;
+        this.freeSlots.push(slot);
+        return true;
+    }
+
+    @Override
+    public synchronized List<String> listNicknames() {
+        return new ArrayList<>(this.slotsByNickname.keySet());
+    }
+
+    @Override
+    public Path getCatalogPath() {
+        return this.storePath.resolveSibling(this.storePath.getFileName() + ".catalog");
+    }
+
+    @Override
+    public String describeLocation(String nickname) {
+        return this.storePath + "#" + nickname;
+    }
+
+    // --- Métodos Privados Auxiliares ---
+
+    /**
+     * Mapea el archivo y reconstruye en memoria la tabla de ranuras vigentes.
+     */
+    private void open() throws IOException {
+        this.channel = FileChannel.open(this.storePath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = this.channel.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("El almacén supera el tamaño que se puede mapear: " + this.storePath);
+        }
+        this.map = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        if (size < HEADER_SIZE || this.map.getInt(0) != MAGIC || this.map.getInt(4) != FORMAT_VERSION) {
+            this.channel.close();
+            throw new IOException("El archivo no es un almacén de partidas válido: " + this.storePath);
+        }
+        this.slotCount = this.map.getInt(8);
+        this.dataStart = dataStartFor(this.slotCount);
+        this.dataEnd = this.dataStart;
+        this.liveBytes = 0;
+        this.sequence = 0;
+        this.slotsByNickname.clear();
+        this.freeSlots.clear();
+        this.activeEntry = new int[this.slotCount];
+        this.blockLength = new int[this.slotCount];
+
+        for (int slot = this.slotCount - 1; slot >= 0; slot--) {
+            long bestSequence = 0;
+            for (int half = 0; half < 2; half++) {
+                int entry = entryPosition(slot, half);
+                long entrySequence = this.map.getLong(entry);
+                if (entrySequence > 0 && this.isEntryValid(entry)) {
+                    this.sequence = Math.max(this.sequence, entrySequence);
+                    // Ningún bloque nuevo puede pisar datos de una entrada válida, vigente o no.
+                    int length = this.map.getInt(entry + 16);
+                    if (length > 0) {
+                        this.dataEnd = Math.max(this.dataEnd, this.map.getLong(entry + 8) + length);
+                    }
+                    if (entrySequence > bestSequence) {
+                        bestSequence = entrySequence;
+                        this.activeEntry[slot] = half;
+                    }
+                }
+            }
+            int entry = entryPosition(slot, this.activeEntry[slot]);
+            int length = (bestSequence > 0) ? this.map.getInt(entry + 16) : DELETED;
+            if (length >= 0) {
+                this.slotsByNickname.put(this.readNickname(entry), slot);
+                this.blockLength[slot] = length;
+                this.liveBytes += length;
+            } else {
+                this.freeSlots.push(slot);
+            }
+        }
+    }
+
+    /**
+     * Hace sitio para un bloque nuevo: compacta si la mayor parte de la zona de datos está obsoleta
+     * y, si aún no alcanza, agranda el archivo.
+     */
+    private void makeRoom(int blockLength) throws IOException {
+        long used = this.dataEnd - this.dataStart;
+        if (used - this.liveBytes > this.liveBytes) {
+            this.compact(this.slotCount, blockLength);
+            if (this.dataEnd + blockLength <= this.map.capacity()) {
+                return;
+            }
+        }
+        long needed = this.dataEnd + blockLength;
+        long newSize = Math.max((long) this.map.capacity() * 2, needed + INITIAL_DATA_SIZE);
+        if (newSize > Integer.MAX_VALUE) {
+            throw new IOException("El almacén de partidas está lleno: " + this.storePath);
+        }
+        this.channel.write(ByteBuffer.wrap(new byte[1]), newSize - 1);
+        this.map = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, newSize);
+    }
+
+    /**
+     * Reescribe el almacén con solo las partidas vigentes y lo reemplaza de forma atómica.
+     * Cada partida conserva su ranura, así que {@code newSlotCount} no puede ser menor que la
+     * cantidad actual.
+     * @param newSlotCount Cantidad de ranuras del archivo nuevo.
+     * @param reserve Espacio libre adicional que debe quedar en la zona de datos.
+     */
+    private void compact(int newSlotCount, int reserve) throws IOException {
+        Path compactPath = this.storePath.resolveSibling(this.storePath.getFileName() + ".compact");
+        long newDataStart = dataStartFor(newSlotCount);
+        long newSize = newDataStart + this.liveBytes + Math.max(reserve, 0) + INITIAL_DATA_SIZE;
+        if (newSize > Integer.MAX_VALUE) {
+            throw new IOException("El almacén de partidas está lleno: " + this.storePath);
+        }
+        createEmptyStore(compactPath, newSlotCount, newSize - newDataStart);
+        try (FileChannel target = FileChannel.open(compactPath, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer targetMap = target.map(FileChannel.MapMode.READ_WRITE, 0, target.size());
+            long offset = newDataStart;
+            for (Map.Entry<String, Integer> player : this.slotsByNickname.entrySet()) {
+                int slot = player.getValue();
+                int entry = entryPosition(slot, this.activeEntry[slot]);
+                int length = this.map.getInt(entry + 16);
+                byte[] block = new byte[length];
+                this.map.get((int) this.map.getLong(entry + 8), block);
+                targetMap.put((int) offset, block);
+                byte[] entryBytes = encodeEntry(1, offset, length, this.map.getInt(entry + 20),
+                        player.getKey().getBytes(StandardCharsets.UTF_8));
+                targetMap.put(entryPosition(slot, 0), entryBytes);
+                offset += length;
+            }
+            targetMap.force();
+        }
+        this.channel.close();
+        Files.move(compactPath, this.storePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        this.open();
+    }
+
+    private void writeEntry(int slot, int half, long offset, int length, int crc, byte[] name) {
+        int entry = entryPosition(slot, half);
+        this.map.put(entry, encodeEntry(++this.sequence, offset, length, crc, name));
+        this.map.force(entry, ENTRY_SIZE);
+        this.activeEntry[slot] = half;
+    }
+
+    private boolean isEntryValid(int entry) {
+        byte[] bytes = new byte[ENTRY_SIZE];
+        this.map.get(entry, bytes);
+        int nameLength = ByteBuffer.wrap(bytes).getShort(24);
+        return nameLength > 0 && nameLength <= MAX_NICKNAME_BYTES
+                && crc32(bytes, 0, ENTRY_CRC_OFFSET) == ByteBuffer.wrap(bytes).getInt(ENTRY_CRC_OFFSET);
+    }
+
+    private String readNickname(int entry) {
+        byte[] name = new byte[this.map.getShort(entry + 24)];
+        this.map.get(entry + 26, name);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] encodeEntry(long sequence, long offset, int length, int crc, byte[] name) {
+        ByteBuffer entry = ByteBuffer.allocate(ENTRY_SIZE);
+        entry.putLong(sequence).putLong(offset).putInt(length).putInt(crc)
+                .putShort((short) name.length).put(name);
+        byte[] bytes = entry.array();
+        entry.putInt(ENTRY_CRC_OFFSET, crc32(bytes, 0, ENTRY_CRC_OFFSET));
+        return bytes;
+    }
+
+    private static byte[] encodeBlock(Map<String, byte[]> files) {
+        int size = 4;
+        for (Map.Entry<String, byte[]> file : files.entrySet()) {
+            size += 2 + file.getKey().getBytes(StandardCharsets.UTF_8).length + 4 + file.getValue().length;
+        }
+        ByteBuffer block = ByteBuffer.allocate(size);
+        block.putInt(files.size());
+        for (Map.Entry<String, byte[]> file : files.entrySet()) {
+            byte[] name = file.getKey().getBytes(StandardCharsets.UTF_8);
+            block.putShort((short) name.length).put(name).putInt(file.getValue().length).put(file.getValue());
+        }
+        return block.array();
+    }
+
+    private static Map<String, byte[]> decodeBlock(byte[] bytes) {
+        ByteBuffer block = ByteBuffer.wrap(bytes);
+        int count = block.getInt();
+        Map<String, byte[]> files = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            byte[] name = new byte[block.getShort()];
+            block.get(name);
+            byte[] content = new byte[block.getInt()];
+            block.get(content);
+            files.put(new String(name, StandardCharsets.UTF_8), content);
+        }
+        return files;
+    }
+
+    private static void createEmptyStore(Path path, int slotCount, long dataSize) throws IOException {
+        try (FileChannel created = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(slotCount).flip();
+            created.write(header, 0);
+            created.write(ByteBuffer.wrap(new byte[1]), dataStartFor(slotCount) + dataSize - 1);
+            created.force(true);
+        }
+    }
+
+    private static long dataStartFor(int slotCount) {
+        long tableEnd = HEADER_SIZE + (long) slotCount * SLOT_SIZE;
+        return (tableEnd + PAGE_SIZE - 1) / PAGE_SIZE * PAGE_SIZE;
+    }
+
+    private static int entryPosition(int slot, int half) {
+        return HEADER_SIZE + slot * SLOT_SIZE + half * ENTRY_SIZE;
+    }
+
+    private static int crc32(byte[] bytes, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+}
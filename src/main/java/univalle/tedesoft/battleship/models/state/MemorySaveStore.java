@@ -0,0 +1,69 @@
+package univalle.tedesoft.battleship.models.state;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Almacén de partidas en memoria, sin tocar el disco. Pensado para simulaciones, benchmarks
+ * y servidores que solo necesitan las partidas mientras el proceso está vivo.
+ * Cada escritura reemplaza el mapa completo del jugador, por lo que es atómica para los lectores.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class MemorySaveStore implements SaveStore {
+    private final Map<String, Map<String, byte[]>> games = new ConcurrentHashMap<>();
+
+    @Override
+    public void writeGame(String nickname, Map<String, byte[]> files) {
+        Map<String, byte[]> copy = new LinkedHashMap<>();
+        for (Map.Entry<String, byte[]> file : files.entrySet()) {
+            copy.put(file.getKey(), file.getValue().clone());
+        }
+        this.games.put(nickname, Collections.unmodifiableMap(copy));
+    }
+
+    @Override
+    public Map<String, byte[]> readGame(String nickname) {
+        Map<String, byte[]> files = this.games.get(nickname);
+        if (files == null) {
+            return null;
+        }
+        Map<String, byte[]> copy = new LinkedHashMap<>();
+        for (Map.Entry<String, byte[]> file : files.entrySet()) {
+            copy.put(file.getKey(), file.getValue().clone());
+        }
+        return copy;
+    }
+
+    @Override
+    public boolean hasGame(String nickname) {
+        return this.games.containsKey(nickname);
+    }
+
+    @Override
+    public boolean deleteGame(String nickname) {
+        return this.games.remove(nickname) != null;
+    }
+
+    @Override
+    public List<String> listNicknames() {
+        return new ArrayList<>(this.games.keySet());
+    }
+
+    @Override
+    public Path getCatalogPath() {
+        return null;
+    }
+
+    @Override
+    public String describeLocation(String nickname) {
+        return "memoria:" + nickname;
+    }
+}
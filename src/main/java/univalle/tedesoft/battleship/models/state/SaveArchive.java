@@ -0,0 +1,383 @@
+package univalle.tedesoft.battleship.models.state;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Exporta e importa partidas guardadas en un único archivo zip, para mover un almacén
+ * de partidas entre máquinas o entre tipos de almacén.
+ * <p>
+ * El archivo contiene una entrada {@value #ARCHIVE_INFO_ENTRY} con la versión del formato y una
+ * entrada {@code games/<nickname>.bsg} por jugador. Cada entrada de jugador agrupa todos los
+ * archivos de su partida y se comprime por separado en un hilo de trabajo; el zip la guarda
+ * sin recomprimir (método STORED). Así la compresión aprovecha todos los núcleos mientras un
+ * solo hilo escribe el zip en orden.
+ * <p>
+ * Tanto la exportación como la importación recorren las partidas una a una con una ventana
+ * acotada de trabajos en curso, por lo que la memoria usada no depende de la cantidad de
+ * jugadores del almacén.
+ * <p>
+ * Al importar, cada partida solo puede contener los archivos conocidos de una partida guardada y
+ * su tamaño está acotado, de modo que un archivo manipulado no puede escribir fuera del directorio
+ * del jugador ni agotar la memoria.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public final class SaveArchive {
+    /** Entrada con la cabecera del archivo. */
+    static final String ARCHIVE_INFO_ENTRY = "battleship-archive.txt";
+    private static final String ARCHIVE_HEADER = "BATTLESHIP_ARCHIVE:1";
+    private static final String GAMES_PREFIX = "games/";
+    private static final String GAME_SUFFIX = ".bsg";
+    /** Trabajos en curso por cada hilo de trabajo; limita la memoria de la tuberia. */
+    private static final int JOBS_PER_WORKER = 4;
+    /** Nombres de archivo que puede contener una partida importada. */
+    private static final Set<String> GAME_FILE_NAMES = new HashSet<>(Arrays.asList(FileSaveStore.LEGACY_GAME_FILES));
+    /** Tamaño máximo de una entrada de partida comprimida. */
+    static final int MAX_ENTRY_BYTES = 16 << 20;
+    /** Tamaño máximo de cada archivo de una partida, ya descomprimido. */
+    static final int MAX_FILE_BYTES = 16 << 20;
+
+    /**
+     * Recibe el avance de una exportación o importación. Se invoca desde el hilo que ejecuta
+     * la operación, no desde el hilo de la interfaz.
+     */
+    public interface ProgressListener {
+        /**
+         * @param processed Partidas procesadas hasta ahora.
+         * @param total Total de partidas esperado, o -1 si no se conoce.
+         */
+        void onProgress(long processed, long total);
+    }
+
+    /** Constructor privado para prevenir la instanciación. */
+    private SaveArchive() {}
+
+    /**
+     * Exporta las partidas de un almacén a un archivo zip. El archivo se escribe primero en un
+     * temporal y solo reemplaza al destino cuando está completo.
+     *
+     * @param store Almacén de origen.
+     * @param archive Ruta del archivo zip a crear.
+     * @param filter Filtro de nicknames a exportar, o null para todas las partidas.
+     * @param expectedTotal Cantidad esperada de partidas para el avance, o -1 si no se conoce.
+     * @param listener Receptor del avance, o null.
+     * @return Cantidad de partidas exportadas.
+     * @throws IOException Si falla la lectura del almacén o la escritura del archivo.
+     */
+    public static long exportGames(SaveStore store, Path archive, Predicate<String> filter,
+                                   long expectedTotal, ProgressListener listener) throws IOException {
+        Path absoluteArchive = archive.toAbsolutePath();
+        if (absoluteArchive.getParent() != null) {
+            Files.createDirectories(absoluteArchive.getParent());
+        }
+        Path tempArchive = absoluteArchive.resolveSibling(absoluteArchive.getFileName() + ".tmp");
+        int workers = Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = newExecutor(workers);
+        long[] exported = {0};
+        try (ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(tempArchive), 1 << 16))) {
+            ZipEntry infoEntry = new ZipEntry(ARCHIVE_INFO_ENTRY);
+            zip.putNextEntry(infoEntry);
+            zip.write((ARCHIVE_HEADER + "\nCREATED:" + LocalDateTime.now() + "\n").getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+
+            ArrayDeque<Future<PackedGame>> pending = new ArrayDeque<>();
+            int window = workers * JOBS_PER_WORKER;
+            try {
+                store.forEachNickname(nickname -> {
+                    if (filter != null && !filter.test(nickname)) {
+                        return;
+                    }
+                    try {
+                        if (pending.size() >= window && writeEntry(zip, await(pending.poll()))) {
+                            notify(listener, ++exported[0], expectedTotal);
+                        }
+                        pending.add(executor.submit(() -> packGame(store, nickname)));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            while (!pending.isEmpty()) {
+                if (writeEntry(zip, await(pending.poll()))) {
+                    notify(listener, ++exported[0], expectedTotal);
+                }
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(tempArchive);
+            throw e;
+        } finally {
+            executor.shutdownNow();
+        }
+        Files.move(tempArchive, absoluteArchive, StandardCopyOption.REPLACE_EXISTING);
+        return exported[0];
+    }
+
+    /**
+     * Importa las partidas de un archivo zip a un almacén.
+     *
+     * @param store Almacén de destino.
+     * @param archive Archivo zip creado por {@link #exportGames}.
+     * @param overwrite true para reemplazar las partidas que ya existan en el almacén;
+     *                  false para conservarlas y omitir las del archivo.
+     * @param listener Receptor del avance, o null.
+     * @return Cantidad de partidas importadas.
+     * @throws IOException Si el archivo no es válido o falla la escritura en el almacén.
+     */
+    public static long importGames(SaveStore store, Path archive, boolean overwrite, ProgressListener listener) throws IOException {
+        return importGames(store, archive, overwrite, listener, null);
+    }
+
+    /**
+     * Importa las partidas de un archivo zip y avisa de cada partida escrita en el almacén.
+     * @param onImported Se invoca desde los hilos de trabajo con el nickname y los archivos de cada partida importada.
+     */
+    static long importGames(SaveStore store, Path archive, boolean overwrite, ProgressListener listener,
+                            BiConsumer<String, Map<String, byte[]>> onImported) throws IOException {
+        long total = countGameEntries(archive);
+        int workers = Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = newExecutor(workers);
+        long imported = 0;
+        long processed = 0;
+        try (ZipInputStream zip = new ZipInputStream(new BufferedInputStream(Files.newInputStream(archive), 1 << 16))) {
+            ZipEntry entry = zip.getNextEntry();
+            if (entry == null || !ARCHIVE_INFO_ENTRY.equals(entry.getName()) || !readHeader(zip)) {
+                throw new IOException("El archivo no es una exportación de partidas: " + archive);
+            }
+            ArrayDeque<Future<Boolean>> pending = new ArrayDeque<>();
+            int window = workers * JOBS_PER_WORKER;
+            while ((entry = zip.getNextEntry()) != null) {
+                String nickname = nicknameOf(entry.getName());
+                if (nickname == null) {
+                    continue;
+                }
+                if (pending.size() >= window) {
+                    imported += Boolean.TRUE.equals(await(pending.poll())) ? 1 : 0;
+                    notify(listener, ++processed, total);
+                }
+                byte[] packed = zip.readNBytes(MAX_ENTRY_BYTES + 1);
+                if (packed.length > MAX_ENTRY_BYTES) {
+                    throw new IOException("La partida de " + nickname + " supera el tamaño máximo de " + MAX_ENTRY_BYTES + " bytes");
+                }
+                pending.add(executor.submit(() -> {
+                    if (!overwrite && store.hasGame(nickname)) {
+                        return false;
+                    }
+                    Map<String, byte[]> files = unpackGame(nickname, packed);
+                    store.writeGame(nickname, files);
+                    if (onImported != null) {
+                        onImported.accept(nickname, files);
+                    }
+                    return true;
+                }));
+            }
+            while (!pending.isEmpty()) {
+                imported += Boolean.TRUE.equals(await(pending.poll())) ? 1 : 0;
+                notify(listener, ++processed, total);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return imported;
+    }
+
+    // --- Métodos Privados Auxiliares ---
+
+    /** Partida empaquetada y comprimida, lista para escribirse en el zip. */
+    private static final class PackedGame {
+        private final String nickname;
+        private final byte[] data;
+        private final long crc;
+
+        private PackedGame(String nickname, byte[] data, long crc) {
+            this.nickname = nickname;
+            this.data = data;
+            this.crc = crc;
+        }
+    }
+
+    /**
+     * Lee y comprime los archivos de una partida. Se ejecuta en un hilo de trabajo.
+     * @return La partida empaquetada, o null si el jugador ya no tiene partida.
+     */
+    private static PackedGame packGame(SaveStore store, String nickname) throws IOException {
+        Map<String, byte[]> files = store.readGame(nickname);
+        if (files == null) {
+            return null;
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(2048);
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(buffer, deflater, 4096))) {
+            out.writeInt(files.size());
+            for (Map.Entry<String, byte[]> file : files.entrySet()) {
+                out.writeUTF(file.getKey());
+                out.writeInt(file.getValue().length);
+                out.write(file.getValue());
+            }
+        } finally {
+            deflater.end();
+        }
+        byte[] data = buffer.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        return new PackedGame(nickname, data, crc.getValue());
+    }
+
+    /**
+     * Descomprime los archivos de una partida, validando nombres, cantidad y tamaños antes de
+     * reservar memoria para ellos.
+     * @throws IOException Si la partida está corrupta o contiene archivos no permitidos.
+     */
+    private static Map<String, byte[]> unpackGame(String nickname, byte[] packed) throws IOException {
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(packed)))) {
+            int fileCount = in.readInt();
+            if (fileCount < 1 || fileCount > GAME_FILE_NAMES.size()) {
+                throw new IOException("La partida de " + nickname + " tiene una cantidad de archivos inválida: " + fileCount);
+            }
+            Map<String, byte[]> files = new LinkedHashMap<>();
+            for (int i = 0; i < fileCount; i++) {
+                String fileName = in.readUTF();
+                if (!isGameFileName(fileName) || files.containsKey(fileName)) {
+                    throw new IOException("La partida de " + nickname + " contiene un archivo no permitido: " + fileName);
+                }
+                int length = in.readInt();
+                if (length < 0 || length > MAX_FILE_BYTES) {
+                    throw new IOException("El archivo " + fileName + " de " + nickname + " tiene un tamaño inválido: " + length);
+                }
+                byte[] content = new byte[length];
+                in.readFully(content);
+                files.put(fileName, content);
+            }
+            return files;
+        }
+    }
+
+    /**
+     * Indica si un nombre es el de uno de los archivos de una partida guardada. Los nombres con
+     * separadores de ruta o {@code ..} se rechazan aunque la lista cambie.
+     */
+    private static boolean isGameFileName(String fileName) {
+        return fileName.indexOf('/') < 0 && fileName.indexOf('\\') < 0 && !fileName.contains("..")
+                && GAME_FILE_NAMES.contains(fileName);
+    }
+
+    /**
+     * Escribe una partida ya comprimida como entrada STORED del zip.
+     * @return false si no había partida que escribir.
+     */
+    private static boolean writeEntry(ZipOutputStream zip, PackedGame packed) throws IOException {
+        if (packed == null) {
+            return false;
+        }
+        ZipEntry entry = new ZipEntry(GAMES_PREFIX + packed.nickname + GAME_SUFFIX);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(packed.data.length);
+        entry.setCompressedSize(packed.data.length);
+        entry.setCrc(packed.crc);
+        zip.putNextEntry(entry);
+        zip.write(packed.data);
+        zip.closeEntry();
+        return true;
+    }
+
+    /**
+     * Extrae el nickname de una entrada de partida, rechazando nombres que podrian
+     * escapar del directorio del almacén.
+     * @return El nickname, o null si la entrada no es una partida válida.
+     */
+    private static String nicknameOf(String entryName) {
+        if (!entryName.startsWith(GAMES_PREFIX) || !entryName.endsWith(GAME_SUFFIX)) {
+            return null;
+        }
+        String nickname = entryName.substring(GAMES_PREFIX.length(), entryName.length() - GAME_SUFFIX.length());
+        if (nickname.isEmpty() || nickname.equals(".") || nickname.equals("..")
+                || nickname.indexOf('/') >= 0 || nickname.indexOf('\\') >= 0) {
+            System.err.println("Se omite una entrada con nickname inválido: " + entryName);
+            return null;
+        }
+        return nickname;
+    }
+
+    private static boolean readHeader(InputStream in) throws IOException {
+        byte[] header = in.readAllBytes();
+        String text = new String(header, StandardCharsets.UTF_8);
+        return text.startsWith(ARCHIVE_HEADER + "\n");
+    }
+
+    /**
+     * Cuenta las partidas del archivo leyendo solo su directorio central.
+     * @return La cantidad de partidas, o -1 si no se pudo leer.
+     */
+    private static long countGameEntries(Path archive) {
+        try (ZipFile zipFile = new ZipFile(archive.toFile())) {
+            return Math.max(0, zipFile.size() - 1);
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Operación interrumpida", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause.getMessage(), cause);
+        }
+    }
+
+    private static void notify(ProgressListener listener, long processed, long total) {
+        if (listener != null) {
+            listener.onProgress(processed, total);
+        }
+    }
+
+    private static ExecutorService newExecutor(int workers) {
+        return Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "save-archive");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,52 @@
+package univalle.tedesoft.battleship.models.state;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Archivos de una partida preparados en memoria antes de entregarlos juntos a un {@link SaveStore}.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+final class SaveBatch {
+    /** Contenido preparado de cada archivo, en el orden en que se agregó. */
+    private final Map<String, byte[]> files = new LinkedHashMap<>();
+
+    /**
+     * Abre un escritor para uno de los archivos de la partida. El contenido se incorpora
+     * al lote al cerrar el escritor.
+     * @param fileName Nombre del archivo.
+     * @return El escritor del archivo.
+     */
+    BufferedWriter openFile(String fileName) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(4096) {
+            @Override
+            public void close() {
+                SaveBatch.this.files.put(fileName, this.toByteArray());
+            }
+        };
+        return new BufferedWriter(new OutputStreamWriter(buffer, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Agrega al lote un archivo cuyo contenido ya está completo.
+     * @param fileName Nombre del archivo.
+     * @param content Contenido del archivo.
+     */
+    void stageFile(String fileName, byte[] content) {
+        this.files.put(fileName, content);
+    }
+
+    /**
+     * @return Los archivos preparados, por nombre.
+     */
+    Map<String, byte[]> getFiles() {
+        return this.files;
+    }
+}
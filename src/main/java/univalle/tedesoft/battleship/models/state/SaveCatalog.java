@@ -0,0 +1,355 @@
+package univalle.tedesoft.battleship.models.state;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Índice persistente de las partidas guardadas.
+ * Mantiene en memoria un mapa ordenado por nickname (para búsquedas por prefijo) y un
+ * conjunto ordenado por fecha de guardado, respaldados por un archivo de registro que solo
+ * se amplía al final en cada guardado. Si el archivo no existe o está corrupto, el índice
+ * se reconstruye recorriendo el almacén de partidas. Los almacenes sin archivo de índice
+ * (como el de memoria) lo reconstruyen al primer uso y lo mantienen solo en memoria.
+ *
+ * Formato de cada registro del archivo (separado por tabuladores):
+ * <pre>
+ * P  fase  segundos-epoch  nickname   (alta o actualización)
+ * D  nickname                (baja)
+ * </pre>
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+final class SaveCatalog {
+    /** Nombre del archivo del índice dentro del directorio de partidas. */
+    static final String CATALOG_FILE = "catalog.idx";
+    /** Cabecera que identifica la versión del formato del índice. */
+    private static final String HEADER = "BATTLESHIP_CATALOG:1";
+    private static final String PUT = "P";
+    private static final String DELETE = "D";
+    /** Registros obsoletos tolerados antes de compactar el archivo del índice. */
+    private static final int COMPACTION_SLACK = 1024;
+
+    /** Orden de las entradas por fecha de guardado, de la más reciente a la más antigua. */
+    private static final Comparator<GamePersistenceManager.SavedGameInfo> BY_DATE_DESC =
+            Comparator.comparing(GamePersistenceManager.SavedGameInfo::getSaveDate).reversed()
+                    .thenComparing(GamePersistenceManager.SavedGameInfo::getNickname);
+
+    private final SaveStore store;
+    /** Archivo del índice, o null si el índice solo vive en memoria. */
+    private final Path catalogPath;
+    /** Entradas por clave de búsqueda (nickname en minúsculas + nickname original). */
+    private final TreeMap<String, GamePersistenceManager.SavedGameInfo> byNickname = new TreeMap<>();
+    /** Las mismas entradas ordenadas por fecha de guardado. */
+    private final TreeSet<GamePersistenceManager.SavedGameInfo> byDate = new TreeSet<>(BY_DATE_DESC);
+    /** Registros escritos en el archivo, incluidos los obsoletos. */
+    private int logRecords;
+    private boolean loaded;
+    /** Se incrementa con cada cambio para invalidar la última consulta ordenada por fecha. */
+    private long version;
+    /** Última consulta ordenada por fecha, reutilizada al pedir páginas sucesivas del mismo prefijo. */
+    private String cachedPrefix;
+    private long cachedVersion = -1;
+    private GamePersistenceManager.SavedGameInfo[] cachedByDate;
+
+    /**
+     * Crea un índice sobre un almacén de partidas. El archivo se lee la primera vez que se consulta.
+     * @param store Almacén de las partidas guardadas.
+     */
+    SaveCatalog(SaveStore store) {
+        this.store = store;
+        this.catalogPath = store.getCatalogPath();
+    }
+
+    /**
+     * Registra o actualiza la entrada de un jugador y la añade al archivo del índice.
+     * @param info Información de la partida guardada.
+     */
+    synchronized void update(GamePersistenceManager.SavedGameInfo info) {
+        this.ensureLoaded();
+        if (!isIndexable(info.getNickname())) {
+            return;
+        }
+        this.put(info);
+        this.appendRecord(formatPut(info));
+    }
+
+    /**
+     * Elimina la entrada de un jugador del índice.
+     * @param nickname Nickname del jugador.
+     */
+    synchronized void remove(String nickname) {
+        this.ensureLoaded();
+        if (this.byNickname.containsKey(keyOf(nickname))) {
+            this.delete(nickname);
+            this.appendRecord(DELETE + "\t" + nickname);
+        }
+    }
+
+    /**
+     * Busca la entrada exacta de un jugador.
+     * @param nickname Nickname del jugador.
+     * @return La entrada, o null si no existe.
+     */
+    synchronized GamePersistenceManager.SavedGameInfo find(String nickname) {
+        this.ensureLoaded();
+        return this.byNickname.get(keyOf(nickname));
+    }
+
+    /**
+     * Devuelve las entradas cuyo nickname empieza por un prefijo (sin distinguir mayúsculas),
+     * en orden alfabético.
+     * @param prefix Prefijo a buscar; vacío para todas las entradas.
+     * @param offset Cantidad de entradas a omitir.
+     * @param limit Cantidad máxima de entradas a devolver.
+     * @return Las entradas encontradas.
+     */
+    synchronized List<GamePersistenceManager.SavedGameInfo> findByPrefix(String prefix, int offset, int limit) {
+        this.ensureLoaded();
+        List<GamePersistenceManager.SavedGameInfo> result = new ArrayList<>(Math.min(Math.max(limit, 0), 256));
+        Iterator<GamePersistenceManager.SavedGameInfo> it = this.prefixRange(prefix).values().iterator();
+        for (int skipped = 0; skipped < offset && it.hasNext(); skipped++) {
+            it.next();
+        }
+        while (result.size() < limit && it.hasNext()) {
+            result.add(it.next());
+        }
+        return result;
+    }
+
+    /**
+     * Devuelve las entradas cuyo nickname empieza por un prefijo, de la más reciente a la más antigua.
+     * @param prefix Prefijo a buscar; vacío para todas las entradas.
+     * @param offset Cantidad de entradas a omitir.
+     * @param limit Cantidad máxima de entradas a devolver.
+     * @return Las entradas encontradas.
+     */
+    synchronized List<GamePersistenceManager.SavedGameInfo> findByPrefixSortedByDate(String prefix, int offset, int limit) {
+        this.ensureLoaded();
+        GamePersistenceManager.SavedGameInfo[] sorted = this.sortedByDate(prefix == null ? "" : prefix);
+        int from = Math.min(Math.max(offset, 0), sorted.length);
+        int to = (int) Math.min((long) from + Math.max(limit, 0), sorted.length);
+        return new ArrayList<>(Arrays.asList(sorted).subList(from, to));
+    }
+
+    /**
+     * Cuenta las entradas cuyo nickname empieza por un prefijo.
+     * @param prefix Prefijo a buscar; vacío para todas las entradas.
+     * @return Cantidad de entradas.
+     */
+    synchronized int countByPrefix(String prefix) {
+        this.ensureLoaded();
+        return this.prefixRange(prefix).size();
+    }
+
+    /**
+     * Descarta el contenido actual y reconstruye el índice recorriendo el almacén de partidas.
+     */
+    synchronized void rebuild() {
+        this.clear();
+        try {
+            this.store.forEachNickname(nickname -> {
+                GamePersistenceManager.SavedGameInfo info = GamePersistenceManager.readSavedGameInfo(this.store, nickname);
+                if (info != null && isIndexable(info.getNickname())) {
+                    this.put(info);
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("Error al recorrer las partidas guardadas: " + e.getMessage());
+        }
+        this.loaded = true;
+        this.compact();
+    }
+
+    // --- Métodos Privados Auxiliares ---
+
+    private void ensureLoaded() {
+        if (this.loaded) {
+            return;
+        }
+        if (this.catalogPath == null || !Files.exists(this.catalogPath) || !this.readCatalog()) {
+            this.rebuild();
+        }
+        this.loaded = true;
+    }
+
+    /**
+     * Lee el archivo del índice y reproduce sus registros.
+     * @return false si el archivo está corrupto y hay que reconstruirlo.
+     */
+    private boolean readCatalog() {
+        this.clear();
+        try (BufferedReader reader = Files.newBufferedReader(this.catalogPath)) {
+            if (!HEADER.equals(reader.readLine())) {
+                System.err.println("Índice de partidas con cabecera inválida, se reconstruirá.");
+                return false;
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                String[] parts = line.split("\t", 4);
+                if (PUT.equals(parts[0]) && parts.length == 4 && !parts[3].isEmpty()) {
+                    // La fecha va en segundos para no pasar por un formateador al cargar miles de entradas.
+                    LocalDateTime date = LocalDateTime.ofEpochSecond(Long.parseLong(parts[2]), 0, ZoneOffset.UTC);
+                    this.put(this.newInfo(parts[3], parts[1], date));
+                } else if (DELETE.equals(parts[0]) && parts.length == 2) {
+                    this.delete(parts[1]);
+                } else {
+                    System.err.println("Registro inválido en el índice de partidas, se reconstruirá.");
+                    return false;
+                }
+                this.logRecords++;
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error al leer el índice de partidas, se reconstruirá: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void appendRecord(String record) {
+        if (this.catalogPath == null) {
+            return;
+        }
+        if (this.logRecords > 2 * this.byNickname.size() + COMPACTION_SLACK) {
+            // El registro nuevo ya está aplicado en memoria, así que basta con reescribir el estado actual.
+            this.compact();
+            return;
+        }
+        try {
+            if (!Files.exists(this.catalogPath)) {
+                this.compact();
+                return;
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(this.catalogPath, StandardOpenOption.APPEND)) {
+                writer.write(record);
+                writer.newLine();
+            }
+            this.logRecords++;
+        } catch (IOException e) {
+            System.err.println("Error al actualizar el índice de partidas: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reescribe el archivo con una sola entrada por jugador, reemplazando el anterior de forma atómica.
+     */
+    private void compact() {
+        if (this.catalogPath == null) {
+            return;
+        }
+        try {
+            if (this.catalogPath.getParent() != null) {
+                Files.createDirectories(this.catalogPath.getParent());
+            }
+            Path tempPath = this.catalogPath.resolveSibling(this.catalogPath.getFileName() + ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(tempPath)) {
+                writer.write(HEADER);
+                writer.newLine();
+                for (GamePersistenceManager.SavedGameInfo info : this.byNickname.values()) {
+                    writer.write(formatPut(info));
+                    writer.newLine();
+                }
+            }
+            Files.move(tempPath, this.catalogPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            this.logRecords = this.byNickname.size();
+        } catch (IOException e) {
+            System.err.println("Error al escribir el índice de partidas: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Devuelve las entradas de un prefijo ordenadas por fecha, reutilizando el resultado anterior
+     * mientras el índice no cambie, de modo que cada página cuesta solo la copia de sus elementos.
+     */
+    private GamePersistenceManager.SavedGameInfo[] sortedByDate(String prefix) {
+        if (this.cachedByDate != null && this.cachedVersion == this.version && prefix.equalsIgnoreCase(this.cachedPrefix)) {
+            return this.cachedByDate;
+        }
+        GamePersistenceManager.SavedGameInfo[] sorted;
+        if (prefix.isEmpty()) {
+            // Sin filtro el conjunto por fecha ya está en el orden pedido.
+            sorted = this.byDate.toArray(new GamePersistenceManager.SavedGameInfo[0]);
+        } else {
+            sorted = this.prefixRange(prefix).values().toArray(new GamePersistenceManager.SavedGameInfo[0]);
+            Arrays.sort(sorted, BY_DATE_DESC);
+        }
+        this.cachedPrefix = prefix;
+        this.cachedVersion = this.version;
+        this.cachedByDate = sorted;
+        return sorted;
+    }
+
+    private void put(GamePersistenceManager.SavedGameInfo info) {
+        this.version++;
+        GamePersistenceManager.SavedGameInfo previous = this.byNickname.put(keyOf(info.getNickname()), info);
+        if (previous != null) {
+            this.byDate.remove(previous);
+        }
+        this.byDate.add(info);
+    }
+
+    private void delete(String nickname) {
+        this.version++;
+        GamePersistenceManager.SavedGameInfo previous = this.byNickname.remove(keyOf(nickname));
+        if (previous != null) {
+            this.byDate.remove(previous);
+        }
+    }
+
+    private void clear() {
+        this.version++;
+        this.byNickname.clear();
+        this.byDate.clear();
+        this.logRecords = 0;
+    }
+
+    private NavigableMap<String, GamePersistenceManager.SavedGameInfo> prefixRange(String prefix) {
+        if (prefix == null || prefix.isEmpty()) {
+            return this.byNickname;
+        }
+        String from = prefix.toLowerCase(Locale.ROOT);
+        return this.byNickname.subMap(from, true, from + Character.MAX_VALUE, false);
+    }
+
+    private GamePersistenceManager.SavedGameInfo newInfo(String nickname, String phase, LocalDateTime date) {
+        return new GamePersistenceManager.SavedGameInfo(nickname, phase, date, this.store.describeLocation(nickname));
+    }
+
+    private static String formatPut(GamePersistenceManager.SavedGameInfo info) {
+        return PUT + "\t" + info.getGamePhase() + "\t" + info.getSaveDate().toEpochSecond(ZoneOffset.UTC) + "\t" + info.getNickname();
+    }
+
+    /**
+     * Clave de búsqueda: el nickname en minúsculas seguido del original, para que los prefijos
+     * no distingan mayúsculas y dos nicknames que solo difieren en ellas no se pisen.
+     */
+    private static String keyOf(String nickname) {
+        return nickname.toLowerCase(Locale.ROOT) + '\u0000' + nickname;
+    }
+
+    /** Los separadores del formato no pueden aparecer dentro del nickname. */
+    private static boolean isIndexable(String nickname) {
+        return nickname != null && !nickname.isEmpty()
+                && nickname.indexOf('\t') < 0 && nickname.indexOf('\n') < 0 && nickname.indexOf('\r') < 0;
+    }
+}
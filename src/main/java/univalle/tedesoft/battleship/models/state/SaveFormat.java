@@ -0,0 +1,665 @@
+package univalle.tedesoft.battleship.models.state;
+
+import univalle.tedesoft.battleship.models.board.Board;
+import univalle.tedesoft.battleship.models.board.BoardSnapshot;
+import univalle.tedesoft.battleship.models.board.Coordinate;
+import univalle.tedesoft.battleship.models.enums.CellState;
+import univalle.tedesoft.battleship.models.enums.Orientation;
+import univalle.tedesoft.battleship.models.enums.ShipType;
+import univalle.tedesoft.battleship.models.ships.GenericShip;
+import univalle.tedesoft.battleship.models.ships.Ship;
+import univalle.tedesoft.battleship.models.ships.ShipFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Formato versionado de los archivos de tableros y barcos de una partida, con un lector
+ * por flujo de bytes que también entiende los dos formatos anteriores del juego.
+ * <p>
+ * Formato actual (versión {@value #CURRENT_VERSION}):
+ * <pre>
+ * BATTLESHIP_BOARD:2          BATTLESHIP_SHIPS:2
+ * SIZE:10                     AIR_CRAFT_CARRIER:HORIZONTAL:1:0,0;0,1;0,2;0,3
+ * S.........                  FRIGATE:HORIZONTAL:0:5,5
+ * o.x.......                  SUBMARINE:VERTICAL:0:2,7;3,7;4,7:SUB_X:3
+ * </pre>
+ * El tablero se guarda como una fila de texto por fila del tablero, con un carácter por celda
+ * ({@code S} barco, {@code .} vacía, {@code o} disparo al agua, {@code x} impacto,
+ * {@code #} parte de barco hundido). Cada barco ocupa una línea
+ * {@code tipo:orientación:impactos:fila,columna;...}, seguida de {@code :clase:longitud}
+ * solo para los barcos de una flota personalizada.
+ * <p>
+ * Formatos anteriores que se detectan automáticamente al leer:
+ * <ul>
+ *     <li>Por nickname: celdas {@code fila,columna,ESTADO} y bloques {@code SHIP_TYPE:}...{@code ---}.</li>
+ *     <li>Original: celdas {@code fila,columna:ESTADO} y bloques {@code SHIP:}...{@code ENDSHIP}.</li>
+ * </ul>
+ * El lector recorre el contenido en bytes sin expresiones regulares, sin {@code split} y sin
+ * crear un String por línea: los números se acumulan dígito a dígito y los nombres de los enums
+ * se comparan byte a byte contra tablas precalculadas.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+final class SaveFormat {
+    /** Versión del formato que se escribe. */
+    static final int CURRENT_VERSION = 2;
+
+    private static final String BOARD_HEADER = "BATTLESHIP_BOARD:";
+    private static final String SHIPS_HEADER = "BATTLESHIP_SHIPS:";
+    private static final byte[] BOARD_HEADER_BYTES = BOARD_HEADER.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SHIPS_HEADER_BYTES = SHIPS_HEADER.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SIZE_KEY = ascii("SIZE:");
+    private static final byte[] LEGACY_SHIP_KEY = ascii("SHIP:");
+    private static final byte[] LEGACY_COORD_KEY = ascii("COORD:");
+    private static final byte[] LEGACY_END_SHIP = ascii("ENDSHIP");
+    private static final byte[] SHIP_TYPE_KEY = ascii("SHIP_TYPE:");
+    private static final byte[] SHIP_CLASS_KEY = ascii("SHIP_CLASS:");
+    private static final byte[] ORIENTATION_KEY = ascii("ORIENTATION:");
+    private static final byte[] IS_SUNK_KEY = ascii("IS_SUNK:");
+    private static final byte[] HIT_COUNT_KEY = ascii("HIT_COUNT:");
+    private static final byte[] COORDINATES_KEY = ascii("COORDINATES:");
+    private static final byte[] SHIP_SEPARATOR = ascii("---");
+
+    /** Carácter de cada estado de celda en el formato actual, indexado por ordinal. */
+    private static final char[] CELL_CODES = new char[CellState.values().length];
+    /** Estado de celda de cada carácter del formato actual, o null si el carácter no es válido. */
+    private static final CellState[] CELL_BY_CODE = new CellState[128];
+
+    private static final CellState[] CELL_STATES = CellState.values();
+    private static final byte[][] CELL_STATE_NAMES = enumNames(CELL_STATES);
+    private static final ShipType[] SHIP_TYPES = ShipType.values();
+    private static final byte[][] SHIP_TYPE_NAMES = enumNames(SHIP_TYPES);
+    private static final Orientation[] ORIENTATIONS = Orientation.values();
+    private static final byte[][] ORIENTATION_NAMES = enumNames(ORIENTATIONS);
+
+    static {
+        registerCellCode(CellState.SHIP, 'S');
+        registerCellCode(CellState.EMPTY, '.');
+        registerCellCode(CellState.SHOT_LOST_IN_WATER, 'o');
+        registerCellCode(CellState.HIT_SHIP, 'x');
+        registerCellCode(CellState.SUNK_SHIP_PART, '#');
+    }
+
+    /** Formatos de archivo reconocidos por el lector. */
+    private enum Dialect { CURRENT, BY_NICKNAME, ORIGINAL, EMPTY }
+
+    /** Contenido que se está leyendo. */
+    private final byte[] data;
+    /** Posición del siguiente byte por leer. */
+    private int position;
+    /** Número de la línea actual, para los mensajes de error. */
+    private int lineNumber;
+
+    private SaveFormat(byte[] data) {
+        this.data = data;
+        this.position = startsWithBom(data) ? 3 : 0;
+        this.lineNumber = 1;
+    }
+
+    // ========== ESCRITURA ==========
+
+    /**
+     * Escribe un tablero en el formato actual.
+     * @param board El tablero a escribir.
+     * @param writer Destino del texto.
+     * @throws IOException Si falla la escritura.
+     */
+    static void writeBoard(BoardSnapshot board, Writer writer) throws IOException {
+        int size = board.getSize();
+        writer.write(BOARD_HEADER);
+        writer.write(Integer.toString(CURRENT_VERSION));
+        writer.write('\n');
+        writer.write("SIZE:");
+        writer.write(Integer.toString(size));
+        writer.write('\n');
+        char[] row = new char[size + 1];
+        row[size] = '\n';
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                row[c] = CELL_CODES[board.getCellState(r, c).ordinal()];
+            }
+            writer.write(row);
+        }
+    }
+
+    /**
+     * Escribe los barcos de un tablero en el formato actual.
+     * @param ships Los barcos a escribir.
+     * @param writer Destino del texto.
+     * @throws IOException Si falla la escritura.
+     */
+    static void writeShips(List<BoardSnapshot.ShipSnapshot> ships, Writer writer) throws IOException {
+        writer.write(SHIPS_HEADER);
+        writer.write(Integer.toString(CURRENT_VERSION));
+        writer.write('\n');
+        StringBuilder line = new StringBuilder(64);
+        for (BoardSnapshot.ShipSnapshot ship : ships) {
+            line.setLength(0);
+            line.append(ship.getShipType().name()).append(':')
+                    .append(ship.getOrientation().name()).append(':')
+                    .append(ship.getHitCount()).append(':');
+            int cellCount = ship.getCellCount();
+            for (int i = 0; i < cellCount; i++) {
+                if (i > 0) {
+                    line.append(';');
+                }
+                line.append(ship.getCellRow(i)).append(',').append(ship.getCellCol(i));
+            }
+            // Los barcos definidos por una flota personalizada guardan su clase y longitud.
+            if (!ship.getShipClassId().equals(ship.getShipType().name())) {
+                line.append(':').append(ship.getShipClassId()).append(':').append(ship.getLength());
+            }
+            line.append('\n');
+            writer.append(line);
+        }
+    }
+
+    // ========== LECTURA ==========
+
+    /**
+     * Carga el contenido de un archivo de tablero, en cualquiera de los formatos conocidos.
+     * @param content Contenido del archivo.
+     * @param board Tablero donde se cargan los estados de celda.
+     * @throws IllegalArgumentException Si el contenido no es un tablero válido o no coincide
+     * con el tamaño del tablero.
+     */
+    static void readBoard(byte[] content, Board board) {
+        SaveFormat reader = new SaveFormat(content);
+        switch (reader.detectBoardDialect()) {
+            case CURRENT:
+                reader.readCurrentBoard(board);
+                break;
+            case BY_NICKNAME:
+                reader.readLegacyBoard(board, (byte) ',');
+                break;
+            case ORIGINAL:
+                // El formato original solo guardaba las celdas presentes: el resto queda vacío.
+                clearCells(board);
+                reader.readLegacyBoard(board, (byte) ':');
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Lee el contenido de un archivo de barcos, en cualquiera de los formatos conocidos.
+     * @param content Contenido del archivo.
+     * @return Los barcos leídos, con sus coordenadas y daño restaurados.
+     * @throws IllegalArgumentException Si el contenido no es un archivo de barcos válido.
+     */
+    static List<Ship> readShips(byte[] content) {
+        SaveFormat reader = new SaveFormat(content);
+        List<Ship> ships = new ArrayList<>();
+        switch (reader.detectShipsDialect()) {
+            case CURRENT:
+                reader.readCurrentShips(ships);
+                break;
+            case BY_NICKNAME:
+                reader.readNicknameShips(ships);
+                break;
+            case ORIGINAL:
+                reader.readOriginalShips(ships);
+                break;
+            default:
+                break;
+        }
+        return ships;
+    }
+
+    private Dialect detectBoardDialect() {
+        this.skipBlankLines();
+        if (this.atEnd()) {
+            return Dialect.EMPTY;
+        }
+        if (this.startsWith(BOARD_HEADER_BYTES)) {
+            return Dialect.CURRENT;
+        }
+        // Las celdas anteriores empiezan con "fila,columna" y se distinguen por el separador siguiente.
+        int index = this.skipDigits(this.position);
+        if (index < this.data.length && this.data[index] == ',') {
+            index = this.skipDigits(index + 1);
+            if (index < this.data.length && this.data[index] == ',') {
+                return Dialect.BY_NICKNAME;
+            }
+            if (index < this.data.length && this.data[index] == ':') {
+                return Dialect.ORIGINAL;
+            }
+        }
+        throw this.error("formato de tablero desconocido");
+    }
+
+    private Dialect detectShipsDialect() {
+        this.skipBlankLines();
+        if (this.atEnd()) {
+            return Dialect.EMPTY;
+        }
+        if (this.startsWith(SHIPS_HEADER_BYTES)) {
+            return Dialect.CURRENT;
+        }
+        if (this.startsWith(SHIP_TYPE_KEY)) {
+            return Dialect.BY_NICKNAME;
+        }
+        if (this.startsWith(LEGACY_SHIP_KEY)) {
+            return Dialect.ORIGINAL;
+        }
+        throw this.error("formato de barcos desconocido");
+    }
+
+    private void readCurrentBoard(Board board) {
+        this.readVersion(BOARD_HEADER_BYTES);
+        this.skipBlankLines();
+        this.expect(SIZE_KEY);
+        int size = this.readInt();
+        this.endLine();
+        if (size != board.getSize()) {
+            throw this.error("el tablero guardado es de " + size + "x" + size
+                    + " y el de la partida de " + board.getSize() + "x" + board.getSize());
+        }
+        for (int row = 0; row < size; row++) {
+            this.skipBlankLines();
+            for (int col = 0; col < size; col++) {
+                int code = this.atEnd() ? -1 : this.data[this.position] & 0xFF;
+                CellState state = (code >= 0 && code < CELL_BY_CODE.length) ? CELL_BY_CODE[code] : null;
+                if (state == null) {
+                    throw this.error("celda inválida en la columna " + (col + 1));
+                }
+                board.setCellState(row, col, state);
+                this.position++;
+            }
+            this.endLine();
+        }
+    }
+
+    private void readLegacyBoard(Board board, byte stateSeparator) {
+        while (true) {
+            this.skipBlankLines();
+            if (this.atEnd()) {
+                return;
+            }
+            int row = this.readInt();
+            this.expect((byte) ',');
+            int col = this.readInt();
+            this.expect(stateSeparator);
+            CellState state = CELL_STATES[this.readEnum(CELL_STATE_NAMES, "estado de celda")];
+            this.endLine();
+            try {
+                board.setCellState(row, col, state);
+            } catch (Exception e) {
+                System.err.println("Error al establecer estado de celda (" + row + "," + col + "): " + e.getMessage());
+            }
+        }
+    }
+
+    private void readCurrentShips(List<Ship> ships) {
+        this.readVersion(SHIPS_HEADER_BYTES);
+        List<Coordinate> coordinates = new ArrayList<>();
+        while (true) {
+            this.skipBlankLines();
+            if (this.atEnd()) {
+                return;
+            }
+            ShipType shipType = SHIP_TYPES[this.readEnum(SHIP_TYPE_NAMES, "tipo de barco")];
+            this.expect((byte) ':');
+            Orientation orientation = ORIENTATIONS[this.readEnum(ORIENTATION_NAMES, "orientación")];
+            this.expect((byte) ':');
+            int hitCount = this.readInt();
+            this.expect((byte) ':');
+            coordinates.clear();
+            this.readRowColumnList(coordinates);
+            String shipClassId = null;
+            int shipClassLength = 0;
+            if (this.peek() == ':') {
+                this.position++;
+                shipClassId = this.readToken((byte) ':');
+                this.expect((byte) ':');
+                shipClassLength = this.readInt();
+            }
+            this.endLine();
+            ships.add(buildShip(shipType, shipClassId, shipClassLength, orientation, hitCount, coordinates));
+        }
+    }
+
+    private void readNicknameShips(List<Ship> ships) {
+        ShipType shipType = null;
+        String shipClassId = null;
+        int shipClassLength = 0;
+        Orientation orientation = null;
+        int hitCount = 0;
+        List<Coordinate> coordinates = new ArrayList<>();
+        boolean hasCoordinates = false;
+        while (true) {
+            this.skipBlankLines();
+            if (this.atEnd()) {
+                return;
+            }
+            if (this.startsWith(SHIP_SEPARATOR)) {
+                this.position += SHIP_SEPARATOR.length;
+                if (shipType != null && hasCoordinates) {
+                    ships.add(buildShip(shipType, shipClassId, shipClassLength, orientation, hitCount, coordinates));
+                }
+                shipType = null;
+                shipClassId = null;
+                shipClassLength = 0;
+                orientation = null;
+                hitCount = 0;
+                coordinates.clear();
+                hasCoordinates = false;
+            } else if (this.consume(SHIP_TYPE_KEY)) {
+                shipType = SHIP_TYPES[this.readEnum(SHIP_TYPE_NAMES, "tipo de barco")];
+            } else if (this.consume(SHIP_CLASS_KEY)) {
+                shipClassId = this.readToken((byte) ':');
+                this.expect((byte) ':');
+                shipClassLength = this.readInt();
+            } else if (this.consume(ORIENTATION_KEY)) {
+                orientation = ORIENTATIONS[this.readEnum(ORIENTATION_NAMES, "orientación")];
+            } else if (this.consume(IS_SUNK_KEY)) {
+                // El hundimiento se deduce de los impactos; el valor guardado se ignora.
+                this.skipRestOfLine();
+            } else if (this.consume(HIT_COUNT_KEY)) {
+                hitCount = this.readInt();
+            } else if (this.consume(COORDINATES_KEY)) {
+                coordinates.clear();
+                this.readRowColumnList(coordinates);
+                hasCoordinates = true;
+            } else {
+                // Claves desconocidas se ignoran, como hacía el lector original.
+                this.skipRestOfLine();
+            }
+            this.endLine();
+        }
+    }
+
+    private void readOriginalShips(List<Ship> ships) {
+        ShipType shipType = null;
+        Orientation orientation = null;
+        int hitCount = 0;
+        List<Coordinate> coordinates = new ArrayList<>();
+        while (true) {
+            this.skipBlankLines();
+            if (this.atEnd()) {
+                return;
+            }
+            if (this.consume(LEGACY_SHIP_KEY)) {
+                shipType = SHIP_TYPES[this.readEnum(SHIP_TYPE_NAMES, "tipo de barco")];
+                this.expect((byte) ':');
+                orientation = ORIENTATIONS[this.readEnum(ORIENTATION_NAMES, "orientación")];
+                this.expect((byte) ':');
+                hitCount = this.readInt();
+                // El indicador de hundido que sigue se deduce de los impactos.
+                this.skipRestOfLine();
+                coordinates.clear();
+            } else if (this.consume(LEGACY_COORD_KEY)) {
+                // Este formato guardaba las coordenadas como x,y.
+                int x = this.readInt();
+                this.expect((byte) ',');
+                int y = this.readInt();
+                coordinates.add(new Coordinate(x, y));
+            } else if (this.startsWith(LEGACY_END_SHIP)) {
+                this.position += LEGACY_END_SHIP.length;
+                if (shipType != null) {
+                    ships.add(buildShip(shipType, null, 0, orientation, hitCount, coordinates));
+                }
+                shipType = null;
+                coordinates.clear();
+            } else {
+                this.skipRestOfLine();
+            }
+            this.endLine();
+        }
+    }
+
+    /**
+     * Lee una lista {@code fila,columna;fila,columna...} que puede estar vacía.
+     */
+    private void readRowColumnList(List<Coordinate> coordinates) {
+        this.skipSpaces();
+        while (isDigit(this.peek()) || this.peek() == '-') {
+            int row = this.readInt();
+            this.expect((byte) ',');
+            int col = this.readInt();
+            coordinates.add(new Coordinate(col, row));
+            this.skipSpaces();
+            if (this.peek() != ';') {
+                return;
+            }
+            this.position++;
+            this.skipSpaces();
+        }
+    }
+
+    private static Ship buildShip(ShipType shipType, String shipClassId, int shipClassLength,
+                                  Orientation orientation, int hitCount, List<Coordinate> coordinates) {
+        Ship ship = (shipClassId != null)
+                ? new GenericShip(shipClassId, shipType, shipClassLength)
+                : ShipFactory.createShip(shipType);
+        if (orientation != null) {
+            ship.setOrientation(orientation);
+        }
+        for (Coordinate coordinate : coordinates) {
+            ship.addCoordinates(coordinate);
+        }
+        for (int i = 0; i < hitCount; i++) {
+            ship.registerHit();
+        }
+        return ship;
+    }
+
+    private static void clearCells(Board board) {
+        for (int row = 0; row < board.getSize(); row++) {
+            for (int col = 0; col < board.getSize(); col++) {
+                board.setCellState(row, col, CellState.EMPTY);
+            }
+        }
+    }
+
+    // ========== PRIMITIVAS DEL LECTOR ==========
+
+    private void readVersion(byte[] header) {
+        this.position += header.length;
+        int version = this.readInt();
+        if (version > CURRENT_VERSION) {
+            throw this.error("versión de formato " + version + " no soportada");
+        }
+        this.endLine();
+    }
+
+    private boolean atEnd() {
+        return this.position >= this.data.length;
+    }
+
+    /** Byte actual, o -1 al final del contenido. */
+    private int peek() {
+        return this.atEnd() ? -1 : this.data[this.position];
+    }
+
+    private boolean startsWith(byte[] prefix) {
+        if (this.data.length - this.position < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (this.data[this.position + i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Avanza sobre el prefijo si está en la posición actual. */
+    private boolean consume(byte[] prefix) {
+        if (this.startsWith(prefix)) {
+            this.position += prefix.length;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(byte[] prefix) {
+        if (!this.consume(prefix)) {
+            throw this.error("se esperaba '" + new String(prefix, StandardCharsets.US_ASCII) + "'");
+        }
+    }
+
+    private void expect(byte value) {
+        if (this.peek() != value) {
+            throw this.error("se esperaba '" + (char) value + "'");
+        }
+        this.position++;
+    }
+
+    private int readInt() {
+        this.skipSpaces();
+        boolean negative = false;
+        if (this.peek() == '-') {
+            negative = true;
+            this.position++;
+        }
+        if (!isDigit(this.peek())) {
+            throw this.error("se esperaba un número");
+        }
+        long value = 0;
+        while (isDigit(this.peek())) {
+            value = value * 10 + (this.data[this.position++] - '0');
+            if (value > Integer.MAX_VALUE) {
+                throw this.error("número fuera de rango");
+            }
+        }
+        this.skipSpaces();
+        return (int) (negative ? -value : value);
+    }
+
+    /**
+     * Reconoce el nombre de un enum comparando los bytes en la posición actual contra los nombres
+     * precalculados; el nombre termina en ':', ',' o fin de línea.
+     * @return El ordinal del valor reconocido.
+     */
+    private int readEnum(byte[][] names, String what) {
+        this.skipSpaces();
+        int start = this.position;
+        int end = start;
+        while (end < this.data.length && !isDelimiter(this.data[end])) {
+            end++;
+        }
+        int length = end - start;
+        // Se ignoran los espacios finales, como hacía el trim de los lectores originales.
+        while (length > 0 && this.data[start + length - 1] == ' ') {
+            length--;
+        }
+        for (int ordinal = 0; ordinal < names.length; ordinal++) {
+            byte[] name = names[ordinal];
+            if (name.length == length && regionMatches(start, name)) {
+                this.position = end;
+                return ordinal;
+            }
+        }
+        throw this.error(what + " desconocido: " + new String(this.data, start, length, StandardCharsets.UTF_8));
+    }
+
+    /** Lee un texto libre hasta el delimitador o el fin de línea. Solo se usa para clases personalizadas. */
+    private String readToken(byte delimiter) {
+        int start = this.position;
+        while (!this.atEnd() && this.data[this.position] != delimiter && !isLineEnd(this.data[this.position])) {
+            this.position++;
+        }
+        return new String(this.data, start, this.position - start, StandardCharsets.UTF_8).trim();
+    }
+
+    private boolean regionMatches(int start, byte[] name) {
+        for (int i = 0; i < name.length; i++) {
+            if (this.data[start + i] != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int skipDigits(int index) {
+        while (index < this.data.length && isDigit(this.data[index])) {
+            index++;
+        }
+        return index;
+    }
+
+    private void skipSpaces() {
+        while (this.peek() == ' ' || this.peek() == '\t') {
+            this.position++;
+        }
+    }
+
+    private void skipRestOfLine() {
+        while (!this.atEnd() && !isLineEnd(this.data[this.position])) {
+            this.position++;
+        }
+    }
+
+    private void skipBlankLines() {
+        while (!this.atEnd()) {
+            byte current = this.data[this.position];
+            if (current == '\n') {
+                this.lineNumber++;
+            } else if (current != '\r' && current != ' ' && current != '\t') {
+                return;
+            }
+            this.position++;
+        }
+    }
+
+    /** Exige que la línea actual termine (admite espacios finales y CRLF) y pasa a la siguiente. */
+    private void endLine() {
+        this.skipSpaces();
+        if (this.peek() == '\r') {
+            this.position++;
+        }
+        if (this.atEnd()) {
+            return;
+        }
+        if (this.data[this.position] != '\n') {
+            throw this.error("contenido inesperado al final de la línea");
+        }
+        this.position++;
+        this.lineNumber++;
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("Línea " + this.lineNumber + ": " + message);
+    }
+
+    private static boolean isDigit(int value) {
+        return value >= '0' && value <= '9';
+    }
+
+    private static boolean isLineEnd(byte value) {
+        return value == '\n' || value == '\r';
+    }
+
+    private static boolean isDelimiter(byte value) {
+        return value == ':' || value == ',' || isLineEnd(value);
+    }
+
+    private static boolean startsWithBom(byte[] data) {
+        return data.length >= 3 && (data[0] & 0xFF) == 0xEF && (data[1] & 0xFF) == 0xBB && (data[2] & 0xFF) == 0xBF;
+    }
+
+    private static void registerCellCode(CellState state, char code) {
+        CELL_CODES[state.ordinal()] = code;
+        CELL_BY_CODE[code] = state;
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[][] enumNames(Enum<?>[] values) {
+        byte[][] names = new byte[values.length][];
+        for (Enum<?> value : values) {
+            names[value.ordinal()] = ascii(value.name());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,372 @@
+package univalle.tedesoft.battleship.models.state;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Historial de guardados por jugador, organizado en ranuras (slots) con un número acotado de versiones.
+ * Cada archivo de una partida guardada se almacena una sola vez como fragmento comprimido cuyo nombre
+ * es el hash SHA-256 de su contenido, de modo que las versiones que comparten tableros o barcos sin
+ * cambios (la flota, el tablero de la máquina, etc.) no vuelven a ocupar espacio.
+ *
+ * Estructura dentro del directorio del jugador:
+ * <pre>
+ * history/objects/&lt;hash&gt;          fragmentos comprimidos, compartidos por todas las ranuras
+ * history/slots/&lt;ranura&gt;.versions  una línea por versión: número, fecha, fase y hash de cada archivo
+ * </pre>
+ * Solo existe en los almacenes que guardan cada jugador en su propio directorio
+ * ({@link SaveStore#getPlayerDirectory(String)}), es decir, en {@link FileSaveStore}. Con los demás
+ * almacenes el autoguardado no conserva versiones y los guardados en otras ranuras se rechazan.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+final class SaveHistory {
+    /** Archivos que forman una partida guardada, en el orden en que se listan sus hashes. */
+    static final String[] SAVE_FILES = FileSaveStore.LEGACY_GAME_FILES;
+    /** Cantidad máxima de versiones que conserva cada ranura. */
+    static final int MAX_VERSIONS_PER_SLOT = 10;
+
+    private static final String HISTORY_DIRECTORY = "history";
+    private static final String OBJECTS_DIRECTORY = "objects";
+    private static final String SLOTS_DIRECTORY = "slots";
+    private static final String VERSIONS_EXTENSION = ".versions";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /** Constructor privado para prevenir la instanciación. */
+    private SaveHistory() {}
+
+    /**
+     * Registra como nueva versión de una ranura los archivos de una partida recién guardada.
+     * Si el contenido es idéntico a la última versión de la ranura no se agrega nada.
+     *
+     * @param playerSaveDir Directorio del jugador.
+     * @param slot Nombre de la ranura.
+     * @param phase Fase del juego guardada.
+     * @param saveDate Fecha del guardado.
+     * @param files Contenido de cada archivo de la partida, por nombre.
+     * @throws IOException Si no se pueden escribir los fragmentos o el archivo de versiones.
+     */
+    static void recordVersion(Path playerSaveDir, String slot, String phase, LocalDateTime saveDate,
+                              Map<String, byte[]> files) throws IOException {
+        Path objectsDir = playerSaveDir.resolve(HISTORY_DIRECTORY).resolve(OBJECTS_DIRECTORY);
+        Path slotsDir = playerSaveDir.resolve(HISTORY_DIRECTORY).resolve(SLOTS_DIRECTORY);
+        Files.createDirectories(objectsDir);
+        Files.createDirectories(slotsDir);
+
+        // Primero se calculan los hashes: si la versión repite la anterior no se escribe nada.
+        String[] hashes = new String[SAVE_FILES.length];
+        byte[][] contents = new byte[SAVE_FILES.length][];
+        for (int i = 0; i < SAVE_FILES.length; i++) {
+            contents[i] = files.get(SAVE_FILES[i]);
+            if (contents[i] == null) {
+                throw new IOException("La partida no incluye el archivo " + SAVE_FILES[i]);
+            }
+            hashes[i] = sha256(contents[i]);
+        }
+
+        Path versionsPath = slotsDir.resolve(slot + VERSIONS_EXTENSION);
+        List<VersionRecord> versions = readVersions(versionsPath);
+        VersionRecord last = versions.isEmpty() ? null : versions.get(versions.size() - 1);
+        if (last != null && sameGameContent(last.hashes, hashes)) {
+            return;
+        }
+        storeObjects(objectsDir, hashes, contents);
+
+        int number = (last == null) ? 1 : last.number + 1;
+        VersionRecord record = new VersionRecord(number, saveDate, phase, hashes);
+        versions.add(record);
+        if (versions.size() > MAX_VERSIONS_PER_SLOT) {
+            // Se descartan las versiones más antiguas y los fragmentos que ya nadie referencia.
+            writeVersions(versionsPath, versions.subList(versions.size() - MAX_VERSIONS_PER_SLOT, versions.size()));
+            collectGarbage(playerSaveDir);
+        } else {
+            try (FileChannel channel = FileChannel.open(versionsPath,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                ByteBuffer line = ByteBuffer.wrap((record.format() + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+                while (line.hasRemaining()) {
+                    channel.write(line);
+                }
+                channel.force(false);
+            }
+            SaveTransaction.forceDirectory(slotsDir);
+        }
+    }
+
+    /**
+     * Lista las ranuras con historial de un jugador.
+     * @param playerSaveDir Directorio del jugador.
+     * @return Los nombres de las ranuras.
+     */
+    static List<String> listSlots(Path playerSaveDir) {
+        List<String> slots = new ArrayList<>();
+        Path slotsDir = playerSaveDir.resolve(HISTORY_DIRECTORY).resolve(SLOTS_DIRECTORY);
+        if (!Files.isDirectory(slotsDir)) {
+            return slots;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(slotsDir, "*" + VERSIONS_EXTENSION)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                slots.add(name.substring(0, name.length() - VERSIONS_EXTENSION.length()));
+            }
+        } catch (IOException e) {
+            System.err.println("Error al listar las ranuras de guardado: " + e.getMessage());
+        }
+        slots.sort(null);
+        return slots;
+    }
+
+    /**
+     * Lista las versiones guardadas en una ranura, de la más reciente a la más antigua.
+     * @param playerSaveDir Directorio del jugador.
+     * @param nickname Nickname del jugador.
+     * @param slot Nombre de la ranura.
+     * @return Las versiones encontradas.
+     */
+    static List<GamePersistenceManager.SaveVersionInfo> listVersions(Path playerSaveDir, String nickname, String slot) {
+        List<GamePersistenceManager.SaveVersionInfo> result = new ArrayList<>();
+        try {
+            List<VersionRecord> versions = readVersions(versionsPath(playerSaveDir, slot));
+            for (int i = versions.size() - 1; i >= 0; i--) {
+                VersionRecord record = versions.get(i);
+                result.add(new GamePersistenceManager.SaveVersionInfo(nickname, slot, record.number, record.phase, record.saveDate));
+            }
+        } catch (IOException e) {
+            System.err.println("Error al leer el historial de la ranura " + slot + ": " + e.getMessage());
+        }
+        return result;
+    }
+
+    /**
+     * Reconstruye los archivos de una versión a partir de sus fragmentos, comprobando el hash de cada uno.
+     *
+     * @param playerSaveDir Directorio del jugador.
+     * @param slot Nombre de la ranura.
+     * @param number Número de la versión.
+     * @return Contenido de cada archivo por nombre, o null si la versión no existe.
+     * @throws IOException Si algún fragmento falta o está corrupto.
+     */
+    static Map<String, byte[]> readVersion(Path playerSaveDir, String slot, int number) throws IOException {
+        VersionRecord target = null;
+        for (VersionRecord record : readVersions(versionsPath(playerSaveDir, slot))) {
+            if (record.number == number) {
+                target = record;
+            }
+        }
+        if (target == null) {
+            return null;
+        }
+        Path objectsDir = playerSaveDir.resolve(HISTORY_DIRECTORY).resolve(OBJECTS_DIRECTORY);
+        Map<String, byte[]> files = new LinkedHashMap<>();
+        for (int i = 0; i < SAVE_FILES.length; i++) {
+            files.put(SAVE_FILES[i], readObject(objectsDir, target.hashes[i]));
+        }
+        return files;
+    }
+
+    // --- Métodos Privados Auxiliares ---
+
+    /**
+     * Dos versiones son iguales si coinciden todos sus archivos salvo game_info.txt,
+     * que cambia en cada guardado por la fecha.
+     */
+    private static boolean sameGameContent(String[] previous, String[] current) {
+        for (int i = 1; i < SAVE_FILES.length; i++) {
+            if (!previous[i].equals(current[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Guarda los fragmentos que aún no existen. Se escriben todos como temporales, se sincronizan
+     * juntos con el disco y solo entonces se renombran, para que un fragmento con nombre nunca
+     * quede incompleto después de un corte de energía.
+     */
+    private static void storeObjects(Path objectsDir, String[] hashes, byte[][] contents) throws IOException {
+        List<Path> tempPaths = new ArrayList<>();
+        List<Path> objectPaths = new ArrayList<>();
+        try {
+            for (int i = 0; i < hashes.length; i++) {
+                Path objectPath = objectsDir.resolve(hashes[i]);
+                if (Files.exists(objectPath) || objectPaths.contains(objectPath)) {
+                    continue;
+                }
+                Path tempPath = objectsDir.resolve(hashes[i] + ".tmp");
+                try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tempPath))) {
+                    out.write(contents[i]);
+                }
+                tempPaths.add(tempPath);
+                objectPaths.add(objectPath);
+            }
+            for (Path tempPath : tempPaths) {
+                try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.WRITE)) {
+                    channel.force(false);
+                }
+            }
+            for (int i = 0; i < tempPaths.size(); i++) {
+                Files.move(tempPaths.get(i), objectPaths.get(i), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } finally {
+            for (Path tempPath : tempPaths) {
+                Files.deleteIfExists(tempPath);
+            }
+        }
+        if (!objectPaths.isEmpty()) {
+            SaveTransaction.forceDirectory(objectsDir);
+        }
+    }
+
+    private static byte[] readObject(Path objectsDir, String hash) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(objectsDir.resolve(hash)))) {
+            byte[] content = in.readAllBytes();
+            if (!hash.equals(sha256(content))) {
+                throw new IOException("Fragmento de guardado corrupto: " + hash);
+            }
+            return content;
+        }
+    }
+
+    /**
+     * Borra los fragmentos que no referencia ninguna versión de ninguna ranura.
+     */
+    private static void collectGarbage(Path playerSaveDir) throws IOException {
+        Set<String> referenced = new HashSet<>();
+        for (String slot : listSlots(playerSaveDir)) {
+            for (VersionRecord record : readVersions(versionsPath(playerSaveDir, slot))) {
+                referenced.addAll(List.of(record.hashes));
+            }
+        }
+        Path objectsDir = playerSaveDir.resolve(HISTORY_DIRECTORY).resolve(OBJECTS_DIRECTORY);
+        try (DirectoryStream<Path> objects = Files.newDirectoryStream(objectsDir)) {
+            for (Path object : objects) {
+                if (!referenced.contains(object.getFileName().toString())) {
+                    Files.deleteIfExists(object);
+                }
+            }
+        }
+    }
+
+    private static Path versionsPath(Path playerSaveDir, String slot) {
+        return playerSaveDir.resolve(HISTORY_DIRECTORY).resolve(SLOTS_DIRECTORY).resolve(slot + VERSIONS_EXTENSION);
+    }
+
+    private static List<VersionRecord> readVersions(Path versionsPath) throws IOException {
+        List<VersionRecord> versions = new ArrayList<>();
+        if (!Files.exists(versionsPath)) {
+            return versions;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(versionsPath)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                VersionRecord record = VersionRecord.parse(line);
+                if (record != null) {
+                    versions.add(record);
+                } else if (!line.isEmpty()) {
+                    System.err.println("Versión de guardado inválida ignorada en " + versionsPath);
+                }
+            }
+        }
+        return versions;
+    }
+
+    private static void writeVersions(Path versionsPath, List<VersionRecord> versions) throws IOException {
+        Path tempPath = versionsPath.resolveSibling(versionsPath.getFileName() + ".tmp");
+        StringBuilder content = new StringBuilder();
+        for (VersionRecord record : versions) {
+            content.append(record.format()).append(System.lineSeparator());
+        }
+        try (FileChannel channel = FileChannel.open(tempPath,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(content.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+        Files.move(tempPath, versionsPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        SaveTransaction.forceDirectory(versionsPath.getParent());
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            char[] hex = new char[digest.length * 2];
+            for (int i = 0; i < digest.length; i++) {
+                hex[2 * i] = HEX[(digest[i] >> 4) & 0xF];
+                hex[2 * i + 1] = HEX[digest[i] & 0xF];
+            }
+            return new String(hex);
+        } catch (NoSuchAlgorithmException e) {
+            // Todas las JVM deben incluir SHA-256.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Una línea del archivo de versiones de una ranura.
+     */
+    private static final class VersionRecord {
+        private final int number;
+        private final LocalDateTime saveDate;
+        private final String phase;
+        private final String[] hashes;
+
+        private VersionRecord(int number, LocalDateTime saveDate, String phase, String[] hashes) {
+            this.number = number;
+            this.saveDate = saveDate;
+            this.phase = phase;
+            this.hashes = hashes;
+        }
+
+        private String format() {
+            StringBuilder line = new StringBuilder();
+            line.append(this.number).append('\t')
+                    .append(this.saveDate.toEpochSecond(ZoneOffset.UTC)).append('\t')
+                    .append(this.phase);
+            for (String hash : this.hashes) {
+                line.append('\t').append(hash);
+            }
+            return line.toString();
+        }
+
+        private static VersionRecord parse(String line) {
+            String[] parts = line.split("\t");
+            if (parts.length != 3 + SAVE_FILES.length) {
+                return null;
+            }
+            try {
+                String[] hashes = new String[SAVE_FILES.length];
+                System.arraycopy(parts, 3, hashes, 0, SAVE_FILES.length);
+                return new VersionRecord(Integer.parseInt(parts[0]),
+                        LocalDateTime.ofEpochSecond(Long.parseLong(parts[1]), 0, ZoneOffset.UTC), parts[2], hashes);
+            } catch (RuntimeException e) {
+                return null;
+            }
+        }
+    }
+}
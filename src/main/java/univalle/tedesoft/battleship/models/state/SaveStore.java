@@ -0,0 +1,114 @@
+package univalle.tedesoft.battleship.models.state;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Almacén de partidas guardadas.
+ * Cada partida se identifica por el nickname del jugador y se compone de varios archivos
+ * de texto (game_info.txt, tableros y barcos) que se escriben y leen siempre juntos.
+ * Las implementaciones deben reemplazar todos los archivos de una partida de forma atómica.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ * @see SaveStoreFactory
+ */
+public interface SaveStore {
+    /**
+     * Guarda los archivos de una partida, reemplazando por completo la anterior del jugador.
+     * @param nickname Nickname del jugador.
+     * @param files Contenido de cada archivo, por nombre.
+     * @throws IOException Si no se pudo guardar; la partida anterior queda intacta.
+     */
+    void writeGame(String nickname, Map<String, byte[]> files) throws IOException;
+
+    /**
+     * Guarda las partidas de varios jugadores. Los almacenes que pueden confirmar varios
+     * guardados juntos lo sobrescriben para sincronizar el disco una sola vez por grupo.
+     * @param games Contenido de los archivos de cada partida, por nickname.
+     * @throws IOException Si no se pudo guardar alguna de las partidas.
+     */
+    default void writeGames(Map<String, Map<String, byte[]>> games) throws IOException {
+        for (Map.Entry<String, Map<String, byte[]>> game : games.entrySet()) {
+            this.writeGame(game.getKey(), game.getValue());
+        }
+    }
+
+    /**
+     * Lee los archivos de la partida de un jugador.
+     * @param nickname Nickname del jugador.
+     * @return Contenido de cada archivo por nombre, o null si el jugador no tiene partida guardada.
+     * @throws IOException Si la partida existe pero no se pudo leer o está corrupta.
+     */
+    Map<String, byte[]> readGame(String nickname) throws IOException;
+
+    /**
+     * Indica si un jugador tiene una partida guardada.
+     * @param nickname Nickname del jugador.
+     * @return true si existe la partida.
+     */
+    boolean hasGame(String nickname);
+
+    /**
+     * Elimina la partida de un jugador.
+     * @param nickname Nickname del jugador.
+     * @return true si existía y se eliminó.
+     * @throws IOException Si no se pudo eliminar.
+     */
+    boolean deleteGame(String nickname) throws IOException;
+
+    /**
+     * Lista los nicknames de todos los jugadores con partida guardada.
+     * @return Los nicknames, sin orden definido.
+     * @throws IOException Si no se pudo recorrer el almacén.
+     */
+    List<String> listNicknames() throws IOException;
+
+    /**
+     * Recorre los nicknames de los jugadores con partida guardada sin reunirlos en una lista.
+     * Los almacenes con muchos jugadores lo sobrescriben para no cargarlos todos en memoria.
+     * @param action Acción a ejecutar con cada nickname.
+     * @throws IOException Si no se pudo recorrer el almacén.
+     */
+    default void forEachNickname(Consumer<String> action) throws IOException {
+        for (String nickname : this.listNicknames()) {
+            action.accept(nickname);
+        }
+    }
+
+    /**
+     * Completa o descarta los guardados interrumpidos por un cierre inesperado.
+     * @return Cantidad de guardados completados.
+     */
+    default int recover() {
+        return 0;
+    }
+
+    /**
+     * Ruta del archivo donde se persiste el índice de partidas, o null si el índice
+     * debe mantenerse solo en memoria.
+     * @return La ruta del índice.
+     */
+    Path getCatalogPath();
+
+    /**
+     * Directorio propio de un jugador, donde se guarda su historial de versiones.
+     * Los almacenes que no organizan las partidas en directorios devuelven null y no conservan historial.
+     * @param nickname Nickname del jugador.
+     * @return El directorio del jugador, o null.
+     */
+    default Path getPlayerDirectory(String nickname) {
+        return null;
+    }
+
+    /**
+     * Descripción legible de dónde se guarda la partida de un jugador.
+     * @param nickname Nickname del jugador.
+     * @return La ubicación de la partida.
+     */
+    String describeLocation(String nickname);
+}
@@ -0,0 +1,69 @@
+package univalle.tedesoft.battleship.models.state;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Fábrica de almacenes de partidas. El almacén se elige por configuración con propiedades del sistema:
+ * <ul>
+ *     <li>{@value #STORE_PROPERTY}: {@code file} (por defecto), {@code mmap} o {@code memory}.</li>
+ *     <li>{@value #PATH_PROPERTY}: directorio de partidas para {@code file}, o archivo del almacén para
+ *     {@code mmap}. Por defecto se usa el directorio de partidas del proyecto.</li>
+ * </ul>
+ * Ejemplo: {@code -Dbattleship.saveStore=mmap -Dbattleship.savePath=/var/lib/battleship/saves.db}
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public final class SaveStoreFactory {
+    /** Propiedad del sistema que elige el tipo de almacén. */
+    public static final String STORE_PROPERTY = "battleship.saveStore";
+    /** Propiedad del sistema con la ubicación del almacén. */
+    public static final String PATH_PROPERTY = "battleship.savePath";
+    /** Directorio de partidas por defecto. */
+    static final String DEFAULT_SAVE_DIRECTORY = "src/main/resources/univalle/tedesoft/battleship/saves";
+    private static final String DEFAULT_STORE_FILE = "saves.db";
+
+    /** Constructor privado para prevenir la instanciación. */
+    private SaveStoreFactory() {}
+
+    /**
+     * Crea el almacén indicado por las propiedades del sistema.
+     * Si el almacén configurado no se puede abrir, se usa el de directorios por defecto.
+     * @return El almacén de partidas.
+     */
+    public static SaveStore createFromConfiguration() {
+        String type = System.getProperty(STORE_PROPERTY, "file");
+        String path = System.getProperty(PATH_PROPERTY);
+        try {
+            return create(type, path);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("No se pudo abrir el almacén de partidas '" + type + "': " + e.getMessage()
+                    + ". Se usará el directorio por defecto.");
+            return new FileSaveStore(Paths.get(DEFAULT_SAVE_DIRECTORY));
+        }
+    }
+
+    /**
+     * Crea un almacén de partidas.
+     * @param type Tipo de almacén: {@code file}, {@code mmap} o {@code memory}.
+     * @param path Ubicación del almacén, o null para la ubicación por defecto.
+     * @return El almacén de partidas.
+     * @throws IOException Si el almacén no se puede abrir.
+     */
+    public static SaveStore create(String type, String path) throws IOException {
+        switch (type.trim().toLowerCase()) {
+            case "file":
+                return new FileSaveStore(Paths.get(path != null ? path : DEFAULT_SAVE_DIRECTORY));
+            case "mmap":
+                Path storePath = (path != null) ? Paths.get(path) : Paths.get(DEFAULT_SAVE_DIRECTORY, DEFAULT_STORE_FILE);
+                return new MappedSaveStore(storePath);
+            case "memory":
+                return new MemorySaveStore();
+            default:
+                throw new IllegalArgumentException("Tipo de almacén desconocido: " + type);
+        }
+    }
+}
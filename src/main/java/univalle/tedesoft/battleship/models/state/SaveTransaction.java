@@ -0,0 +1,391 @@
+package univalle.tedesoft.battleship.models.state;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Guardado atómico de los archivos de una partida en su directorio, usado por {@link FileSaveStore}.
+ * Los archivos se preparan en memoria y al confirmar se aplica este protocolo:
+ * <ol>
+ *     <li>Se escribe cada archivo como temporal (nombre.tmp) y después se sincronizan todos
+ *     con el disco en una sola pasada, en lugar de uno por uno.</li>
+ *     <li>Se escribe un manifiesto con el tamaño y el CRC32 de cada archivo en el diario
+ *     ({@value #JOURNAL_DIRECTORY}) del directorio de partidas. Su renombrado atómico es el punto
+ *     de confirmación: a partir de ahí la partida nueva se considera guardada.</li>
+ *     <li>Se renombran los temporales sobre los archivos definitivos y se sincroniza el directorio.</li>
+ *     <li>El manifiesto se mueve al directorio del jugador, lo que cierra la transacción.</li>
+ * </ol>
+ * {@link #commitAll(List)} confirma varias transacciones como un grupo: los temporales de todas
+ * se sincronizan en la misma pasada y el diario se sincroniza una sola vez para todo el grupo.
+ * Si el proceso se interrumpe antes del paso 2 quedan los archivos anteriores intactos; si se
+ * interrumpe después, {@link #recover(Path)} completa los renombrados pendientes al iniciar y
+ * borra los temporales que no llegaron a confirmarse. Las confirmaciones y la recuperación de un
+ * mismo directorio de partidas se excluyen entre sí, para que la recuperación no tome por
+ * interrumpido un guardado que otro hilo está confirmando.
+ * Al cargar, {@link #readVerified(Path)} comprueba los archivos contra el manifiesto.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+final class SaveTransaction {
+    /** Manifiesto del último guardado confirmado, dentro del directorio del jugador. */
+    static final String MANIFEST_FILE = "save_manifest.txt";
+    /** Directorio, dentro del directorio de partidas, con los guardados confirmados sin terminar. */
+    static final String JOURNAL_DIRECTORY = ".journal";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String PENDING_SUFFIX = ".pending";
+    private static final String MANIFEST_HEADER = "BATTLESHIP_MANIFEST:1";
+    /** Candado de cada directorio de partidas, compartido por sus confirmaciones y su recuperación. */
+    private static final ConcurrentHashMap<Path, Object> DIRECTORY_LOCKS = new ConcurrentHashMap<>();
+
+    private final Path playerSaveDir;
+    /** Contenido preparado de cada archivo, en el orden en que se agregó. */
+    private final Map<String, byte[]> stagedFiles = new LinkedHashMap<>();
+
+    /**
+     * Inicia una transacción de guardado sobre el directorio de un jugador.
+     * @param playerSaveDir Directorio del jugador.
+     */
+    SaveTransaction(Path playerSaveDir) {
+        this.playerSaveDir = playerSaveDir;
+    }
+
+    /**
+     * Agrega a la transacción un archivo cuyo contenido ya está completo.
+     * @param fileName Nombre del archivo dentro del directorio del jugador.
+     * @param content Contenido del archivo.
+     * @throws IllegalArgumentException Si el nombre podría salir del directorio del jugador.
+     */
+    void stageFile(String fileName, byte[] content) {
+        if (fileName.isEmpty() || fileName.indexOf('/') >= 0 || fileName.indexOf('\\') >= 0 || fileName.contains("..")) {
+            throw new IllegalArgumentException("Nombre de archivo inválido para el guardado: " + fileName);
+        }
+        this.stagedFiles.put(fileName, content);
+    }
+
+    /**
+     * Escribe de forma atómica todos los archivos preparados.
+     * @throws IOException Si no se pudo confirmar el guardado; los archivos anteriores siguen intactos.
+     */
+    void commit() throws IOException {
+        commitAll(Collections.singletonList(this));
+    }
+
+    /**
+     * Confirma juntas varias transacciones de jugadores distintos del mismo directorio de partidas.
+     * Cada transacción es atómica por sí sola; agruparlas solo reparte entre todas el costo de
+     * sincronizar el disco.
+     * @param transactions Transacciones a confirmar, a lo sumo una por jugador.
+     * @throws IOException Si no se pudo confirmar alguna; las que no llegaron al diario siguen intactas
+     *         y las que sí llegaron se completan en la siguiente recuperación.
+     */
+    static void commitAll(List<SaveTransaction> transactions) throws IOException {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        Path journalDir = journalDirectory(transactions.get(0).playerSaveDir);
+        synchronized (lockFor(journalDir.getParent())) {
+            commitGroup(transactions, journalDir);
+        }
+    }
+
+    private static void commitGroup(List<SaveTransaction> transactions, Path journalDir) throws IOException {
+        Files.createDirectories(journalDir);
+        for (SaveTransaction transaction : transactions) {
+            if (!journalDirectory(transaction.playerSaveDir).equals(journalDir)) {
+                throw new IllegalArgumentException("Las transacciones de un grupo deben compartir el directorio de partidas.");
+            }
+            Files.createDirectories(transaction.playerSaveDir);
+        }
+
+        // 1. Temporales de todo el grupo: primero se escriben todos y luego se sincronizan juntos.
+        List<FileChannel> channels = new ArrayList<>();
+        try {
+            for (SaveTransaction transaction : transactions) {
+                for (Map.Entry<String, byte[]> file : transaction.stagedFiles.entrySet()) {
+                    FileChannel channel = FileChannel.open(transaction.playerSaveDir.resolve(file.getKey() + TEMP_SUFFIX),
+                            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                    channels.add(channel);
+                    writeFully(channel, file.getValue());
+                }
+            }
+            for (FileChannel channel : channels) {
+                channel.force(false);
+            }
+        } finally {
+            for (FileChannel channel : channels) {
+                channel.close();
+            }
+        }
+
+        // 2. Punto de confirmación: cada manifiesto aparece completo en el diario o no aparece.
+        //    El diario se sincroniza una sola vez para todo el grupo.
+        List<Path> pendingPaths = new ArrayList<>(transactions.size());
+        IOException failure = null;
+        try {
+            List<Path> pendingTempPaths = new ArrayList<>(transactions.size());
+            for (SaveTransaction transaction : transactions) {
+                Path pendingTempPath = journalDir.resolve(transaction.playerSaveDir.getFileName() + PENDING_SUFFIX + TEMP_SUFFIX);
+                try (FileChannel channel = FileChannel.open(pendingTempPath,
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    writeFully(channel, transaction.formatManifest().getBytes(StandardCharsets.UTF_8));
+                    channel.force(false);
+                }
+                pendingTempPaths.add(pendingTempPath);
+            }
+            for (int i = 0; i < transactions.size(); i++) {
+                Path pendingPath = journalDir.resolve(transactions.get(i).playerSaveDir.getFileName() + PENDING_SUFFIX);
+                Files.move(pendingTempPaths.get(i), pendingPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                pendingPaths.add(pendingPath);
+            }
+        } catch (IOException e) {
+            failure = e;
+        }
+        forceDirectory(journalDir);
+
+        // 3 y 4. Aplicar los temporales de las transacciones confirmadas y cerrarlas, aunque
+        //        alguna otra del grupo no haya llegado al diario.
+        for (int i = 0; i < pendingPaths.size(); i++) {
+            try {
+                applyPending(pendingPaths.get(i), transactions.get(i).playerSaveDir);
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Completa los guardados confirmados que quedaron sin aplicar por una interrupción
+     * y descarta los temporales de guardados que no llegaron a confirmarse, tanto los
+     * manifiestos a medio escribir del diario como los archivos temporales de cada jugador.
+     * @param saveDirectory Directorio raíz de las partidas guardadas.
+     * @return Cantidad de guardados completados.
+     */
+    static int recover(Path saveDirectory) {
+        synchronized (lockFor(saveDirectory)) {
+            return recoverLocked(saveDirectory);
+        }
+    }
+
+    private static int recoverLocked(Path saveDirectory) {
+        Path journalDir = saveDirectory.resolve(JOURNAL_DIRECTORY);
+        int recovered = 0;
+        // Jugadores con un guardado confirmado que no se pudo aplicar: sus temporales se conservan.
+        Set<Path> unrecovered = new HashSet<>();
+        if (Files.isDirectory(journalDir)) {
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(journalDir)) {
+                for (Path entry : entries) {
+                    String name = entry.getFileName().toString();
+                    Path playerSaveDir = null;
+                    try {
+                        if (name.endsWith(PENDING_SUFFIX)) {
+                            playerSaveDir = saveDirectory.resolve(name.substring(0, name.length() - PENDING_SUFFIX.length()));
+                            applyPending(entry, playerSaveDir);
+                            recovered++;
+                        } else if (name.endsWith(TEMP_SUFFIX)) {
+                            // Manifiesto a medio escribir: el guardado nunca se confirmó.
+                            Files.deleteIfExists(entry);
+                        }
+                    } catch (IOException e) {
+                        if (playerSaveDir != null) {
+                            unrecovered.add(playerSaveDir);
+                        }
+                        System.err.println("No se pudo recuperar el guardado " + name + ": " + e.getMessage());
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Error al revisar el diario de guardados: " + e.getMessage());
+                return recovered;
+            }
+        }
+        deleteUncommittedTemps(saveDirectory, unrecovered);
+        return recovered;
+    }
+
+    /**
+     * Lee los archivos del último guardado confirmado de un jugador y los comprueba contra su manifiesto.
+     * @param playerSaveDir Directorio del jugador.
+     * @return Contenido de cada archivo por nombre, o null si el directorio no tiene manifiesto
+     *         (guardados anteriores a este protocolo).
+     * @throws IOException Si el manifiesto está corrupto o algún archivo no coincide con él.
+     */
+    static Map<String, byte[]> readVerified(Path playerSaveDir) throws IOException {
+        Path manifestPath = playerSaveDir.resolve(MANIFEST_FILE);
+        if (!Files.exists(manifestPath)) {
+            return null;
+        }
+        Map<String, long[]> manifest = readManifest(manifestPath);
+        if (manifest == null) {
+            throw new IOException("Manifiesto de guardado corrupto: " + manifestPath);
+        }
+        Map<String, byte[]> files = new LinkedHashMap<>();
+        for (Map.Entry<String, long[]> file : manifest.entrySet()) {
+            Path filePath = playerSaveDir.resolve(file.getKey());
+            byte[] content = Files.exists(filePath) ? Files.readAllBytes(filePath) : null;
+            if (content == null || content.length != file.getValue()[0] || crc32(content) != file.getValue()[1]) {
+                throw new IOException("El archivo " + filePath + " no coincide con el manifiesto de guardado.");
+            }
+            files.put(file.getKey(), content);
+        }
+        return files;
+    }
+
+    // --- Métodos Privados Auxiliares ---
+
+    /**
+     * Renombra sobre los definitivos los temporales que coinciden con el manifiesto pendiente
+     * y mueve el manifiesto al directorio del jugador. Es idempotente: si se interrumpe, puede
+     * repetirse en la siguiente recuperación.
+     */
+    private static void applyPending(Path pendingPath, Path playerSaveDir) throws IOException {
+        Map<String, long[]> manifest = readManifest(pendingPath);
+        if (manifest == null) {
+            // El manifiesto solo aparece por renombrado atómico, así que esto indica un disco dañado.
+            throw new IOException("Manifiesto pendiente corrupto: " + pendingPath);
+        }
+        for (Map.Entry<String, long[]> file : manifest.entrySet()) {
+            Path tempPath = playerSaveDir.resolve(file.getKey() + TEMP_SUFFIX);
+            Path finalPath = playerSaveDir.resolve(file.getKey());
+            if (Files.exists(tempPath) && matches(tempPath, file.getValue())) {
+                Files.move(tempPath, finalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } else if (!matches(finalPath, file.getValue())) {
+                throw new IOException("Falta el archivo confirmado " + file.getKey() + " en " + playerSaveDir);
+            }
+        }
+        forceDirectory(playerSaveDir);
+        Files.move(pendingPath, playerSaveDir.resolve(MANIFEST_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Borra los temporales que quedaron en los directorios de los jugadores. Se llama después de
+     * aplicar el diario, así que ningún manifiesto pendiente los necesita, salvo los de los
+     * jugadores indicados.
+     */
+    private static void deleteUncommittedTemps(Path saveDirectory, Set<Path> keep) {
+        if (!Files.isDirectory(saveDirectory)) {
+            return;
+        }
+        try (DirectoryStream<Path> players = Files.newDirectoryStream(saveDirectory, Files::isDirectory)) {
+            for (Path playerSaveDir : players) {
+                if (playerSaveDir.getFileName().toString().equals(JOURNAL_DIRECTORY) || keep.contains(playerSaveDir)) {
+                    continue;
+                }
+                try (DirectoryStream<Path> temps = Files.newDirectoryStream(playerSaveDir, "*" + TEMP_SUFFIX)) {
+                    for (Path temp : temps) {
+                        Files.deleteIfExists(temp);
+                    }
+                } catch (IOException e) {
+                    System.err.println("No se pudieron borrar los temporales de " + playerSaveDir + ": " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error al revisar los temporales de guardado: " + e.getMessage());
+        }
+    }
+
+    private String formatManifest() {
+        StringBuilder manifest = new StringBuilder(MANIFEST_HEADER).append('\n');
+        for (Map.Entry<String, byte[]> file : this.stagedFiles.entrySet()) {
+            byte[] content = file.getValue();
+            manifest.append(file.getKey()).append('\t')
+                    .append(content.length).append('\t')
+                    .append(Long.toHexString(crc32(content))).append('\n');
+        }
+        // El total de archivos al final detecta un manifiesto truncado.
+        manifest.append("FILES:").append(this.stagedFiles.size()).append('\n');
+        return manifest.toString();
+    }
+
+    /**
+     * Lee un manifiesto.
+     * @return Tamaño y CRC de cada archivo, o null si el manifiesto está incompleto o mal formado.
+     */
+    private static Map<String, long[]> readManifest(Path manifestPath) throws IOException {
+        Map<String, long[]> manifest = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(manifestPath)) {
+            if (!MANIFEST_HEADER.equals(reader.readLine())) {
+                return null;
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("FILES:")) {
+                    return (Integer.parseInt(line.substring("FILES:".length())) == manifest.size()) ? manifest : null;
+                }
+                String[] parts = line.split("\t");
+                if (parts.length != 3) {
+                    return null;
+                }
+                manifest.put(parts[0], new long[]{Long.parseLong(parts[1]), Long.parseLong(parts[2], 16)});
+            }
+            return null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean matches(Path filePath, long[] sizeAndCrc) throws IOException {
+        if (!Files.exists(filePath) || Files.size(filePath) != sizeAndCrc[0]) {
+            return false;
+        }
+        return crc32(Files.readAllBytes(filePath)) == sizeAndCrc[1];
+    }
+
+    private static long crc32(byte[] content) {
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        return crc.getValue();
+    }
+
+    private static void writeFully(FileChannel channel, byte[] content) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(content);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Sincroniza las entradas de un directorio para que los renombrados sobrevivan a un corte de energía.
+     * Algunos sistemas (Windows) no permiten abrir directorios; allí el renombrado ya es duradero.
+     */
+    static void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Sin soporte para sincronizar directorios en esta plataforma.
+        }
+    }
+
+    private static Object lockFor(Path saveDirectory) {
+        return DIRECTORY_LOCKS.computeIfAbsent(saveDirectory.toAbsolutePath().normalize(), key -> new Object());
+    }
+
+    private static Path journalDirectory(Path playerSaveDir) {
+        Path saveDirectory = playerSaveDir.toAbsolutePath().getParent();
+        return saveDirectory.resolve(JOURNAL_DIRECTORY);
+    }
+}
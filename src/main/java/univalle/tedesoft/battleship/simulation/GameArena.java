@@ -0,0 +1,621 @@
+package univalle.tedesoft.battleship.simulation;
+
+import univalle.tedesoft.battleship.models.enums.CellState;
+import univalle.tedesoft.battleship.models.enums.GamePhase;
+import univalle.tedesoft.battleship.models.enums.ShotResult;
+import univalle.tedesoft.battleship.models.ships.FleetConfiguration;
+
+import java.util.stream.IntStream;
+
+/**
+ * Arena de partidas en memoria con disposición "struct-of-arrays".
+ * Guarda N partidas completas en arreglos primitivos planos, sin crear objetos Board, Ship
+ * ni Coordinate por partida: cada tablero es un par de máscaras de bits de 128 bits (barcos y disparos),
+ * cada barco ocupa dos bytes (inicio+orientación e impactos) y el turno y la fase ocupan un byte cada uno.
+ * Una partida cuesta del orden de 120 bytes, lo que permite decenas de millones de partidas en memoria
+ * con una presión mínima sobre el recolector de basura.
+ * <p>
+ * Ambos jugadores disparan de forma aleatoria a celdas no atacadas (la misma política que usa
+ * GameState para la máquina) y se mantiene la regla de repetir turno tras un acierto.
+ * Las partidas son independientes entre sí, por lo que los lotes se pueden avanzar en paralelo.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public final class GameArena {
+    /** Tamaño del tablero (filas = columnas). */
+    public static final int BOARD_SIZE = 10;
+    /** Cantidad de celdas de un tablero; debe caber en dos palabras de 64 bits. */
+    private static final int CELLS = BOARD_SIZE * BOARD_SIZE;
+    /** Flota estándar: portaaviones, 2 submarinos, 3 destructores y 4 fragatas. */
+    public static final int[] STANDARD_FLEET = {4, 3, 3, 2, 2, 2, 1, 1, 1, 1};
+    /** Intentos máximos por barco al colocar una flota aleatoria. */
+    private static final int MAX_PLACEMENT_ATTEMPTS = 1000;
+    /** Veces que se empieza de cero una flota cuyos barcos no cupieron antes de declarar la partida inválida. */
+    private static final int MAX_FLEET_ATTEMPTS = 100;
+    /** Bit del byte de barco que indica orientación vertical. */
+    private static final int VERTICAL_FLAG = 0x80;
+    /** Tamaño del bloque de partidas que procesa cada tarea paralela. */
+    private static final int PARALLEL_CHUNK = 4096;
+
+    /** Código de fase: partida sin iniciar. */
+    private static final byte PHASE_INITIAL = (byte) GamePhase.INITIAL.ordinal();
+    /** Código de fase: fase de disparos. */
+    private static final byte PHASE_FIRING = (byte) GamePhase.FIRING.ordinal();
+    /** Código de fase: partida terminada. */
+    private static final byte PHASE_GAME_OVER = (byte) GamePhase.GAME_OVER.ordinal();
+
+    /** Máscaras precalculadas de cada colocación: [orientación][longitud][inicio], palabra baja y alta. */
+    private static final long[][][] PLACEMENT_LO = new long[2][BOARD_SIZE + 1][CELLS];
+    private static final long[][][] PLACEMENT_HI = new long[2][BOARD_SIZE + 1][CELLS];
+    /** Indica si la colocación [orientación][longitud][inicio] cabe en el tablero. */
+    private static final boolean[][][] PLACEMENT_VALID = new boolean[2][BOARD_SIZE + 1][CELLS];
+
+    static {
+        for (int vertical = 0; vertical < 2; vertical++) {
+            for (int length = 1; length <= BOARD_SIZE; length++) {
+                for (int start = 0; start < CELLS; start++) {
+                    int row = start / BOARD_SIZE;
+                    int col = start % BOARD_SIZE;
+                    boolean fits = (vertical == 1) ? row + length <= BOARD_SIZE : col + length <= BOARD_SIZE;
+                    PLACEMENT_VALID[vertical][length][start] = fits;
+                    if (!fits) {
+                        continue;
+                    }
+                    long lo = 0;
+                    long hi = 0;
+                    for (int i = 0; i < length; i++) {
+                        int cell = (vertical == 1) ? start + i * BOARD_SIZE : start + i;
+                        if (cell < 64) {
+                            lo |= 1L << cell;
+                        } else {
+                            hi |= 1L << (cell - 64);
+                        }
+                    }
+                    PLACEMENT_LO[vertical][length][start] = lo;
+                    PLACEMENT_HI[vertical][length][start] = hi;
+                }
+            }
+        }
+    }
+
+    /** Capacidad máxima de partidas. */
+    private final int capacity;
+    /** Longitudes de los barcos de la flota. */
+    private final int[] fleet;
+    /** Cantidad de barcos por flota. */
+    private final int shipsPerFleet;
+
+    /** Máscara de celdas con barco: [(partida * 2 + tablero) * 2 + palabra]. */
+    private final long[] shipBits;
+    /** Máscara de celdas atacadas: [(partida * 2 + tablero) * 2 + palabra]. */
+    private final long[] shotBits;
+    /** Inicio (7 bits) y orientación (bit 7) de cada barco: [(partida * 2 + tablero) * barcos + i]. */
+    private final byte[] shipStart;
+    /** Impactos recibidos por cada barco: [(partida * 2 + tablero) * barcos + i]. */
+    private final byte[] shipHits;
+    /** Barcos a flote por tablero: [partida * 2 + tablero]. */
+    private final byte[] shipsAfloat;
+    /** Disparos realizados por cada jugador: [partida * 2 + jugador]. */
+    private final short[] shotsFired;
+    /** Jugador con el turno (0 o 1) por partida. */
+    private final byte[] turn;
+    /** Fase por partida (ordinal de GamePhase). */
+    private final byte[] phase;
+    /** Estado del generador aleatorio (xorshift64*) por partida. */
+    private final long[] rngState;
+    /** Cantidad de partidas inicializadas. */
+    private int size;
+
+    /**
+     * Crea una arena con la flota estándar.
+     * @param capacity Cantidad máxima de partidas.
+     */
+    public GameArena(int capacity) {
+        this(capacity, STANDARD_FLEET);
+    }
+
+    /**
+     * Crea una arena con la flota de una configuración. La arena solo admite tableros de 10x10.
+     * @param capacity Cantidad máxima de partidas.
+     * @param fleetConfiguration Configuración de flota.
+     */
+    public GameArena(int capacity, FleetConfiguration fleetConfiguration) {
+        this(capacity, requireArenaBoard(fleetConfiguration).getShipLengths());
+    }
+
+    private static FleetConfiguration requireArenaBoard(FleetConfiguration fleetConfiguration) {
+        if (fleetConfiguration.getBoardSize() != BOARD_SIZE) {
+            throw new IllegalArgumentException("La arena solo admite tableros de " + BOARD_SIZE + "x" + BOARD_SIZE
+                    + "; la flota usa " + fleetConfiguration.getBoardSize());
+        }
+        return fleetConfiguration;
+    }
+
+    /**
+     * Crea una arena con una flota personalizada.
+     * @param capacity Cantidad máxima de partidas.
+     * @param fleet Longitudes de los barcos de cada flota.
+     * @throws IllegalArgumentException Si la capacidad no es positiva, si la flota está vacía o tiene
+     *         más de {@value Byte#MAX_VALUE} barcos (el conteo de barcos a flote ocupa un byte), si
+     *         algún barco no cabe en el tablero o si la flota ocupa más celdas que el tablero.
+     */
+    public GameArena(int capacity, int[] fleet) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("La capacidad debe ser positiva: " + capacity);
+        }
+        if (fleet.length == 0 || fleet.length > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("La flota debe tener entre 1 y " + Byte.MAX_VALUE + " barcos: " + fleet.length);
+        }
+        int fleetCells = 0;
+        for (int length : fleet) {
+            if (length < 1 || length > BOARD_SIZE) {
+                throw new IllegalArgumentException("Longitud de barco inválida: " + length);
+            }
+            fleetCells += length;
+        }
+        if (fleetCells > CELLS) {
+            throw new IllegalArgumentException("La flota ocupa " + fleetCells + " celdas y el tablero tiene " + CELLS);
+        }
+        this.capacity = capacity;
+        this.fleet = fleet.clone();
+        this.shipsPerFleet = fleet.length;
+        long boards = (long) capacity * 2;
+        this.shipBits = new long[Math.toIntExact(boards * 2)];
+        this.shotBits = new long[Math.toIntExact(boards * 2)];
+        this.shipStart = new byte[Math.toIntExact(boards * this.shipsPerFleet)];
+        this.shipHits = new byte[Math.toIntExact(boards * this.shipsPerFleet)];
+        this.shipsAfloat = new byte[Math.toIntExact(boards)];
+        this.shotsFired = new short[Math.toIntExact(boards)];
+        this.turn = new byte[capacity];
+        this.phase = new byte[capacity];
+        this.rngState = new long[capacity];
+    }
+
+    /**
+     * Inicializa una nueva partida con ambas flotas colocadas al azar.
+     * @param seed Semilla de la partida; la misma semilla reproduce la misma partida.
+     * @return El índice de la partida creada.
+     * @throws IllegalStateException Si la arena está llena o no se pudo colocar alguna flota; en ese
+     *         caso la partida no se agrega.
+     */
+    public int addGame(long seed) {
+        if (this.size == this.capacity) {
+            throw new IllegalStateException("La arena está llena (" + this.capacity + " partidas).");
+        }
+        int game = this.size;
+        this.resetGame(game, seed);
+        this.size++;
+        return game;
+    }
+
+    /**
+     * Llena la arena hasta su capacidad con partidas nuevas, derivando la semilla de cada una.
+     * La inicialización se hace en paralelo.
+     * @param baseSeed Semilla base; la partida i usa una semilla derivada de baseSeed e i.
+     * @throws IllegalStateException Si no se pudo colocar alguna flota; la arena conserva las partidas que tenía.
+     */
+    public void fill(long baseSeed) {
+        int from = this.size;
+        this.forEachChunk(from, this.capacity, (start, end) -> {
+            for (int game = start; game < end; game++) {
+                this.resetGame(game, mix(baseSeed + game));
+            }
+        });
+        this.size = this.capacity;
+    }
+
+    /**
+     * Reinicia una partida existente: limpia ambos tableros y coloca flotas aleatorias.
+     * @param game Índice de la partida.
+     * @param seed Semilla de la partida.
+     * @throws IllegalStateException Si una flota no cupo tras {@value #MAX_FLEET_ATTEMPTS} intentos; la
+     *         partida queda en la fase inicial y {@link #advance} la ignora.
+     */
+    public void resetGame(int game, long seed) {
+        this.rngState[game] = (seed == 0) ? 0x9E3779B97F4A7C15L : seed;
+        for (int board = 0; board < 2; board++) {
+            int boardIndex = game * 2 + board;
+            this.shotBits[boardIndex * 2] = 0;
+            this.shotBits[boardIndex * 2 + 1] = 0;
+            this.shotsFired[boardIndex] = 0;
+            boolean placed = false;
+            for (int attempt = 0; attempt < MAX_FLEET_ATTEMPTS && !placed; attempt++) {
+                // Con flotas muy densas un intento puede fallar; se reintenta con el mismo generador.
+                placed = this.placeFleet(game, boardIndex);
+            }
+            if (!placed) {
+                this.phase[game] = PHASE_INITIAL;
+                throw new IllegalStateException("No se pudo colocar la flota del tablero " + board + " de la partida " + game
+                        + " tras " + MAX_FLEET_ATTEMPTS + " intentos.");
+            }
+        }
+        this.turn[game] = 0;
+        this.phase[game] = PHASE_FIRING;
+    }
+
+    /**
+     * Avanza un disparo en cada partida activa del rango indicado.
+     * @param from Primera partida (inclusive).
+     * @param to Última partida (exclusive).
+     * @return Cantidad de partidas del rango que siguen activas.
+     */
+    public int advance(int from, int to) {
+        return this.advance(from, to, null);
+    }
+
+    /**
+     * Avanza un disparo en cada partida activa del rango indicado e informa cada disparo.
+     * @param from Primera partida (inclusive).
+     * @param to Última partida (exclusive).
+     * @param listener Receptor de los disparos, o null.
+     * @return Cantidad de partidas del rango que siguen activas.
+     */
+    public int advance(int from, int to, ShotListener listener) {
+        int active = 0;
+        for (int game = from; game < to; game++) {
+            if (this.phase[game] == PHASE_FIRING) {
+                this.step(game, listener);
+                if (this.phase[game] == PHASE_FIRING) {
+                    active++;
+                }
+            }
+        }
+        return active;
+    }
+
+    /**
+     * Avanza todas las partidas del rango hasta que terminen o se agoten las rondas.
+     * @param from Primera partida (inclusive).
+     * @param to Última partida (exclusive).
+     * @param maxRounds Máximo de disparos por partida.
+     * @return Cantidad de partidas del rango que siguen activas.
+     */
+    public int runToCompletion(int from, int to, int maxRounds) {
+        return this.runToCompletion(from, to, maxRounds, null);
+    }
+
+    /**
+     * Avanza todas las partidas del rango hasta que terminen o se agoten las rondas, informando
+     * cada disparo. El receptor se invoca desde el hilo que llama, en el orden de los disparos.
+     * @param from Primera partida (inclusive).
+     * @param to Última partida (exclusive).
+     * @param maxRounds Máximo de disparos por partida.
+     * @param listener Receptor de los disparos, o null.
+     * @return Cantidad de partidas del rango que siguen activas.
+     */
+    public int runToCompletion(int from, int to, int maxRounds, ShotListener listener) {
+        int active = to - from;
+        for (int round = 0; round < maxRounds && active > 0; round++) {
+            active = this.advance(from, to, listener);
+        }
+        return active;
+    }
+
+    /**
+     * Juega todas las partidas de la arena hasta el final, repartiendo bloques de partidas
+     * entre todos los núcleos disponibles.
+     * @param maxRounds Máximo de disparos por partida.
+     */
+    public void runAllParallel(int maxRounds) {
+        this.forEachChunk(0, this.size, (start, end) -> this.runToCompletion(start, end, maxRounds));
+    }
+
+    // ----- Consultas -----
+
+    /** @return Cantidad de partidas inicializadas. */
+    public int size() {
+        return this.size;
+    }
+
+    /** @return Capacidad máxima de partidas. */
+    public int capacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Obtiene la fase de una partida.
+     * @param game Índice de la partida.
+     * @return La fase actual.
+     */
+    public GamePhase getPhase(int game) {
+        return GamePhase.values()[this.phase[game]];
+    }
+
+    /**
+     * Obtiene el jugador con el turno.
+     * @param game Índice de la partida.
+     * @return 0 o 1.
+     */
+    public int getTurn(int game) {
+        return this.turn[game];
+    }
+
+    /**
+     * Obtiene el ganador de una partida terminada.
+     * @param game Índice de la partida.
+     * @return 0 o 1, o -1 si la partida no ha terminado.
+     */
+    public int getWinner(int game) {
+        if (this.phase[game] != PHASE_GAME_OVER) {
+            return -1;
+        }
+        // Pierde el jugador cuyo tablero no tiene barcos a flote.
+        return (this.shipsAfloat[game * 2] == 0) ? 1 : 0;
+    }
+
+    /**
+     * Obtiene la cantidad de disparos que ha hecho un jugador.
+     * @param game Índice de la partida.
+     * @param player 0 o 1.
+     * @return Disparos realizados.
+     */
+    public int getShotsFired(int game, int player) {
+        return this.shotsFired[game * 2 + player];
+    }
+
+    /**
+     * Obtiene los barcos a flote del tablero de un jugador.
+     * @param game Índice de la partida.
+     * @param player Dueño del tablero (0 o 1).
+     * @return Cantidad de barcos sin hundir.
+     */
+    public int getShipsAfloat(int game, int player) {
+        return this.shipsAfloat[game * 2 + player];
+    }
+
+    /**
+     * Reconstruye el estado de una celda con los mismos valores que usa Board.
+     * @param game Índice de la partida.
+     * @param player Dueño del tablero (0 o 1).
+     * @param row Fila.
+     * @param col Columna.
+     * @return El estado de la celda.
+     */
+    public CellState getCellState(int game, int player, int row, int col) {
+        int boardIndex = game * 2 + player;
+        int cell = row * BOARD_SIZE + col;
+        boolean hasShip = testBit(this.shipBits, boardIndex, cell);
+        boolean shot = testBit(this.shotBits, boardIndex, cell);
+        if (!hasShip) {
+            return shot ? CellState.SHOT_LOST_IN_WATER : CellState.EMPTY;
+        }
+        int ship = this.findShip(boardIndex, cell);
+        if (ship >= 0 && this.shipHits[boardIndex * this.shipsPerFleet + ship] >= this.fleet[ship]) {
+            return CellState.SUNK_SHIP_PART;
+        }
+        return shot ? CellState.HIT_SHIP : CellState.SHIP;
+    }
+
+    /**
+     * Obtiene la celda inicial (la de menor fila y columna) de un barco.
+     * @param game Índice de la partida.
+     * @param player Dueño del tablero (0 o 1).
+     * @param ship Índice del barco dentro de la flota.
+     * @return La celda lineal (fila * 10 + columna).
+     */
+    public int getShipStartCell(int game, int player, int ship) {
+        return this.shipStart[(game * 2 + player) * this.shipsPerFleet + ship] & ~VERTICAL_FLAG & 0xFF;
+    }
+
+    /**
+     * Indica si un barco está colocado en vertical.
+     * @param game Índice de la partida.
+     * @param player Dueño del tablero (0 o 1).
+     * @param ship Índice del barco dentro de la flota.
+     * @return true si es vertical.
+     */
+    public boolean isShipVertical(int game, int player, int ship) {
+        return (this.shipStart[(game * 2 + player) * this.shipsPerFleet + ship] & VERTICAL_FLAG) != 0;
+    }
+
+    /**
+     * Devuelve una copia de las longitudes de la flota de la arena.
+     * @return Longitudes de los barcos.
+     */
+    public int[] getFleet() {
+        return this.fleet.clone();
+    }
+
+    // ----- Lógica interna -----
+
+    /**
+     * Ejecuta un disparo aleatorio del jugador con el turno en una partida.
+     * @param game Índice de la partida.
+     * @param listener Receptor del disparo, o null.
+     */
+    private void step(int game, ShotListener listener) {
+        int shooter = this.turn[game];
+        int target = game * 2 + (1 - shooter);
+        long shotLo = this.shotBits[target * 2];
+        long shotHi = this.shotBits[target * 2 + 1];
+        int free = CELLS - Long.bitCount(shotLo) - Long.bitCount(shotHi);
+        if (free == 0) {
+            this.phase[game] = PHASE_GAME_OVER;
+            return;
+        }
+        int cell = selectFreeCell(shotLo, shotHi, this.nextInt(game, free));
+        setBit(this.shotBits, target, cell);
+        this.shotsFired[game * 2 + shooter]++;
+
+        if (!testBit(this.shipBits, target, cell)) {
+            // Agua: cambia el turno.
+            this.turn[game] = (byte) (1 - shooter);
+            if (listener != null) {
+                listener.onShot(game, shooter, cell, ShotResult.WATER);
+            }
+            return;
+        }
+        int ship = this.findShip(target, cell);
+        int hitIndex = target * this.shipsPerFleet + ship;
+        this.shipHits[hitIndex]++;
+        boolean sunk = this.shipHits[hitIndex] == this.fleet[ship];
+        if (sunk) {
+            this.shipsAfloat[target]--;
+            if (this.shipsAfloat[target] == 0) {
+                this.phase[game] = PHASE_GAME_OVER;
+            }
+        }
+        if (listener != null) {
+            listener.onShot(game, shooter, cell, sunk ? ShotResult.SUNKEN : ShotResult.TOUCHED);
+        }
+    }
+
+    /**
+     * Coloca una flota aleatoria en un tablero de la arena.
+     * @param game Índice de la partida (para el generador aleatorio).
+     * @param boardIndex Índice del tablero.
+     * @return true si toda la flota pudo colocarse.
+     */
+    private boolean placeFleet(int game, int boardIndex) {
+        long lo = 0;
+        long hi = 0;
+        int base = boardIndex * this.shipsPerFleet;
+        for (int i = 0; i < this.shipsPerFleet; i++) {
+            int length = this.fleet[i];
+            boolean placed = false;
+            for (int attempt = 0; attempt < MAX_PLACEMENT_ATTEMPTS && !placed; attempt++) {
+                int start = this.nextInt(game, CELLS);
+                // Las fragatas (longitud 1) son siempre horizontales, igual que en GameState.
+                int vertical = (length > 1) ? this.nextInt(game, 2) : 0;
+                if (!PLACEMENT_VALID[vertical][length][start]) {
+                    continue;
+                }
+                long maskLo = PLACEMENT_LO[vertical][length][start];
+                long maskHi = PLACEMENT_HI[vertical][length][start];
+                if ((maskLo & lo) != 0 || (maskHi & hi) != 0) {
+                    continue;
+                }
+                lo |= maskLo;
+                hi |= maskHi;
+                this.shipStart[base + i] = (byte) (start | (vertical == 1 ? VERTICAL_FLAG : 0));
+                this.shipHits[base + i] = 0;
+                placed = true;
+            }
+            if (!placed) {
+                return false;
+            }
+        }
+        this.shipBits[boardIndex * 2] = lo;
+        this.shipBits[boardIndex * 2 + 1] = hi;
+        this.shipsAfloat[boardIndex] = (byte) this.shipsPerFleet;
+        return true;
+    }
+
+    /**
+     * Busca el barco que ocupa una celda recorriendo la flota del tablero (a lo sumo unas decenas de bytes).
+     * @param boardIndex Índice del tablero.
+     * @param cell Celda lineal.
+     * @return Índice del barco dentro de la flota, o -1.
+     */
+    private int findShip(int boardIndex, int cell) {
+        int base = boardIndex * this.shipsPerFleet;
+        int row = cell / BOARD_SIZE;
+        int col = cell % BOARD_SIZE;
+        for (int i = 0; i < this.shipsPerFleet; i++) {
+            int packed = this.shipStart[base + i] & 0xFF;
+            int start = packed & ~VERTICAL_FLAG;
+            int startRow = start / BOARD_SIZE;
+            int startCol = start % BOARD_SIZE;
+            int length = this.fleet[i];
+            if ((packed & VERTICAL_FLAG) != 0) {
+                if (col == startCol && row >= startRow && row < startRow + length) {
+                    return i;
+                }
+            } else if (row == startRow && col >= startCol && col < startCol + length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Devuelve la n-ésima celda no atacada (contando desde la celda 0).
+     */
+    private static int selectFreeCell(long shotLo, long shotHi, int n) {
+        long freeLo = ~shotLo;
+        long freeHi = ~shotHi & ((1L << (CELLS - 64)) - 1);
+        int lowCount = Long.bitCount(freeLo);
+        if (n < lowCount) {
+            return selectBit(freeLo, n);
+        }
+        return 64 + selectBit(freeHi, n - lowCount);
+    }
+
+    /**
+     * Devuelve la posición del n-ésimo bit encendido de una palabra.
+     */
+    private static int selectBit(long word, int n) {
+        for (int i = 0; i < n; i++) {
+            word &= word - 1;
+        }
+        return Long.numberOfTrailingZeros(word);
+    }
+
+    private static boolean testBit(long[] bits, int boardIndex, int cell) {
+        long word = bits[boardIndex * 2 + (cell >>> 6)];
+        return (word & (1L << (cell & 63))) != 0;
+    }
+
+    private static void setBit(long[] bits, int boardIndex, int cell) {
+        bits[boardIndex * 2 + (cell >>> 6)] |= 1L << (cell & 63);
+    }
+
+    /**
+     * Genera un entero uniforme en [0, bound) con el generador xorshift64* de la partida.
+     */
+    private int nextInt(int game, int bound) {
+        long x = this.rngState[game];
+        x ^= x >>> 12;
+        x ^= x << 25;
+        x ^= x >>> 27;
+        this.rngState[game] = x;
+        long r = (x * 0x2545F4914F6CDD1DL) >>> 33;
+        return (int) ((r * bound) >>> 31);
+    }
+
+    /**
+     * Mezcla una semilla para que semillas consecutivas den secuencias no correlacionadas (SplitMix64).
+     */
+    static long mix(long z) {
+        z += 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Reparte un rango de partidas en bloques independientes y los procesa en paralelo.
+     */
+    private void forEachChunk(int from, int to, RangeAction action) {
+        int chunks = (to - from + PARALLEL_CHUNK - 1) / PARALLEL_CHUNK;
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            int start = from + chunk * PARALLEL_CHUNK;
+            int end = Math.min(to, start + PARALLEL_CHUNK);
+            action.apply(start, end);
+        });
+    }
+
+    /**
+     * Receptor de los disparos de la arena, por ejemplo para registrar partidas completas.
+     */
+    @FunctionalInterface
+    public interface ShotListener {
+        /**
+         * @param game Índice de la partida.
+         * @param shooter Jugador que disparó (0 o 1).
+         * @param cell Celda lineal atacada (fila * 10 + columna).
+         * @param result Resultado del disparo.
+         */
+        void onShot(int game, int shooter, int cell, ShotResult result);
+    }
+
+    /**
+     * Acción sobre un rango de partidas [start, end).
+     */
+    @FunctionalInterface
+    private interface RangeAction {
+        void apply(int start, int end);
+    }
+}
@@ -0,0 +1,67 @@
+package univalle.tedesoft.battleship.simulation;
+
+import univalle.tedesoft.battleship.exceptions.OutOfBoundsException;
+import univalle.tedesoft.battleship.exceptions.OverlapException;
+import univalle.tedesoft.battleship.models.ai.MachineStrategy;
+import univalle.tedesoft.battleship.models.ai.RandomStrategy;
+import univalle.tedesoft.battleship.models.board.Board;
+import univalle.tedesoft.battleship.models.board.BoardSnapshot;
+import univalle.tedesoft.battleship.models.board.Coordinate;
+import univalle.tedesoft.battleship.models.enums.CellState;
+
+import java.util.Random;
+
+/**
+ * Partida sin interfaz de una estrategia de la máquina contra una flota ya colocada, para medir
+ * cuántos disparos necesita. La usan los generadores fuera de línea que evalúan estrategias o
+ * disposiciones.
+ * <p>
+ * Los disparos se piden sin límite de tiempo ({@link MachineStrategy#NO_DEADLINE}): cada búsqueda
+ * se detiene por sus límites de trabajo, así que el resultado no depende de la carga de la máquina
+ * ni de cuántas partidas se jueguen en paralelo. Con la misma flota, una estrategia creada con la
+ * misma semilla y el mismo generador de respaldo, la partida se juega siempre igual.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+final class HeadlessGame {
+    /** Constructor privado para prevenir la instanciación. */
+    private HeadlessGame() {}
+
+    /**
+     * Juega hasta hundir la flota del tablero. Si la estrategia no devuelve una celda válida sin
+     * disparar, se dispara al azar.
+     * @param board Tablero con la flota colocada; recibe los disparos.
+     * @param strategy Estrategia que dispara.
+     * @param random Generador para los disparos de respaldo.
+     * @return Los disparos que necesito para hundir la flota.
+     */
+    static int shotsToSink(Board board, MachineStrategy strategy, Random random) {
+        int size = board.getSize();
+        int shots = 0;
+        while (!board.areAllShipsSunk() && shots < size * size) {
+            BoardSnapshot snapshot = board.snapshot().opponentView();
+            int cell = strategy.chooseShot(snapshot, snapshot, MachineStrategy.NO_DEADLINE);
+            if (cell < 0 || cell >= size * size || isShot(snapshot, cell)) {
+                cell = RandomStrategy.randomUnshotCell(snapshot, random);
+            }
+            try {
+                board.receiveShot(new Coordinate(cell % size, cell / size));
+            } catch (OutOfBoundsException | OverlapException e) {
+                throw new IllegalStateException("Disparo inválido en la celda " + cell, e);
+            }
+            shots++;
+        }
+        return shots;
+    }
+
+    /**
+     * Indica si una celda ya recibió un disparo.
+     */
+    private static boolean isShot(BoardSnapshot snapshot, int cell) {
+        int size = snapshot.getSize();
+        CellState state = snapshot.getCellState(cell / size, cell % size);
+        return state == CellState.HIT_SHIP || state == CellState.SUNK_SHIP_PART || state == CellState.SHOT_LOST_IN_WATER;
+    }
+}
@@ -0,0 +1,147 @@
+package univalle.tedesoft.battleship.simulation;
+
+import univalle.tedesoft.battleship.models.ai.OpeningBook;
+import univalle.tedesoft.battleship.models.ai.ProbabilityMap;
+import univalle.tedesoft.battleship.models.ai.SymmetryCanonicalizer;
+import univalle.tedesoft.battleship.models.board.Board;
+import univalle.tedesoft.battleship.models.board.BoardSnapshot;
+import univalle.tedesoft.battleship.models.enums.CellState;
+import univalle.tedesoft.battleship.models.ships.FleetConfiguration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Generador fuera de línea del libro de aperturas ({@link OpeningBook}) de una flota.
+ * Recorre en anchura los estados de la apertura, en los que todos los disparos cayeron al agua:
+ * en cada estado evalúa el mapa de probabilidad, guarda las mejores celdas (las que quedan a menos de
+ * {@link #CANDIDATE_TOLERANCE} de la mejor) y sigue con el estado que deja fallar cada una de ellas.
+ * Los estados simétricos se evalúan una sola vez.
+ * <p>
+ * Se ejecuta junto al simulador, antes de jugar:
+ * {@code java univalle.tedesoft.battleship.simulation.OpeningBookGenerator [profundidad] [entradas]}.
+ * La flota es la del juego ({@value FleetConfiguration#FLEET_FILE_PROPERTY}) y el libro se escribe en
+ * {@link OpeningBook#pathFor(FleetConfiguration)}.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public final class OpeningBookGenerator {
+    /** Disparos por apertura si no se indica otra cantidad. */
+    public static final int DEFAULT_DEPTH = 10;
+    /** Estados máximos del libro si no se indica otra cantidad. */
+    public static final int DEFAULT_MAX_ENTRIES = 1 << 14;
+    /** Fracción de la mejor probabilidad que debe alcanzar una celda para ser candidata. */
+    private static final double CANDIDATE_TOLERANCE = 0.98;
+
+    /** Constructor privado para prevenir la instanciación. */
+    private OpeningBookGenerator() {}
+
+    /**
+     * Calcula el libro de una flota.
+     * @param fleetConfiguration La flota del rival.
+     * @param depth Cantidad máxima de disparos de cada apertura.
+     * @param maxEntries Cantidad máxima de estados del libro.
+     * @return Celdas candidatas (en el marco canónico, de mejor a peor) por hash canónico del estado.
+     */
+    public static Map<Long, int[]> generate(FleetConfiguration fleetConfiguration, int depth, int maxEntries) {
+        int size = fleetConfiguration.getBoardSize();
+        int[] fleet = fleetConfiguration.getShipLengths();
+        boolean orientationPreservingOnly = !fleetConfiguration.allowsBothOrientations();
+        SymmetryCanonicalizer canonicalizer = SymmetryCanonicalizer.forSize(size);
+        Map<Long, int[]> book = new HashMap<>();
+        // Cada estado pendiente es la lista de celdas falladas, en el orden en que se dispararon.
+        Deque<int[]> pending = new ArrayDeque<>();
+        pending.add(new int[0]);
+        while (!pending.isEmpty() && book.size() < maxEntries) {
+            int[] misses = pending.poll();
+            Board territory = new Board(size);
+            for (int cell : misses) {
+                territory.setCellState(cell / size, cell % size, CellState.SHOT_LOST_IN_WATER);
+            }
+            BoardSnapshot state = territory.snapshot();
+            SymmetryCanonicalizer.CanonicalForm form = canonicalizer.canonicalize(state, orientationPreservingOnly);
+            if (book.containsKey(form.getHash())) {
+                continue;
+            }
+            // Un mapa nuevo por estado: el recorrido en anchura salta entre ramas y la actualización
+            // incremental no ahorraría trabajo.
+            ProbabilityMap map = new ProbabilityMap(size, fleet);
+            map.update(state);
+            int[] candidates = bestCells(map.getProbabilities(null));
+            if (candidates.length == 0) {
+                continue;
+            }
+            int[] canonicalCells = new int[candidates.length];
+            for (int i = 0; i < candidates.length; i++) {
+                canonicalCells[i] = canonicalizer.toCanonicalCell(candidates[i], form.getSymmetry());
+            }
+            book.put(form.getHash(), canonicalCells);
+            if (misses.length + 1 < depth) {
+                for (int cell : candidates) {
+                    int[] next = Arrays.copyOf(misses, misses.length + 1);
+                    next[misses.length] = cell;
+                    pending.add(next);
+                }
+            }
+        }
+        return book;
+    }
+
+    /**
+     * Calcula el libro de una flota y lo guarda en el directorio de libros.
+     * @param fleetConfiguration La flota del rival.
+     * @param depth Cantidad máxima de disparos de cada apertura.
+     * @param maxEntries Cantidad máxima de estados del libro.
+     * @return La ruta del libro escrito.
+     * @throws IOException Si el libro no se puede escribir.
+     */
+    public static Path generateAndWrite(FleetConfiguration fleetConfiguration, int depth, int maxEntries) throws IOException {
+        Map<Long, int[]> book = generate(fleetConfiguration, depth, maxEntries);
+        Path path = OpeningBook.pathFor(fleetConfiguration);
+        OpeningBook.write(path, fleetConfiguration, depth, book);
+        return path;
+    }
+
+    /**
+     * Genera el libro de la flota del juego.
+     * @param args Profundidad y cantidad máxima de estados, opcionales.
+     */
+    public static void main(String[] args) {
+        int depth = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+        int maxEntries = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_MAX_ENTRIES;
+        FleetConfiguration fleetConfiguration = FleetConfiguration.getDefault();
+        long start = System.nanoTime();
+        try {
+            Path path = generateAndWrite(fleetConfiguration, depth, maxEntries);
+            System.out.printf("Libro de aperturas escrito en %s (%d ms)%n", path, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            System.err.println("No se pudo escribir el libro de aperturas: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Devuelve las celdas cuya probabilidad queda cerca de la mejor, de mejor a peor.
+     */
+    private static int[] bestCells(double[] probabilities) {
+        double best = Arrays.stream(probabilities).max().orElse(0);
+        if (best <= 0) {
+            return new int[0];
+        }
+        return IntStream.range(0, probabilities.length)
+                .filter(cell -> probabilities[cell] >= best * CANDIDATE_TOLERANCE)
+                .boxed()
+                .sorted(Comparator.comparingDouble((Integer cell) -> probabilities[cell]).reversed())
+                .limit(OpeningBook.CANDIDATES)
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+}
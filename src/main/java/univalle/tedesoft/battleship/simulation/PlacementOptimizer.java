@@ -0,0 +1,249 @@
+package univalle.tedesoft.battleship.simulation;
+
+import univalle.tedesoft.battleship.models.ai.MachineStrategy;
+import univalle.tedesoft.battleship.models.ai.MachineStrategyFactory;
+import univalle.tedesoft.battleship.models.ai.PlacementPool;
+import univalle.tedesoft.battleship.models.ai.RandomStrategy;
+import univalle.tedesoft.battleship.models.board.Board;
+import univalle.tedesoft.battleship.models.enums.Difficulty;
+import univalle.tedesoft.battleship.models.enums.Orientation;
+import univalle.tedesoft.battleship.models.ships.FleetConfiguration;
+import univalle.tedesoft.battleship.models.ships.Ship;
+import univalle.tedesoft.battleship.models.ships.ShipClass;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Generador fuera de línea de la reserva de disposiciones ({@link PlacementPool}) de una flota.
+ * Busca las disposiciones que más disparos cuestan de hundir a las estrategias de referencia:
+ * parte de disposiciones al azar y en cada generación juega partidas simuladas contra cada
+ * disposición (en paralelo), conserva la mejor mitad y completa la población moviendo un barco de las
+ * que sobrevivieron. Los disparos de cada disposición se acumulan entre generaciones, así que las que
+ * sobreviven más tiempo tienen un promedio más confiable.
+ * <p>
+ * La estrategia al azar no se usa como referencia: contra ella todas las disposiciones cuestan lo
+ * mismo. Las demás juegan sin límite de tiempo, acotadas solo por sus límites de trabajo
+ * ({@link HeadlessGame}), para que el puntaje de una disposición no dependa de cuántas partidas se
+ * jueguen a la vez ni de la carga de la máquina.
+ * <p>
+ * Se ejecuta junto al simulador, antes de jugar:
+ * {@code java univalle.tedesoft.battleship.simulation.PlacementOptimizer [candidatas] [generaciones] [partidas] [reserva]}.
+ * La flota es la del juego ({@value FleetConfiguration#FLEET_FILE_PROPERTY}) y la reserva se escribe en
+ * {@link PlacementPool#pathFor(FleetConfiguration)}.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public final class PlacementOptimizer {
+    /** Disposiciones de la población si no se indica otra cantidad. */
+    public static final int DEFAULT_CANDIDATES = 64;
+    /** Generaciones si no se indica otra cantidad. */
+    public static final int DEFAULT_GENERATIONS = 6;
+    /** Partidas por disposición, estrategia y generación si no se indica otra cantidad. */
+    public static final int DEFAULT_GAMES = 2;
+    /** Disposiciones de la reserva si no se indica otra cantidad. */
+    public static final int DEFAULT_POOL_SIZE = 32;
+    /** Estrategias contra las que se evalúan las disposiciones. */
+    private static final Difficulty[] REFERENCE_DIFFICULTIES = {Difficulty.NORMAL, Difficulty.HARD};
+
+    /** Constructor privado para prevenir la instanciación. */
+    private PlacementOptimizer() {}
+
+    /**
+     * Disposición candidata con los disparos acumulados en las partidas jugadas contra ella.
+     */
+    private static final class Candidate {
+        private final int[] layout;
+        private long shots;
+        private int games;
+
+        private Candidate(int[] layout) {
+            this.layout = layout;
+        }
+
+        private double getScore() {
+            return (this.games == 0) ? 0 : (double) this.shots / this.games;
+        }
+    }
+
+    /**
+     * Busca las disposiciones de una flota más difíciles de hundir y las escribe en el directorio de
+     * reservas.
+     * @param fleetConfiguration La flota.
+     * @param candidates Disposiciones de la población.
+     * @param generations Generaciones de la búsqueda.
+     * @param games Partidas por disposición, estrategia y generación.
+     * @param poolSize Disposiciones de la reserva.
+     * @return La ruta de la reserva escrita.
+     * @throws IOException Si la reserva no se puede escribir.
+     */
+    public static Path generateAndWrite(FleetConfiguration fleetConfiguration, int candidates, int generations,
+                                       int games, int poolSize) throws IOException {
+        List<Candidate> best = optimize(fleetConfiguration, candidates, generations, games);
+        List<Candidate> pool = best.subList(0, Math.min(poolSize, best.size()));
+        List<int[]> layouts = new ArrayList<>();
+        double[] scores = new double[pool.size()];
+        for (int i = 0; i < pool.size(); i++) {
+            layouts.add(pool.get(i).layout);
+            scores[i] = pool.get(i).getScore();
+        }
+        Path path = PlacementPool.pathFor(fleetConfiguration);
+        PlacementPool.write(path, fleetConfiguration, layouts, scores);
+        return path;
+    }
+
+    /**
+     * Busca las disposiciones de una flota más difíciles de hundir.
+     * @param fleetConfiguration La flota.
+     * @param candidates Disposiciones de la población.
+     * @param generations Generaciones de la búsqueda.
+     * @param games Partidas por disposición, estrategia y generación.
+     * @return La población final, de más a menos disparos promedio.
+     */
+    private static List<Candidate> optimize(FleetConfiguration fleetConfiguration, int candidates,
+                                            int generations, int games) {
+        Random random = new Random();
+        List<Candidate> population = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        while (population.size() < candidates) {
+            int[] layout = randomLayout(fleetConfiguration, random);
+            if (seen.add(Arrays.toString(layout))) {
+                population.add(new Candidate(layout));
+            }
+        }
+        for (int generation = 0; generation < generations; generation++) {
+            List<Candidate> current = population;
+            IntStream.range(0, current.size()).parallel()
+                    .forEach(i -> evaluate(fleetConfiguration, current.get(i), games));
+            population.sort(Comparator.comparingDouble(Candidate::getScore).reversed());
+            System.out.printf("Generación %d: mejor %.2f, mediana %.2f disparos%n", generation + 1,
+                    population.get(0).getScore(), population.get(population.size() / 2).getScore());
+            if (generation + 1 == generations) {
+                break;
+            }
+            // La mejor mitad sobrevive; el resto se reemplaza por variaciones de las sobrevivientes.
+            int survivors = Math.max(1, population.size() / 2);
+            List<Candidate> next = new ArrayList<>(population.subList(0, survivors));
+            int attempts = 0;
+            while (next.size() < candidates && attempts++ < candidates * 100) {
+                int[] layout = mutate(fleetConfiguration, next.get(random.nextInt(survivors)).layout, random);
+                if (layout != null && seen.add(Arrays.toString(layout))) {
+                    next.add(new Candidate(layout));
+                }
+            }
+            population = next;
+        }
+        return population;
+    }
+
+    /**
+     * Juega contra una disposición las partidas de una generación con cada estrategia de referencia.
+     */
+    private static void evaluate(FleetConfiguration fleetConfiguration, Candidate candidate, int games) {
+        long shots = 0;
+        for (Difficulty difficulty : REFERENCE_DIFFICULTIES) {
+            // Estrategias nuevas por partida: no se comparten entre hilos.
+            for (int game = 0; game < games; game++) {
+                MachineStrategy strategy = MachineStrategyFactory.create(difficulty, fleetConfiguration);
+                shots += shotsToSink(fleetConfiguration, candidate.layout, strategy);
+            }
+        }
+        candidate.shots += shots;
+        candidate.games += games * REFERENCE_DIFFICULTIES.length;
+    }
+
+    /**
+     * Juega una partida de una estrategia contra una disposición.
+     * @return Los disparos que necesito para hundir la flota.
+     */
+    private static int shotsToSink(FleetConfiguration fleetConfiguration, int[] layout, MachineStrategy strategy) {
+        Board board = new Board(fleetConfiguration.getBoardSize());
+        if (!PlacementPool.placeLayout(board, fleetConfiguration.createFleet(), layout)) {
+            throw new IllegalStateException("Disposición inválida: " + Arrays.toString(layout));
+        }
+        return HeadlessGame.shotsToSink(board, strategy, ThreadLocalRandom.current());
+    }
+
+    /**
+     * Coloca una flota al azar.
+     * @return Un valor por barco (ver {@link PlacementPool#encodeLayout(List, int)}).
+     */
+    private static int[] randomLayout(FleetConfiguration fleetConfiguration, Random random) {
+        Board board = new Board(fleetConfiguration.getBoardSize());
+        while (true) {
+            List<Ship> fleet = fleetConfiguration.createFleet();
+            if (RandomStrategy.placeRandomly(board, fleet, fleetConfiguration, random, Long.MAX_VALUE)) {
+                return PlacementPool.encodeLayout(fleet, board.getSize());
+            }
+        }
+    }
+
+    /**
+     * Mueve un barco de una disposición a otra posición libre elegida al azar.
+     * @return La disposición nueva, o null si el barco no encontró otra posición.
+     */
+    private static int[] mutate(FleetConfiguration fleetConfiguration, int[] layout, Random random) {
+        int size = fleetConfiguration.getBoardSize();
+        List<Ship> fleet = fleetConfiguration.createFleet();
+        int moved = random.nextInt(layout.length);
+        Board board = new Board(size);
+        int[] others = new int[layout.length - 1];
+        List<Ship> otherShips = new ArrayList<>();
+        for (int i = 0, j = 0; i < layout.length; i++) {
+            if (i != moved) {
+                others[j++] = layout[i];
+                otherShips.add(fleet.get(i));
+            }
+        }
+        if (!PlacementPool.placeLayout(board, otherShips, others)) {
+            return null;
+        }
+        Ship ship = fleet.get(moved);
+        ShipClass shipClass = fleetConfiguration.getShipClass(ship);
+        List<Orientation> orientations = new ArrayList<>((shipClass != null)
+                ? shipClass.getAllowedOrientations()
+                : Arrays.asList(Orientation.values()));
+        for (int attempt = 0; attempt < 100; attempt++) {
+            int cell = random.nextInt(size * size);
+            Orientation orientation = orientations.get(random.nextInt(orientations.size()));
+            int key = cell * 2 + ((orientation == Orientation.VERTICAL) ? 1 : 0);
+            if (key != layout[moved] && board.canPlaceShip(cell / size, cell % size, ship.getValueShip(), orientation)) {
+                int[] mutated = layout.clone();
+                mutated[moved] = key;
+                return mutated;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Genera la reserva de la flota del juego.
+     * @param args Disposiciones de la población, generaciones, partidas por disposición y tamaño de la
+     *             reserva, opcionales.
+     */
+    public static void main(String[] args) {
+        int candidates = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_CANDIDATES;
+        int generations = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_GENERATIONS;
+        int games = (args.length > 2) ? Integer.parseInt(args[2]) : DEFAULT_GAMES;
+        int poolSize = (args.length > 3) ? Integer.parseInt(args[3]) : DEFAULT_POOL_SIZE;
+        FleetConfiguration fleetConfiguration = FleetConfiguration.getDefault();
+        long start = System.nanoTime();
+        try {
+            Path path = generateAndWrite(fleetConfiguration, candidates, generations, games, poolSize);
+            System.out.printf("Reserva de disposiciones escrita en %s (%d ms)%n", path, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            System.err.println("No se pudo escribir la reserva de disposiciones: " + e.getMessage());
+        }
+    }
+}
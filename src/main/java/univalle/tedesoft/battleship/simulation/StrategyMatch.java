@@ -0,0 +1,313 @@
+package univalle.tedesoft.battleship.simulation;
+
+import univalle.tedesoft.battleship.models.ai.MachineStrategy;
+import univalle.tedesoft.battleship.models.ai.MachineStrategyFactory;
+import univalle.tedesoft.battleship.models.ai.RandomStrategy;
+import univalle.tedesoft.battleship.models.ai.StrategyParameters;
+import univalle.tedesoft.battleship.models.board.Board;
+import univalle.tedesoft.battleship.models.enums.Difficulty;
+import univalle.tedesoft.battleship.models.ships.FleetConfiguration;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * Comparación A/B de dos versiones de estrategia con una prueba secuencial de razón de
+ * probabilidades (SPRT). Cada par de partidas usa la misma flota, colocada con la misma semilla,
+ * para las dos versiones; lo que se compara es la diferencia de disparos que necesito cada una
+ * (A menos B: positiva si B es mejor), de modo que la suerte de la colocación se cancela.
+ * <p>
+ * Las hipótesis son H0: B no mejora a A (diferencia media 0) y H1: B ahorra {@code delta} disparos por
+ * partida. Se usa la aproximación normal de la razón de verosimilitud con la varianza observada:
+ * {@code LLR = n * delta * (2 * media - delta) / (2 * varianza)}. Los pares se juegan en paralelo por
+ * lotes de {@value #BATCH_PAIRS} y la prueba se actualiza al terminar cada lote, en el orden de las
+ * semillas; se detiene al cruzar {@code ln((1 - beta) / alpha)} (acepta H1) o {@code ln(beta / (1 - alpha))}
+ * (acepta H0), o al llegar al máximo de pares. Si la diferencia es grande bastan unas decenas de pares.
+ * <p>
+ * Las partidas se juegan sin límite de tiempo ({@link HeadlessGame}) y las dos versiones usan, en cada
+ * par, la misma semilla para sus desempates. Como el tamaño de los lotes no depende de la cantidad de
+ * hilos, una comparación con la misma semilla da el mismo resultado en cualquier máquina.
+ * <p>
+ * Se ejecuta junto al simulador:
+ * {@code java univalle.tedesoft.battleship.simulation.StrategyMatch A B [alpha] [beta] [delta] [pares] [semilla]},
+ * donde cada versión es {@code DIFICULTAD} o {@code DIFICULTAD:archivo-de-parámetros}.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public final class StrategyMatch {
+    /** Probabilidad de aceptar H1 siendo cierta H0, si no se indica otra. */
+    public static final double DEFAULT_ALPHA = 0.05;
+    /** Probabilidad de aceptar H0 siendo cierta H1, si no se indica otra. */
+    public static final double DEFAULT_BETA = 0.05;
+    /** Disparos por partida que ahorra B según H1, si no se indica otra cantidad. */
+    public static final double DEFAULT_DELTA = 1.0;
+    /** Pares máximos si no se indica otra cantidad. */
+    public static final int DEFAULT_MAX_PAIRS = 20_000;
+    /** Pares antes de la primera evaluación de la prueba, para que la varianza sea confiable. */
+    static final int MIN_PAIRS = 16;
+    /** Pares de cada lote; es fijo para que la prueba se detenga en el mismo par en cualquier máquina. */
+    static final int BATCH_PAIRS = 64;
+
+    /**
+     * Resultado de una comparación.
+     */
+    public static final class Result {
+        /** Decisión de la prueba. */
+        public enum Verdict {
+            /** B ahorra al menos delta disparos (acepta H1). */
+            B_BETTER,
+            /** B no mejora a A (acepta H0). */
+            NOT_BETTER,
+            /** Se llegó al máximo de pares sin decidir. */
+            INCONCLUSIVE
+        }
+
+        private final Verdict verdict;
+        private final int pairs;
+        private final long elapsedNanos;
+        private final double meanDifference;
+        private final double standardDeviation;
+        private final int winsB;
+        private final int draws;
+        private final int winsA;
+        private final double logLikelihoodRatio;
+        private final double lowerBound;
+        private final double upperBound;
+
+        private Result(Verdict verdict, int pairs, long elapsedNanos, double meanDifference, double standardDeviation,
+                       int winsB, int draws, int winsA, double logLikelihoodRatio, double lowerBound, double upperBound) {
+            this.verdict = verdict;
+            this.pairs = pairs;
+            this.elapsedNanos = elapsedNanos;
+            this.meanDifference = meanDifference;
+            this.standardDeviation = standardDeviation;
+            this.winsB = winsB;
+            this.draws = draws;
+            this.winsA = winsA;
+            this.logLikelihoodRatio = logLikelihoodRatio;
+            this.lowerBound = lowerBound;
+            this.upperBound = upperBound;
+        }
+
+        /** @return La decisión de la prueba. */
+        public Verdict getVerdict() { return this.verdict; }
+        /** @return Pares jugados; cada par son dos partidas. */
+        public int getPairs() { return this.pairs; }
+        /** @return Partidas jugadas. */
+        public int getGames() { return 2 * this.pairs; }
+        /** @return Partidas por segundo. */
+        public double getGamesPerSecond() { return this.getGames() / Math.max(1e-9, this.elapsedNanos / 1e9); }
+        /** @return Disparos promedio de A menos los de B en la misma flota. */
+        public double getMeanDifference() { return this.meanDifference; }
+        /** @return Error estándar de la diferencia promedio. */
+        public double getStandardError() { return this.standardDeviation / Math.sqrt(Math.max(1, this.pairs)); }
+        /** @return Mitad del intervalo de confianza del 95 % de la diferencia promedio. */
+        public double getConfidenceHalfWidth() { return 1.96 * this.getStandardError(); }
+        /** @return Tamaño del efecto: diferencia promedio sobre su desviación estándar (d de Cohen). */
+        public double getEffectSize() { return (this.standardDeviation > 0) ? this.meanDifference / this.standardDeviation : 0; }
+        /** @return Pares en que B necesito menos disparos. */
+        public int getWinsB() { return this.winsB; }
+        /** @return Pares en que ambas necesitaron los mismos disparos. */
+        public int getDraws() { return this.draws; }
+        /** @return Pares en que A necesito menos disparos. */
+        public int getWinsA() { return this.winsA; }
+        /** @return Logaritmo de la razón de verosimilitud al detenerse. */
+        public double getLogLikelihoodRatio() { return this.logLikelihoodRatio; }
+        /** @return Límite bajo el cual se acepta H0. */
+        public double getLowerBound() { return this.lowerBound; }
+        /** @return Límite sobre el cual se acepta H1. */
+        public double getUpperBound() { return this.upperBound; }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "%s tras %d partidas (%d pares) en %.1f s, %.0f partidas/s%n"
+                            + "Diferencia A - B: %.3f +- %.3f disparos, d = %.3f%n"
+                            + "B gana %d, empata %d, pierde %d; LLR %.3f en [%.3f, %.3f]",
+                    this.verdict, this.getGames(), this.pairs, this.elapsedNanos / 1e9, this.getGamesPerSecond(),
+                    this.meanDifference, this.getConfidenceHalfWidth(), this.getEffectSize(),
+                    this.winsB, this.draws, this.winsA, this.logLikelihoodRatio, this.lowerBound, this.upperBound);
+        }
+    }
+
+    private final FleetConfiguration fleetConfiguration;
+    private final Difficulty difficultyA;
+    private final StrategyParameters parametersA;
+    private final Difficulty difficultyB;
+    private final StrategyParameters parametersB;
+
+    /**
+     * Prepara la comparación de dos versiones.
+     * @param fleetConfiguration Flota contra la que se juega.
+     * @param difficultyA Dificultad de la versión A, la de referencia.
+     * @param parametersA Parámetros de la versión A.
+     * @param difficultyB Dificultad de la versión B, la candidata.
+     * @param parametersB Parámetros de la versión B.
+     */
+    public StrategyMatch(FleetConfiguration fleetConfiguration, Difficulty difficultyA, StrategyParameters parametersA,
+                         Difficulty difficultyB, StrategyParameters parametersB) {
+        this.fleetConfiguration = fleetConfiguration;
+        this.difficultyA = difficultyA;
+        this.parametersA = parametersA;
+        this.difficultyB = difficultyB;
+        this.parametersB = parametersB;
+    }
+
+    /**
+     * Juega pares hasta que la prueba decida o se llegue al máximo.
+     * @param alpha Probabilidad de aceptar H1 siendo cierta H0.
+     * @param beta Probabilidad de aceptar H0 siendo cierta H1.
+     * @param delta Disparos por partida que ahorra B según H1; debe ser positivo.
+     * @param maxPairs Pares máximos.
+     * @param seed Semilla de la primera flota; el par {@code i} usa {@code seed + i}.
+     * @return El resultado.
+     */
+    public Result run(double alpha, double beta, double delta, int maxPairs, long seed) {
+        return sequentialTest(alpha, beta, delta, maxPairs, i -> this.playPair(seed + i));
+    }
+
+    /**
+     * Aplica la prueba secuencial a las diferencias de una fuente, por lotes de {@value #BATCH_PAIRS}.
+     * @param alpha Probabilidad de aceptar H1 siendo cierta H0.
+     * @param beta Probabilidad de aceptar H0 siendo cierta H1.
+     * @param delta Disparos por partida que ahorra B según H1.
+     * @param maxPairs Pares máximos.
+     * @param differences Diferencia de disparos (A menos B) del par de cada índice; se llama en paralelo.
+     * @return El resultado.
+     */
+    static Result sequentialTest(double alpha, double beta, double delta, int maxPairs, IntUnaryOperator differences) {
+        double lowerBound = Math.log(beta / (1 - alpha));
+        double upperBound = Math.log((1 - beta) / alpha);
+        long start = System.nanoTime();
+        int pairs = 0;
+        double sum = 0;
+        double sumOfSquares = 0;
+        int winsB = 0;
+        int draws = 0;
+        int winsA = 0;
+        double llr = 0;
+        Result.Verdict verdict = Result.Verdict.INCONCLUSIVE;
+        while (pairs < maxPairs) {
+            int first = pairs;
+            int count = Math.min(BATCH_PAIRS, maxPairs - pairs);
+            int[] batch = new int[count];
+            IntStream.range(0, count).parallel().forEach(i -> batch[i] = differences.applyAsInt(first + i));
+            for (int difference : batch) {
+                sum += difference;
+                sumOfSquares += (double) difference * difference;
+                if (difference > 0) {
+                    winsB++;
+                } else if (difference == 0) {
+                    draws++;
+                } else {
+                    winsA++;
+                }
+            }
+            pairs += count;
+            if (pairs < MIN_PAIRS) {
+                continue;
+            }
+            llr = logLikelihoodRatio(pairs, sum, sumOfSquares, delta);
+            if (llr >= upperBound) {
+                verdict = Result.Verdict.B_BETTER;
+                break;
+            }
+            if (llr <= lowerBound) {
+                verdict = Result.Verdict.NOT_BETTER;
+                break;
+            }
+        }
+        double mean = (pairs > 0) ? sum / pairs : 0;
+        double deviation = (pairs > 0) ? Math.sqrt(Math.max(0, sumOfSquares / pairs - mean * mean)) : 0;
+        return new Result(verdict, pairs, System.nanoTime() - start, mean, deviation, winsB, draws, winsA,
+                llr, lowerBound, upperBound);
+    }
+
+    /**
+     * Calcula el logaritmo de la razón de verosimilitud con la aproximación normal y la varianza observada.
+     * @param pairs Pares jugados.
+     * @param sum Suma de las diferencias.
+     * @param sumOfSquares Suma de los cuadrados de las diferencias.
+     * @param delta Disparos por partida que ahorra B según H1.
+     * @return {@code n * delta * (2 * media - delta) / (2 * varianza)}.
+     */
+    static double logLikelihoodRatio(int pairs, double sum, double sumOfSquares, double delta) {
+        double mean = sum / pairs;
+        // El mínimo evita dividir por cero cuando todas las diferencias son iguales.
+        double variance = Math.max(1e-6, sumOfSquares / pairs - mean * mean);
+        return pairs * delta * (2 * mean - delta) / (2 * variance);
+    }
+
+    /**
+     * Juega un par: las dos versiones contra la misma flota.
+     * @return Los disparos de A menos los de B.
+     */
+    private int playPair(long seed) {
+        return this.shotsToSink(this.difficultyA, this.parametersA, seed)
+                - this.shotsToSink(this.difficultyB, this.parametersB, seed);
+    }
+
+    /**
+     * Juega una versión contra la flota de una semilla.
+     */
+    private int shotsToSink(Difficulty difficulty, StrategyParameters parameters, long seed) {
+        Random random = new Random(seed);
+        Board board = new Board(this.fleetConfiguration.getBoardSize());
+        while (!RandomStrategy.placeRandomly(board, this.fleetConfiguration.createFleet(), this.fleetConfiguration,
+                random, Long.MAX_VALUE)) {
+            // Con flotas muy densas la colocación al azar puede fallar; se reintenta con el mismo generador.
+        }
+        // Las dos versiones del par desempatan con la misma semilla, distinta de la de la flota.
+        MachineStrategy strategy = MachineStrategyFactory.create(difficulty, this.fleetConfiguration, parameters,
+                new Random(~seed));
+        return HeadlessGame.shotsToSink(board, strategy, random);
+    }
+
+    /**
+     * Interpreta una versión con formato {@code DIFICULTAD} o {@code DIFICULTAD:archivo}.
+     */
+    private static Difficulty parseDifficulty(String version) {
+        int separator = version.indexOf(':');
+        String name = (separator >= 0) ? version.substring(0, separator) : version;
+        return Difficulty.valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Lee los parámetros de una versión; sin archivo, los del juego.
+     */
+    private static StrategyParameters parseParameters(String version) throws IOException {
+        int separator = version.indexOf(':');
+        return (separator >= 0) ? StrategyParameters.load(Paths.get(version.substring(separator + 1).trim()))
+                : StrategyParameters.getDefault();
+    }
+
+    /**
+     * Compara dos versiones con la flota del juego.
+     * @param args Versiones A y B, y opcionalmente alpha, beta, delta, pares máximos y semilla.
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Uso: StrategyMatch A B [alpha] [beta] [delta] [pares] [semilla], con versiones DIFICULTAD[:archivo]");
+            return;
+        }
+        double alpha = (args.length > 2) ? Double.parseDouble(args[2]) : DEFAULT_ALPHA;
+        double beta = (args.length > 3) ? Double.parseDouble(args[3]) : DEFAULT_BETA;
+        double delta = (args.length > 4) ? Double.parseDouble(args[4]) : DEFAULT_DELTA;
+        int maxPairs = (args.length > 5) ? Integer.parseInt(args[5]) : DEFAULT_MAX_PAIRS;
+        long seed = (args.length > 6) ? Long.parseLong(args[6]) : new Random().nextLong();
+        try {
+            StrategyMatch match = new StrategyMatch(FleetConfiguration.getDefault(),
+                    parseDifficulty(args[0]), parseParameters(args[0]), parseDifficulty(args[1]), parseParameters(args[1]));
+            System.out.println("Semilla: " + seed);
+            System.out.println(match.run(alpha, beta, delta, maxPairs, seed));
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("No se pudo comparar las estrategias: " + e.getMessage());
+        }
+    }
+}
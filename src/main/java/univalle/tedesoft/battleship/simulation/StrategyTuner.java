@@ -0,0 +1,403 @@
+package univalle.tedesoft.battleship.simulation;
+
+import univalle.tedesoft.battleship.models.ai.MachineStrategy;
+import univalle.tedesoft.battleship.models.ai.MachineStrategyFactory;
+import univalle.tedesoft.battleship.models.ai.RandomStrategy;
+import univalle.tedesoft.battleship.models.ai.StrategyParameters;
+import univalle.tedesoft.battleship.models.board.Board;
+import univalle.tedesoft.battleship.models.enums.Difficulty;
+import univalle.tedesoft.battleship.models.enums.StrategyParameter;
+import univalle.tedesoft.battleship.models.ships.FleetConfiguration;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Ajuste automático fuera de línea de los parámetros de la estrategia de una dificultad
+ * ({@link StrategyParameter}). Es una estrategia evolutiva al estilo de CMA-ES, con covarianza
+ * diagonal: cada generación muestrea candidatos alrededor de la media actual, los evalúa, mueve la
+ * media hacia el promedio ponderado de la mejor mitad y adapta el paso de cada parámetro según cuánto
+ * se dispersaron los mejores.
+ * <p>
+ * Cada candidato se evalúa con partidas sin interfaz ({@link HeadlessGame}) contra flotas al azar,
+ * todas en paralelo. Dentro de una generación todos los candidatos juegan contra las mismas flotas
+ * (números aleatorios comunes), de modo que la diferencia entre ellos no depende de la suerte de la
+ * colocación. Las partidas se juegan sin límite de tiempo y cada estrategia con una semilla que depende
+ * solo de la partida, así que el puntaje de un candidato se repite aunque cambie la carga de la
+ * máquina o la cantidad de hilos. Los parámetros se exploran en [0, 1] dentro de su rango; los enteros
+ * de rango amplio, en escala logarítmica.
+ * <p>
+ * Tras cada generación se guarda el progreso junto al archivo de salida (con la extensión
+ * {@value #CHECKPOINT_SUFFIX}), y una ejecución interrumpida continúa desde ahí. Al final se escribe el
+ * archivo de parámetros que lee {@link StrategyParameters#getDefault()}.
+ * <p>
+ * Se ejecuta junto al simulador:
+ * {@code java univalle.tedesoft.battleship.simulation.StrategyTuner [dificultad] [generaciones] [poblacion] [partidas] [salida]}.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public final class StrategyTuner {
+    /** Generaciones si no se indica otra cantidad. */
+    public static final int DEFAULT_GENERATIONS = 20;
+    /** Candidatos por generación si no se indica otra cantidad. */
+    public static final int DEFAULT_POPULATION = 12;
+    /** Partidas por candidato si no se indica otra cantidad. */
+    public static final int DEFAULT_GAMES = 1000;
+    /** Extensión del archivo de progreso. */
+    public static final String CHECKPOINT_SUFFIX = ".checkpoint";
+    /** Paso inicial de cada parámetro, en la escala [0, 1]. */
+    private static final double INITIAL_STEP = 0.2;
+    private static final double MIN_STEP = 0.01;
+    private static final double MAX_STEP = 0.5;
+    /** Peso de la generación actual al adaptar el paso de cada parámetro. */
+    private static final double STEP_LEARNING_RATE = 0.3;
+    /** Cociente entre el máximo y el mínimo a partir del cual un parámetro entero se explora en escala logarítmica. */
+    private static final double LOG_SCALE_RATIO = 16;
+
+    private final FleetConfiguration fleetConfiguration;
+    private final Difficulty difficulty;
+    private final StrategyParameter[] tuned;
+    private final StrategyParameters base;
+    private final int population;
+    private final int games;
+    private final Path output;
+
+    /** Estado de la búsqueda; es lo que se guarda en el archivo de progreso. */
+    private int generation;
+    private long seed;
+    private double[] mean;
+    private double[] steps;
+    private double meanScore = Double.NaN;
+
+    /**
+     * Prepara el ajuste de una dificultad. Los parámetros que esa dificultad no usa conservan los
+     * valores de {@code base}.
+     * @param fleetConfiguration Flota contra la que se juega.
+     * @param difficulty Dificultad cuya estrategia se ajusta.
+     * @param base Parámetros de partida.
+     * @param population Candidatos por generación.
+     * @param games Partidas por candidato.
+     * @param output Archivo de parámetros a escribir.
+     */
+    public StrategyTuner(FleetConfiguration fleetConfiguration, Difficulty difficulty, StrategyParameters base,
+                         int population, int games, Path output) {
+        this(fleetConfiguration, difficulty, base, population, games, output, new Random().nextLong());
+    }
+
+    /**
+     * Prepara el ajuste de una dificultad con una semilla fija, para repetir una búsqueda.
+     * @param seed Semilla de la búsqueda; una ejecución que continúa usa la del archivo de progreso.
+     */
+    StrategyTuner(FleetConfiguration fleetConfiguration, Difficulty difficulty, StrategyParameters base,
+                  int population, int games, Path output, long seed) {
+        this.fleetConfiguration = fleetConfiguration;
+        this.difficulty = difficulty;
+        this.tuned = Arrays.stream(StrategyParameter.values())
+                .filter(parameter -> parameter.appliesTo(difficulty))
+                .toArray(StrategyParameter[]::new);
+        if (this.tuned.length == 0) {
+            throw new IllegalArgumentException("La dificultad " + difficulty.name() + " no tiene parámetros ajustables");
+        }
+        this.base = base;
+        this.population = Math.max(2, population);
+        this.games = Math.max(1, games);
+        this.output = output;
+        this.seed = seed;
+        this.mean = new double[this.tuned.length];
+        this.steps = new double[this.tuned.length];
+        for (int i = 0; i < this.tuned.length; i++) {
+            this.mean[i] = normalize(this.tuned[i], base.get(this.tuned[i]));
+            this.steps[i] = INITIAL_STEP;
+        }
+    }
+
+    /**
+     * Ejecuta las generaciones que falten, continuando desde el archivo de progreso si existe, y
+     * escribe el archivo de parámetros.
+     * @param generations Generaciones totales de la búsqueda.
+     * @return Los parámetros ajustados.
+     * @throws IOException Si no se puede leer el progreso o escribir los resultados.
+     */
+    public StrategyParameters run(int generations) throws IOException {
+        Path checkpoint = Paths.get(this.output.toString() + CHECKPOINT_SUFFIX);
+        if (Files.isRegularFile(checkpoint) && this.readCheckpoint(checkpoint)) {
+            System.out.printf("Continuando desde la generación %d%n", this.generation + 1);
+        }
+        while (this.generation < generations) {
+            this.step();
+            this.generation++;
+            this.writeCheckpoint(checkpoint);
+        }
+        StrategyParameters result = this.decode(this.mean);
+        result.write(this.output, String.format(Locale.ROOT,
+                "Ajustado para la dificultad %s: %d generaciones, %d candidatos, %d partidas por candidato.\n"
+                        + "Disparos promedio de la media en la última generación: %.3f",
+                this.difficulty.name(), this.generation, this.population, this.games, this.meanScore));
+        return result;
+    }
+
+    /**
+     * Una generación: muestrea, evalúa y actualiza la media y los pasos.
+     */
+    private void step() {
+        Random random = new Random(this.seed + this.generation);
+        long gameSeed = random.nextLong();
+        // El primer candidato es la media, para seguir su rendimiento con las mismas flotas.
+        double[][] candidates = new double[this.population][];
+        candidates[0] = this.mean.clone();
+        for (int c = 1; c < this.population; c++) {
+            candidates[c] = new double[this.tuned.length];
+            for (int i = 0; i < this.tuned.length; i++) {
+                candidates[c][i] = Math.max(0, Math.min(1, this.mean[i] + this.steps[i] * random.nextGaussian()));
+            }
+        }
+        double[] scores = this.evaluate(candidates, gameSeed);
+        Integer[] order = IntStream.range(0, this.population).boxed().toArray(Integer[]::new);
+        Arrays.sort(order, Comparator.comparingDouble(c -> scores[c]));
+
+        // Recombinación ponderada de la mejor mitad, con los pesos logarítmicos de CMA-ES.
+        int parents = Math.max(1, this.population / 2);
+        double[] weights = new double[parents];
+        double total = 0;
+        for (int k = 0; k < parents; k++) {
+            weights[k] = Math.log(parents + 0.5) - Math.log(k + 1);
+            total += weights[k];
+        }
+        double[] newMean = new double[this.tuned.length];
+        double[] spread = new double[this.tuned.length];
+        for (int k = 0; k < parents; k++) {
+            double[] candidate = candidates[order[k]];
+            for (int i = 0; i < this.tuned.length; i++) {
+                newMean[i] += weights[k] / total * candidate[i];
+                double deviation = candidate[i] - this.mean[i];
+                spread[i] += weights[k] / total * deviation * deviation;
+            }
+        }
+        for (int i = 0; i < this.tuned.length; i++) {
+            double variance = (1 - STEP_LEARNING_RATE) * this.steps[i] * this.steps[i] + STEP_LEARNING_RATE * spread[i];
+            this.steps[i] = Math.max(MIN_STEP, Math.min(MAX_STEP, Math.sqrt(variance)));
+        }
+        this.mean = newMean;
+        this.meanScore = scores[0];
+        System.out.printf(Locale.ROOT, "Generación %d: media %.3f, mejor %.3f disparos (%s)%n", this.generation + 1,
+                scores[0], scores[order[0]], this.decode(candidates[order[0]]));
+    }
+
+    /**
+     * Juega las partidas de todos los candidatos en paralelo. La partida {@code g} de cada candidato
+     * usa la misma flota, colocada con la semilla {@code gameSeed + g}.
+     * @return Los disparos promedio de cada candidato.
+     */
+    private double[] evaluate(double[][] candidates, long gameSeed) {
+        StrategyParameters[] parameters = new StrategyParameters[candidates.length];
+        for (int c = 0; c < candidates.length; c++) {
+            parameters[c] = this.decode(candidates[c]);
+        }
+        int[] shots = new int[candidates.length * this.games];
+        IntStream.range(0, shots.length).parallel().forEach(index -> {
+            int candidate = index / this.games;
+            int game = index % this.games;
+            Random random = new Random(gameSeed + game);
+            Board board = new Board(this.fleetConfiguration.getBoardSize());
+            while (!RandomStrategy.placeRandomly(board, this.fleetConfiguration.createFleet(), this.fleetConfiguration,
+                    random, Long.MAX_VALUE)) {
+                // Con flotas muy densas la colocación al azar puede fallar; se reintenta con el mismo generador.
+            }
+            // La estrategia usa su propia semilla, la misma para todos los candidatos: las diferencias
+            // de puntaje vienen de los parámetros y no del azar de los desempates.
+            MachineStrategy strategy = MachineStrategyFactory.create(this.difficulty, this.fleetConfiguration,
+                    parameters[candidate], new Random(~(gameSeed + game)));
+            shots[index] = HeadlessGame.shotsToSink(board, strategy, random);
+        });
+        double[] scores = new double[candidates.length];
+        for (int index = 0; index < shots.length; index++) {
+            scores[index / this.games] += shots[index];
+        }
+        for (int c = 0; c < scores.length; c++) {
+            scores[c] /= this.games;
+        }
+        return scores;
+    }
+
+    /**
+     * Convierte un punto de [0, 1]<sup>n</sup> en parámetros.
+     */
+    private StrategyParameters decode(double[] point) {
+        StrategyParameters parameters = this.base;
+        for (int i = 0; i < this.tuned.length; i++) {
+            parameters = parameters.with(this.tuned[i], denormalize(this.tuned[i], point[i]));
+        }
+        return parameters;
+    }
+
+    /**
+     * Lleva un valor del rango del parámetro a [0, 1].
+     */
+    static double normalize(StrategyParameter parameter, double value) {
+        double clamped = parameter.clamp(value);
+        if (isLogScale(parameter)) {
+            return Math.log(clamped / parameter.getMinimum()) / Math.log(parameter.getMaximum() / parameter.getMinimum());
+        }
+        return (clamped - parameter.getMinimum()) / (parameter.getMaximum() - parameter.getMinimum());
+    }
+
+    /**
+     * Lleva un valor de [0, 1] al rango del parámetro.
+     */
+    static double denormalize(StrategyParameter parameter, double point) {
+        if (isLogScale(parameter)) {
+            return parameter.clamp(parameter.getMinimum() * Math.pow(parameter.getMaximum() / parameter.getMinimum(), point));
+        }
+        return parameter.clamp(parameter.getMinimum() + point * (parameter.getMaximum() - parameter.getMinimum()));
+    }
+
+    private static boolean isLogScale(StrategyParameter parameter) {
+        return parameter.isInteger() && parameter.getMinimum() > 0
+                && parameter.getMaximum() / parameter.getMinimum() >= LOG_SCALE_RATIO;
+    }
+
+    /**
+     * Guarda el estado de la búsqueda, reemplazando el archivo de forma atómica.
+     */
+    void writeCheckpoint(Path checkpoint) throws IOException {
+        Path parent = checkpoint.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temporary = Files.createTempFile(parent, "tuner", ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                writer.write("difficulty: " + this.difficulty.name());
+                writer.newLine();
+                writer.write("generation: " + this.generation);
+                writer.newLine();
+                writer.write("seed: " + this.seed);
+                writer.newLine();
+                writer.write("meanScore: " + this.meanScore);
+                writer.newLine();
+                for (int i = 0; i < this.tuned.length; i++) {
+                    writer.write("mean." + this.tuned[i].getKey() + ": " + this.mean[i]);
+                    writer.newLine();
+                    writer.write("step." + this.tuned[i].getKey() + ": " + this.steps[i]);
+                    writer.newLine();
+                }
+            }
+            Files.move(temporary, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Recupera el estado de la búsqueda.
+     * @return true si el progreso es de la misma dificultad y tiene todas las entradas con valores válidos;
+     * si no, el estado no cambia.
+     */
+    boolean readCheckpoint(Path checkpoint) throws IOException {
+        Map<String, String> entries = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(checkpoint, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int separator = line.indexOf(':');
+                if (separator > 0) {
+                    entries.put(line.substring(0, separator).trim(), line.substring(separator + 1).trim());
+                }
+            }
+        }
+        if (!this.difficulty.name().equals(entries.get("difficulty"))) {
+            System.err.println("El progreso " + checkpoint + " es de otra dificultad; se empieza de nuevo.");
+            return false;
+        }
+        // Un progreso escrito por otra versión o cortado a mano puede no tener todas las entradas.
+        List<String> keys = new ArrayList<>(Arrays.asList("generation", "seed", "meanScore"));
+        for (StrategyParameter parameter : this.tuned) {
+            keys.add("mean." + parameter.getKey());
+            keys.add("step." + parameter.getKey());
+        }
+        for (String key : keys) {
+            if (!entries.containsKey(key)) {
+                System.err.println("Al progreso " + checkpoint + " le falta la entrada " + key + "; se empieza de nuevo.");
+                return false;
+            }
+        }
+        double[] savedMean = new double[this.tuned.length];
+        double[] savedSteps = new double[this.tuned.length];
+        int savedGeneration;
+        long savedSeed;
+        double savedScore;
+        try {
+            for (int i = 0; i < this.tuned.length; i++) {
+                savedMean[i] = Double.parseDouble(entries.get("mean." + this.tuned[i].getKey()));
+                savedSteps[i] = Double.parseDouble(entries.get("step." + this.tuned[i].getKey()));
+            }
+            savedGeneration = Integer.parseInt(entries.get("generation"));
+            savedSeed = Long.parseLong(entries.get("seed"));
+            savedScore = Double.parseDouble(entries.get("meanScore"));
+        } catch (NumberFormatException e) {
+            System.err.println("El progreso " + checkpoint + " tiene un valor inválido (" + e.getMessage() + "); se empieza de nuevo.");
+            return false;
+        }
+        boolean valid = savedGeneration >= 0;
+        for (int i = 0; i < this.tuned.length; i++) {
+            valid &= savedMean[i] >= 0 && savedMean[i] <= 1 && savedSteps[i] >= MIN_STEP && savedSteps[i] <= MAX_STEP;
+        }
+        if (!valid) {
+            System.err.println("El progreso " + checkpoint + " tiene valores fuera de rango; se empieza de nuevo.");
+            return false;
+        }
+        this.generation = savedGeneration;
+        this.seed = savedSeed;
+        this.meanScore = savedScore;
+        this.mean = savedMean;
+        this.steps = savedSteps;
+        return true;
+    }
+
+    /** @return Generaciones ya completadas. */
+    int getGeneration() {
+        return this.generation;
+    }
+
+    /** @return Los parámetros de la media actual de la búsqueda. */
+    StrategyParameters getMeanParameters() {
+        return this.decode(this.mean);
+    }
+
+    /**
+     * Ajusta los parámetros de una dificultad con la flota del juego.
+     * @param args Dificultad, generaciones, candidatos por generación, partidas por candidato y archivo
+     *             de salida, opcionales.
+     */
+    public static void main(String[] args) {
+        Difficulty difficulty = (args.length > 0) ? Difficulty.valueOf(args[0].toUpperCase(Locale.ROOT)) : Difficulty.NORMAL;
+        int generations = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_GENERATIONS;
+        int population = (args.length > 2) ? Integer.parseInt(args[2]) : DEFAULT_POPULATION;
+        int games = (args.length > 3) ? Integer.parseInt(args[3]) : DEFAULT_GAMES;
+        Path output = (args.length > 4) ? Paths.get(args[4]) : StrategyParameters.defaultPath();
+        long start = System.nanoTime();
+        try {
+            StrategyTuner tuner = new StrategyTuner(FleetConfiguration.getDefault(), difficulty,
+                    StrategyParameters.getDefault(), population, games, output);
+            StrategyParameters result = tuner.run(generations);
+            System.out.printf("Parámetros escritos en %s (%d ms): %s%n", output,
+                    (System.nanoTime() - start) / 1_000_000, result);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("No se pudo ajustar la estrategia: " + e.getMessage());
+        }
+    }
+}
@@ -3,41 +3,57 @@ package univalle.tedesoft.battleship.threads;
 import javafx.application.Platform;
 import univalle.tedesoft.battleship.controllers.GameController;
 
+import java.util.function.Supplier;
+
 /**
  * Runnable que gestiona el turno de la máquina en un hilo separado.
- * Introduce un retraso para simular el "pensamiento" de la máquina antes
- * de ejecutar la lógica del juego en el hilo de la interfaz de usuario de JavaFX.
+ * La búsqueda de la estrategia se ejecuta en este hilo, y luego se completa el retraso
+ * de "pensamiento" antes de aplicar el disparo en el hilo de la interfaz de usuario de JavaFX.
  */
 public class MachineTurnRunnable implements Runnable {
 
     private final GameController gameController;
     private final long thinkDelayMs;
+    private final Supplier<int[]> search;
 
     /**
      * Constructor para MachineTurnRunnable.
      * @param gameController La instancia del controlador del juego.
-     * @param thinkDelayMs El tiempo en milisegundos que la máquina "pensará" antes de actuar.
+     * @param thinkDelayMs El tiempo mínimo en milisegundos que la máquina "pensará" antes de actuar,
+     *                     incluida la búsqueda.
+     * @param search La búsqueda del turno, preparada en el hilo de JavaFX.
      */
-    public MachineTurnRunnable(GameController gameController, long thinkDelayMs) {
+    public MachineTurnRunnable(GameController gameController, long thinkDelayMs, Supplier<int[]> search) {
         this.gameController = gameController;
         this.thinkDelayMs = thinkDelayMs;
+        this.search = search;
     }
 
     /**
-     * Simula el pensamiento de la máquina y luego ejecuta su lógica de turno
-     * en el hilo de la interfaz de usuario de JavaFX.
+     * Busca el disparo de la máquina, completa el tiempo de "pensamiento" y luego aplica el
+     * turno en el hilo de la interfaz de usuario de JavaFX.
      */
     @Override
     public void run() {
         try {
-            // Simular que la máquina está "pensando"
-            Thread.sleep(this.thinkDelayMs);
+            long start = System.nanoTime();
+            // La búsqueda puede tardar todo el tiempo de la dificultad; no debe bloquear la interfaz.
+            int[] cells = this.search.get();
+
+            // Simular que la máquina está "pensando" el resto del tiempo.
+            long remainingMs = this.thinkDelayMs - (System.nanoTime() - start) / 1_000_000;
+            if (remainingMs > 0) {
+                Thread.sleep(remainingMs);
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
 
             // La lógica del turno que modifica el estado y la UI
             // debe ejecutarse en el hilo de la aplicación JavaFX.
             Platform.runLater(() -> {
                 if (!this.gameController.getGameState().isGameOver()) {
-                    this.gameController.executeMachineTurnLogic();
+                    this.gameController.executeMachineTurnLogic(this, cells);
                 }
             });
 
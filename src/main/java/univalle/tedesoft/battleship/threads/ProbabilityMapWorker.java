@@ -0,0 +1,146 @@
+package univalle.tedesoft.battleship.threads;
+
+import javafx.application.Platform;
+import univalle.tedesoft.battleship.models.ai.ProbabilityMap;
+import univalle.tedesoft.battleship.models.ai.EvaluationCache;
+import univalle.tedesoft.battleship.models.board.BoardSnapshot;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Calcula el mapa de probabilidad del tablero enemigo en un hilo en segundo plano.
+ * El hilo del juego solo entrega instantáneas inmutables de los tableros, que no cuestan nada
+ * si el tablero no cambió, por lo que un clic nunca espera el cálculo. Si llegan varias
+ * solicitudes mientras el hilo está ocupado, solo se calcula la última. El resultado se entrega
+ * en el hilo de la interfaz de JavaFX.
+ * Los mapas ya calculados se guardan en la caché de evaluaciones compartida, indexados por la forma
+ * canónica del estado de conocimiento, y se reutilizan al volver a un estado (por ejemplo al deshacer)
+ * o al llegar a uno simétrico, como pasa a menudo en los primeros disparos.
+ */
+public class ProbabilityMapWorker {
+
+    /**
+     * Solicitud de cálculo: las instantáneas de los tableros y el número que la identifica.
+     */
+    private static final class Request {
+        private final long generation;
+        private final BoardSnapshot territory;
+        private final BoardSnapshot fleetBoard;
+
+        private Request(long generation, BoardSnapshot territory, BoardSnapshot fleetBoard) {
+            this.generation = generation;
+            this.territory = territory;
+            this.fleetBoard = fleetBoard;
+        }
+    }
+
+    /** Distingue los mapas de probabilidad de otras evaluaciones guardadas en la caché compartida. */
+    private static final long TABLE_SALT = 0x6A09E667F3BCC909L;
+
+    private final ExecutorService executor;
+    private final Consumer<double[]> onResult;
+    /** Última solicitud sin procesar, o null si el hilo no tiene trabajo pendiente. */
+    private final AtomicReference<Request> pending = new AtomicReference<>();
+    /** Número de la última solicitud; los resultados de solicitudes anteriores se descartan. */
+    private final AtomicLong generation = new AtomicLong();
+
+    // Estado usado solo por el hilo en segundo plano.
+    private ProbabilityMap map;
+    private int[] mapFleet;
+
+    /**
+     * Crea el trabajador con su propio hilo demonio.
+     * @param onResult Recibe las probabilidades de cada celda, en orden fila por fila,
+     *                 en el hilo de la interfaz.
+     */
+    public ProbabilityMapWorker(Consumer<double[]> onResult) {
+        this.onResult = onResult;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "probability-map");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Pide recalcular el mapa con el estado actual de los tableros. Retorna de inmediato.
+     * @param territory Instantánea del tablero con los disparos del jugador.
+     * @param fleetBoard Instantánea del tablero real del enemigo, para conocer su flota.
+     */
+    public void requestUpdate(BoardSnapshot territory, BoardSnapshot fleetBoard) {
+        Request request = new Request(this.generation.incrementAndGet(), territory, fleetBoard);
+        // Si ya había una solicitud pendiente, el hilo tomará esta en su lugar.
+        if (this.pending.getAndSet(request) == null) {
+            this.executor.execute(this::processPending);
+        }
+    }
+
+    /**
+     * Descarta los cálculos en curso y pendientes; sus resultados ya no se entregan.
+     * Se usa al reiniciar la partida o al ocultar el mapa.
+     */
+    public void cancel() {
+        this.generation.incrementAndGet();
+        this.pending.set(null);
+    }
+
+    /**
+     * Detiene el hilo en segundo plano.
+     */
+    public void shutdown() {
+        this.cancel();
+        this.executor.shutdownNow();
+    }
+
+    /**
+     * Procesa la solicitud más reciente en el hilo en segundo plano.
+     */
+    private void processPending() {
+        Request request = this.pending.getAndSet(null);
+        if (request == null) {
+            return;
+        }
+        try {
+            int[] fleet = request.fleetBoard.getShips().stream()
+                    .mapToInt(BoardSnapshot.ShipSnapshot::getLength).sorted().toArray();
+            int[] afloat = request.fleetBoard.getShips().stream().filter(ship -> !ship.isSunk())
+                    .mapToInt(BoardSnapshot.ShipSnapshot::getLength).sorted().toArray();
+            // El tablero real del enemigo tiene las mismas celdas disparadas que el territorio y además
+            // todas las de los barcos hundidos, así que su estado resume lo que sabe el jugador.
+            long salt = TABLE_SALT ^ (31L * Arrays.hashCode(fleet) + Arrays.hashCode(afloat)) * 0x9E3779B97F4A7C15L;
+            double[] cached = EvaluationCache.getShared().get(request.fleetBoard, salt);
+            if (cached != null) {
+                this.deliver(request, cached);
+                return;
+            }
+            // Una flota o un tablero distinto es otra partida: se empieza un mapa nuevo.
+            if (this.map == null || this.map.getSize() != request.territory.getSize()
+                    || !Arrays.equals(this.mapFleet, fleet)) {
+                this.map = new ProbabilityMap(request.territory.getSize(), fleet);
+                this.mapFleet = fleet;
+            }
+            this.map.update(request.territory, request.fleetBoard);
+            double[] probabilities = this.map.getProbabilities(null);
+            EvaluationCache.getShared().put(request.fleetBoard, salt, 1, probabilities);
+            this.deliver(request, probabilities);
+        } catch (RuntimeException e) {
+            System.err.println("Error al calcular el mapa de probabilidad: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Entrega el resultado en el hilo de la interfaz si la solicitud sigue siendo la última.
+     */
+    private void deliver(Request request, double[] probabilities) {
+        Platform.runLater(() -> {
+            if (request.generation == this.generation.get()) {
+                this.onResult.accept(probabilities);
+            }
+        });
+    }
+}
@@ -1,13 +1,19 @@
 package univalle.tedesoft.battleship.views;
 
 
+import javafx.animation.AnimationTimer;
 import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.geometry.Pos;
 import javafx.scene.Group;
 import javafx.scene.Node;
 import javafx.scene.Scene;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Button;
+import javafx.scene.control.ChoiceBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.Slider;
 import javafx.scene.effect.ColorAdjust;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.Pane;
@@ -20,12 +26,16 @@ import javafx.scene.transform.Rotate;
 import javafx.scene.transform.Scale;
 import javafx.stage.Stage;
 import univalle.tedesoft.battleship.Main;
+import univalle.tedesoft.battleship.analytics.GameReplay;
 import univalle.tedesoft.battleship.controllers.GameController;
 import univalle.tedesoft.battleship.models.board.Board;
 import univalle.tedesoft.battleship.models.enums.CellState;
+import univalle.tedesoft.battleship.models.enums.Difficulty;
+import univalle.tedesoft.battleship.models.enums.GameMode;
 import univalle.tedesoft.battleship.models.enums.ShipType;
 import univalle.tedesoft.battleship.models.players.HumanPlayer;
 import univalle.tedesoft.battleship.models.ships.Ship;
+import univalle.tedesoft.battleship.models.ships.ShipClass;
 import univalle.tedesoft.battleship.models.board.Coordinate;
 import univalle.tedesoft.battleship.models.enums.Orientation;
 import univalle.tedesoft.battleship.models.enums.GamePhase;
@@ -50,6 +60,8 @@ public class GameView extends Stage {
     private final GameController controller;
     /** Define el tamaño estándar (ancho y alto) en píxeles para cada celda en las cuadrículas del juego. */
     private static final int CELL_SIZE = 40;
+    /** Número de filas y columnas de los tableros, según la flota de la partida. */
+    private final int boardSize;
     /** Mapa que funciona como una fábrica de formas para los barcos, asocia cada tipo de barco con su figura correspondiente. */
     private final Map<ShipType, IShape> shipShapeFactory;
     /** Mapa para las figuras de los marcadores de disparo, asocia cada estado de celda con su figura correspondiente. */
@@ -63,6 +75,32 @@ public class GameView extends Stage {
      * nodo visual en la pantalla. Es esencial para manipular la figura de un barco específico durante el arrastre.
      */
     private final Map<Ship, Node> shipVisuals = new HashMap<>();
+    /** Velocidades de la repetición, en disparos por segundo. */
+    private static final int[] REPLAY_SPEEDS = {2, 8, 32, 128};
+    /** Repetición en curso, o null si no se está viendo ninguna. */
+    private GameReplay replay;
+    /** Temporizador que avanza la repetición en cada fotograma de la pantalla. */
+    private AnimationTimer replayTimer;
+    /** Barra para saltar a cualquier disparo de la repetición. */
+    private Slider replaySlider;
+    /** Etiqueta con el disparo actual de la repetición. */
+    private Label replayStatusLabel;
+    /** Botón para reproducir o pausar la repetición. */
+    private Button replayPlayButton;
+    /** Disparos por segundo de la repetición. */
+    private int replaySpeed = REPLAY_SPEEDS[0];
+    /** Indica si la repetición se está reproduciendo. */
+    private boolean replayPlaying;
+    /** Instante del fotograma anterior, en nanosegundos, o 0 si aún no hubo fotogramas. */
+    private long replayLastFrame;
+    /** Fracción de disparo acumulada entre fotogramas a velocidades bajas. */
+    private double replayPendingShots;
+    /** Evita que mover la barra desde el temporizador se tome como un salto del usuario. */
+    private boolean updatingReplaySlider;
+    /** Lienzo con el mapa de probabilidad, debajo de los barcos y marcadores del tablero enemigo. */
+    private Canvas probabilityCanvas;
+    /** Indica si el mapa de probabilidad se muestra sobre el tablero enemigo. */
+    private boolean probabilityMapVisible;
 
     /**
      * Clase interna estática para implementar el patrón Singleton.
@@ -104,6 +142,7 @@ public class GameView extends Stage {
         }
         // Inicializar GameState
         IGameState gameState = new GameState();
+        this.boardSize = gameState.getFleetConfiguration().getBoardSize();
         this.controller.setGameView(this);
         this.controller.setGameState(gameState);
         // Inicializar el controlador con la vista
@@ -143,11 +182,11 @@ public class GameView extends Stage {
         this.initializeBoardGrid(controller.machinePlayerBoardGrid, false);
 
         // Definir el tamaño del tablero en función del tamaño de las celdas.
-        double boardSize = 10 * CELL_SIZE;
+        double boardWidth = this.boardSize * CELL_SIZE;
 
         // Limitar el tamaño del canvas de dibujo para que no sea más grande que el tablero.
-        controller.humanPlayerDrawingPane.setMaxSize(boardSize, boardSize);
-        controller.machinePlayerDrawingPane.setMaxSize(boardSize, boardSize);
+        controller.humanPlayerDrawingPane.setMaxSize(boardWidth, boardWidth);
+        controller.machinePlayerDrawingPane.setMaxSize(boardWidth, boardWidth);
     }
 
 
@@ -155,7 +194,7 @@ public class GameView extends Stage {
 
     /**
      * Inicializa una grilla para que funcione como un tablero de juego interactivo.
-     * Configura una cuadrícula de 10x10 con celdas individuales y, de forma crucial,
+     * Configura una cuadrícula del tamaño de tablero de la flota con celdas individuales y, de forma crucial,
      *  asigna los manejadores de eventos (listeners) apropiados según si es el tablero del jugador
      *  o de la máquina.
      * @param boardGrid El componente GridPane que se va a configurar como tablero.
@@ -177,7 +216,7 @@ public class GameView extends Stage {
                 int row = (int) (event.getY() / CELL_SIZE);
 
                 // Asegurarse de que las coordenadas calculadas estén dentro de los límites.
-                if (row >= 0 && row < 10 && col >= 0 && col < 10) {
+                if (row >= 0 && row < this.boardSize && col >= 0 && col < this.boardSize) {
                     this.controller.handleShipDrag(row, col);
                 }
                 event.consume();
@@ -187,7 +226,7 @@ public class GameView extends Stage {
                 int col = (int) (event.getX() / CELL_SIZE);
                 int row = (int) (event.getY() / CELL_SIZE);
 
-                if (row >= 0 && row < 10 && col >= 0 && col < 10) {
+                if (row >= 0 && row < this.boardSize && col >= 0 && col < this.boardSize) {
                     this.controller.handleShipDragEnd(row, col);
                 }
                 event.consume();
@@ -195,8 +234,8 @@ public class GameView extends Stage {
         }
 
         // Se añaden las celdas al GridPane
-        for (int row = 0; row < 10; row++) {
-            for (int col = 0; col < 10; col++) {
+        for (int row = 0; row < this.boardSize; row++) {
+            for (int col = 0; col < this.boardSize; col++) {
                 Pane cellPane = new Pane();
                 // Cada celda tiene el fondo azul
                 cellPane.setStyle("-fx-background-color: rgba(74, 144, 226, 0.3);");
@@ -290,9 +329,9 @@ public class GameView extends Stage {
      *  aún necesita colocar, incluyendo su representación visual y la cantidad pendiente.
      * @param playerPositionBoard El modelo del tablero del jugador, necesario para dibujar
      *                            los barcos que ya han sido colocados.
-     * @param shipsToPlace La lista de tipos de barcos (ShipType) que aún faltan por colocar.
+     * @param shipsToPlace Los identificadores de clase de los barcos que aún faltan por colocar.
      */
-    public void showShipPlacementPhase(Board playerPositionBoard, List<ShipType> shipsToPlace) {
+    public void showShipPlacementPhase(Board playerPositionBoard, List<String> shipsToPlace) {
         this.controller.shipPlacementPane.setVisible(true);
         this.controller.humanPlayerBoardGrid.setDisable(false);
         this.controller.machinePlayerBoardGrid.setDisable(true);
@@ -307,7 +346,7 @@ public class GameView extends Stage {
         this.controller.shipPlacementPane.getChildren().remove(1, this.controller.shipPlacementPane.getChildren().size());
 
         // Obtener el recuento de barcos pendientes del controlador
-        Map<ShipType, Long> pendingCounts = this.controller.getPendingShipCounts();
+        Map<String, Long> pendingCounts = this.controller.getPendingShipCounts();
         //  Definir los anchos deseados para cada tipo de barco en el panel de selección.
         final Map<ShipType, Double> targetWidths = Map.of(
                 ShipType.FRIGATE, 50.0,
@@ -315,16 +354,14 @@ public class GameView extends Stage {
                 ShipType.SUBMARINE, 125.0,
                 ShipType.AIR_CRAFT_CARRIER, 200.0
         );
-        // Definir el orden en que queremos mostrar los barcos
-        List<ShipType> displayOrder = List.of(
-                ShipType.AIR_CRAFT_CARRIER,
-                ShipType.SUBMARINE,
-                ShipType.DESTROYER,
-                ShipType.FRIGATE
-        );
+        // Mostrar las clases de la flota de mayor a menor longitud; dos clases con el mismo
+        // tipo visual se muestran por separado.
+        List<ShipClass> displayOrder = this.controller.getGameState().getFleetConfiguration()
+                .getClassesByLengthDescending();
 
-        for (ShipType type : displayOrder) {
-            long count = pendingCounts.getOrDefault(type, 0L);
+        for (ShipClass shipClass : displayOrder) {
+            ShipType type = shipClass.getVisualType();
+            long count = pendingCounts.getOrDefault(shipClass.getId(), 0L);
 
             // Crear un contenedor para la forma, para centrarla y manejarla fácilmente.
             VBox shipContainer = new VBox(5);
@@ -332,7 +369,7 @@ public class GameView extends Stage {
             shipContainer.getStyleClass().add("ship-selector-item");
 
             // Etiqueta con el nombre y contador
-            String shipName = type.toString().replace("_", " ");
+            String shipName = shipClass.getDisplayName();
             Label countLabel = new Label(String.format("%s: %dx", shipName, count));
             countLabel.setFont(new Font("Arial Bold", 14));
             countLabel.setTextFill(javafx.scene.paint.Color.WHITE);
@@ -364,7 +401,7 @@ public class GameView extends Stage {
                 // Si aún hay barcos por colocar, habilitar la interacción.
                 shipContainer.setOpacity(1.0);
                 shipContainer.setDisable(false);
-                shipContainer.setOnMouseClicked(event -> this.controller.handleShipSelection(type));
+                shipContainer.setOnMouseClicked(event -> this.controller.handleShipSelection(shipClass));
                 shipContainer.setStyle("-fx-cursor: hand;");
             }
             // Añadir el contenedor (con el barco escalado dentro) al panel de colocación.
@@ -392,6 +429,10 @@ public class GameView extends Stage {
 
         // Limpiar el canvas de dibujo de barcos viejos.
         drawingPane.getChildren().clear();
+        if (gridPane == this.controller.machinePlayerBoardGrid && this.probabilityMapVisible && this.replay == null) {
+            // El mapa de probabilidad se conserva entre redibujados; va debajo de los barcos y marcadores.
+            drawingPane.getChildren().add(this.probabilityCanvas);
+        }
         if (gridPane == this.controller.humanPlayerBoardGrid) {
             this.shipVisuals.clear(); // Limpiar solo para el tablero del jugador.
         }
@@ -588,12 +629,21 @@ public class GameView extends Stage {
         // Mostrar los botones de la fase de batalla
         this.controller.restartGameButton.setVisible(true);
         this.controller.toggleOpponentBoardButton.setVisible(false);
+        this.controller.undoButton.setVisible(true);
+        this.controller.redoButton.setVisible(true);
+        this.controller.hintButton.setVisible(true);
+        this.updateUndoRedoButtons(this.controller.getGameState().canUndo(), this.controller.getGameState().canRedo());
 
         // Deshabilitar clics en el tablero propio y habilitarlos en el del enemigo
         this.controller.humanPlayerBoardGrid.setDisable(true);
         this.controller.machinePlayerBoardGrid.setDisable(false);
 
-        this.displayMessage("¡Comienza la batalla! Haz clic en el tablero enemigo para disparar.", false);
+        if (this.controller.getGameState().getGameMode() == GameMode.SALVO) {
+            this.displayMessage("¡Comienza la batalla en modo salva! Marca " + this.controller.getGameState().getSalvoSize()
+                    + " casillas del tablero enemigo para disparar tu salva.", false);
+        } else {
+            this.displayMessage("¡Comienza la batalla! Haz clic en el tablero enemigo para disparar.", false);
+        }
 
         // Redibujar el tablero del jugador para eliminar los resaltados de la fase de colocación.
         this.drawBoard(this.controller.humanPlayerBoardGrid, this.controller.getGameState().getHumanPlayerPositionBoard(), true);
@@ -601,6 +651,25 @@ public class GameView extends Stage {
         this.drawBoard(this.controller.machinePlayerBoardGrid, this.controller.getGameState().getMachinePlayerTerritoryBoard(), false);
     }
 
+    /**
+     * Marca o desmarca una casilla del tablero enemigo como parte de la salva pendiente.
+     * Las marcas se borran en el siguiente redibujado del tablero.
+     * @param row Fila de la casilla.
+     * @param col Columna de la casilla.
+     * @param pending true para marcarla, false para restaurar su color normal.
+     */
+    public void markPendingShot(int row, int col, boolean pending) {
+        Pane cellPane = this.getCellPane(this.controller.machinePlayerBoardGrid, row, col);
+        if (cellPane == null) {
+            return;
+        }
+        if (pending) {
+            cellPane.setStyle("-fx-background-color: rgba(243, 156, 18, 0.6); -fx-border-color: #f39c12; -fx-border-width: 2;");
+        } else {
+            cellPane.setStyle("-fx-background-color: rgba(74, 144, 226, 0.3);");
+        }
+    }
+
     /**
      * Actualiza el estilo de los botones de orientación para resaltar el que está activo.
      * @param activeOrientation La orientación actualmente seleccionada.
@@ -702,6 +771,8 @@ public class GameView extends Stage {
      * Es invocado por el controlador cuando se reinicia el juego.
      */
     public void resetToPlacementPhase() {
+        this.stopReplay();
+        this.setProbabilityMapVisible(false);
         // Limpiar ambos tableros visualmente
         this.drawBoard(this.controller.humanPlayerBoardGrid, this.controller.getGameState().getHumanPlayerPositionBoard(), true);
         this.drawBoard(this.controller.machinePlayerBoardGrid, this.controller.getGameState().getMachinePlayerTerritoryBoard(), false);
@@ -715,6 +786,10 @@ public class GameView extends Stage {
         // Ocultar componentes de la fase de batalla
         this.controller.toggleOpponentBoardButton.setVisible(true);
         this.controller.restartGameButton.setVisible(false);
+        this.controller.undoButton.setVisible(false);
+        this.controller.redoButton.setVisible(false);
+        this.controller.replayButton.setVisible(false);
+        this.controller.hintButton.setVisible(false);
 
         // Habilitar y deshabilitar los tableros correspondientes
         this.controller.humanPlayerBoardGrid.setDisable(false);
@@ -753,6 +828,258 @@ public class GameView extends Stage {
         }
     }
 
+    /**
+     * Habilita o deshabilita los botones de deshacer y rehacer según el historial del modelo.
+     * @param canUndo true si hay disparos para deshacer.
+     * @param canRedo true si hay disparos para rehacer.
+     */
+    public void updateUndoRedoButtons(boolean canUndo, boolean canRedo) {
+        if (this.controller.undoButton == null || this.controller.redoButton == null) {
+            return;
+        }
+        this.controller.undoButton.setDisable(!canUndo);
+        this.controller.redoButton.setDisable(!canRedo);
+    }
+
+    /**
+     * Muestra u oculta el mapa de probabilidad sobre el tablero enemigo.
+     * Al mostrarlo el lienzo empieza vacío hasta que llegue el primer cálculo.
+     * @param visible true para mostrarlo.
+     */
+    public void setProbabilityMapVisible(boolean visible) {
+        this.probabilityMapVisible = visible;
+        Pane drawingPane = this.controller.machinePlayerDrawingPane;
+        if (!visible) {
+            if (this.probabilityCanvas != null) {
+                drawingPane.getChildren().remove(this.probabilityCanvas);
+            }
+            return;
+        }
+        int size = this.controller.getGameState().getMachinePlayerTerritoryBoard().getSize();
+        if (this.probabilityCanvas == null || this.probabilityCanvas.getWidth() != size * CELL_SIZE) {
+            this.probabilityCanvas = new Canvas(size * CELL_SIZE, size * CELL_SIZE);
+            this.probabilityCanvas.setMouseTransparent(true);
+        }
+        this.probabilityCanvas.getGraphicsContext2D().clearRect(0, 0, size * CELL_SIZE, size * CELL_SIZE);
+        if (this.replay == null && !drawingPane.getChildren().contains(this.probabilityCanvas)) {
+            drawingPane.getChildren().add(0, this.probabilityCanvas);
+        }
+    }
+
+    /**
+     * Dibuja el mapa de probabilidad en una sola pasada sobre el lienzo: cada celda se tiñe
+     * en proporción a su probabilidad respecto de la más alta, y la más alta se enmarca.
+     * No crea nodos, por lo que su costo no depende de cuántas veces se actualice.
+     * @param probabilities Probabilidad de barco de cada celda, en orden fila por fila.
+     */
+    public void drawProbabilityMap(double[] probabilities) {
+        if (!this.probabilityMapVisible || this.probabilityCanvas == null) {
+            return;
+        }
+        int size = (int) Math.round(Math.sqrt(probabilities.length));
+        GraphicsContext graphics = this.probabilityCanvas.getGraphicsContext2D();
+        graphics.clearRect(0, 0, this.probabilityCanvas.getWidth(), this.probabilityCanvas.getHeight());
+
+        int best = -1;
+        for (int cell = 0; cell < probabilities.length; cell++) {
+            if (best < 0 || probabilities[cell] > probabilities[best]) {
+                best = cell;
+            }
+        }
+        if (best < 0 || probabilities[best] <= 0) {
+            return;
+        }
+        double max = probabilities[best];
+        for (int cell = 0; cell < probabilities.length; cell++) {
+            if (probabilities[cell] <= 0) {
+                continue;
+            }
+            graphics.setFill(Color.rgb(231, 76, 60, 0.7 * probabilities[cell] / max));
+            graphics.fillRect((cell % size) * CELL_SIZE, (cell / size) * CELL_SIZE, CELL_SIZE, CELL_SIZE);
+        }
+        graphics.setStroke(Color.rgb(243, 156, 18));
+        graphics.setLineWidth(3);
+        graphics.strokeRect((best % size) * CELL_SIZE + 1.5, (best / size) * CELL_SIZE + 1.5, CELL_SIZE - 3, CELL_SIZE - 3);
+    }
+
+    /**
+     * Inicia la repetición de una partida sobre los tableros del juego.
+     * Muestra los controles de reproducción, velocidad y posición y oculta los de la partida.
+     * Los tableros se dibujan con drawBoard a partir de los tableros de la repetición; al avanzar
+     * rápido se aplican todos los disparos de un fotograma y se dibuja una sola vez.
+     * @param replay La repetición a mostrar, en cualquier posición.
+     */
+    public void startReplay(GameReplay replay) {
+        this.stopReplay();
+        this.replay = replay;
+        this.buildReplayControls(replay);
+
+        this.controller.replayControlPane.setVisible(true);
+        this.controller.replayControlPane.setManaged(true);
+        this.controller.replayButton.setVisible(false);
+        this.controller.undoButton.setVisible(false);
+        this.controller.redoButton.setVisible(false);
+        this.setBoardInteraction(this.controller.humanPlayerBoardGrid, false);
+        this.setBoardInteraction(this.controller.machinePlayerBoardGrid, false);
+
+        if (this.replayTimer == null) {
+            this.replayTimer = new AnimationTimer() {
+                @Override
+                public void handle(long now) {
+                    advanceReplay(now);
+                }
+            };
+        }
+        this.renderReplayFrame();
+    }
+
+    /**
+     * Termina la repetición en curso y vuelve a dibujar los tableros de la partida.
+     * No hace nada si no hay una repetición activa.
+     */
+    public void stopReplay() {
+        if (this.replay == null) {
+            return;
+        }
+        this.replayTimer.stop();
+        this.replayPlaying = false;
+        this.replay = null;
+        this.controller.replayControlPane.getChildren().clear();
+        this.controller.replayControlPane.setVisible(false);
+        this.controller.replayControlPane.setManaged(false);
+
+        IGameState gameState = this.controller.getGameState();
+        this.controller.replayButton.setVisible(gameState.isGameOver());
+        this.drawBoard(this.controller.humanPlayerBoardGrid, gameState.getHumanPlayerPositionBoard(), true);
+        this.drawBoard(this.controller.machinePlayerBoardGrid, gameState.getMachinePlayerTerritoryBoard(), false);
+    }
+
+    /**
+     * Crea los controles de la repetición dentro del contenedor del controlador.
+     * @param replay La repetición que controlan.
+     */
+    private void buildReplayControls(GameReplay replay) {
+        String buttonStyle = "-fx-background-color: #2980b9; -fx-text-fill: white; -fx-font-weight: bold; -fx-background-radius: 8;";
+
+        this.replayPlayButton = new Button("Reproducir");
+        this.replayPlayButton.setStyle(buttonStyle);
+        this.replayPlayButton.setOnAction(event -> this.setReplayPlaying(!this.replayPlaying));
+
+        ChoiceBox<String> speedChoice = new ChoiceBox<>();
+        for (int speed : REPLAY_SPEEDS) {
+            speedChoice.getItems().add("x" + (speed / REPLAY_SPEEDS[0]));
+        }
+        speedChoice.getSelectionModel().select(0);
+        this.replaySpeed = REPLAY_SPEEDS[0];
+        speedChoice.getSelectionModel().selectedIndexProperty().addListener((observable, oldIndex, newIndex) ->
+                this.replaySpeed = REPLAY_SPEEDS[Math.max(0, newIndex.intValue())]);
+
+        this.replaySlider = new Slider(0, replay.getShotCount(), replay.getPosition());
+        this.replaySlider.setPrefWidth(400);
+        this.replaySlider.setBlockIncrement(1);
+        this.replaySlider.valueProperty().addListener((observable, oldValue, newValue) -> {
+            if (!this.updatingReplaySlider && this.replay != null) {
+                // El salto cuesta a lo sumo un intervalo entre fotogramas clave.
+                this.replay.seek((int) Math.round(newValue.doubleValue()));
+                this.renderReplayFrame();
+            }
+        });
+
+        this.replayStatusLabel = new Label();
+        this.replayStatusLabel.setFont(new Font("Arial", 14.0));
+        this.replayStatusLabel.setStyle("-fx-text-fill: white;");
+
+        Button exitButton = new Button("Salir de la Repetición");
+        exitButton.setStyle("-fx-background-color: #c0392b; -fx-text-fill: white; -fx-font-weight: bold; -fx-background-radius: 8;");
+        exitButton.setOnAction(event -> this.stopReplay());
+
+        this.controller.replayControlPane.getChildren().setAll(
+                this.replayPlayButton, speedChoice, this.replaySlider, this.replayStatusLabel, exitButton);
+    }
+
+    /**
+     * Reproduce o pausa la repetición. Al reproducir desde el final se vuelve al inicio.
+     * @param playing true para reproducir, false para pausar.
+     */
+    private void setReplayPlaying(boolean playing) {
+        this.replayPlaying = playing;
+        if (playing) {
+            if (this.replay.isFinished()) {
+                this.replay.seek(0);
+                this.renderReplayFrame();
+            }
+            this.replayLastFrame = 0;
+            this.replayPendingShots = 0;
+            this.replayPlayButton.setText("Pausar");
+            this.replayTimer.start();
+        } else {
+            this.replayTimer.stop();
+            this.replayLastFrame = 0;
+            this.replayPlayButton.setText("Reproducir");
+        }
+    }
+
+    /**
+     * Avanza la repetición los disparos que correspondan al tiempo transcurrido desde el fotograma
+     * anterior y redibuja los tableros una sola vez, sin importar cuántos disparos se aplicaron.
+     * @param now Instante del fotograma actual, en nanosegundos.
+     */
+    private void advanceReplay(long now) {
+        if (this.replay == null) {
+            return;
+        }
+        if (this.replayLastFrame == 0) {
+            this.replayLastFrame = now;
+            return;
+        }
+        this.replayPendingShots += (now - this.replayLastFrame) / 1_000_000_000.0 * this.replaySpeed;
+        this.replayLastFrame = now;
+        int shots = (int) this.replayPendingShots;
+        if (shots == 0) {
+            return;
+        }
+        this.replayPendingShots -= shots;
+        // Los disparos se aplican al modelo sin dibujar; el dibujo va al final del fotograma.
+        int applied = 0;
+        while (applied < shots && this.replay.step()) {
+            applied++;
+        }
+        this.renderReplayFrame();
+        if (this.replay.isFinished()) {
+            this.setReplayPlaying(false);
+        }
+    }
+
+    /**
+     * Dibuja los tableros de la repetición en su posición actual y sincroniza la barra y la etiqueta.
+     */
+    private void renderReplayFrame() {
+        this.drawBoard(this.controller.humanPlayerBoardGrid, this.replay.getHumanBoard(), true);
+        this.drawBoard(this.controller.machinePlayerBoardGrid, this.replay.getMachineBoard(), true);
+
+        this.updatingReplaySlider = true;
+        this.replaySlider.setValue(this.replay.getPosition());
+        this.updatingReplaySlider = false;
+
+        int position = this.replay.getPosition();
+        if (position == 0) {
+            this.replayStatusLabel.setText("Disparo 0 de " + this.replay.getShotCount());
+            return;
+        }
+        int cell = this.replay.getShotCell(position - 1);
+        int size = this.replay.getHumanBoard().getSize();
+        String shooter = (this.replay.getShooter(position - 1) == 0) ? "Tú" : "Máquina";
+        String result = switch (this.replay.getShotResult(position - 1)) {
+            case WATER -> "Falla";
+            case TOUCHED -> "Acierto";
+            case SUNKEN -> "Hundido";
+            case ALREADY_HIT -> "Repetido";
+        };
+        this.replayStatusLabel.setText(String.format("Disparo %d de %d - %s: %c%d, %s",
+                position, this.replay.getShotCount(), shooter,
+                (char) ('A' + cell % size), cell / size + 1, result));
+    }
+
     /**
      * Resalta las celdas del GridPane que están ocupadas por un barco específico.
      *
@@ -866,8 +1193,29 @@ public class GameView extends Stage {
      * @param player El jugador humano para el nuevo juego
      */
     public void initializeNewGame(HumanPlayer player) {
+        this.initializeNewGame(player, GameMode.CLASSIC);
+    }
+
+    /**
+     * Inicializa un nuevo juego con el jugador y la variante de reglas especificados.
+     * @param player El jugador humano para el nuevo juego
+     * @param gameMode El modo de juego (clásico o salva)
+     */
+    public void initializeNewGame(HumanPlayer player, GameMode gameMode) {
+        this.initializeNewGame(player, gameMode, Difficulty.DEFAULT);
+    }
+
+    /**
+     * Inicializa un nuevo juego con el jugador, la variante de reglas y la dificultad especificados.
+     * @param player El jugador humano para el nuevo juego
+     * @param gameMode El modo de juego (clásico o salva)
+     * @param difficulty La dificultad de la máquina
+     */
+    public void initializeNewGame(HumanPlayer player, GameMode gameMode, Difficulty difficulty) {
         try {
             IGameState gameState = this.controller.getGameState();
+            gameState.setGameMode(gameMode);
+            gameState.setDifficulty(difficulty);
             
             // Configurar el panel de previsualización si no está ya agregado
             setupDragPreviewPane();
@@ -1007,5 +1355,7 @@ public class GameView extends Stage {
         ViewUtils.applyHoverScaleEffect(this.controller.horizontalButton);
         ViewUtils.applyHoverScaleEffect(this.controller.verticalButton);
         ViewUtils.applyHoverScaleEffect(this.controller.restartGameButton);
+        ViewUtils.applyHoverScaleEffect(this.controller.undoButton);
+        ViewUtils.applyHoverScaleEffect(this.controller.redoButton);
     }
 }
\ No newline at end of file
@@ -0,0 +1,83 @@
+package univalle.tedesoft.battleship.views;
+
+import javafx.collections.ObservableListBase;
+import univalle.tedesoft.battleship.models.state.GamePersistenceManager;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lista observable de solo lectura que carga las partidas guardadas por páginas.
+ * El ListView solo pide los elementos visibles, así que únicamente se consultan al
+ * modelo las páginas alrededor de la zona desplazada, y se conservan unas pocas en caché.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class PagedSavedGamesList extends ObservableListBase<GamePersistenceManager.SavedGameInfo> {
+    /** Cantidad de partidas que se piden al modelo en cada consulta. */
+    private static final int PAGE_SIZE = 64;
+    /** Cantidad de páginas que se mantienen en memoria. */
+    private static final int CACHED_PAGES = 8;
+
+    /**
+     * Consulta paginada al modelo de persistencia.
+     */
+    @FunctionalInterface
+    public interface PageLoader {
+        /**
+         * @param offset Cantidad de partidas a omitir.
+         * @param limit Cantidad máxima de partidas a devolver.
+         * @return Las partidas de la página pedida.
+         */
+        List<GamePersistenceManager.SavedGameInfo> loadPage(int offset, int limit);
+    }
+
+    private final int size;
+    private final PageLoader pageLoader;
+    /** Páginas cargadas en orden de acceso; la menos usada se descarta primero. */
+    private final Map<Integer, List<GamePersistenceManager.SavedGameInfo>> pages =
+            new LinkedHashMap<>(CACHED_PAGES, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, List<GamePersistenceManager.SavedGameInfo>> eldest) {
+                    return this.size() > CACHED_PAGES;
+                }
+            };
+
+    /**
+     * Crea la lista paginada.
+     * @param size Cantidad total de partidas del resultado.
+     * @param pageLoader Consulta que devuelve cada página.
+     */
+    public PagedSavedGamesList(int size, PageLoader pageLoader) {
+        this.size = size;
+        this.pageLoader = pageLoader;
+    }
+
+    @Override
+    public GamePersistenceManager.SavedGameInfo get(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Índice " + index + " fuera de la lista de tamaño " + this.size);
+        }
+        int pageIndex = index / PAGE_SIZE;
+        List<GamePersistenceManager.SavedGameInfo> page = this.pages.get(pageIndex);
+        if (page == null) {
+            page = this.pageLoader.loadPage(pageIndex * PAGE_SIZE, PAGE_SIZE);
+            if (page == null) {
+                page = Collections.emptyList();
+            }
+            this.pages.put(pageIndex, page);
+        }
+        int offsetInPage = index % PAGE_SIZE;
+        // Si el índice cambió desde que se contó el resultado, la página puede venir más corta.
+        return (offsetInPage < page.size()) ? page.get(offsetInPage) : null;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+}
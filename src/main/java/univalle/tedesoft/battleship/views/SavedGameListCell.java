@@ -0,0 +1,94 @@
+package univalle.tedesoft.battleship.views;
+
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Font;
+import univalle.tedesoft.battleship.models.state.GamePersistenceManager;
+
+import java.time.format.DateTimeFormatter;
+import java.util.function.Consumer;
+
+/**
+ * Celda reutilizable que muestra la "tarjeta" de una partida guardada.
+ * La tarjeta se construye una sola vez por celda; al desplazarse la lista,
+ * el ListView recicla la celda y solo se actualizan los textos.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+public class SavedGameListCell extends ListCell<GamePersistenceManager.SavedGameInfo> {
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private final HBox card = new HBox(15);
+    private final Label nameLabel = new Label();
+    private final Label phaseLabel = new Label();
+    private final Label dateLabel = new Label();
+
+    /**
+     * Crea la celda y su tarjeta.
+     * @param loadAction La acción a ejecutar con la partida de la celda al presionar "Cargar".
+     * @param historyAction La acción a ejecutar con la partida de la celda al presionar "Historial".
+     */
+    public SavedGameListCell(Consumer<GamePersistenceManager.SavedGameInfo> loadAction,
+                             Consumer<GamePersistenceManager.SavedGameInfo> historyAction) {
+        this.card.setAlignment(Pos.CENTER_LEFT);
+        this.card.setStyle("-fx-background-color: rgba(255, 255, 255, 0.1); -fx-background-radius: 10; -fx-border-color: #f39c12; -fx-border-radius: 10;");
+        this.card.setPadding(new Insets(10));
+
+        VBox infoContainer = new VBox(5);
+        infoContainer.setAlignment(Pos.CENTER_LEFT);
+
+        this.nameLabel.setFont(new Font("Arial Bold", 16));
+        this.nameLabel.setStyle("-fx-text-fill: white;");
+        this.dateLabel.setFont(new Font("Arial", 12));
+        this.dateLabel.setStyle("-fx-text-fill: #e0e0e0;");
+        this.phaseLabel.setFont(new Font("Arial", 12));
+        this.phaseLabel.setStyle("-fx-text-fill: #e0e0e0;");
+        infoContainer.getChildren().addAll(this.nameLabel, this.phaseLabel, this.dateLabel);
+
+        Button loadButton = new Button("Cargar");
+        loadButton.setStyle("-fx-background-color: #27ae60; -fx-text-fill: white; -fx-font-weight: bold; -fx-background-radius: 8;");
+        // La celda cambia de partida al reciclarse, por eso se lee el elemento actual en el momento del clic.
+        loadButton.setOnAction(event -> {
+            if (this.getItem() != null) {
+                loadAction.accept(this.getItem());
+            }
+        });
+
+        Button historyButton = new Button("Historial");
+        historyButton.setStyle("-fx-background-color: #2980b9; -fx-text-fill: white; -fx-font-weight: bold; -fx-background-radius: 8;");
+        historyButton.setOnAction(event -> {
+            if (this.getItem() != null) {
+                historyAction.accept(this.getItem());
+            }
+        });
+
+        HBox spacer = new HBox();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+
+        this.card.getChildren().addAll(infoContainer, spacer, historyButton, loadButton);
+        this.setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+        this.setStyle("-fx-background-color: transparent; -fx-padding: 5 10 5 10;");
+    }
+
+    @Override
+    protected void updateItem(GamePersistenceManager.SavedGameInfo gameInfo, boolean empty) {
+        super.updateItem(gameInfo, empty);
+        if (empty || gameInfo == null) {
+            this.setGraphic(null);
+            return;
+        }
+        this.nameLabel.setText("Capitán: " + gameInfo.getNickname());
+        this.phaseLabel.setText("Fase: " + ViewUtils.translateGamePhase(gameInfo.getGamePhase()));
+        this.dateLabel.setText("Guardada: " + gameInfo.getSaveDate().format(DATE_FORMATTER));
+        this.setGraphic(this.card);
+    }
+}
@@ -1,16 +1,12 @@
 package univalle.tedesoft.battleship.views;
 
+import javafx.collections.ObservableList;
 import javafx.fxml.FXMLLoader;
-import javafx.geometry.Insets;
-import javafx.geometry.Pos;
 import javafx.scene.Node;
 import javafx.scene.Scene;
-import javafx.scene.control.Button;
+import javafx.scene.control.ChoiceDialog;
 import javafx.scene.control.Label;
-import javafx.scene.control.ScrollPane;
-import javafx.scene.layout.HBox;
-import javafx.scene.layout.Priority;
-import javafx.scene.layout.VBox;
+import javafx.scene.control.ListView;
 import javafx.scene.text.Font;
 import javafx.stage.Stage;
 import univalle.tedesoft.battleship.Main;
@@ -19,7 +15,10 @@ import univalle.tedesoft.battleship.models.state.GamePersistenceManager;
 
 import java.io.IOException;
 import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.function.Consumer;
 
 /**
@@ -75,78 +74,59 @@ public class WelcomeView extends Stage {
 
     /**
      * Alterna la visibilidad de un panel de partidas guardadas.
-     * @param scrollPane El componente ScrollPane a mostrar u ocultar.
+     * @param savedGamesPane El componente a mostrar u ocultar.
      * @return `true` si el panel es ahora visible, `false` en caso contrario.
      */
-    public boolean toggleSavedGamesVisibility(ScrollPane scrollPane) {
-        boolean isNowVisible = !scrollPane.isVisible();
-        scrollPane.setVisible(isNowVisible);
-        scrollPane.setManaged(isNowVisible);
+    public boolean toggleSavedGamesVisibility(Node savedGamesPane) {
+        boolean isNowVisible = !savedGamesPane.isVisible();
+        savedGamesPane.setVisible(isNowVisible);
+        savedGamesPane.setManaged(isNowVisible);
         return isNowVisible;
     }
 
     /**
-     * Rellena un contenedor de la UI con las partidas guardadas.
+     * Muestra las partidas guardadas en una lista virtualizada: solo se crean las tarjetas
+     * visibles y se reciclan al desplazarse, y las partidas se piden al modelo por páginas.
      *
-     * @param container  El VBox donde se insertarán las tarjetas de las partidas.
-     * @param games      La lista de información de partidas guardadas obtenida del modelo.
+     * @param listView   La lista donde se mostrarán las tarjetas de las partidas.
+     * @param games      La lista paginada de partidas guardadas obtenida del modelo.
      * @param loadAction La acción (del controlador) a ejecutar cuando se presiona el botón "Cargar".
+     * @param historyAction La acción (del controlador) a ejecutar cuando se presiona el botón "Historial".
      */
-    public void displaySavedGames(VBox container, List<GamePersistenceManager.SavedGameInfo> games, Consumer<GamePersistenceManager.SavedGameInfo> loadAction) {
-        container.getChildren().clear();
-
-        if (games.isEmpty()) {
+    public void displaySavedGames(ListView<GamePersistenceManager.SavedGameInfo> listView, ObservableList<GamePersistenceManager.SavedGameInfo> games,
+                                  Consumer<GamePersistenceManager.SavedGameInfo> loadAction,
+                                  Consumer<GamePersistenceManager.SavedGameInfo> historyAction) {
+        if (listView.getPlaceholder() == null) {
             Label noGamesLabel = new Label("No se encontraron partidas para el capitán especificado.");
             noGamesLabel.setFont(new Font("Arial Italic", 14));
             noGamesLabel.setStyle("-fx-text-fill: #cccccc;");
-            container.getChildren().add(noGamesLabel);
-        } else {
-            for (GamePersistenceManager.SavedGameInfo gameInfo : games) {
-                Node gameCard = this.createSavedGameCard(gameInfo, loadAction);
-                container.getChildren().add(gameCard);
-            }
+            listView.setPlaceholder(noGamesLabel);
+            listView.setCellFactory(view -> new SavedGameListCell(loadAction, historyAction));
         }
+        listView.setItems(games);
+        listView.scrollTo(0);
     }
 
     /**
-     * Crea un componente de UI (una "tarjeta") para mostrar la información de una partida guardada.
-     * @param gameInfo El objeto con los datos de la partida guardada.
-     * @param loadAction La acción a vincular al botón "Cargar" de esta tarjeta.
-     * @return Un nodo de JavaFX que representa la tarjeta.
+     * Muestra un diálogo para elegir una versión del historial de guardados de un jugador.
+     * @param nickname El nickname del jugador.
+     * @param versions Las versiones disponibles, de la más reciente a la más antigua.
+     * @return La versión elegida, o vacío si el usuario canceló.
      */
-    private Node createSavedGameCard(GamePersistenceManager.SavedGameInfo gameInfo, Consumer<GamePersistenceManager.SavedGameInfo> loadAction) {
-        HBox card = new HBox(15);
-        card.setAlignment(Pos.CENTER_LEFT);
-        card.setStyle("-fx-background-color: rgba(255, 255, 255, 0.1); -fx-background-radius: 10; -fx-border-color: #f39c12; -fx-border-radius: 10;");
-        card.setPadding(new Insets(10));
-
-        VBox infoContainer = new VBox(5);
-        infoContainer.setAlignment(Pos.CENTER_LEFT);
-
-        Label nameLabel = new Label("Capitán: " + gameInfo.getNickname());
-        nameLabel.setFont(new Font("Arial Bold", 16));
-        nameLabel.setStyle("-fx-text-fill: white;");
-
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
-        Label dateLabel = new Label("Guardada: " + gameInfo.getSaveDate().format(formatter));
-        dateLabel.setFont(new Font("Arial", 12));
-        dateLabel.setStyle("-fx-text-fill: #e0e0e0;");
-
-        Label phaseLabel = new Label("Fase: " + ViewUtils.translateGamePhase(gameInfo.getGamePhase()));
-        phaseLabel.setFont(new Font("Arial", 12));
-        phaseLabel.setStyle("-fx-text-fill: #e0e0e0;");
-
-        infoContainer.getChildren().addAll(nameLabel, phaseLabel, dateLabel);
-
-        Button loadButton = new Button("Cargar");
-        loadButton.setStyle("-fx-background-color: #27ae60; -fx-text-fill: white; -fx-font-weight: bold; -fx-background-radius: 8;");
-        loadButton.setOnAction(event -> loadAction.accept(gameInfo));
-
-        HBox spacer = new HBox();
-        HBox.setHgrow(spacer, Priority.ALWAYS);
-
-        card.getChildren().addAll(infoContainer, spacer, loadButton);
-        return card;
+    public Optional<GamePersistenceManager.SaveVersionInfo> chooseSaveVersion(String nickname, List<GamePersistenceManager.SaveVersionInfo> versions) {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+        Map<String, GamePersistenceManager.SaveVersionInfo> versionsByLabel = new LinkedHashMap<>();
+        for (GamePersistenceManager.SaveVersionInfo version : versions) {
+            String label = version.getSlot() + " v" + version.getVersion() + " - "
+                    + version.getSaveDate().format(formatter) + " - "
+                    + ViewUtils.translateGamePhase(version.getGamePhase());
+            versionsByLabel.put(label, version);
+        }
+        ChoiceDialog<String> dialog = new ChoiceDialog<>(versionsByLabel.keySet().iterator().next(), versionsByLabel.keySet());
+        dialog.setTitle("Historial de Partidas");
+        dialog.setHeaderText("Versiones guardadas de " + nickname);
+        dialog.setContentText("Versión:");
+        return dialog.showAndWait().map(versionsByLabel::get);
     }
 
     /**
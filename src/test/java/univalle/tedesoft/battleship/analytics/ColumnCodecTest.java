@@ -0,0 +1,127 @@
+package univalle.tedesoft.battleship.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Pruebas de ida y vuelta de las codificaciones de columnas.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class ColumnCodecTest {
+    private final ColumnCodec codec = new ColumnCodec();
+
+    @Test
+    void emptyBlock() throws IOException {
+        roundTrip(new int[0]);
+        assertEquals(0, this.codec.getOutputSize());
+    }
+
+    @Test
+    void singleValue() throws IOException {
+        roundTrip(new int[]{7});
+        roundTrip(new int[]{-1});
+        roundTrip(new int[]{Integer.MIN_VALUE});
+        roundTrip(new int[]{Integer.MAX_VALUE});
+    }
+
+    /**
+     * Una diferencia constante de Integer.MAX_VALUE desborda en cada paso; la suma al decodificar
+     * desborda igual y recupera los mismos valores.
+     */
+    @Test
+    void maximumDelta() throws IOException {
+        int[] values = new int[200];
+        values[0] = Integer.MIN_VALUE;
+        for (int i = 1; i < values.length; i++) {
+            values[i] = values[i - 1] + Integer.MAX_VALUE;
+        }
+        assertEquals(ColumnCodec.DELTA_RUN_LENGTH, roundTrip(values));
+        roundTrip(new int[]{Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE, 0, Integer.MAX_VALUE});
+    }
+
+    @Test
+    void negativeDeltas() throws IOException {
+        int[] values = new int[500];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1000 - 3 * i;
+        }
+        assertEquals(ColumnCodec.DELTA_RUN_LENGTH, roundTrip(values));
+        assertEquals(-497, values[values.length - 1]);
+    }
+
+    /**
+     * Cada forma de columna del archivo de partidas elige la codificación pensada para ella.
+     */
+    @Test
+    void choosesTheSmallestEncoding() throws IOException {
+        int[] shooters = new int[1000];
+        for (int i = 0; i < shooters.length; i++) {
+            shooters[i] = (i / 40) % 2;
+        }
+        assertEquals(ColumnCodec.RUN_LENGTH, roundTrip(shooters));
+
+        Random random = new Random(5);
+        int[] cells = new int[5000];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = 200 + random.nextInt(100);
+        }
+        assertEquals(ColumnCodec.DICTIONARY, roundTrip(cells));
+
+        int[] sizes = new int[1000];
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = ((i / 50) % 3 == 0) ? 100_000 : 200_000;
+        }
+        assertEquals(ColumnCodec.DICTIONARY_RUN_LENGTH, roundTrip(sizes));
+
+        int[] noise = new int[1000];
+        for (int i = 0; i < noise.length; i++) {
+            noise[i] = random.nextInt(100);
+        }
+        noise[0] = 1_000_000;
+        for (int i = 1; i < 400; i++) {
+            noise[i] = random.nextInt();
+        }
+        assertEquals(ColumnCodec.PLAIN, roundTrip(noise));
+    }
+
+    @Test
+    void corruptBlocksAreRejected() {
+        byte[] truncated = {(byte) 0x80};
+        assertThrows(IOException.class,
+                () -> ColumnCodec.decode(ColumnCodec.PLAIN, truncated, 0, truncated.length, 1, new int[1]));
+        // Un tramo más largo que el bloque.
+        byte[] longRun = {2, 5};
+        assertThrows(IOException.class,
+                () -> ColumnCodec.decode(ColumnCodec.RUN_LENGTH, longRun, 0, longRun.length, 3, new int[3]));
+        // Un índice fuera del diccionario de un solo valor.
+        byte[] badIndex = {1, 2, 1};
+        assertThrows(IOException.class,
+                () -> ColumnCodec.decode(ColumnCodec.DICTIONARY, badIndex, 0, badIndex.length, 1, new int[1]));
+        assertThrows(IOException.class, () -> ColumnCodec.decode((byte) 9, new byte[0], 0, 0, 0, new int[0]));
+    }
+
+    /**
+     * Codifica y decodifica un bloque (en una posición distinta de cero del arreglo de bytes).
+     * @return La codificación elegida.
+     */
+    private byte roundTrip(int[] values) throws IOException {
+        byte encoding = this.codec.encode(values, values.length);
+        int length = this.codec.getOutputSize();
+        byte[] data = new byte[length + 3];
+        System.arraycopy(this.codec.getOutput(), 0, data, 3, length);
+        int[] decoded = new int[values.length];
+        ColumnCodec.decode(encoding, data, 3, length, values.length, decoded);
+        assertArrayEquals(values, decoded, "codificación " + encoding + ": " + Arrays.toString(Arrays.copyOf(values, Math.min(8, values.length))));
+        return encoding;
+    }
+}
@@ -0,0 +1,166 @@
+package univalle.tedesoft.battleship.analytics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import univalle.tedesoft.battleship.models.enums.ShotResult;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de escritura y lectura del archivo columnar de partidas: varios grupos de filas y
+ * lecturas que proyectan solo algunas columnas.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class ColumnarGameFileTest {
+    /** Disparos por partida; con 20 el escritor cierra un grupo cada 52 429 partidas. */
+    private static final int SHOTS_PER_GAME = 20;
+    private static final int GAMES = 120_000;
+    private static final ShotResult[] RESULTS = {ShotResult.WATER, ShotResult.TOUCHED, ShotResult.SUNKEN};
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void multipleRowGroupsRoundTrip() throws IOException {
+        Path file = this.directory.resolve("partidas.bscol");
+        writeGames(file, GAMES);
+
+        int games = 0;
+        int groups = 0;
+        try (ColumnarGameReader reader = new ColumnarGameReader(file)) {
+            while (reader.nextRowGroup()) {
+                groups++;
+                int gameRows = reader.getRowCount(GameColumn.Table.GAMES);
+                assertEquals(2 * gameRows, reader.getRowCount(GameColumn.Table.SHIPS));
+                assertEquals(SHOTS_PER_GAME * gameRows, reader.getRowCount(GameColumn.Table.SHOTS));
+                int[] id = reader.readColumn(GameColumn.GAME_ID);
+                int[] winner = reader.readColumn(GameColumn.GAME_WINNER);
+                int[] shotCount = reader.readColumn(GameColumn.GAME_SHOT_COUNT);
+                int[] length = reader.readColumn(GameColumn.SHIP_LENGTH);
+                int[] start = reader.readColumn(GameColumn.SHIP_START_CELL);
+                int[] vertical = reader.readColumn(GameColumn.SHIP_VERTICAL);
+                int[] shooter = reader.readColumn(GameColumn.SHOT_SHOOTER);
+                int[] cell = reader.readColumn(GameColumn.SHOT_CELL);
+                int[] result = reader.readColumn(GameColumn.SHOT_RESULT);
+                int[] turn = reader.readColumn(GameColumn.SHOT_TURN);
+                for (int row = 0; row < gameRows; row++) {
+                    int game = games + row;
+                    assertEquals(game, id[row]);
+                    assertEquals(game % 2, winner[row]);
+                    assertEquals(SHOTS_PER_GAME, shotCount[row]);
+                    assertEquals(2 + game % 3, length[2 * row]);
+                    assertEquals(game % 100, start[2 * row]);
+                    assertEquals((game % 2 == 0) ? 1 : 0, vertical[2 * row]);
+                    assertEquals((game * 7) % 100, start[2 * row + 1]);
+                    for (int shot = 0; shot < SHOTS_PER_GAME; shot++) {
+                        int index = row * SHOTS_PER_GAME + shot;
+                        assertEquals(shot % 2, shooter[index]);
+                        assertEquals(cellOf(game, shot), cell[index]);
+                        assertEquals(RESULTS[(game + shot) % 3].ordinal(), result[index]);
+                        assertEquals(shot, turn[index]);
+                    }
+                }
+                games += gameRows;
+            }
+            assertFalse(reader.nextRowGroup());
+        }
+        assertEquals(GAMES, games);
+        assertEquals(3, groups);
+    }
+
+    /**
+     * Una lectura que pide solo algunas columnas no lee las demás: aunque los datos de otra columna
+     * estén dañados, las pedidas se decodifican bien.
+     */
+    @Test
+    void projectionReadsOnlyTheRequestedColumns() throws IOException {
+        Path file = this.directory.resolve("proyeccion.bscol");
+        writeGames(file, 500);
+        corruptColumn(file, GameColumn.SHOT_RESULT);
+
+        try (ColumnarGameReader reader = new ColumnarGameReader(file)) {
+            assertTrue(reader.nextRowGroup());
+            int[] cell = reader.readColumn(GameColumn.SHOT_CELL);
+            assertSame(cell, reader.readColumn(GameColumn.SHOT_CELL));
+            int[] winner = reader.readColumn(GameColumn.GAME_WINNER);
+            for (int game = 0; game < 500; game++) {
+                assertEquals(game % 2, winner[game]);
+                for (int shot = 0; shot < SHOTS_PER_GAME; shot++) {
+                    assertEquals(cellOf(game, shot), cell[game * SHOTS_PER_GAME + shot]);
+                }
+            }
+            assertThrows(IOException.class, () -> reader.readColumn(GameColumn.SHOT_RESULT));
+        }
+    }
+
+    @Test
+    void rejectsFilesThatAreNotColumnar() throws IOException {
+        Path file = this.directory.resolve("otro.bscol");
+        Files.write(file, "BSCOX\u0001".getBytes());
+        assertThrows(IOException.class, () -> new ColumnarGameReader(file));
+
+        Path empty = this.directory.resolve("vacio.bscol");
+        new ColumnarGameWriter(empty).close();
+        try (ColumnarGameReader reader = new ColumnarGameReader(empty)) {
+            assertFalse(reader.nextRowGroup());
+        }
+    }
+
+    private static void writeGames(Path file, int games) throws IOException {
+        GameRecord record = new GameRecord();
+        try (ColumnarGameWriter writer = new ColumnarGameWriter(file)) {
+            for (int game = 0; game < games; game++) {
+                record.reset(10);
+                record.addShip(0, 2 + game % 3, game % 100, game % 2 == 0);
+                record.addShip(1, 3, (game * 7) % 100, false);
+                for (int shot = 0; shot < SHOTS_PER_GAME; shot++) {
+                    record.addShot(shot % 2, cellOf(game, shot), RESULTS[(game + shot) % 3]);
+                }
+                record.setWinner(game % 2);
+                writer.write(record);
+            }
+        }
+    }
+
+    private static int cellOf(int game, int shot) {
+        return (game + shot * 13) % 100;
+    }
+
+    /**
+     * Llena con bytes 0xFF (varints que nunca terminan) los datos de una columna del primer grupo,
+     * ubicándolos con la cabecera del grupo.
+     */
+    private static void corruptColumn(Path file, GameColumn target) throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int groupStart = ColumnarGameWriter.MAGIC.length + 1;
+        buffer.position(groupStart + 16);
+        int columnCount = buffer.get() & 0xFF;
+        long position = groupStart + 17 + 6L * columnCount;
+        for (int i = 0; i < columnCount; i++) {
+            int id = buffer.get() & 0xFF;
+            buffer.get();
+            int length = buffer.getInt();
+            if (id == target.ordinal()) {
+                Arrays.fill(bytes, (int) position, (int) position + length, (byte) 0xFF);
+                Files.write(file, bytes);
+                return;
+            }
+            position += length;
+        }
+        throw new IllegalStateException("Columna ausente: " + target);
+    }
+}
@@ -0,0 +1,206 @@
+package univalle.tedesoft.battleship.analytics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import univalle.tedesoft.battleship.models.ai.PlacementStatistics;
+import univalle.tedesoft.battleship.models.board.Board;
+import univalle.tedesoft.battleship.models.enums.Difficulty;
+import univalle.tedesoft.battleship.models.enums.ShotResult;
+import univalle.tedesoft.battleship.models.players.HumanPlayer;
+import univalle.tedesoft.battleship.models.ships.Ship;
+import univalle.tedesoft.battleship.models.state.GameState;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de la repetición de partidas: ida y vuelta por el archivo columnar y partidas cargadas
+ * a mitad de juego.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class GameReplayTest {
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void useTemporaryStatistics() {
+        System.setProperty(PlacementStatistics.DIRECTORY_PROPERTY, this.directory.toString());
+    }
+
+    @AfterEach
+    void restoreStatistics() {
+        System.clearProperty(PlacementStatistics.DIRECTORY_PROPERTY);
+    }
+
+    /**
+     * Una partida escrita y leída del archivo columnar se repite hasta el mismo tablero final.
+     */
+    @Test
+    void columnarRoundTripReplaysToTheFinalBoards() throws Exception {
+        GameState gameState = newGame();
+        Random random = new Random(1);
+        List<Integer> targets = shuffledCells(gameState, random);
+        play(gameState, targets, Integer.MAX_VALUE);
+
+        GameRecord record = new GameRecord();
+        record.loadFrom(gameState);
+        Path file = this.directory.resolve("partidas.bscol");
+        try (ColumnarGameWriter writer = new ColumnarGameWriter(file)) {
+            writer.write(record);
+        }
+        GameRecord restored = readSingleGame(file);
+        assertEquals(record.getShotCount(), restored.getShotCount());
+        assertEquals(record.getWinner(), restored.getWinner());
+
+        GameReplay replay = new GameReplay(restored);
+        replay.seek(replay.getShotCount());
+        assertSameBoard(gameState.getHumanPlayerPositionBoard(), replay.getHumanBoard());
+        assertSameBoard(gameState.getMachinePlayerActualPositionBoard(), replay.getMachineBoard());
+    }
+
+    /**
+     * Una partida cargada a mitad de juego no tiene historial de lo anterior: la repetición empieza
+     * en el estado cargado y termina en el tablero final, también después del archivo columnar.
+     */
+    @Test
+    void resumedGameReplaysFromTheLoadedState() throws Exception {
+        GameState gameState = newGame();
+        Random random = new Random(2);
+        List<Integer> targets = shuffledCells(gameState, random);
+        play(gameState, targets, 25);
+        Board humanAtLoad = copyOf(gameState.getHumanPlayerPositionBoard());
+        Board machineAtLoad = copyOf(gameState.getMachinePlayerActualPositionBoard());
+
+        // Cargar la partida restaura el estado y vacía el historial, como al abrir un guardado.
+        gameState.restoreFromMemento(gameState.createMemento());
+        assertEquals(0, gameState.getShotCount());
+        play(gameState, targets.subList(25, targets.size()), Integer.MAX_VALUE);
+
+        GameReplay replay = GameReplay.fromGameState(gameState);
+        assertEquals(gameState.getShotCount(), replay.getShotCount());
+        assertSameBoard(humanAtLoad, replay.getHumanBoard());
+        assertSameBoard(machineAtLoad, replay.getMachineBoard());
+        replay.seek(replay.getShotCount());
+        assertSameBoard(gameState.getHumanPlayerPositionBoard(), replay.getHumanBoard());
+        assertSameBoard(gameState.getMachinePlayerActualPositionBoard(), replay.getMachineBoard());
+        replay.seek(0);
+        assertSameBoard(machineAtLoad, replay.getMachineBoard());
+
+        GameRecord record = new GameRecord();
+        record.loadFrom(gameState);
+        Path file = this.directory.resolve("cargada.bscol");
+        try (ColumnarGameWriter writer = new ColumnarGameWriter(file)) {
+            writer.write(record);
+        }
+        GameReplay restored = new GameReplay(readSingleGame(file));
+        assertEquals(replay.getShotCount(), restored.getShotCount());
+        assertSameBoard(humanAtLoad, restored.getHumanBoard());
+        restored.seek(restored.getShotCount());
+        assertSameBoard(gameState.getHumanPlayerPositionBoard(), restored.getHumanBoard());
+        assertSameBoard(gameState.getMachinePlayerActualPositionBoard(), restored.getMachineBoard());
+    }
+
+    private static GameState newGame() {
+        GameState gameState = new GameState();
+        gameState.setDifficulty(Difficulty.EASY);
+        gameState.startNewGame(new HumanPlayer("prueba"));
+        gameState.placeHumanPlayerShipsRandomly();
+        gameState.finalizeShipPlacement();
+        return gameState;
+    }
+
+    private static List<Integer> shuffledCells(GameState gameState, Random random) {
+        int size = gameState.getHumanPlayerPositionBoard().getSize();
+        List<Integer> cells = new ArrayList<>();
+        for (int cell = 0; cell < size * size; cell++) {
+            cells.add(cell);
+        }
+        Collections.shuffle(cells, random);
+        return cells;
+    }
+
+    /**
+     * Alterna un disparo del humano (en el orden dado) con uno de la máquina hasta que alguien
+     * gane o se hagan los turnos indicados.
+     */
+    private static void play(GameState gameState, List<Integer> targets, int turns) {
+        Board human = gameState.getHumanPlayerPositionBoard();
+        Board machine = gameState.getMachinePlayerActualPositionBoard();
+        int size = human.getSize();
+        for (int turn = 0; turn < turns && turn < targets.size(); turn++) {
+            int cell = targets.get(turn);
+            gameState.handleHumanPlayerShot(cell / size, cell % size);
+            if (machine.areAllShipsSunk()) {
+                return;
+            }
+            gameState.handleMachinePlayerTurn();
+            if (human.areAllShipsSunk()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Lee la única partida de un archivo columnar como un registro.
+     */
+    private static GameRecord readSingleGame(Path file) throws Exception {
+        GameRecord record = new GameRecord();
+        try (ColumnarGameReader reader = new ColumnarGameReader(file)) {
+            assertTrue(reader.nextRowGroup());
+            assertEquals(1, reader.getRowCount(GameColumn.Table.GAMES));
+            record.reset(reader.readColumn(GameColumn.GAME_BOARD_SIZE)[0]);
+            int[] player = reader.readColumn(GameColumn.SHIP_PLAYER);
+            int[] length = reader.readColumn(GameColumn.SHIP_LENGTH);
+            int[] start = reader.readColumn(GameColumn.SHIP_START_CELL);
+            int[] vertical = reader.readColumn(GameColumn.SHIP_VERTICAL);
+            for (int i = 0; i < reader.getRowCount(GameColumn.Table.SHIPS); i++) {
+                record.addShip(player[i], length[i], start[i], vertical[i] != 0);
+            }
+            int[] shooter = reader.readColumn(GameColumn.SHOT_SHOOTER);
+            int[] cell = reader.readColumn(GameColumn.SHOT_CELL);
+            int[] result = reader.readColumn(GameColumn.SHOT_RESULT);
+            for (int i = 0; i < reader.getRowCount(GameColumn.Table.SHOTS); i++) {
+                record.addShot(shooter[i], cell[i], ShotResult.values()[result[i]]);
+            }
+            record.setInitialShotCount(reader.readColumn(GameColumn.GAME_INITIAL_SHOT_COUNT)[0]);
+            record.setWinner(reader.readColumn(GameColumn.GAME_WINNER)[0]);
+        }
+        return record;
+    }
+
+    /**
+     * Copia las celdas y los impactos de un tablero en un tablero nuevo.
+     */
+    private static Board copyOf(Board board) {
+        Board copy = new Board(board.getSize());
+        for (int row = 0; row < board.getSize(); row++) {
+            for (int col = 0; col < board.getSize(); col++) {
+                copy.setCellState(row, col, board.getCellState(row, col));
+            }
+        }
+        return copy;
+    }
+
+    private static void assertSameBoard(Board expected, Board actual) {
+        for (int row = 0; row < expected.getSize(); row++) {
+            for (int col = 0; col < expected.getSize(); col++) {
+                assertEquals(expected.getCellState(row, col), actual.getCellState(row, col), row + "," + col);
+                Ship ship = expected.getShipAt(row, col);
+                if (ship != null && actual.getShipAt(row, col) != null) {
+                    assertEquals(ship.getHitCount(), actual.getShipAt(row, col).getHitCount(), row + "," + col);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package univalle.tedesoft.battleship.models.ai;
+
+import org.junit.jupiter.api.Test;
+import univalle.tedesoft.battleship.models.board.Board;
+import univalle.tedesoft.battleship.models.board.BoardSnapshot;
+import univalle.tedesoft.battleship.models.board.Coordinate;
+import univalle.tedesoft.battleship.models.enums.Orientation;
+import univalle.tedesoft.battleship.models.enums.ShipType;
+import univalle.tedesoft.battleship.models.ships.FleetConfiguration;
+import univalle.tedesoft.battleship.models.ships.Ship;
+import univalle.tedesoft.battleship.models.ships.ShipClass;
+
+import java.util.Collections;
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas del resolvedor de finales en posiciones de 3x3 cuyo valor se calcula a mano.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class EndgameSolverTest {
+    private static final int SIZE = 3;
+
+    /**
+     * Un barco de una celda que puede estar en tres celdas: se necesitan (3 + 1) / 2 disparos.
+     */
+    @Test
+    void singleCellShipAmongThreeCells() {
+        FleetConfiguration fleet = fleet(1);
+        Board board = new Board(SIZE);
+        place(board, fleet, 2, 2, Orientation.HORIZONTAL);
+        for (int cell : new int[]{0, 1, 2, 3, 5, 6}) {
+            board.receiveShot(new Coordinate(cell % SIZE, cell / SIZE));
+        }
+
+        EndgameSolver.Solution solution = solve(fleet, board.snapshot());
+        assertEquals(3, solution.getLayoutCount());
+        assertEquals(2.0, solution.getExpectedShots(), 1e-12);
+        assertTrue(solution.getCell() == 4 || solution.getCell() == 7 || solution.getCell() == 8);
+    }
+
+    /**
+     * Un barco de dos celdas impactado en el centro puede seguir hacia cualquiera de los cuatro
+     * vecinos. El primer disparo lo hunde con probabilidad 1/4; si no, quedan tres vecinos
+     * igual de probables y faltan 2 disparos en promedio: 1 + 3/4 * 2 = 2.5.
+     */
+    @Test
+    void hitShipInTheCenter() {
+        FleetConfiguration fleet = fleet(2);
+        Board board = new Board(SIZE);
+        place(board, fleet, 1, 1, Orientation.HORIZONTAL);
+        board.receiveShot(new Coordinate(1, 1));
+
+        EndgameSolver.Solution solution = solve(fleet, board.snapshot());
+        assertEquals(4, solution.getLayoutCount());
+        assertEquals(2.5, solution.getExpectedShots(), 1e-12);
+        int cell = solution.getCell();
+        assertTrue(cell == 1 || cell == 3 || cell == 5 || cell == 7);
+    }
+
+    /**
+     * Sin límite de tiempo el resultado es el mismo; con menos disposiciones permitidas de las que
+     * hay, el resolvedor no intenta la búsqueda.
+     */
+    @Test
+    void respectsTheLayoutLimit() {
+        FleetConfiguration fleet = fleet(2);
+        Board board = new Board(SIZE);
+        place(board, fleet, 1, 1, Orientation.HORIZONTAL);
+        board.receiveShot(new Coordinate(1, 1));
+        BoardSnapshot snapshot = board.snapshot();
+
+        EndgameSolver.Solution unbounded = new EndgameSolver(fleet)
+                .solve(snapshot, snapshot.opponentView(), MachineStrategy.NO_DEADLINE);
+        assertNotNull(unbounded);
+        assertEquals(2.5, unbounded.getExpectedShots(), 1e-12);
+        assertNull(new EndgameSolver(fleet, 3, EndgameSolver.DEFAULT_TIME_LIMIT_MILLIS)
+                .solve(snapshot, snapshot.opponentView(), MachineStrategy.NO_DEADLINE));
+    }
+
+    /**
+     * Una solución guardada en la tabla de transposición se reutiliza, pero un resolvedor con un
+     * límite menor de disposiciones no la devuelve.
+     */
+    @Test
+    void reusesSolutionsFromTheTable() {
+        FleetConfiguration fleet = fleet(2);
+        Board board = new Board(SIZE);
+        place(board, fleet, 1, 1, Orientation.HORIZONTAL);
+        board.receiveShot(new Coordinate(1, 1));
+        BoardSnapshot snapshot = board.snapshot();
+        TranspositionTable table = new TranspositionTable(1 << 10);
+
+        EndgameSolver.Solution solved = new EndgameSolver(fleet, EndgameSolver.DEFAULT_LAYOUT_LIMIT,
+                EndgameSolver.DEFAULT_TIME_LIMIT_MILLIS, table).solve(snapshot, snapshot.opponentView());
+        long hits = table.getHits();
+        EndgameSolver.Solution cached = new EndgameSolver(fleet, EndgameSolver.DEFAULT_LAYOUT_LIMIT,
+                EndgameSolver.DEFAULT_TIME_LIMIT_MILLIS, table).solve(snapshot, snapshot.opponentView());
+        assertEquals(hits + 1, table.getHits());
+        assertEquals(solved.getCell(), cached.getCell());
+        assertEquals(solved.getExpectedShots(), cached.getExpectedShots(), 0);
+        assertEquals(solved.getLayoutCount(), cached.getLayoutCount());
+        assertNull(new EndgameSolver(fleet, 3, EndgameSolver.DEFAULT_TIME_LIMIT_MILLIS, table)
+                .solve(snapshot, snapshot.opponentView()));
+    }
+
+    private static EndgameSolver.Solution solve(FleetConfiguration fleet, BoardSnapshot snapshot) {
+        EndgameSolver.Solution solution = new EndgameSolver(fleet).solve(snapshot, snapshot.opponentView());
+        assertNotNull(solution);
+        return solution;
+    }
+
+    /**
+     * Flota de un solo barco de la longitud dada, en cualquier orientación.
+     */
+    private static FleetConfiguration fleet(int length) {
+        return new FleetConfiguration(SIZE, Collections.singletonList(new ShipClass("B", "B", length, 1,
+                EnumSet.allOf(Orientation.class), ShipType.DESTROYER)));
+    }
+
+    private static void place(Board board, FleetConfiguration fleet, int row, int col, Orientation orientation) {
+        Ship ship = fleet.createFleet().get(0);
+        ship.setOrientation(orientation);
+        board.placeShip(ship, new Coordinate(col, row));
+    }
+}
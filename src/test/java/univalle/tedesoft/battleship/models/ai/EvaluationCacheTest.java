@@ -0,0 +1,87 @@
+package univalle.tedesoft.battleship.models.ai;
+
+import org.junit.jupiter.api.Test;
+import univalle.tedesoft.battleship.models.board.Board;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Pruebas de la caché de evaluaciones por forma canónica.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class EvaluationCacheTest {
+    private static final int SIZE = 10;
+    private static final long SALT = 0x1234_5678_9ABCL;
+
+    /**
+     * Una evaluación guardada para un estado se devuelve para cada estado simétrico, transformada a
+     * su marco.
+     */
+    @Test
+    void servesEverySymmetricState() {
+        EvaluationCache cache = new EvaluationCache(new TranspositionTable(1024), false);
+        Board board = SymmetryCanonicalizerTest.randomBoard(new Random(2), 9);
+        double[] values = cellValues();
+        cache.put(board.snapshot(), SALT, 1, values);
+
+        for (BoardSymmetry symmetry : BoardSymmetry.values()) {
+            double[] found = cache.get(SymmetryCanonicalizerTest.transformed(board, symmetry).snapshot(), SALT);
+            assertNotNull(found, symmetry.name());
+            assertArrayEquals(imageOf(values, symmetry), found, symmetry.name());
+        }
+        assertNull(cache.get(board.snapshot(), SALT + 1));
+        assertEquals(8, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(8.0 / 9, cache.getHitRate(), 1e-12);
+        cache.resetStatistics();
+        assertEquals(0.0, cache.getHitRate());
+    }
+
+    /**
+     * Si la caché distingue orientaciones, un estado transpuesto no encuentra la evaluación del
+     * original, pero sí la encuentran los que conservan la orientación.
+     */
+    @Test
+    void orientationPreservingCacheKeepsTransposedStatesApart() {
+        EvaluationCache cache = new EvaluationCache(new TranspositionTable(1024), true);
+        Board board = SymmetryCanonicalizerTest.randomBoard(new Random(3), 9);
+        double[] values = cellValues();
+        cache.put(board.snapshot(), SALT, 1, values);
+
+        for (BoardSymmetry symmetry : BoardSymmetry.values()) {
+            double[] found = cache.get(SymmetryCanonicalizerTest.transformed(board, symmetry).snapshot(), SALT);
+            if (symmetry.preservesOrientation()) {
+                assertArrayEquals(imageOf(values, symmetry), found, symmetry.name());
+            } else {
+                assertNull(found, symmetry.name());
+            }
+        }
+    }
+
+    private static double[] cellValues() {
+        double[] values = new double[SIZE * SIZE];
+        for (int cell = 0; cell < values.length; cell++) {
+            values[cell] = 1.0 / (cell + 1);
+        }
+        return values;
+    }
+
+    /**
+     * Valores por celda del estado transformado con una simetría.
+     */
+    private static double[] imageOf(double[] values, BoardSymmetry symmetry) {
+        double[] image = new double[values.length];
+        for (int cell = 0; cell < values.length; cell++) {
+            image[symmetry.apply(cell / SIZE, cell % SIZE, SIZE)] = values[cell];
+        }
+        return image;
+    }
+}
@@ -0,0 +1,244 @@
+package univalle.tedesoft.battleship.models.ai;
+
+import org.junit.jupiter.api.Test;
+import univalle.tedesoft.battleship.models.board.Board;
+import univalle.tedesoft.battleship.models.board.BoardSnapshot;
+import univalle.tedesoft.battleship.models.board.Coordinate;
+import univalle.tedesoft.battleship.models.enums.CellState;
+import univalle.tedesoft.battleship.models.enums.Orientation;
+import univalle.tedesoft.battleship.models.enums.ShipType;
+import univalle.tedesoft.battleship.models.ships.FleetConfiguration;
+import univalle.tedesoft.battleship.models.ships.Ship;
+import univalle.tedesoft.battleship.models.ships.ShipClass;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas del conteo exacto de disposiciones: en tableros pequeños se compara contra una
+ * enumeración por fuerza bruta de todas las posiciones de los barcos a flote.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class JointProbabilityEngineTest {
+    private static final int POSITIONS = 150;
+
+    @Test
+    void exactCountMatchesBruteForce() {
+        Random random = new Random(7);
+        for (int position = 0; position < POSITIONS; position++) {
+            int size = 5 + random.nextInt(3);
+            List<ShipClass> classes = new ArrayList<>();
+            classes.add(new ShipClass("A", "A", 3, 1, EnumSet.allOf(Orientation.class), ShipType.SUBMARINE));
+            classes.add(new ShipClass("B", "B", 2, 2, position % 3 == 0
+                    ? EnumSet.of(Orientation.HORIZONTAL) : EnumSet.allOf(Orientation.class), ShipType.DESTROYER));
+            classes.add(new ShipClass("C", "C", 1, 1 + random.nextInt(2), EnumSet.of(Orientation.HORIZONTAL), ShipType.FRIGATE));
+            FleetConfiguration fleet = new FleetConfiguration(size, classes);
+            BoardSnapshot snapshot = randomPosition(fleet, random);
+
+            JointProbabilityEngine.Result result = new JointProbabilityEngine(fleet).compute(snapshot, snapshot);
+            BruteForce expected = new BruteForce(fleet, snapshot);
+
+            assertTrue(result.isExact(), "posición " + position);
+            assertEquals(expected.layouts / expected.duplicates, result.getLayoutCount(), "posición " + position);
+            for (int cell = 0; cell < size * size; cell++) {
+                double probability = (expected.layouts == 0 || expected.hit[cell])
+                        ? 0 : (double) expected.coverage[cell] / expected.layouts;
+                assertEquals(probability, result.getProbabilities()[cell], 1e-12, "posición " + position + ", celda " + cell);
+            }
+        }
+    }
+
+    /**
+     * El mismo estado, alcanzado en otro tablero, se responde desde la tabla de transposición con el
+     * mismo resultado.
+     */
+    @Test
+    void reusesExactCountsFromTheTable() {
+        Random random = new Random(5);
+        FleetConfiguration fleet = new FleetConfiguration(6, List.of(
+                new ShipClass("A", "A", 3, 1, EnumSet.allOf(Orientation.class), ShipType.SUBMARINE),
+                new ShipClass("B", "B", 2, 2, EnumSet.allOf(Orientation.class), ShipType.DESTROYER)));
+        BoardSnapshot snapshot = randomPosition(fleet, random);
+        TranspositionTable table = new TranspositionTable(1 << 10);
+
+        JointProbabilityEngine.Result counted = new JointProbabilityEngine(fleet,
+                JointProbabilityEngine.DEFAULT_STATE_BUDGET, JointProbabilityEngine.DEFAULT_SAMPLE_ATTEMPTS, table)
+                .compute(snapshot, snapshot);
+        assertEquals(0, table.getHits());
+        JointProbabilityEngine.Result cached = new JointProbabilityEngine(fleet,
+                JointProbabilityEngine.DEFAULT_STATE_BUDGET, JointProbabilityEngine.DEFAULT_SAMPLE_ATTEMPTS, table)
+                .compute(snapshot.opponentView(), snapshot);
+        assertEquals(1, table.getHits());
+        assertTrue(cached.isExact());
+        assertEquals(counted.getLayoutCount(), cached.getLayoutCount());
+        assertArrayEquals(counted.getProbabilities(), cached.getProbabilities());
+    }
+
+    /**
+     * Coloca la flota al azar y dispara a una parte de las celdas, sin terminar la partida.
+     */
+    private static BoardSnapshot randomPosition(FleetConfiguration fleet, Random random) {
+        int size = fleet.getBoardSize();
+        Board board;
+        boolean placed;
+        do {
+            board = new Board(size);
+            placed = true;
+            for (Ship ship : fleet.createFleet()) {
+                if (!placeRandomly(board, ship, fleet.getShipClass(ship), random)) {
+                    placed = false;
+                    break;
+                }
+            }
+        } while (!placed);
+
+        List<Integer> cells = new ArrayList<>();
+        for (int cell = 0; cell < size * size; cell++) {
+            cells.add(cell);
+        }
+        Collections.shuffle(cells, random);
+        int shots = size * size / 3 + random.nextInt(size * size - size * size / 3);
+        for (int i = 0; i < shots && !board.areAllShipsSunk(); i++) {
+            board.receiveShot(new Coordinate(cells.get(i) % size, cells.get(i) / size));
+        }
+        return board.snapshot();
+    }
+
+    private static boolean placeRandomly(Board board, Ship ship, ShipClass shipClass, Random random) {
+        int size = board.getSize();
+        for (int attempt = 0; attempt < 500; attempt++) {
+            int row = random.nextInt(size);
+            int col = random.nextInt(size);
+            Orientation orientation = random.nextBoolean() ? Orientation.HORIZONTAL : Orientation.VERTICAL;
+            if (ship.getValueShip() > 1 && !shipClass.allows(orientation)) {
+                continue;
+            }
+            if (board.canPlaceShip(row, col, ship.getValueShip(), orientation)) {
+                ship.setOrientation(orientation);
+                board.placeShip(ship, new Coordinate(col, row));
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Enumera todas las formas de colocar los barcos a flote, uno por uno, sin superponerlos,
+     * sin tocar agua ni hundidos y cubriendo todos los impactos.
+     */
+    private static final class BruteForce {
+        private final int cells;
+        private final boolean[] blocked;
+        private final boolean[] hit;
+        private final List<List<int[]>> placements = new ArrayList<>();
+        private final long[] coverage;
+        /** Disposiciones ordenadas: cada barco a flote se distingue de los demás. */
+        private long layouts;
+        /** Permutaciones de barcos iguales que cuentan la misma disposición. */
+        private long duplicates = 1;
+
+        BruteForce(FleetConfiguration fleet, BoardSnapshot snapshot) {
+            int size = snapshot.getSize();
+            this.cells = size * size;
+            this.blocked = new boolean[this.cells];
+            this.hit = new boolean[this.cells];
+            this.coverage = new long[this.cells];
+            for (int cell = 0; cell < this.cells; cell++) {
+                CellState state = snapshot.getCellState(cell / size, cell % size);
+                this.blocked[cell] = state == CellState.SHOT_LOST_IN_WATER || state == CellState.SUNK_SHIP_PART;
+                this.hit[cell] = state == CellState.HIT_SHIP;
+            }
+            Map<Integer, Integer> sameLength = new HashMap<>();
+            for (BoardSnapshot.ShipSnapshot ship : snapshot.getShips()) {
+                if (ship.isSunk()) {
+                    for (int i = 0; i < ship.getCellCount(); i++) {
+                        int cell = ship.getCellRow(i) * size + ship.getCellCol(i);
+                        this.blocked[cell] = true;
+                        this.hit[cell] = false;
+                    }
+                }
+            }
+            for (BoardSnapshot.ShipSnapshot ship : snapshot.getShips()) {
+                if (!ship.isSunk()) {
+                    int length = ship.getLength();
+                    this.duplicates *= sameLength.merge(length, 1, Integer::sum);
+                    this.placements.add(this.placementsOf(fleet.getShipClass(ship.getShipClassId()), length, size));
+                }
+            }
+            this.enumerate(0, new boolean[this.cells]);
+        }
+
+        private List<int[]> placementsOf(ShipClass shipClass, int length, int size) {
+            List<int[]> result = new ArrayList<>();
+            for (int start = 0; start < this.cells; start++) {
+                for (Orientation orientation : Orientation.values()) {
+                    boolean vertical = orientation == Orientation.VERTICAL;
+                    if (!shipClass.allows(orientation) && length > 1) {
+                        continue;
+                    }
+                    if (length == 1 && vertical) {
+                        continue;
+                    }
+                    if ((vertical ? start / size : start % size) + length > size) {
+                        continue;
+                    }
+                    int[] placement = new int[length];
+                    boolean free = true;
+                    for (int i = 0; i < length; i++) {
+                        placement[i] = vertical ? start + i * size : start + i;
+                        free &= !this.blocked[placement[i]];
+                    }
+                    if (free) {
+                        result.add(placement);
+                    }
+                }
+            }
+            return result;
+        }
+
+        private void enumerate(int ship, boolean[] occupied) {
+            if (ship == this.placements.size()) {
+                for (int cell = 0; cell < this.cells; cell++) {
+                    if (this.hit[cell] && !occupied[cell]) {
+                        return;
+                    }
+                }
+                this.layouts++;
+                for (int cell = 0; cell < this.cells; cell++) {
+                    if (occupied[cell]) {
+                        this.coverage[cell]++;
+                    }
+                }
+                return;
+            }
+            for (int[] placement : this.placements.get(ship)) {
+                boolean free = true;
+                for (int cell : placement) {
+                    free &= !occupied[cell];
+                }
+                if (!free) {
+                    continue;
+                }
+                for (int cell : placement) {
+                    occupied[cell] = true;
+                }
+                this.enumerate(ship + 1, occupied);
+                for (int cell : placement) {
+                    occupied[cell] = false;
+                }
+            }
+        }
+    }
+}
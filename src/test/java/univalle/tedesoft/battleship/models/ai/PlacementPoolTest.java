@@ -0,0 +1,203 @@
+package univalle.tedesoft.battleship.models.ai;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import univalle.tedesoft.battleship.models.board.Board;
+import univalle.tedesoft.battleship.models.enums.Orientation;
+import univalle.tedesoft.battleship.models.enums.ShipType;
+import univalle.tedesoft.battleship.models.ships.FleetConfiguration;
+import univalle.tedesoft.battleship.models.ships.Ship;
+import univalle.tedesoft.battleship.models.ships.ShipClass;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de ida y vuelta de la reserva de disposiciones: codificar, escribir, abrir y colocar.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class PlacementPoolTest {
+    private static final int LAYOUTS = 6;
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void useTemporaryPools() {
+        System.setProperty(PlacementPool.DIRECTORY_PROPERTY, this.directory.toString());
+    }
+
+    @AfterEach
+    void restorePools() {
+        System.clearProperty(PlacementPool.DIRECTORY_PROPERTY);
+    }
+
+    /**
+     * Una disposición codificada se vuelve a colocar en las mismas celdas y orientaciones.
+     */
+    @Test
+    void encodedLayoutsPlaceTheSameFleet() {
+        FleetConfiguration fleet = FleetConfiguration.standard();
+        Random random = new Random(1);
+        Board original = new Board(fleet.getBoardSize());
+        List<Ship> ships = fleet.createFleet();
+        assertTrue(RandomStrategy.placeRandomly(original, ships, fleet, random, Long.MAX_VALUE));
+        int[] layout = PlacementPool.encodeLayout(ships, fleet.getBoardSize());
+
+        Board copy = new Board(fleet.getBoardSize());
+        List<Ship> copyShips = fleet.createFleet();
+        assertTrue(PlacementPool.placeLayout(copy, copyShips, layout));
+        assertEquals(occupiedCells(original), occupiedCells(copy));
+        assertArrayEquals(layout, PlacementPool.encodeLayout(copyShips, fleet.getBoardSize()));
+
+        // Dos barcos en la misma celda: no se coloca nada.
+        int[] overlapping = layout.clone();
+        overlapping[1] = overlapping[0];
+        assertFalse(PlacementPool.placeLayout(copy, fleet.createFleet(), overlapping));
+        assertTrue(occupiedCells(copy).isEmpty());
+    }
+
+    /**
+     * La reserva escrita se abre por su flota y cada colocación es una de sus disposiciones
+     * transformada por alguna simetría.
+     */
+    @Test
+    void writtenPoolPlacesSymmetricImagesOfItsLayouts() throws IOException {
+        FleetConfiguration fleet = FleetConfiguration.standard();
+        List<int[]> layouts = randomLayouts(fleet, new Random(2));
+        double[] scores = new double[LAYOUTS];
+        Arrays.fill(scores, 70.5);
+        Path path = PlacementPool.pathFor(fleet);
+        assertEquals(this.directory, path.getParent());
+        PlacementPool.write(path, fleet, layouts, scores);
+
+        PlacementPool pool = PlacementPool.forFleet(fleet);
+        assertNotNull(pool);
+        assertEquals(LAYOUTS, pool.size());
+        Set<Set<Integer>> images = new HashSet<>();
+        for (int[] layout : layouts) {
+            Board board = new Board(fleet.getBoardSize());
+            assertTrue(PlacementPool.placeLayout(board, fleet.createFleet(), layout));
+            Set<Integer> cells = occupiedCells(board);
+            for (BoardSymmetry symmetry : BoardSymmetry.values()) {
+                images.add(transformedCells(cells, symmetry, fleet.getBoardSize()));
+            }
+        }
+        Random random = new Random(3);
+        for (int i = 0; i < 50; i++) {
+            Board board = new Board(fleet.getBoardSize());
+            assertTrue(pool.placeOn(board, fleet.createFleet(), random));
+            assertTrue(images.contains(occupiedCells(board)));
+        }
+        // Un tablero de otro tamaño o una flota incompleta no se colocan.
+        assertFalse(pool.placeOn(new Board(8), fleet.createFleet(), random));
+        assertFalse(pool.placeOn(new Board(fleet.getBoardSize()), fleet.createFleet().subList(0, 2), random));
+    }
+
+    /**
+     * Con barcos que solo pueden ir horizontales, la reserva solo aplica simetrías que conservan la
+     * orientación y no produce barcos verticales.
+     */
+    @Test
+    void horizontalOnlyFleetsStayHorizontal() throws IOException {
+        FleetConfiguration fleet = new FleetConfiguration(8, Arrays.asList(
+                new ShipClass("BARCAZA", "Barcaza", 3, 2, EnumSet.of(Orientation.HORIZONTAL), ShipType.SUBMARINE),
+                new ShipClass("BOTE", "Bote", 1, 2, EnumSet.of(Orientation.HORIZONTAL), ShipType.FRIGATE)));
+        Path path = PlacementPool.pathFor(fleet);
+        assertTrue(path.getFileName().toString().endsWith("-fixed.pool"));
+        PlacementPool.write(path, fleet, randomLayouts(fleet, new Random(4)), new double[LAYOUTS]);
+
+        PlacementPool pool = PlacementPool.forFleet(fleet);
+        assertNotNull(pool);
+        Random random = new Random(5);
+        for (int i = 0; i < 50; i++) {
+            List<Ship> ships = fleet.createFleet();
+            assertTrue(pool.placeOn(new Board(8), ships, random));
+            for (Ship ship : ships) {
+                assertEquals(Orientation.HORIZONTAL, ship.getOrientation());
+            }
+        }
+    }
+
+    @Test
+    void rejectsInvalidOrForeignPools() throws IOException {
+        FleetConfiguration fleet = FleetConfiguration.standard();
+        Path path = PlacementPool.pathFor(fleet);
+        Files.write(path, new byte[64]);
+        assertThrows(IOException.class, () -> PlacementPool.open(path, fleet));
+        assertNull(PlacementPool.forFleet(fleet));
+
+        PlacementPool.write(path, fleet, randomLayouts(fleet, new Random(6)), new double[LAYOUTS]);
+        FleetConfiguration smaller = new FleetConfiguration(9, fleet.getShipClasses());
+        assertThrows(IOException.class, () -> PlacementPool.open(path, smaller));
+        // Una reserva de otra flota con el mismo nombre de archivo tampoco se usa.
+        FleetConfiguration other = new FleetConfiguration(fleet.getBoardSize(), fleet.getShipClasses().subList(0, 2));
+        assertThrows(IOException.class, () -> PlacementPool.open(path, other));
+
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> PlacementPool.open(path, fleet));
+        ByteBuffer.wrap(bytes).putInt(4, 99);
+        Files.write(path, bytes);
+        assertThrows(IOException.class, () -> PlacementPool.open(path, fleet));
+
+        List<int[]> shortLayouts = List.of(new int[]{0});
+        assertThrows(IllegalArgumentException.class,
+                () -> PlacementPool.write(path, fleet, shortLayouts, new double[1]));
+    }
+
+    /** Disposiciones al azar de una flota, en el orden de {@link FleetConfiguration#createFleet()}. */
+    private static List<int[]> randomLayouts(FleetConfiguration fleet, Random random) {
+        List<int[]> layouts = new ArrayList<>();
+        Board board = new Board(fleet.getBoardSize());
+        while (layouts.size() < LAYOUTS) {
+            List<Ship> ships = fleet.createFleet();
+            if (RandomStrategy.placeRandomly(board, ships, fleet, random, Long.MAX_VALUE)) {
+                layouts.add(PlacementPool.encodeLayout(ships, fleet.getBoardSize()));
+            }
+        }
+        return layouts;
+    }
+
+    private static Set<Integer> occupiedCells(Board board) {
+        Set<Integer> cells = new HashSet<>();
+        for (int row = 0; row < board.getSize(); row++) {
+            for (int col = 0; col < board.getSize(); col++) {
+                if (board.getShipAt(row, col) != null) {
+                    cells.add(row * board.getSize() + col);
+                }
+            }
+        }
+        return cells;
+    }
+
+    private static Set<Integer> transformedCells(Set<Integer> cells, BoardSymmetry symmetry, int size) {
+        Set<Integer> image = new HashSet<>();
+        for (int cell : cells) {
+            image.add(symmetry.apply(cell / size, cell % size, size));
+        }
+        return image;
+    }
+}
@@ -0,0 +1,212 @@
+package univalle.tedesoft.battleship.models.ai;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import univalle.tedesoft.battleship.models.board.Board;
+import univalle.tedesoft.battleship.models.board.Coordinate;
+import univalle.tedesoft.battleship.models.enums.Orientation;
+import univalle.tedesoft.battleship.models.enums.ShipType;
+import univalle.tedesoft.battleship.models.ships.FleetConfiguration;
+import univalle.tedesoft.battleship.models.ships.Ship;
+import univalle.tedesoft.battleship.models.ships.ShipClass;
+import univalle.tedesoft.battleship.models.ships.ShipFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de las estadísticas de colocación: registro, archivo mapeado que crece al aparecer clases
+ * nuevas y validación de la cabecera.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class PlacementStatisticsTest {
+    private static final int SIZE = 10;
+    /** Bytes de la sección de una clase en un tablero de 10x10. */
+    private static final int SECTION = PlacementStatistics.CLASS_ID_BYTES + Integer.BYTES * (1 + SIZE * SIZE);
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void useTemporaryStatistics() {
+        System.setProperty(PlacementStatistics.DIRECTORY_PROPERTY, this.directory.toString());
+    }
+
+    @AfterEach
+    void restoreStatistics() {
+        System.clearProperty(PlacementStatistics.DIRECTORY_PROPERTY);
+    }
+
+    @Test
+    void recordsGamesInTheStatisticsDirectory() {
+        assertNull(PlacementStatistics.forPlayer("ana", SIZE));
+        List<Ship> ships = placedFleet(new Random(1));
+        assertTrue(PlacementStatistics.record("ana", SIZE, ships));
+
+        Path path = PlacementStatistics.pathFor("ana", SIZE);
+        assertEquals(this.directory, path.getParent());
+        assertTrue(Files.isRegularFile(path));
+        PlacementStatistics statistics = PlacementStatistics.forPlayer("ana", SIZE);
+        assertNotNull(statistics);
+        assertEquals(1, statistics.getGamesRecorded());
+        assertArrayEquals(occupancyOf(ships, "SUBMARINE"), statistics.getOccupancy("SUBMARINE"));
+        assertArrayEquals(new int[SIZE * SIZE], statistics.getOccupancy("DESCONOCIDA"));
+
+        assertNull(PlacementStatistics.pathFor("../ana", SIZE));
+        assertNull(PlacementStatistics.pathFor(".oculto", SIZE));
+        assertFalse(PlacementStatistics.record("a/b", SIZE, ships));
+    }
+
+    /**
+     * Lo registrado sobrevive a reabrir el archivo, y una clase nueva agrega su sección al final.
+     */
+    @Test
+    void mappedFileGrowsOnReopen() throws IOException {
+        Path path = this.directory.resolve("jugador-10.stats");
+        List<Ship> first = placedFleet(new Random(2));
+        PlacementStatistics.open(path, SIZE).recordGame(first);
+        int standardClasses = FleetConfiguration.standard().getShipClasses().size();
+        assertEquals(32 + standardClasses * SECTION, Files.size(path));
+
+        PlacementStatistics reopened = PlacementStatistics.open(path, SIZE);
+        assertEquals(1, reopened.getGamesRecorded());
+        assertArrayEquals(occupancyOf(first, "DESTROYER"), reopened.getOccupancy("DESTROYER"));
+
+        ShipClass launch = new ShipClass("LANCHA", "Lancha", 2, 1, EnumSet.allOf(Orientation.class), ShipType.DESTROYER);
+        Ship ship = ShipFactory.createShip(launch);
+        ship.setOrientation(Orientation.HORIZONTAL);
+        new Board(SIZE).placeShip(ship, new Coordinate(3, 7));
+        List<Ship> second = new ArrayList<>(placedFleet(new Random(3)));
+        second.add(ship);
+        reopened.recordGame(second);
+        assertEquals(32 + (standardClasses + 1) * SECTION, Files.size(path));
+
+        PlacementStatistics last = PlacementStatistics.open(path, SIZE);
+        assertEquals(2, last.getGamesRecorded());
+        int[] occupancy = last.getOccupancy("LANCHA");
+        assertEquals(1, occupancy[7 * SIZE + 3]);
+        assertEquals(1, occupancy[7 * SIZE + 4]);
+        assertEquals(2, sum(occupancy));
+        int[] destroyers = occupancyOf(first, "DESTROYER");
+        int[] secondDestroyers = occupancyOf(second, "DESTROYER");
+        for (int cell = 0; cell < destroyers.length; cell++) {
+            destroyers[cell] += secondDestroyers[cell];
+        }
+        assertArrayEquals(destroyers, last.getOccupancy("DESTROYER"));
+    }
+
+    /**
+     * Una sección que quedó de un agregado interrumpido se reutiliza sin restos de su identificador.
+     */
+    @Test
+    void reusesAnInterruptedSection() throws IOException {
+        Path path = this.directory.resolve("cortado-10.stats");
+        PlacementStatistics.open(path, SIZE);
+        byte[] bytes = new byte[32 + SECTION];
+        ByteBuffer.wrap(bytes).put(Files.readAllBytes(path));
+        byte[] longId = "IDENTIFICADOR_LARGO_DE_CLASE".getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(longId, 0, bytes, 32, longId.length);
+        Files.write(path, bytes);
+
+        PlacementStatistics statistics = PlacementStatistics.open(path, SIZE);
+        statistics.recordGame(placedFleet(new Random(4)));
+        PlacementStatistics reopened = PlacementStatistics.open(path, SIZE);
+        assertEquals(4, sum(reopened.getOccupancy("FRIGATE")));
+        assertEquals(4, sum(reopened.getOccupancy("AIR_CRAFT_CARRIER")));
+    }
+
+    @Test
+    void validatesTheHeader() throws IOException {
+        Path path = this.directory.resolve("otro-10.stats");
+        Files.write(path, new byte[40]);
+        assertThrows(IOException.class, () -> PlacementStatistics.open(path, SIZE));
+
+        Path statistics = this.directory.resolve("tablero-10.stats");
+        PlacementStatistics.open(statistics, SIZE).recordGame(placedFleet(new Random(5)));
+        assertThrows(IOException.class, () -> PlacementStatistics.open(statistics, 8));
+
+        byte[] bytes = Files.readAllBytes(statistics);
+        Files.write(statistics, Arrays.copyOf(bytes, bytes.length - SECTION));
+        assertThrows(IOException.class, () -> PlacementStatistics.open(statistics, SIZE));
+    }
+
+    @Test
+    void cellWeightsNeedRecordedGames() throws IOException {
+        PlacementStatistics statistics = PlacementStatistics.open(this.directory.resolve("nuevo-10.stats"), SIZE);
+        assertEquals(0, statistics.getGamesRecorded());
+        assertNull(statistics.getCellWeights(5));
+
+        List<Ship> ships = placedFleet(new Random(6));
+        statistics.recordGame(ships);
+        double[] weights = statistics.getCellWeights(5);
+        assertNotNull(weights);
+        double total = 0;
+        for (int row = 0; row < SIZE; row++) {
+            for (int col = 0; col < SIZE; col++) {
+                double weight = weights[row * SIZE + col];
+                total += weight;
+                assertEquals(occupied(ships, row, col), weight > 1, row + "," + col);
+            }
+        }
+        assertEquals(SIZE * SIZE, total, 1e-9);
+    }
+
+    private static List<Ship> placedFleet(Random random) {
+        FleetConfiguration fleet = FleetConfiguration.standard();
+        List<Ship> ships = fleet.createFleet();
+        assertTrue(RandomStrategy.placeRandomly(new Board(SIZE), ships, fleet, random, Long.MAX_VALUE));
+        return ships;
+    }
+
+    private static int[] occupancyOf(List<Ship> ships, String classId) {
+        int[] occupancy = new int[SIZE * SIZE];
+        for (Ship ship : ships) {
+            if (ship.getShipClassId().equals(classId)) {
+                for (Coordinate coordinate : ship.getOccupiedCoordinates()) {
+                    occupancy[coordinate.getY() * SIZE + coordinate.getX()]++;
+                }
+            }
+        }
+        return occupancy;
+    }
+
+    private static boolean occupied(List<Ship> ships, int row, int col) {
+        for (Ship ship : ships) {
+            for (Coordinate coordinate : ship.getOccupiedCoordinates()) {
+                if (coordinate.getY() == row && coordinate.getX() == col) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static int sum(int[] values) {
+        int total = 0;
+        for (int value : values) {
+            total += value;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,83 @@
+package univalle.tedesoft.battleship.models.ai;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import univalle.tedesoft.battleship.models.enums.StrategyParameter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de lectura y escritura del archivo de parámetros de las estrategias.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class StrategyParametersTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void writeThenLoadRoundTrip() throws IOException {
+        StrategyParameters parameters = StrategyParameters.defaults()
+                .with(StrategyParameter.HIT_WEIGHT_SHIFT, 9)
+                .with(StrategyParameter.PARITY_BIAS, 0.3125)
+                .with(StrategyParameter.SAMPLE_ATTEMPTS, 100_000)
+                .with(StrategyParameter.ENDGAME_TIME_FRACTION, 0.25);
+        Path path = this.directory.resolve("sub").resolve("estrategia.parameters");
+        parameters.write(path, "Primera línea\nSegunda línea");
+
+        List<String> lines = Files.readAllLines(path);
+        assertEquals("# Primera línea", lines.get(0));
+        assertEquals("# Segunda línea", lines.get(1));
+        assertTrue(lines.contains(StrategyParameter.SAMPLE_ATTEMPTS.getKey() + ": 100000"));
+        assertEquals(parameters, StrategyParameters.load(path));
+        assertEquals(100_000, StrategyParameters.load(path).getInt(StrategyParameter.SAMPLE_ATTEMPTS));
+    }
+
+    @Test
+    void missingParametersKeepTheirDefaults() throws IOException {
+        Path path = this.directory.resolve("parcial.parameters");
+        Files.write(path, Arrays.asList("# comentario", "", "density.parityBias: 0.5"));
+        StrategyParameters loaded = StrategyParameters.load(path);
+        assertEquals(0.5, loaded.get(StrategyParameter.PARITY_BIAS));
+        assertEquals(StrategyParameters.defaults().with(StrategyParameter.PARITY_BIAS, 0.5), loaded);
+    }
+
+    /**
+     * Los valores fuera de rango se ajustan al rango y los enteros se redondean.
+     */
+    @Test
+    void valuesAreClampedToTheirRange() throws IOException {
+        Path path = this.directory.resolve("rango.parameters");
+        Files.write(path, Arrays.asList("density.hitWeightShift: 40", "endgame.layoutLimit: 99.6",
+                "expert.endgameTimeFraction: -1"));
+        StrategyParameters loaded = StrategyParameters.load(path);
+        assertEquals(12, loaded.getInt(StrategyParameter.HIT_WEIGHT_SHIFT));
+        assertEquals(100, loaded.get(StrategyParameter.ENDGAME_LAYOUT_LIMIT));
+        assertEquals(0.1, loaded.get(StrategyParameter.ENDGAME_TIME_FRACTION));
+    }
+
+    @Test
+    void invalidLinesAreRejected() throws IOException {
+        Path unknown = this.directory.resolve("desconocido.parameters");
+        Files.write(unknown, Arrays.asList("density.otro: 3"));
+        assertThrows(IllegalArgumentException.class, () -> StrategyParameters.load(unknown));
+
+        Path notANumber = this.directory.resolve("texto.parameters");
+        Files.write(notANumber, Arrays.asList("density.parityBias: mucho"));
+        assertThrows(IllegalArgumentException.class, () -> StrategyParameters.load(notANumber));
+
+        Path noSeparator = this.directory.resolve("separador.parameters");
+        Files.write(noSeparator, Arrays.asList("density.parityBias 0.5"));
+        assertThrows(IllegalArgumentException.class, () -> StrategyParameters.load(noSeparator));
+    }
+}
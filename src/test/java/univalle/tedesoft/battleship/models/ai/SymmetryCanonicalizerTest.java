@@ -0,0 +1,162 @@
+package univalle.tedesoft.battleship.models.ai;
+
+import org.junit.jupiter.api.Test;
+import univalle.tedesoft.battleship.models.board.Board;
+import univalle.tedesoft.battleship.models.enums.CellState;
+import univalle.tedesoft.battleship.models.enums.Orientation;
+import univalle.tedesoft.battleship.models.enums.ShipType;
+import univalle.tedesoft.battleship.models.ships.FleetConfiguration;
+import univalle.tedesoft.battleship.models.ships.ShipClass;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de las simetrías del tablero y de la forma canónica de un estado.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class SymmetryCanonicalizerTest {
+    private static final int SIZE = 10;
+    private static final CellState[] SHOT_STATES = {
+            CellState.SHOT_LOST_IN_WATER, CellState.HIT_SHIP, CellState.SUNK_SHIP_PART};
+
+    @Test
+    void eachSymmetryIsAPermutationOfTheCells() {
+        for (BoardSymmetry symmetry : BoardSymmetry.values()) {
+            Set<Integer> targets = new HashSet<>();
+            for (int cell = 0; cell < SIZE * SIZE; cell++) {
+                targets.add(symmetry.apply(cell / SIZE, cell % SIZE, SIZE));
+            }
+            assertEquals(SIZE * SIZE, targets.size(), symmetry.name());
+        }
+        // Un barco horizontal en la fila 0 sigue horizontal solo con las simetrías que no giran el eje.
+        for (BoardSymmetry symmetry : BoardSymmetry.values()) {
+            int first = symmetry.apply(0, 0, SIZE);
+            int second = symmetry.apply(0, 1, SIZE);
+            assertEquals(symmetry.preservesOrientation(), first / SIZE == second / SIZE, symmetry.name());
+        }
+    }
+
+    /**
+     * Los ocho estados que se obtienen de uno con cada simetría tienen la misma clave canónica, y la
+     * de un estado distinto es otra.
+     */
+    @Test
+    void allSymmetricBoardsShareOneCanonicalKey() {
+        SymmetryCanonicalizer canonicalizer = SymmetryCanonicalizer.forSize(SIZE);
+        Random random = new Random(8);
+        for (int trial = 0; trial < 20; trial++) {
+            Board board = randomBoard(random, 5 + trial);
+            long key = canonicalizer.canonicalize(board.snapshot(), false).getHash();
+            for (BoardSymmetry symmetry : BoardSymmetry.values()) {
+                Board image = transformed(board, symmetry);
+                assertEquals(key, canonicalizer.canonicalize(image.snapshot(), false).getHash(), symmetry.name());
+            }
+            Board other = randomBoard(random, 5 + trial);
+            assertNotEquals(key, canonicalizer.canonicalize(other.snapshot(), false).getHash());
+        }
+        assertEquals(canonicalizer.canonicalize(new Board(SIZE).snapshot(), false).getHash(),
+                new Board(SIZE).getKnowledgeHash());
+    }
+
+    @Test
+    void toCanonicalThenFromCanonicalIsTheIdentity() {
+        SymmetryCanonicalizer canonicalizer = SymmetryCanonicalizer.forSize(SIZE);
+        double[] values = new double[SIZE * SIZE];
+        for (int cell = 0; cell < values.length; cell++) {
+            values[cell] = cell * 0.5 - 7;
+        }
+        for (BoardSymmetry symmetry : BoardSymmetry.values()) {
+            double[] canonical = canonicalizer.toCanonical(values, symmetry);
+            assertArrayEquals(values, canonicalizer.fromCanonical(canonical, symmetry), symmetry.name());
+            for (int cell = 0; cell < values.length; cell++) {
+                int target = canonicalizer.toCanonicalCell(cell, symmetry);
+                assertEquals(cell, canonicalizer.fromCanonicalCell(target, symmetry));
+                assertEquals(values[cell], canonical[target]);
+            }
+        }
+    }
+
+    /**
+     * Las evaluaciones de dos estados simétricos, llevadas cada una a su marco canónico, coinciden:
+     * por eso una evaluación guardada sirve para el otro estado.
+     */
+    @Test
+    void symmetricBoardsAgreeInTheCanonicalFrame() {
+        SymmetryCanonicalizer canonicalizer = SymmetryCanonicalizer.forSize(SIZE);
+        Board board = randomBoard(new Random(4), 12);
+        double[] values = new double[SIZE * SIZE];
+        for (int cell = 0; cell < values.length; cell++) {
+            values[cell] = cell;
+        }
+        SymmetryCanonicalizer.CanonicalForm form = canonicalizer.canonicalize(board.snapshot(), false);
+        double[] canonical = canonicalizer.toCanonical(values, form.getSymmetry());
+        for (BoardSymmetry symmetry : BoardSymmetry.values()) {
+            Board image = transformed(board, symmetry);
+            double[] imageValues = new double[values.length];
+            for (int cell = 0; cell < values.length; cell++) {
+                imageValues[symmetry.apply(cell / SIZE, cell % SIZE, SIZE)] = values[cell];
+            }
+            SymmetryCanonicalizer.CanonicalForm imageForm = canonicalizer.canonicalize(image.snapshot(), false);
+            assertArrayEquals(canonical, canonicalizer.toCanonical(imageValues, imageForm.getSymmetry()), symmetry.name());
+        }
+    }
+
+    /**
+     * Con barcos que solo pueden ir horizontales, un estado y su transpuesto no son equivalentes: solo
+     * se unen las cuatro imágenes que conservan la orientación.
+     */
+    @Test
+    void horizontalOnlyFleetsDoNotMergeTransposedStates() {
+        FleetConfiguration fleet = new FleetConfiguration(SIZE, Arrays.asList(
+                new ShipClass("BARCAZA", "Barcaza", 3, 2, EnumSet.of(Orientation.HORIZONTAL), ShipType.SUBMARINE),
+                new ShipClass("LANCHA", "Lancha", 2, 2, EnumSet.allOf(Orientation.class), ShipType.DESTROYER)));
+        assertFalse(fleet.allowsBothOrientations());
+        boolean orientationPreservingOnly = !fleet.allowsBothOrientations();
+
+        SymmetryCanonicalizer canonicalizer = SymmetryCanonicalizer.forSize(SIZE);
+        Board board = randomBoard(new Random(6), 10);
+        long key = canonicalizer.canonicalize(board.snapshot(), orientationPreservingOnly).getHash();
+        for (BoardSymmetry symmetry : BoardSymmetry.values()) {
+            SymmetryCanonicalizer.CanonicalForm form =
+                    canonicalizer.canonicalize(transformed(board, symmetry).snapshot(), orientationPreservingOnly);
+            assertEquals(symmetry.preservesOrientation(), form.getHash() == key, symmetry.name());
+            assertTrue(form.getSymmetry().preservesOrientation());
+        }
+    }
+
+    /**
+     * Tablero con disparos en celdas al azar; con unas pocas marcas casi nunca es simétrico.
+     */
+    static Board randomBoard(Random random, int marks) {
+        Board board = new Board(SIZE);
+        for (int i = 0; i < marks; i++) {
+            board.setCellState(random.nextInt(SIZE), random.nextInt(SIZE), SHOT_STATES[random.nextInt(SHOT_STATES.length)]);
+        }
+        return board;
+    }
+
+    /**
+     * Copia un tablero moviendo cada celda con una simetría.
+     */
+    static Board transformed(Board board, BoardSymmetry symmetry) {
+        Board image = new Board(SIZE);
+        for (int cell = 0; cell < SIZE * SIZE; cell++) {
+            int target = symmetry.apply(cell / SIZE, cell % SIZE, SIZE);
+            image.setCellState(target / SIZE, target % SIZE, board.getCellState(cell / SIZE, cell % SIZE));
+        }
+        return image;
+    }
+}
@@ -0,0 +1,131 @@
+package univalle.tedesoft.battleship.models.ai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de la política de reemplazo de la tabla de transposición y de su uso desde varios hilos.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class TranspositionTableTest {
+    private static final int THREADS = 8;
+    private static final int OPERATIONS = 50_000;
+
+    /**
+     * Con capacidad 2 todos los hashes caen en el mismo grupo: la primera posición conserva la
+     * entrada de mayor calidad y la segunda la más reciente.
+     */
+    @Test
+    void keepsTheBestAndTheMostRecentEntry() {
+        TranspositionTable table = new TranspositionTable(2);
+        assertEquals(2, table.getCapacity());
+        double[] deep = {1};
+        double[] shallow = {2};
+        double[] newer = {3};
+        double[] deeper = {4};
+
+        table.put(10, 5, deep);
+        table.put(20, 1, shallow);
+        assertSame(deep, table.get(10));
+        assertSame(shallow, table.get(20));
+
+        // Una entrada de menor calidad reemplaza solo la posición de reemplazo.
+        table.put(30, 1, newer);
+        assertSame(deep, table.get(10));
+        assertNull(table.get(20));
+        assertSame(newer, table.get(30));
+
+        // Una de mayor calidad toma la primera posición y la desplazada pasa a la segunda.
+        table.put(40, 9, deeper);
+        assertSame(deeper, table.get(40));
+        assertSame(deep, table.get(10));
+        assertNull(table.get(30));
+
+        // El mismo estado se actualiza aunque la nueva evaluación sea de menor calidad.
+        double[] updated = {5};
+        table.put(40, 0, updated);
+        assertSame(updated, table.get(40));
+        assertSame(deep, table.get(10));
+
+        assertEquals(8, table.getHits());
+        assertEquals(2, table.getMisses());
+        table.clear();
+        assertNull(table.get(10));
+        assertEquals(0, table.getHits());
+        assertEquals(1, table.getMisses());
+    }
+
+    @Test
+    void capacityIsRoundedToAPowerOfTwo() {
+        assertEquals(2, new TranspositionTable(0).getCapacity());
+        assertEquals(8, new TranspositionTable(5).getCapacity());
+        assertEquals(16, new TranspositionTable(16).getCapacity());
+    }
+
+    /**
+     * Varios hilos escriben y leen a la vez en una tabla pequeña: toda entrada encontrada es la que
+     * se guardó con ese hash y las estadísticas cuentan cada búsqueda.
+     */
+    @Test
+    void concurrentAccessNeverReturnsAnotherState() throws Exception {
+        TranspositionTable table = new TranspositionTable(64);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<int[]>> results = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                long seed = thread;
+                results.add(executor.submit(() -> {
+                    SplittableRandom random = new SplittableRandom(seed);
+                    int found = 0;
+                    int lookups = 0;
+                    for (int i = 0; i < OPERATIONS; i++) {
+                        long hash = random.nextLong(256) * 0x9E3779B97F4A7C15L;
+                        if (random.nextBoolean()) {
+                            table.put(hash, random.nextInt(4), evaluationOf(hash));
+                        } else {
+                            lookups++;
+                            double[] stored = table.get(hash);
+                            if (stored != null) {
+                                assertArrayEquals(evaluationOf(hash), stored);
+                                found++;
+                            }
+                        }
+                    }
+                    return new int[]{found, lookups};
+                }));
+            }
+            long found = 0;
+            long lookups = 0;
+            for (Future<int[]> result : results) {
+                found += result.get()[0];
+                lookups += result.get()[1];
+            }
+            assertTrue(found > 0);
+            assertEquals(found, table.getHits());
+            assertEquals(lookups, table.getHits() + table.getMisses());
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static double[] evaluationOf(long hash) {
+        return new double[]{hash >>> 32, hash & 0xFFFFFFFFL};
+    }
+}
@@ -0,0 +1,210 @@
+package univalle.tedesoft.battleship.models.board;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import univalle.tedesoft.battleship.models.enums.CellState;
+import univalle.tedesoft.battleship.models.enums.Orientation;
+import univalle.tedesoft.battleship.models.enums.ShipType;
+import univalle.tedesoft.battleship.models.enums.ShotResult;
+import univalle.tedesoft.battleship.models.ships.Ship;
+import univalle.tedesoft.battleship.models.ships.ShipFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de deshacer y rehacer disparos con la bitácora de movimientos del tablero.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class MoveLogTest {
+    private Board board;
+    /** Submarino vertical en la columna 2, filas 1 a 3. */
+    private Ship submarine;
+    /** Destructor horizontal en la fila 6, columnas 4 y 5. */
+    private Ship destroyer;
+
+    @BeforeEach
+    void placeShips() {
+        this.board = new Board(10);
+        this.submarine = ShipFactory.createShip(ShipType.SUBMARINE);
+        this.submarine.setOrientation(Orientation.VERTICAL);
+        this.board.placeShip(this.submarine, new Coordinate(2, 1));
+        this.destroyer = ShipFactory.createShip(ShipType.DESTROYER);
+        this.destroyer.setOrientation(Orientation.HORIZONTAL);
+        this.board.placeShip(this.destroyer, new Coordinate(4, 6));
+    }
+
+    @Test
+    void undoRestoresTheCellAndTheHitCount() {
+        assertEquals(ShotResult.TOUCHED, this.board.makeShot(1, 2));
+        assertEquals(CellState.HIT_SHIP, this.board.getCellState(1, 2));
+        assertEquals(1, this.submarine.getHitCount());
+
+        assertTrue(this.board.unmakeShot());
+        assertEquals(CellState.SHIP, this.board.getCellState(1, 2));
+        assertEquals(0, this.submarine.getHitCount());
+        assertFalse(this.board.canUnmakeShot());
+        assertTrue(this.board.canRedoShot());
+        assertFalse(this.board.unmakeShot());
+
+        assertEquals(ShotResult.WATER, this.board.makeShot(0, 0));
+        assertTrue(this.board.unmakeShot());
+        assertEquals(CellState.EMPTY, this.board.getCellState(0, 0));
+    }
+
+    /**
+     * Deshacer el disparo que hunde un barco devuelve las demás partes a su estado de impacto.
+     */
+    @Test
+    void undoOfASinkingShotRestoresTheWholeShip() {
+        this.board.makeShot(1, 2);
+        this.board.makeShot(2, 2);
+        assertEquals(ShotResult.SUNKEN, this.board.makeShot(3, 2));
+        assertTrue(this.submarine.isSunk());
+        for (int row = 1; row <= 3; row++) {
+            assertEquals(CellState.SUNK_SHIP_PART, this.board.getCellState(row, 2));
+        }
+
+        assertTrue(this.board.unmakeShot());
+        assertFalse(this.submarine.isSunk());
+        assertEquals(2, this.submarine.getHitCount());
+        assertEquals(CellState.HIT_SHIP, this.board.getCellState(1, 2));
+        assertEquals(CellState.HIT_SHIP, this.board.getCellState(2, 2));
+        assertEquals(CellState.SHIP, this.board.getCellState(3, 2));
+    }
+
+    @Test
+    void redoReappliesTheMove() {
+        this.board.makeShot(6, 4);
+        this.board.makeShot(6, 5);
+        assertTrue(this.destroyer.isSunk());
+        assertTrue(this.board.unmakeShot());
+        assertTrue(this.board.unmakeShot());
+        assertEquals(0, this.destroyer.getHitCount());
+
+        assertTrue(this.board.redoShot());
+        assertEquals(CellState.HIT_SHIP, this.board.getCellState(6, 4));
+        assertEquals(1, this.destroyer.getHitCount());
+        assertTrue(this.board.redoShot());
+        assertTrue(this.destroyer.isSunk());
+        assertEquals(CellState.SUNK_SHIP_PART, this.board.getCellState(6, 4));
+        assertEquals(CellState.SUNK_SHIP_PART, this.board.getCellState(6, 5));
+        assertFalse(this.board.canRedoShot());
+        assertFalse(this.board.redoShot());
+    }
+
+    @Test
+    void newMoveAfterUndoDiscardsTheRedoTail() {
+        this.board.makeShot(0, 0);
+        this.board.makeShot(1, 2);
+        this.board.makeShot(6, 4);
+        assertTrue(this.board.unmakeShot());
+        assertTrue(this.board.unmakeShot());
+        assertTrue(this.board.canRedoShot());
+
+        assertEquals(ShotResult.WATER, this.board.makeShot(9, 9));
+        assertFalse(this.board.canRedoShot());
+        assertFalse(this.board.redoShot());
+        assertEquals(CellState.SHIP, this.board.getCellState(1, 2));
+        assertEquals(CellState.SHIP, this.board.getCellState(6, 4));
+        assertEquals(0, this.submarine.getHitCount());
+        assertEquals(0, this.destroyer.getHitCount());
+
+        assertTrue(this.board.unmakeShot());
+        assertEquals(CellState.EMPTY, this.board.getCellState(9, 9));
+        assertTrue(this.board.unmakeShot());
+        assertEquals(CellState.EMPTY, this.board.getCellState(0, 0));
+        assertFalse(this.board.canUnmakeShot());
+    }
+
+    /**
+     * Una salva de más de 64 celdas y más de 32 disparos sueltos obligan a crecer los arreglos de
+     * cambios y de inicios de movimiento; todo se deshace y se rehace igual.
+     */
+    @Test
+    void buffersGrowPastTheirInitialCapacity() {
+        List<Coordinate> salvo = new ArrayList<>();
+        List<int[]> singles = new ArrayList<>();
+        for (int row = 0; row < 10; row++) {
+            for (int col = 0; col < 10; col++) {
+                if (this.board.getShipAt(row, col) != null) {
+                    continue;
+                }
+                if (salvo.size() < 65) {
+                    salvo.add(new Coordinate(col, row));
+                } else {
+                    singles.add(new int[]{row, col});
+                }
+            }
+        }
+        assertEquals(30, singles.size());
+        this.board.receiveShots(salvo);
+        for (int[] cell : singles) {
+            this.board.makeShot(cell[0], cell[1]);
+        }
+        // Disparos de más para superar los 32 movimientos: cada parte de barco es un movimiento.
+        int moves = 1 + singles.size();
+        for (int row = 1; row <= 3; row++) {
+            this.board.makeShot(row, 2);
+            moves++;
+        }
+        assertTrue(moves > 32);
+        assertEquals(0, countCells(CellState.EMPTY));
+
+        for (int i = 0; i < moves; i++) {
+            assertTrue(this.board.unmakeShot(), "movimiento " + i);
+        }
+        assertFalse(this.board.unmakeShot());
+        assertEquals(95, countCells(CellState.EMPTY));
+        assertEquals(5, countCells(CellState.SHIP));
+        assertEquals(0, this.submarine.getHitCount());
+
+        for (int i = 0; i < moves; i++) {
+            assertTrue(this.board.redoShot(), "movimiento " + i);
+        }
+        assertFalse(this.board.redoShot());
+        assertEquals(0, countCells(CellState.EMPTY));
+        assertTrue(this.submarine.isSunk());
+    }
+
+    @Test
+    void lastHitShipFollowsUndo() {
+        assertNull(this.board.getLastHitShip());
+        this.board.makeShot(1, 2);
+        assertSame(this.submarine, this.board.getLastHitShip());
+        this.board.makeShot(0, 0);
+        assertNull(this.board.getLastHitShip());
+
+        this.board.unmakeShot();
+        assertSame(this.submarine, this.board.getLastHitShip());
+        this.board.makeShot(6, 5);
+        assertSame(this.destroyer, this.board.getLastHitShip());
+        this.board.unmakeShot();
+        assertSame(this.submarine, this.board.getLastHitShip());
+        this.board.unmakeShot();
+        assertNull(this.board.getLastHitShip());
+        this.board.redoShot();
+        assertSame(this.submarine, this.board.getLastHitShip());
+    }
+
+    private int countCells(CellState state) {
+        int count = 0;
+        for (int row = 0; row < this.board.getSize(); row++) {
+            for (int col = 0; col < this.board.getSize(); col++) {
+                if (this.board.getCellState(row, col) == state) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+}
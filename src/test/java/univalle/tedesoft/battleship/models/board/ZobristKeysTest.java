@@ -0,0 +1,99 @@
+package univalle.tedesoft.battleship.models.board;
+
+import org.junit.jupiter.api.Test;
+import univalle.tedesoft.battleship.models.ai.RandomStrategy;
+import univalle.tedesoft.battleship.models.enums.CellState;
+import univalle.tedesoft.battleship.models.ships.FleetConfiguration;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas del hash de Zobrist incremental: después de cada disparo, deshacer, rehacer o cambio de
+ * celda, el hash que mantiene el tablero es igual al calculado desde cero.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class ZobristKeysTest {
+    private static final int OPERATIONS = 2_000;
+
+    @Test
+    void incrementalHashMatchesRecomputation() {
+        FleetConfiguration fleet = FleetConfiguration.standard();
+        ZobristKeys keys = ZobristKeys.forSize(fleet.getBoardSize());
+        Random random = new Random(11);
+        for (int game = 0; game < 20; game++) {
+            Board board = new Board(fleet.getBoardSize());
+            assertTrue(RandomStrategy.placeRandomly(board, fleet.createFleet(), fleet, random, Long.MAX_VALUE));
+            assertEquals(keys.getEmptyHash(), board.getKnowledgeHash());
+            for (int i = 0; i < OPERATIONS / 20 && !board.areAllShipsSunk(); i++) {
+                int operation = random.nextInt(10);
+                if (operation < 6) {
+                    board.makeShot(random.nextInt(board.getSize()), random.nextInt(board.getSize()));
+                } else if (operation < 9) {
+                    board.unmakeShot();
+                } else {
+                    board.redoShot();
+                }
+                assertEquals(keys.hash(board.snapshot()), board.getKnowledgeHash(), "partida " + game + ", paso " + i);
+                assertEquals(board.getKnowledgeHash(), board.snapshot().getKnowledgeHash());
+            }
+            while (board.unmakeShot()) {
+                assertEquals(keys.hash(board.snapshot()), board.getKnowledgeHash());
+            }
+            assertEquals(keys.getEmptyHash(), board.getKnowledgeHash());
+        }
+    }
+
+    @Test
+    void cellChangesAndSnapshotsKeepTheHash() {
+        ZobristKeys keys = ZobristKeys.forSize(6);
+        Board board = new Board(6);
+        board.setCellState(2, 3, CellState.SHOT_LOST_IN_WATER);
+        board.setCellState(4, 1, CellState.HIT_SHIP);
+        assertEquals(keys.hash(board.snapshot()), board.getKnowledgeHash());
+        board.setCellState(4, 1, CellState.SUNK_SHIP_PART);
+        assertEquals(keys.hash(board.snapshot()), board.getKnowledgeHash());
+
+        BoardSnapshot supposed = board.snapshot().withCellState(0, 0, CellState.HIT_SHIP);
+        assertEquals(keys.hash(supposed), supposed.getKnowledgeHash());
+        assertEquals(board.getKnowledgeHash(), board.snapshot().opponentView().getKnowledgeHash());
+
+        board.setCellState(2, 3, CellState.EMPTY);
+        board.setCellState(4, 1, CellState.SHIP);
+        assertEquals(keys.getEmptyHash(), board.getKnowledgeHash());
+        board.setCellState(5, 5, CellState.SHOT_LOST_IN_WATER);
+        board.resetBoard();
+        assertEquals(keys.getEmptyHash(), board.getKnowledgeHash());
+    }
+
+    /**
+     * El hash solo depende de lo que se sabe: dos tableros con barcos en lugares distintos y el mismo
+     * disparo al agua tienen el mismo hash, y distinto del de un impacto en la misma celda.
+     */
+    @Test
+    void hashIgnoresUndiscoveredShips() {
+        FleetConfiguration fleet = FleetConfiguration.standard();
+        Random random = new Random(3);
+        Board first = new Board(fleet.getBoardSize());
+        Board second = new Board(fleet.getBoardSize());
+        assertTrue(RandomStrategy.placeRandomly(first, fleet.createFleet(), fleet, random, Long.MAX_VALUE));
+        assertTrue(RandomStrategy.placeRandomly(second, fleet.createFleet(), fleet, random, Long.MAX_VALUE));
+        int cell = 0;
+        while (first.getShipAt(cell / 10, cell % 10) != null || second.getShipAt(cell / 10, cell % 10) != null) {
+            cell++;
+        }
+        first.makeShot(cell / 10, cell % 10);
+        second.makeShot(cell / 10, cell % 10);
+        assertEquals(first.getKnowledgeHash(), second.getKnowledgeHash());
+
+        Board other = new Board(fleet.getBoardSize());
+        other.setCellState(cell / 10, cell % 10, CellState.HIT_SHIP);
+        assertNotEquals(first.getKnowledgeHash(), other.getKnowledgeHash());
+    }
+}
@@ -0,0 +1,72 @@
+package univalle.tedesoft.battleship.models.state;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import univalle.tedesoft.battleship.exceptions.InvalidShipPlacementException;
+import univalle.tedesoft.battleship.models.ai.PlacementStatistics;
+import univalle.tedesoft.battleship.models.enums.Orientation;
+import univalle.tedesoft.battleship.models.enums.ShipType;
+import univalle.tedesoft.battleship.models.players.HumanPlayer;
+import univalle.tedesoft.battleship.models.ships.FleetConfiguration;
+import univalle.tedesoft.battleship.models.ships.Ship;
+import univalle.tedesoft.battleship.models.ships.ShipClass;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Pruebas de la colocación manual de barcos con flotas personalizadas.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class GameStateTest {
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void useTemporaryStatistics() {
+        System.setProperty(PlacementStatistics.DIRECTORY_PROPERTY, this.directory.toString());
+    }
+
+    @AfterEach
+    void restoreStatistics() {
+        System.clearProperty(PlacementStatistics.DIRECTORY_PROPERTY);
+    }
+
+    /**
+     * Dos clases con el mismo tipo visual se colocan cada una con su propia longitud y
+     * orientaciones, y se descuentan por separado de los barcos pendientes.
+     */
+    @Test
+    void placesClassesThatShareAVisualType() {
+        FleetConfiguration fleet = new FleetConfiguration(6, Arrays.asList(
+                new ShipClass("LANCHA", "Lancha", 2, 1, EnumSet.allOf(Orientation.class), ShipType.DESTROYER),
+                new ShipClass("CORBETA", "Corbeta", 3, 1, EnumSet.of(Orientation.VERTICAL), ShipType.DESTROYER)));
+        GameState gameState = new GameState(fleet);
+        gameState.startNewGame(new HumanPlayer("prueba"));
+        assertEquals(List.of("LANCHA", "CORBETA"), gameState.getPendingShipsToPlace());
+
+        assertThrows(InvalidShipPlacementException.class,
+                () -> gameState.placeHumanPlayerShip("CORBETA", 0, 0, Orientation.HORIZONTAL));
+        gameState.placeHumanPlayerShip("CORBETA", 0, 0, Orientation.VERTICAL);
+        Ship corvette = gameState.getHumanPlayerPositionBoard().getShips().get(0);
+        assertEquals("CORBETA", corvette.getShipClassId());
+        assertEquals(3, corvette.getValueShip());
+        assertEquals(List.of("LANCHA"), gameState.getPendingShipsToPlace());
+
+        assertThrows(InvalidShipPlacementException.class,
+                () -> gameState.placeHumanPlayerShip("CORBETA", 0, 3, Orientation.VERTICAL));
+        gameState.placeHumanPlayerShip("LANCHA", 0, 3, Orientation.HORIZONTAL);
+        assertEquals(2, gameState.getHumanPlayerPositionBoard().getShips().get(1).getValueShip());
+        assertEquals(List.of(), gameState.getPendingShipsToPlace());
+    }
+}
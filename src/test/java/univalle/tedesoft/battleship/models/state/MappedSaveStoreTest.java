@@ -0,0 +1,115 @@
+package univalle.tedesoft.battleship.models.state;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas del almacén de partidas mapeado en memoria.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class MappedSaveStoreTest {
+    private static final String[] PLAYERS = {"alfa", "bravo", "charlie", "delta", "eco", "foxtrot", "golf", "hotel"};
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void writeReadAndReopen() throws IOException {
+        Path path = this.directory.resolve("saves.db");
+        MappedSaveStore store = new MappedSaveStore(path);
+        store.writeGame("alfa", game("alfa", 0, 10));
+        store.writeGame("bravo", game("bravo", 0, 10));
+
+        assertTrue(store.hasGame("alfa"));
+        assertFalse(store.hasGame("charlie"));
+        assertNull(store.readGame("charlie"));
+        assertGame(game("alfa", 0, 10), store.readGame("alfa"));
+
+        MappedSaveStore reopened = new MappedSaveStore(path);
+        assertEquals(new HashSet<>(Arrays.asList("alfa", "bravo")), new HashSet<>(reopened.listNicknames()));
+        assertGame(game("bravo", 0, 10), reopened.readGame("bravo"));
+    }
+
+    @Test
+    void deleteFreesTheSlot() throws IOException {
+        Path path = this.directory.resolve("saves.db");
+        MappedSaveStore store = new MappedSaveStore(path);
+        store.writeGame("alfa", game("alfa", 0, 10));
+        store.writeGame("bravo", game("bravo", 0, 10));
+
+        assertTrue(store.deleteGame("alfa"));
+        assertFalse(store.deleteGame("alfa"));
+        store.writeGame("charlie", game("charlie", 0, 10));
+
+        MappedSaveStore reopened = new MappedSaveStore(path);
+        assertEquals(new HashSet<>(Arrays.asList("bravo", "charlie")), new HashSet<>(reopened.listNicknames()));
+        assertGame(game("charlie", 0, 10), reopened.readGame("charlie"));
+    }
+
+    /**
+     * Reescribir una partida con bloques grandes obliga a compactar el archivo en medio del
+     * guardado; ninguna partida debe cambiar de dueño ni perderse al reabrir.
+     */
+    @Test
+    void rewriteThatTriggersCompactionKeepsEveryPlayer() throws IOException {
+        Path path = this.directory.resolve("saves.db");
+        MappedSaveStore store = new MappedSaveStore(path);
+        for (String player : PLAYERS) {
+            store.writeGame(player, game(player, 0, 1_000));
+        }
+        for (int version = 1; version <= 40; version++) {
+            store.writeGame("bravo", game("bravo", version, 200_000));
+            for (String player : PLAYERS) {
+                int expectedVersion = player.equals("bravo") ? version : 0;
+                int expectedSize = player.equals("bravo") ? 200_000 : 1_000;
+                assertGame(game(player, expectedVersion, expectedSize), store.readGame(player));
+            }
+        }
+
+        MappedSaveStore reopened = new MappedSaveStore(path);
+        assertEquals(new HashSet<>(Arrays.asList(PLAYERS)), new HashSet<>(reopened.listNicknames()));
+        for (String player : PLAYERS) {
+            int expectedVersion = player.equals("bravo") ? 40 : 0;
+            int expectedSize = player.equals("bravo") ? 200_000 : 1_000;
+            assertGame(game(player, expectedVersion, expectedSize), reopened.readGame(player));
+        }
+    }
+
+    /**
+     * Crea los archivos de una partida cuyo contenido identifica al jugador y la versión.
+     */
+    private static Map<String, byte[]> game(String player, int version, int size) {
+        Map<String, byte[]> files = new LinkedHashMap<>();
+        files.put("game_info.txt", (player + ":" + version).getBytes(StandardCharsets.UTF_8));
+        byte[] board = new byte[size];
+        Arrays.fill(board, (byte) (player.charAt(0) + version));
+        files.put("human_board_board_state.txt", board);
+        return files;
+    }
+
+    private static void assertGame(Map<String, byte[]> expected, Map<String, byte[]> actual) {
+        assertNotNull(actual);
+        assertEquals(expected.keySet(), actual.keySet());
+        for (Map.Entry<String, byte[]> file : expected.entrySet()) {
+            assertArrayEquals(file.getValue(), actual.get(file.getKey()), file.getKey());
+        }
+    }
+}
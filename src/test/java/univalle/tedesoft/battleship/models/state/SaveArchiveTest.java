@@ -0,0 +1,185 @@
+package univalle.tedesoft.battleship.models.state;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de la exportación e importación de partidas en un archivo zip.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class SaveArchiveTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void exportAndImportRoundTrip() throws IOException {
+        MemorySaveStore source = new MemorySaveStore();
+        for (int i = 0; i < 50; i++) {
+            source.writeGame("jugador" + i, game("jugador" + i));
+        }
+        Path archive = this.directory.resolve("partidas.zip");
+
+        assertEquals(50, SaveArchive.exportGames(source, archive, null, -1, null));
+        MemorySaveStore target = new MemorySaveStore();
+        assertEquals(50, SaveArchive.importGames(target, archive, false, null));
+
+        assertEquals(new HashSet<>(source.listNicknames()), new HashSet<>(target.listNicknames()));
+        for (String nickname : source.listNicknames()) {
+            Map<String, byte[]> expected = source.readGame(nickname);
+            Map<String, byte[]> actual = target.readGame(nickname);
+            assertEquals(expected.keySet(), actual.keySet());
+            for (String fileName : expected.keySet()) {
+                assertArrayEquals(expected.get(fileName), actual.get(fileName));
+            }
+        }
+    }
+
+    @Test
+    void importWithoutOverwriteKeepsExistingGames() throws IOException {
+        MemorySaveStore source = new MemorySaveStore();
+        source.writeGame("alfa", game("alfa-nueva"));
+        Path archive = this.directory.resolve("partidas.zip");
+        SaveArchive.exportGames(source, archive, null, -1, null);
+
+        MemorySaveStore target = new MemorySaveStore();
+        target.writeGame("alfa", game("alfa-vieja"));
+        assertEquals(0, SaveArchive.importGames(target, archive, false, null));
+        assertArrayEquals(game("alfa-vieja").get("game_info.txt"), target.readGame("alfa").get("game_info.txt"));
+    }
+
+    @Test
+    void rejectsArchiveWithoutHeader() throws IOException {
+        Path archive = this.directory.resolve("otro.zip");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(archive))) {
+            zip.putNextEntry(new ZipEntry("games/alfa.bsg"));
+            zip.write(packGame(game("alfa")));
+            zip.closeEntry();
+        }
+        assertThrows(IOException.class, () -> SaveArchive.importGames(new MemorySaveStore(), archive, true, null));
+    }
+
+    @Test
+    void rejectsFileNamesOutsideThePlayerDirectory() throws IOException {
+        Path saveDirectory = this.directory.resolve("saves");
+        for (String fileName : new String[]{"../../escape.txt", "..\\escape.txt", "subdir/game_info.txt", "otro.txt"}) {
+            Map<String, byte[]> files = game("alfa");
+            files.remove("machine_ships_ships_state.txt");
+            files.put(fileName, "x".getBytes(StandardCharsets.UTF_8));
+            Path archive = this.writeArchive("alfa", packGame(files));
+
+            assertThrows(IOException.class,
+                    () -> SaveArchive.importGames(new FileSaveStore(saveDirectory), archive, true, null), fileName);
+        }
+        assertFalse(Files.exists(this.directory.resolve("escape.txt")));
+        assertFalse(Files.exists(saveDirectory.resolve("alfa")));
+    }
+
+    @Test
+    void rejectsOversizedOrInconsistentGames() throws IOException {
+        Path tooLarge = this.writeArchive("alfa", packRaw(1, "game_info.txt", Integer.MAX_VALUE));
+        assertThrows(IOException.class, () -> SaveArchive.importGames(new MemorySaveStore(), tooLarge, true, null));
+
+        Path negative = this.writeArchive("alfa", packRaw(1, "game_info.txt", -5));
+        assertThrows(IOException.class, () -> SaveArchive.importGames(new MemorySaveStore(), negative, true, null));
+
+        Path tooManyFiles = this.writeArchive("alfa", packRaw(1_000_000, "game_info.txt", 1));
+        assertThrows(IOException.class, () -> SaveArchive.importGames(new MemorySaveStore(), tooManyFiles, true, null));
+    }
+
+    @Test
+    void skipsEntriesWithInvalidNicknames() throws IOException {
+        Path archive = this.directory.resolve("partidas.zip");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(archive))) {
+            writeHeader(zip);
+            for (String nickname : new String[]{"..", "a/b", "bueno"}) {
+                zip.putNextEntry(new ZipEntry("games/" + nickname + ".bsg"));
+                zip.write(packGame(game(nickname)));
+                zip.closeEntry();
+            }
+        }
+        MemorySaveStore target = new MemorySaveStore();
+        assertEquals(1, SaveArchive.importGames(target, archive, true, null));
+        assertTrue(target.hasGame("bueno"));
+        assertEquals(1, target.listNicknames().size());
+    }
+
+    /**
+     * Crea los seis archivos de una partida con un contenido que la identifica.
+     */
+    private static Map<String, byte[]> game(String marker) {
+        Map<String, byte[]> files = new LinkedHashMap<>();
+        for (String fileName : FileSaveStore.LEGACY_GAME_FILES) {
+            files.put(fileName, (fileName + ":" + marker).getBytes(StandardCharsets.UTF_8));
+        }
+        return files;
+    }
+
+    private Path writeArchive(String nickname, byte[] packed) throws IOException {
+        Path archive = Files.createTempFile(this.directory, "manipulado", ".zip");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(archive))) {
+            writeHeader(zip);
+            zip.putNextEntry(new ZipEntry("games/" + nickname + ".bsg"));
+            zip.write(packed);
+            zip.closeEntry();
+        }
+        return archive;
+    }
+
+    private static void writeHeader(ZipOutputStream zip) throws IOException {
+        zip.putNextEntry(new ZipEntry(SaveArchive.ARCHIVE_INFO_ENTRY));
+        zip.write("BATTLESHIP_ARCHIVE:1\n".getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    /**
+     * Empaqueta una partida con el mismo formato que la exportación.
+     */
+    private static byte[] packGame(Map<String, byte[]> files) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(buffer))) {
+            out.writeInt(files.size());
+            for (Map.Entry<String, byte[]> file : files.entrySet()) {
+                out.writeUTF(file.getKey());
+                out.writeInt(file.getValue().length);
+                out.write(file.getValue());
+            }
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Empaqueta una partida con una cabecera arbitraria y sin el contenido que anuncia.
+     */
+    private static byte[] packRaw(int fileCount, String fileName, int length) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(buffer))) {
+            out.writeInt(fileCount);
+            out.writeUTF(fileName);
+            out.writeInt(length);
+            out.writeByte(0);
+        }
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,158 @@
+package univalle.tedesoft.battleship.models.state;
+
+import org.junit.jupiter.api.Test;
+import univalle.tedesoft.battleship.models.board.Board;
+import univalle.tedesoft.battleship.models.board.BoardSnapshot;
+import univalle.tedesoft.battleship.models.board.Coordinate;
+import univalle.tedesoft.battleship.models.enums.CellState;
+import univalle.tedesoft.battleship.models.enums.Orientation;
+import univalle.tedesoft.battleship.models.enums.ShipType;
+import univalle.tedesoft.battleship.models.ships.GenericShip;
+import univalle.tedesoft.battleship.models.ships.Ship;
+import univalle.tedesoft.battleship.models.ships.ShipFactory;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas del formato de guardado de tableros y barcos: ida y vuelta con el formato actual y
+ * lectura de los dos formatos anteriores.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class SaveFormatTest {
+
+    @Test
+    void boardAndShipsRoundTrip() throws Exception {
+        Board board = new Board();
+        Ship carrier = ShipFactory.createShip(ShipType.AIR_CRAFT_CARRIER);
+        carrier.setOrientation(Orientation.HORIZONTAL);
+        board.placeShip(carrier, new Coordinate(0, 0));
+        Ship submarine = ShipFactory.createShip(ShipType.SUBMARINE);
+        submarine.setOrientation(Orientation.VERTICAL);
+        board.placeShip(submarine, new Coordinate(7, 2));
+        Ship custom = new GenericShip("CRUCERO", ShipType.DESTROYER, 5);
+        custom.setOrientation(Orientation.HORIZONTAL);
+        board.placeShip(custom, new Coordinate(2, 9));
+        board.receiveShot(new Coordinate(1, 0));
+        board.receiveShot(new Coordinate(7, 3));
+        board.receiveShot(new Coordinate(5, 5));
+        board.receiveShot(new Coordinate(2, 9));
+        BoardSnapshot snapshot = board.snapshot();
+
+        Board restored = new Board();
+        SaveFormat.readBoard(writeBoard(snapshot), restored);
+        for (int row = 0; row < board.getSize(); row++) {
+            for (int col = 0; col < board.getSize(); col++) {
+                assertEquals(board.getCellState(row, col), restored.getCellState(row, col), row + "," + col);
+            }
+        }
+
+        List<Ship> ships = SaveFormat.readShips(writeShips(snapshot));
+        assertEquals(board.getShips().size(), ships.size());
+        for (int i = 0; i < ships.size(); i++) {
+            Ship expected = board.getShips().get(i);
+            Ship actual = ships.get(i);
+            assertEquals(expected.getShipType(), actual.getShipType());
+            assertEquals(expected.getShipClassId(), actual.getShipClassId());
+            assertEquals(expected.getValueShip(), actual.getValueShip());
+            assertEquals(expected.getOrientation(), actual.getOrientation());
+            assertEquals(expected.getHitCount(), actual.getHitCount());
+            assertEquals(cells(expected), cells(actual));
+        }
+    }
+
+    @Test
+    void readsTheOriginalFormat() {
+        Board board = new Board();
+        SaveFormat.readBoard(ascii("0,0:HIT_SHIP\r\n0,1:SHIP\r\n3,4:SHOT_LOST_IN_WATER\r\n"), board);
+        assertEquals(CellState.HIT_SHIP, board.getCellState(0, 0));
+        assertEquals(CellState.SHIP, board.getCellState(0, 1));
+        assertEquals(CellState.SHOT_LOST_IN_WATER, board.getCellState(3, 4));
+        // Las celdas que no aparecen en este formato quedan vacías.
+        assertEquals(CellState.EMPTY, board.getCellState(9, 9));
+
+        List<Ship> ships = SaveFormat.readShips(ascii(
+                "SHIP:DESTROYER:HORIZONTAL:1:false\nCOORD:0,0\nCOORD:1,0\nENDSHIP\n"
+                        + "SHIP:FRIGATE:VERTICAL:0:false\nCOORD:4,3\nENDSHIP\n"));
+        assertEquals(2, ships.size());
+        assertEquals(ShipType.DESTROYER, ships.get(0).getShipType());
+        assertEquals(Orientation.HORIZONTAL, ships.get(0).getOrientation());
+        assertEquals(1, ships.get(0).getHitCount());
+        assertEquals("0,0;0,1", cells(ships.get(0)));
+        assertEquals(ShipType.FRIGATE, ships.get(1).getShipType());
+        assertEquals("3,4", cells(ships.get(1)));
+    }
+
+    @Test
+    void readsTheNicknameFormat() {
+        Board board = new Board();
+        SaveFormat.readBoard(ascii("0,0,SUNK_SHIP_PART\n0,1,EMPTY\n9,9,SHIP\n"), board);
+        assertEquals(CellState.SUNK_SHIP_PART, board.getCellState(0, 0));
+        assertEquals(CellState.SHIP, board.getCellState(9, 9));
+
+        List<Ship> ships = SaveFormat.readShips(ascii(
+                "SHIP_TYPE:FRIGATE\nORIENTATION:HORIZONTAL\nIS_SUNK:true\nHIT_COUNT:1\nCOORDINATES:0,0\n---\n"
+                        + "SHIP_TYPE:DESTROYER\nSHIP_CLASS:CRUCERO:3\nORIENTATION:VERTICAL\nIS_SUNK:false\n"
+                        + "HIT_COUNT:0\nCOORDINATES:2,5;3,5;4,5\n---\n"));
+        assertEquals(2, ships.size());
+        assertTrue(ships.get(0).isSunk());
+        assertEquals("0,0", cells(ships.get(0)));
+        assertEquals("CRUCERO", ships.get(1).getShipClassId());
+        assertEquals(3, ships.get(1).getValueShip());
+        assertEquals(Orientation.VERTICAL, ships.get(1).getOrientation());
+        assertFalse(ships.get(1).isSunk());
+        assertEquals("2,5;3,5;4,5", cells(ships.get(1)));
+    }
+
+    @Test
+    void rejectsInvalidContent() {
+        assertThrows(IllegalArgumentException.class,
+                () -> SaveFormat.readBoard(ascii("BATTLESHIP_BOARD:2\nSIZE:8\n"), new Board()));
+        assertThrows(IllegalArgumentException.class,
+                () -> SaveFormat.readBoard(ascii("BATTLESHIP_BOARD:3\nSIZE:10\n"), new Board()));
+        assertThrows(IllegalArgumentException.class,
+                () -> SaveFormat.readBoard(ascii("hola\n"), new Board()));
+        assertThrows(IllegalArgumentException.class,
+                () -> SaveFormat.readShips(ascii("BATTLESHIP_SHIPS:2\nBARCO:HORIZONTAL:0:0,0\n")));
+    }
+
+    private static byte[] writeBoard(BoardSnapshot snapshot) throws IOException {
+        StringWriter writer = new StringWriter();
+        SaveFormat.writeBoard(snapshot, writer);
+        return ascii(writer.toString());
+    }
+
+    private static byte[] writeShips(BoardSnapshot snapshot) throws IOException {
+        StringWriter writer = new StringWriter();
+        SaveFormat.writeShips(snapshot.getShips(), writer);
+        return ascii(writer.toString());
+    }
+
+    /**
+     * Describe las celdas de un barco como {@code fila,columna;...}.
+     */
+    private static String cells(Ship ship) {
+        StringBuilder text = new StringBuilder();
+        for (Coordinate coordinate : ship.getOccupiedCoordinates()) {
+            if (text.length() > 0) {
+                text.append(';');
+            }
+            text.append(coordinate.getY()).append(',').append(coordinate.getX());
+        }
+        return text.toString();
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,75 @@
+package univalle.tedesoft.battleship.models.state;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Pruebas del historial de versiones por ranura.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class SaveHistoryTest {
+    private static final LocalDateTime DATE = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void repeatedContentAddsNoVersionAndNoObjects() throws IOException {
+        SaveHistory.recordVersion(this.directory, "ranura", "FIRING", DATE, game("info-1", "tablero-1"));
+        long objects = this.countObjects();
+
+        // Solo cambia game_info.txt: no es una versión nueva ni deja fragmentos sueltos.
+        SaveHistory.recordVersion(this.directory, "ranura", "FIRING", DATE.plusMinutes(1), game("info-2", "tablero-1"));
+        assertEquals(1, SaveHistory.listVersions(this.directory, "alfa", "ranura").size());
+        assertEquals(objects, this.countObjects());
+    }
+
+    @Test
+    void keepsOnlyTheNewestVersions() throws IOException {
+        for (int i = 1; i <= SaveHistory.MAX_VERSIONS_PER_SLOT + 3; i++) {
+            SaveHistory.recordVersion(this.directory, "ranura", "FIRING", DATE.plusMinutes(i), game("info-" + i, "tablero-" + i));
+        }
+        assertEquals(SaveHistory.MAX_VERSIONS_PER_SLOT, SaveHistory.listVersions(this.directory, "alfa", "ranura").size());
+
+        int newest = SaveHistory.MAX_VERSIONS_PER_SLOT + 3;
+        Map<String, byte[]> files = SaveHistory.readVersion(this.directory, "ranura", newest);
+        for (Map.Entry<String, byte[]> file : game("info-" + newest, "tablero-" + newest).entrySet()) {
+            assertArrayEquals(file.getValue(), files.get(file.getKey()), file.getKey());
+        }
+        assertNull(SaveHistory.readVersion(this.directory, "ranura", 1));
+    }
+
+    private long countObjects() throws IOException {
+        try (Stream<Path> objects = Files.list(this.directory.resolve("history").resolve("objects"))) {
+            return objects.count();
+        }
+    }
+
+    /**
+     * Crea una partida cuyo game_info.txt y tableros se pueden variar por separado.
+     */
+    private static Map<String, byte[]> game(String info, String boards) {
+        Map<String, byte[]> files = new LinkedHashMap<>();
+        for (String fileName : FileSaveStore.LEGACY_GAME_FILES) {
+            String marker = fileName.equals("game_info.txt") ? info : boards;
+            files.put(fileName, (fileName + ":" + marker).getBytes(StandardCharsets.UTF_8));
+        }
+        return files;
+    }
+}
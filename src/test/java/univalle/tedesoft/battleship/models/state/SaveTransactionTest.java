@@ -0,0 +1,130 @@
+package univalle.tedesoft.battleship.models.state;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas del guardado atómico y de su recuperación tras una interrupción.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class SaveTransactionTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void groupCommitWritesEveryPlayer() throws IOException {
+        FileSaveStore store = new FileSaveStore(this.directory);
+        Map<String, Map<String, byte[]>> games = new LinkedHashMap<>();
+        for (String player : new String[]{"alfa", "bravo", "charlie"}) {
+            games.put(player, game(player));
+        }
+        store.writeGames(games);
+
+        for (String player : games.keySet()) {
+            Map<String, byte[]> files = store.readGame(player);
+            for (Map.Entry<String, byte[]> file : game(player).entrySet()) {
+                assertArrayEquals(file.getValue(), files.get(file.getKey()), file.getKey());
+            }
+            assertTrue(Files.exists(this.directory.resolve(player).resolve(SaveTransaction.MANIFEST_FILE)));
+        }
+        try (Stream<Path> journal = Files.list(this.directory.resolve(SaveTransaction.JOURNAL_DIRECTORY))) {
+            assertEquals(0, journal.count());
+        }
+    }
+
+    @Test
+    void recoveryDeletesTempsOfUnconfirmedSaves() throws IOException {
+        FileSaveStore store = new FileSaveStore(this.directory);
+        store.writeGame("alfa", game("alfa-1"));
+        // Un guardado interrumpido antes de llegar al diario deja solo temporales.
+        Path temp = this.directory.resolve("alfa").resolve("game_info.txt.tmp");
+        Files.write(temp, "incompleto".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(0, store.recover());
+        assertFalse(Files.exists(temp));
+        assertArrayEquals(game("alfa-1").get("game_info.txt"), store.readGame("alfa").get("game_info.txt"));
+    }
+
+    @Test
+    void recoveryAppliesConfirmedSaves() throws IOException {
+        FileSaveStore store = new FileSaveStore(this.directory);
+        store.writeGame("alfa", game("alfa-1"));
+        Path playerSaveDir = this.directory.resolve("alfa");
+        Path journalDir = this.directory.resolve(SaveTransaction.JOURNAL_DIRECTORY);
+
+        // Guardado confirmado cuyo manifiesto no alcanzó a salir del diario.
+        Map<String, byte[]> second = game("alfa-2");
+        store.writeGame("alfa", second);
+        Files.move(playerSaveDir.resolve(SaveTransaction.MANIFEST_FILE), journalDir.resolve("alfa.pending"));
+        for (Map.Entry<String, byte[]> file : second.entrySet()) {
+            Files.move(playerSaveDir.resolve(file.getKey()), playerSaveDir.resolve(file.getKey() + ".tmp"));
+        }
+
+        assertEquals(1, store.recover());
+        Map<String, byte[]> files = store.readGame("alfa");
+        for (Map.Entry<String, byte[]> file : second.entrySet()) {
+            assertArrayEquals(file.getValue(), files.get(file.getKey()), file.getKey());
+            assertFalse(Files.exists(playerSaveDir.resolve(file.getKey() + ".tmp")));
+        }
+    }
+
+    /**
+     * Una recuperación que corre mientras otro hilo confirma guardados no debe aplicar sus
+     * manifiestos pendientes ni borrar sus temporales.
+     */
+    @Test
+    void recoveryDoesNotDisturbConcurrentCommits() throws Exception {
+        FileSaveStore store = new FileSaveStore(this.directory);
+        String[] players = {"alfa", "bravo", "charlie"};
+        AtomicBoolean done = new AtomicBoolean();
+        Thread recovery = new Thread(() -> {
+            while (!done.get()) {
+                store.recover();
+            }
+        });
+        recovery.start();
+        try {
+            for (int round = 0; round < 200; round++) {
+                Map<String, Map<String, byte[]>> games = new LinkedHashMap<>();
+                for (String player : players) {
+                    games.put(player, game(player + "-" + round));
+                }
+                store.writeGames(games);
+                for (String player : players) {
+                    Map<String, byte[]> files = store.readGame(player);
+                    for (Map.Entry<String, byte[]> file : games.get(player).entrySet()) {
+                        assertArrayEquals(file.getValue(), files.get(file.getKey()), player + "/" + file.getKey());
+                    }
+                }
+            }
+        } finally {
+            done.set(true);
+            recovery.join();
+        }
+    }
+
+    private static Map<String, byte[]> game(String marker) {
+        Map<String, byte[]> files = new LinkedHashMap<>();
+        for (String fileName : FileSaveStore.LEGACY_GAME_FILES) {
+            files.put(fileName, (fileName + ":" + marker).getBytes(StandardCharsets.UTF_8));
+        }
+        return files;
+    }
+}
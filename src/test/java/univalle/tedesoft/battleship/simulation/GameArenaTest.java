@@ -0,0 +1,49 @@
+package univalle.tedesoft.battleship.simulation;
+
+import org.junit.jupiter.api.Test;
+import univalle.tedesoft.battleship.models.enums.GamePhase;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Pruebas de la arena de partidas en memoria.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class GameArenaTest {
+    @Test
+    void everyFilledGameEnds() {
+        GameArena arena = new GameArena(500);
+        arena.fill(7);
+        arena.runAllParallel(2 * 100);
+        for (int game = 0; game < arena.size(); game++) {
+            assertEquals(GamePhase.GAME_OVER, arena.getPhase(game));
+            assertEquals(0, arena.getShipsAfloat(game, 1 - arena.getWinner(game)));
+        }
+    }
+
+    @Test
+    void rejectsFleetsThatDoNotFit() {
+        int[] tooManyShips = new int[Byte.MAX_VALUE + 1];
+        Arrays.fill(tooManyShips, 1);
+        assertThrows(IllegalArgumentException.class, () -> new GameArena(1, tooManyShips));
+        assertThrows(IllegalArgumentException.class, () -> new GameArena(1, new int[0]));
+        assertThrows(IllegalArgumentException.class, () -> new GameArena(1, new int[]{10, 10, 10, 10, 10, 10, 10, 10, 10, 10, 1}));
+    }
+
+    @Test
+    void reportsFleetsThatCannotBePlaced() {
+        // Catorce barcos de siete celdas ocupan 98 celdas, pero en un tablero de 10x10 caben a lo sumo trece.
+        int[] crowded = new int[14];
+        Arrays.fill(crowded, 7);
+        GameArena arena = new GameArena(2, crowded);
+
+        assertThrows(IllegalStateException.class, () -> arena.addGame(1));
+        assertEquals(0, arena.size());
+    }
+}
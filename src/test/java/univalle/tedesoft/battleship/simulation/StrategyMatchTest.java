@@ -0,0 +1,147 @@
+package univalle.tedesoft.battleship.simulation;
+
+import org.junit.jupiter.api.Test;
+import univalle.tedesoft.battleship.models.ai.StrategyParameters;
+import univalle.tedesoft.battleship.models.enums.Difficulty;
+import univalle.tedesoft.battleship.models.ships.FleetConfiguration;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas de la comparación A/B de estrategias y de la prueba secuencial que la decide.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class StrategyMatchTest {
+    private static final double ALPHA = StrategyMatch.DEFAULT_ALPHA;
+    private static final double BETA = StrategyMatch.DEFAULT_BETA;
+
+    @Test
+    void sameSeedGivesTheSameResult() {
+        StrategyMatch match = new StrategyMatch(FleetConfiguration.standard(),
+                Difficulty.EASY, StrategyParameters.defaults(), Difficulty.NORMAL, StrategyParameters.defaults());
+        StrategyMatch.Result first = match.run(0.05, 0.05, 1.0, StrategyMatch.BATCH_PAIRS, 42);
+        StrategyMatch.Result second = match.run(0.05, 0.05, 1.0, StrategyMatch.BATCH_PAIRS, 42);
+
+        assertEquals(first.getPairs(), second.getPairs());
+        assertEquals(first.getMeanDifference(), second.getMeanDifference());
+        assertEquals(first.getWinsB(), second.getWinsB());
+        assertEquals(first.getDraws(), second.getDraws());
+        assertEquals(first.getVerdict(), second.getVerdict());
+    }
+
+    /**
+     * La búsqueda de NORMAL ahorra muchos disparos frente a los disparos al azar de EASY: la prueba
+     * lo detecta con pocos pares.
+     */
+    @Test
+    void normalIsBetterThanEasy() {
+        StrategyMatch match = new StrategyMatch(FleetConfiguration.standard(),
+                Difficulty.EASY, StrategyParameters.defaults(), Difficulty.NORMAL, StrategyParameters.defaults());
+        StrategyMatch.Result result = match.run(ALPHA, BETA, 1.0, 4 * StrategyMatch.BATCH_PAIRS, 7);
+
+        assertEquals(StrategyMatch.Result.Verdict.B_BETTER, result.getVerdict());
+        assertTrue(result.getMeanDifference() > 1.0);
+        assertTrue(result.getLogLikelihoodRatio() >= result.getUpperBound());
+        assertTrue(result.getWinsB() > result.getWinsA());
+    }
+
+    /**
+     * Una estrategia contra sí misma empata cada par (misma flota y misma semilla de desempate):
+     * nunca se declara mejor.
+     */
+    @Test
+    void strategyIsNotBetterThanItself() {
+        StrategyMatch match = new StrategyMatch(FleetConfiguration.standard(),
+                Difficulty.EASY, StrategyParameters.defaults(), Difficulty.EASY, StrategyParameters.defaults());
+        StrategyMatch.Result result = match.run(ALPHA, BETA, 1.0, 4 * StrategyMatch.BATCH_PAIRS, 7);
+
+        assertNotEquals(StrategyMatch.Result.Verdict.B_BETTER, result.getVerdict());
+        assertEquals(StrategyMatch.Result.Verdict.NOT_BETTER, result.getVerdict());
+        assertEquals(result.getPairs(), result.getDraws());
+        assertEquals(0.0, result.getMeanDifference());
+    }
+
+    /**
+     * Diferencias alternadas 3 y 1: media 2 y varianza 1, de modo que con 16 pares
+     * {@code LLR = 16 * 1 * (2 * 2 - 1) / (2 * 1) = 24} y el error estándar es {@code 1 / 4}.
+     */
+    @Test
+    void computesTheLikelihoodRatioAndTheConfidenceInterval() {
+        assertEquals(24.0, StrategyMatch.logLikelihoodRatio(16, 32, 16 * 5, 1.0), 1e-9);
+        // Con diferencia media igual a delta / 2 las dos hipótesis son igual de probables.
+        assertEquals(0.0, StrategyMatch.logLikelihoodRatio(10, 5, 10, 1.0), 1e-9);
+        // Media 0 y varianza 4: LLR = 8 * 2 * (0 - 2) / 8 = -4.
+        assertEquals(-4.0, StrategyMatch.logLikelihoodRatio(8, 0, 8 * 4, 2.0), 1e-9);
+
+        StrategyMatch.Result result = StrategyMatch.sequentialTest(ALPHA, BETA, 1.0, StrategyMatch.MIN_PAIRS,
+                i -> (i % 2 == 0) ? 3 : 1);
+        assertEquals(StrategyMatch.MIN_PAIRS, result.getPairs());
+        assertEquals(2.0, result.getMeanDifference(), 1e-9);
+        assertEquals(0.25, result.getStandardError(), 1e-9);
+        assertEquals(1.96 * 0.25, result.getConfidenceHalfWidth(), 1e-9);
+        assertEquals(2.0, result.getEffectSize(), 1e-9);
+        assertEquals(24.0, result.getLogLikelihoodRatio(), 1e-9);
+        assertEquals(StrategyMatch.MIN_PAIRS, result.getWinsB());
+        assertEquals(StrategyMatch.Result.Verdict.B_BETTER, result.getVerdict());
+    }
+
+    @Test
+    void boundsFollowAlphaAndBeta() {
+        StrategyMatch.Result result = StrategyMatch.sequentialTest(0.01, 0.1, 1.0, StrategyMatch.MIN_PAIRS, i -> 0);
+        assertEquals(Math.log(0.1 / 0.99), result.getLowerBound(), 1e-12);
+        assertEquals(Math.log(0.9 / 0.01), result.getUpperBound(), 1e-12);
+    }
+
+    @Test
+    void acceptsEitherHypothesisOnClearDifferences() {
+        StrategyMatch.Result better = StrategyMatch.sequentialTest(ALPHA, BETA, 1.0, 10_000, i -> (i % 2 == 0) ? 3 : 1);
+        assertEquals(StrategyMatch.Result.Verdict.B_BETTER, better.getVerdict());
+        assertEquals(StrategyMatch.BATCH_PAIRS, better.getPairs());
+
+        StrategyMatch.Result worse = StrategyMatch.sequentialTest(ALPHA, BETA, 1.0, 10_000, i -> (i % 2 == 0) ? 1 : -1);
+        assertEquals(StrategyMatch.Result.Verdict.NOT_BETTER, worse.getVerdict());
+        assertTrue(worse.getLogLikelihoodRatio() <= worse.getLowerBound());
+        assertEquals(worse.getWinsA(), worse.getWinsB());
+    }
+
+    /**
+     * Antes de {@link StrategyMatch#MIN_PAIRS} pares la prueba no se evalúa, aunque las diferencias
+     * sean claras.
+     */
+    @Test
+    void waitsForTheMinimumPairs() {
+        StrategyMatch.Result early = StrategyMatch.sequentialTest(ALPHA, BETA, 1.0, StrategyMatch.MIN_PAIRS - 1, i -> 5);
+        assertEquals(StrategyMatch.Result.Verdict.INCONCLUSIVE, early.getVerdict());
+        assertEquals(StrategyMatch.MIN_PAIRS - 1, early.getPairs());
+        assertEquals(0.0, early.getLogLikelihoodRatio());
+
+        StrategyMatch.Result enough = StrategyMatch.sequentialTest(ALPHA, BETA, 1.0, StrategyMatch.MIN_PAIRS, i -> 5);
+        assertEquals(StrategyMatch.Result.Verdict.B_BETTER, enough.getVerdict());
+    }
+
+    /**
+     * Con un delta diminuto y diferencias de media 0 la razón apenas se mueve: la prueba se detiene
+     * en el máximo de pares, aunque no sea múltiplo del lote, sin pedir pares de más.
+     */
+    @Test
+    void stopsAtTheMaximumPairs() {
+        int maxPairs = 3 * StrategyMatch.BATCH_PAIRS + 5;
+        AtomicInteger played = new AtomicInteger();
+        StrategyMatch.Result result = StrategyMatch.sequentialTest(ALPHA, BETA, 0.01, maxPairs, i -> {
+            played.incrementAndGet();
+            return (i % 2 == 0) ? 1 : -1;
+        });
+        assertEquals(StrategyMatch.Result.Verdict.INCONCLUSIVE, result.getVerdict());
+        assertEquals(maxPairs, result.getPairs());
+        assertEquals(maxPairs, played.get());
+        assertTrue(result.getLogLikelihoodRatio() > result.getLowerBound());
+        assertTrue(result.getLogLikelihoodRatio() < result.getUpperBound());
+    }
+}
@@ -0,0 +1,155 @@
+package univalle.tedesoft.battleship.simulation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import univalle.tedesoft.battleship.models.ai.StrategyParameters;
+import univalle.tedesoft.battleship.models.enums.Difficulty;
+import univalle.tedesoft.battleship.models.enums.StrategyParameter;
+import univalle.tedesoft.battleship.models.ships.FleetConfiguration;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pruebas del ajuste de parámetros: continuar desde el archivo de progreso da la misma búsqueda, los
+ * progresos incompletos se descartan y la escala logarítmica de los parámetros enteros.
+ *
+ * @author David Esteban Valencia
+ * @author Santiago David Guerrero
+ * @author Juan Pablo Escamilla
+ */
+class StrategyTunerTest {
+    private static final int POPULATION = 4;
+    private static final int GAMES = 6;
+    private static final long SEED = 17;
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Una generación, y luego otra continuando desde el progreso, llega a la misma media que dos
+     * generaciones seguidas con la misma semilla.
+     */
+    @Test
+    void resumingFromTheCheckpointGivesTheSameSearch() throws IOException {
+        Path resumedOutput = this.directory.resolve("continuado.parameters");
+        StrategyParameters first = tuner(resumedOutput, SEED).run(1);
+        Path checkpoint = checkpointOf(resumedOutput);
+        assertTrue(Files.isRegularFile(checkpoint));
+
+        // Volver a pedir una generación no repite la búsqueda: ya está hecha.
+        StrategyTuner again = tuner(resumedOutput, 999);
+        assertEquals(first, again.run(1));
+        assertEquals(1, again.getGeneration());
+
+        // La semilla del constructor se ignora: se usa la del progreso.
+        StrategyParameters resumed = tuner(resumedOutput, 999).run(2);
+        StrategyParameters straight = tuner(this.directory.resolve("seguido.parameters"), SEED).run(2);
+        assertEquals(straight, resumed);
+        // El archivo guarda los valores reales con cuatro decimales.
+        assertEquals(straight.toString(), StrategyParameters.load(resumedOutput).toString());
+    }
+
+    @Test
+    void checkpointRoundTrip() throws IOException {
+        Path output = this.directory.resolve("ida.parameters");
+        StrategyTuner original = tuner(output, SEED);
+        original.run(1);
+
+        StrategyTuner restored = tuner(this.directory.resolve("otro.parameters"), 5);
+        assertEquals(0, restored.getGeneration());
+        assertTrue(restored.readCheckpoint(checkpointOf(output)));
+        assertEquals(1, restored.getGeneration());
+        assertEquals(original.getMeanParameters(), restored.getMeanParameters());
+
+        Path copy = this.directory.resolve("copia.checkpoint");
+        restored.writeCheckpoint(copy);
+        assertEquals(Files.readAllLines(checkpointOf(output)), Files.readAllLines(copy));
+    }
+
+    /**
+     * Un progreso sin alguna entrada, con un valor que no es un número, fuera de rango o de otra
+     * dificultad se descarta sin cambiar el estado.
+     */
+    @Test
+    void incompleteCheckpointsAreIgnored() throws IOException {
+        Path output = this.directory.resolve("base.parameters");
+        tuner(output, SEED).run(1);
+        List<String> lines = Files.readAllLines(checkpointOf(output), StandardCharsets.UTF_8);
+        StrategyTuner tuner = tuner(this.directory.resolve("nuevo.parameters"), SEED);
+        StrategyParameters initial = tuner.getMeanParameters();
+
+        for (String removed : lines) {
+            Path partial = this.directory.resolve("parcial.checkpoint");
+            Files.write(partial, lines.stream().filter(line -> !line.equals(removed)).collect(Collectors.toList()));
+            if (removed.startsWith("difficulty")) {
+                continue;
+            }
+            assertFalse(tuner.readCheckpoint(partial), removed);
+            assertEquals(0, tuner.getGeneration());
+            assertEquals(initial, tuner.getMeanParameters());
+        }
+        assertFalse(tuner.readCheckpoint(withLine(lines, "seed", "seed: doce")));
+        assertFalse(tuner.readCheckpoint(withLine(lines, "mean." + StrategyParameter.PARITY_BIAS.getKey(),
+                "mean." + StrategyParameter.PARITY_BIAS.getKey() + ": 1.5")));
+        assertFalse(tuner.readCheckpoint(withLine(lines, "difficulty", "difficulty: HARD")));
+        assertEquals(0, tuner.getGeneration());
+
+        // Al correr, un progreso incompleto hace empezar de nuevo y da lo mismo que sin progreso.
+        Path restartedOutput = this.directory.resolve("reiniciado.parameters");
+        Files.write(checkpointOf(restartedOutput), lines.subList(0, 2));
+        assertEquals(tuner(this.directory.resolve("limpio.parameters"), SEED).run(1),
+                tuner(restartedOutput, SEED).run(1));
+    }
+
+    @Test
+    void integerParametersWithWideRangesUseALogScale() {
+        StrategyParameter samples = StrategyParameter.SAMPLE_ATTEMPTS;
+        assertEquals(0.0, StrategyTuner.normalize(samples, samples.getMinimum()), 1e-12);
+        assertEquals(1.0, StrategyTuner.normalize(samples, samples.getMaximum()), 1e-12);
+        // El punto medio de la escala es la media geométrica del rango: 2^12 * 2^20 = (2^16)^2.
+        assertEquals(0.5, StrategyTuner.normalize(samples, 1 << 16), 1e-12);
+        assertEquals(1 << 16, StrategyTuner.denormalize(samples, 0.5));
+        assertEquals(1.0, StrategyTuner.normalize(samples, 1e9), 1e-12);
+        for (int value = 1 << 12; value <= 1 << 20; value += 12_345) {
+            assertEquals(value, StrategyTuner.denormalize(samples, StrategyTuner.normalize(samples, value)));
+        }
+        StrategyParameter limit = StrategyParameter.ENDGAME_LAYOUT_LIMIT;
+        assertEquals(256, StrategyTuner.denormalize(limit, 0.5));
+
+        // Los enteros de rango corto y los reales son lineales.
+        StrategyParameter shift = StrategyParameter.HIT_WEIGHT_SHIFT;
+        assertEquals(4.0 / 11, StrategyTuner.normalize(shift, 5), 1e-12);
+        assertEquals(6, StrategyTuner.denormalize(shift, 5.0 / 11));
+        StrategyParameter bias = StrategyParameter.PARITY_BIAS;
+        assertEquals(0.25, StrategyTuner.normalize(bias, 0.25), 1e-12);
+        assertEquals(0.75, StrategyTuner.denormalize(bias, 0.75), 1e-12);
+        assertNotEquals(0.5, StrategyTuner.normalize(limit, (limit.getMinimum() + limit.getMaximum()) / 2), 1e-3);
+    }
+
+    private static StrategyTuner tuner(Path output, long seed) {
+        return new StrategyTuner(FleetConfiguration.standard(), Difficulty.NORMAL, StrategyParameters.defaults(),
+                POPULATION, GAMES, output, seed);
+    }
+
+    private static Path checkpointOf(Path output) {
+        return Paths.get(output + StrategyTuner.CHECKPOINT_SUFFIX);
+    }
+
+    private Path withLine(List<String> lines, String key, String replacement) throws IOException {
+        Path file = this.directory.resolve("cambiado.checkpoint");
+        Files.write(file, lines.stream().map(line -> line.startsWith(key + ":") ? replacement : line)
+                .collect(Collectors.toList()));
+        return file;
+    }
+}